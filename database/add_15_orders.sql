@@ -84,3 +84,14 @@ INSERT INTO order_items (order_id, item_name, quantity, price) VALUES
 (20, 'Cheese Burger', 1, 16.00),
 (20, 'Soft Drinks', 2, 6.00);
 
+-- Link the new items to the menu (only off-menu items keep their name)
+UPDATE order_items oi
+JOIN menu_items m ON m.name = oi.item_name
+SET oi.menu_item_id = m.menu_item_id, oi.item_name = NULL
+WHERE oi.item_id > 0  -- key condition keeps MySQL Workbench's safe update mode happy
+  AND oi.menu_item_id IS NULL;
+
+-- Keep the order ID sequence ahead of the new orders
+UPDATE sequences
+SET next_value = GREATEST(next_value, (SELECT COALESCE(MAX(order_id), 0) + 1 FROM orders))
+WHERE name = 'orders';
@@ -0,0 +1,13 @@
+-- =====================================================
+-- Migration: branch key
+-- For databases created with an older schema.sql.
+-- Adds the branch_id column used to shard orders by
+-- restaurant location. Existing orders belong to
+-- branch 1.
+-- =====================================================
+USE restaurant_db;
+
+ALTER TABLE orders
+    ADD COLUMN branch_id INT NOT NULL DEFAULT 1 COMMENT 'Restaurant location; selects the shard'
+        AFTER order_id,
+    ADD INDEX idx_branch_created (branch_id, created_at);
@@ -0,0 +1,22 @@
+-- =====================================================
+-- Migration: indexes for the DAO access paths
+-- For databases created with an older schema.sql.
+-- Replaces the single-column indexes on orders with a
+-- (status, created_at) index for the queue queries and a
+-- covering created_at index for history and reports.
+-- idx_priority is dropped: no query filters or sorts on
+-- priority in SQL. Needs migrate_order_archive.sql first.
+-- Check the plans afterwards with the explain-check command.
+-- =====================================================
+USE restaurant_db;
+
+ALTER TABLE orders
+    DROP INDEX idx_status,
+    DROP INDEX idx_priority,
+    DROP INDEX idx_created_at,
+    ADD INDEX idx_status_created (status, created_at),
+    ADD INDEX idx_created_report (created_at, branch_id, status, total_amount, actual_time);
+
+ALTER TABLE orders_archive
+    DROP INDEX idx_created_at,
+    ADD INDEX idx_created_report (created_at, branch_id, status, total_amount, actual_time);
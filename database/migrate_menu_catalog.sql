@@ -0,0 +1,35 @@
+-- =====================================================
+-- Migration: menu catalog
+-- For databases created with an older schema.sql.
+-- Creates menu_items from the item names already used in
+-- order_items and makes order_items reference it.
+-- Review the generated stations and prep times afterwards.
+-- =====================================================
+USE restaurant_db;
+
+CREATE TABLE IF NOT EXISTS menu_items (
+    menu_item_id INT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(200) NOT NULL UNIQUE,
+    price DECIMAL(10, 2) NOT NULL,
+    station ENUM('GRILL', 'FRYER', 'SAUTE', 'OVEN', 'COLD', 'PASTRY', 'BAR') NOT NULL,
+    prep_time INT NOT NULL COMMENT 'Preparation time in minutes'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- One menu item per distinct name (highest recorded price, default station and prep time)
+INSERT IGNORE INTO menu_items (name, price, station, prep_time)
+SELECT oi.item_name, MAX(oi.price), 'SAUTE', 10
+FROM order_items oi
+WHERE oi.item_name IS NOT NULL
+GROUP BY oi.item_name;
+
+ALTER TABLE order_items
+    ADD COLUMN menu_item_id INT AFTER order_id,
+    MODIFY item_name VARCHAR(200) COMMENT 'Only for items not on the menu',
+    MODIFY price DECIMAL(10, 2) NOT NULL COMMENT 'Unit price at the time of the order',
+    ADD FOREIGN KEY (menu_item_id) REFERENCES menu_items(menu_item_id);
+
+UPDATE order_items oi
+JOIN menu_items m ON m.name = oi.item_name
+SET oi.menu_item_id = m.menu_item_id, oi.item_name = NULL
+WHERE oi.item_id > 0  -- key condition keeps MySQL Workbench's safe update mode happy
+  AND oi.menu_item_id IS NULL;
@@ -0,0 +1,40 @@
+-- =====================================================
+-- Migration: order archive
+-- For databases created with an older schema.sql.
+-- Creates the archive tables that served and cancelled
+-- orders are moved to (see OrderArchiver). Needs the
+-- version column (migrate_order_version.sql) first.
+-- =====================================================
+USE restaurant_db;
+
+CREATE TABLE IF NOT EXISTS orders_archive (
+    order_id INT PRIMARY KEY,
+    branch_id INT NOT NULL DEFAULT 1,
+    table_id INT NOT NULL,
+    staff_id INT,
+    order_number VARCHAR(20) NOT NULL,
+    status ENUM('PENDING', 'PREPARING', 'READY', 'SERVED', 'CANCELLED') NOT NULL,
+    priority INT DEFAULT 5,
+    estimated_time INT NOT NULL,
+    actual_time INT,
+    total_amount DECIMAL(10, 2) DEFAULT 0.00,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    version INT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_created_at (created_at),
+    INDEX idx_branch_created (branch_id, created_at),
+    INDEX idx_order_number (order_number)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS order_items_archive (
+    item_id INT PRIMARY KEY,
+    order_id INT NOT NULL,
+    menu_item_id INT,
+    item_name VARCHAR(200),
+    quantity INT NOT NULL DEFAULT 1,
+    price DECIMAL(10, 2) NOT NULL,
+    notes TEXT,
+    created_at TIMESTAMP NULL,
+    INDEX idx_order_id (order_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -0,0 +1,15 @@
+-- =====================================================
+-- Migration: order ID sequence
+-- For databases created with an older schema.sql.
+-- Creates the sequences table and starts the 'orders'
+-- sequence after the highest existing order ID.
+-- =====================================================
+USE restaurant_db;
+
+CREATE TABLE IF NOT EXISTS sequences (
+    name VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT IGNORE INTO sequences (name, next_value)
+SELECT 'orders', COALESCE(MAX(order_id), 0) + 1 FROM orders;
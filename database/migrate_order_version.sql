@@ -0,0 +1,11 @@
+-- =====================================================
+-- Migration: order version
+-- For databases created with an older schema.sql.
+-- Adds the version column used for compare-and-set
+-- status changes. Existing orders start at version 0.
+-- =====================================================
+USE restaurant_db;
+
+ALTER TABLE orders
+    ADD COLUMN version INT NOT NULL DEFAULT 0 COMMENT 'Incremented by every status change (optimistic locking)'
+        AFTER updated_at;
@@ -0,0 +1,21 @@
+-- =====================================================
+-- Migration: floor zones
+-- For databases created with an older schema.sql.
+-- Adds the zone columns used by the staff assigner to
+-- prefer waiters that work in a table's zone.
+-- =====================================================
+USE restaurant_db;
+
+ALTER TABLE tables
+    ADD COLUMN zone VARCHAR(20) COMMENT 'Floor zone; waiters of the same zone are preferred'
+        AFTER combine_group;
+
+ALTER TABLE staff
+    ADD COLUMN zone VARCHAR(20) COMMENT 'Floor zone the staff member works in; NULL = anywhere'
+        AFTER status;
+
+-- Sample layout
+UPDATE tables SET zone = 'MAIN' WHERE table_number IN (1, 2, 4) AND table_id > 0;
+UPDATE tables SET zone = 'TERRACE' WHERE table_number IN (3, 5) AND table_id > 0;
+UPDATE staff SET zone = 'MAIN' WHERE name IN ('John Smith', 'Emily Brown') AND staff_id > 0;
+UPDATE staff SET zone = 'TERRACE' WHERE name = 'Sarah Johnson' AND staff_id > 0;
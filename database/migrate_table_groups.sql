@@ -0,0 +1,16 @@
+-- =====================================================
+-- Migration: combinable tables
+-- For databases created with an older schema.sql.
+-- Adds the combine_group column used by the seating
+-- engine; tables sharing a group (> 0) can be pushed
+-- together for larger parties.
+-- =====================================================
+USE restaurant_db;
+
+ALTER TABLE tables
+    ADD COLUMN combine_group INT NOT NULL DEFAULT 0
+        COMMENT 'Tables in the same group (> 0) can be pushed together'
+        AFTER status;
+
+-- Sample layout: the small tables 1, 2 and 4 stand next to each other
+UPDATE tables SET combine_group = 1 WHERE table_number IN (1, 2, 4) AND table_id > 0;
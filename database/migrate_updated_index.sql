@@ -0,0 +1,11 @@
+-- =====================================================
+-- Migration: updated_at index
+-- For databases created with an older schema.sql.
+-- Lets the service catch up from a schedule checkpoint
+-- by reading only the orders changed since it was
+-- written (serve --checkpoint).
+-- =====================================================
+USE restaurant_db;
+
+ALTER TABLE orders
+    ADD INDEX idx_updated_at (updated_at);
@@ -16,6 +16,8 @@ CREATE TABLE IF NOT EXISTS tables (
     table_number INT NOT NULL UNIQUE,
     capacity INT NOT NULL,
     status ENUM('AVAILABLE', 'OCCUPIED', 'RESERVED') DEFAULT 'AVAILABLE',
+    combine_group INT NOT NULL DEFAULT 0 COMMENT 'Tables in the same group (> 0) can be pushed together',
+    zone VARCHAR(20) COMMENT 'Floor zone; waiters of the same zone are preferred',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     INDEX idx_status (status)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -29,6 +31,7 @@ CREATE TABLE IF NOT EXISTS staff (
     name VARCHAR(100) NOT NULL,
     role ENUM('WAITER', 'CHEF', 'MANAGER') DEFAULT 'WAITER',
     status ENUM('AVAILABLE', 'BUSY', 'OFF_DUTY') DEFAULT 'AVAILABLE',
+    zone VARCHAR(20) COMMENT 'Floor zone the staff member works in; NULL = anywhere',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     INDEX idx_status (status)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -39,6 +42,7 @@ CREATE TABLE IF NOT EXISTS staff (
 -- =====================================================
 CREATE TABLE IF NOT EXISTS orders (
     order_id INT PRIMARY KEY AUTO_INCREMENT,
+    branch_id INT NOT NULL DEFAULT 1 COMMENT 'Restaurant location; selects the shard',
     table_id INT NOT NULL,
     staff_id INT,
     order_number VARCHAR(20) NOT NULL UNIQUE,
@@ -49,48 +53,177 @@ CREATE TABLE IF NOT EXISTS orders (
     total_amount DECIMAL(10, 2) DEFAULT 0.00,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    version INT NOT NULL DEFAULT 0 COMMENT 'Incremented by every status change (optimistic locking)',
     FOREIGN KEY (table_id) REFERENCES tables(table_id) ON DELETE CASCADE,
     FOREIGN KEY (staff_id) REFERENCES staff(staff_id) ON DELETE SET NULL,
-    INDEX idx_status (status),
-    INDEX idx_priority (priority),
-    INDEX idx_created_at (created_at)
+    -- Queue queries and the archiver: WHERE status = ? ORDER BY created_at
+    INDEX idx_status_created (status, created_at),
+    -- History and reports: range on created_at; covers the branch totals
+    INDEX idx_created_report (created_at, branch_id, status, total_amount, actual_time),
+    INDEX idx_branch_created (branch_id, created_at),
+    -- Catching up from a schedule checkpoint: WHERE updated_at >= ?
+    INDEX idx_updated_at (updated_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =====================================================
+-- Menu Items Table
+-- Menu catalog; loaded once by the application
+-- =====================================================
+CREATE TABLE IF NOT EXISTS menu_items (
+    menu_item_id INT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(200) NOT NULL UNIQUE,
+    price DECIMAL(10, 2) NOT NULL,
+    station ENUM('GRILL', 'FRYER', 'SAUTE', 'OVEN', 'COLD', 'PASTRY', 'BAR') NOT NULL,
+    prep_time INT NOT NULL COMMENT 'Preparation time in minutes'
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- =====================================================
 -- Order Items Table
 -- Stores individual items in each order
+-- Menu items are referenced by menu_item_id; item_name is only
+-- set for items that are not on the menu
 -- =====================================================
 CREATE TABLE IF NOT EXISTS order_items (
     item_id INT PRIMARY KEY AUTO_INCREMENT,
     order_id INT NOT NULL,
-    item_name VARCHAR(200) NOT NULL,
+    menu_item_id INT,
+    item_name VARCHAR(200) COMMENT 'Only for items not on the menu',
     quantity INT NOT NULL DEFAULT 1,
-    price DECIMAL(10, 2) NOT NULL,
+    price DECIMAL(10, 2) NOT NULL COMMENT 'Unit price at the time of the order',
     notes TEXT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (order_id) REFERENCES orders(order_id) ON DELETE CASCADE,
+    FOREIGN KEY (menu_item_id) REFERENCES menu_items(menu_item_id),
+    INDEX idx_order_id (order_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- =====================================================
+-- Archive Tables
+-- Served and cancelled orders are moved here in the
+-- background (see OrderArchiver), so the orders table and
+-- its indexes only hold recent orders. Same columns as
+-- orders and order_items; no foreign keys, so menu items
+-- and tables can change without touching history.
+-- =====================================================
+CREATE TABLE IF NOT EXISTS orders_archive (
+    order_id INT PRIMARY KEY,
+    branch_id INT NOT NULL DEFAULT 1,
+    table_id INT NOT NULL,
+    staff_id INT,
+    order_number VARCHAR(20) NOT NULL,
+    status ENUM('PENDING', 'PREPARING', 'READY', 'SERVED', 'CANCELLED') NOT NULL,
+    priority INT DEFAULT 5,
+    estimated_time INT NOT NULL,
+    actual_time INT,
+    total_amount DECIMAL(10, 2) DEFAULT 0.00,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    version INT NOT NULL DEFAULT 0,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_created_report (created_at, branch_id, status, total_amount, actual_time),
+    INDEX idx_branch_created (branch_id, created_at),
+    INDEX idx_order_number (order_number)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+CREATE TABLE IF NOT EXISTS order_items_archive (
+    item_id INT PRIMARY KEY,
+    order_id INT NOT NULL,
+    menu_item_id INT,
+    item_name VARCHAR(200),
+    quantity INT NOT NULL DEFAULT 1,
+    price DECIMAL(10, 2) NOT NULL,
+    notes TEXT,
+    created_at TIMESTAMP NULL,
     INDEX idx_order_id (order_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- =====================================================
+-- Sequences Table
+-- Next free value of each ID sequence; the application
+-- reserves blocks of IDs from it (hi/lo). Orders created
+-- through the HTTP service take their ID from the 'orders'
+-- sequence, so insert other orders before seeding it or
+-- advance it afterwards (see add_15_orders.sql).
+-- =====================================================
+CREATE TABLE IF NOT EXISTS sequences (
+    name VARCHAR(50) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- =====================================================
 -- Sample Data
 -- =====================================================
 
 -- Insert sample tables
-INSERT INTO tables (table_number, capacity, status) VALUES
-(1, 4, 'AVAILABLE'),
-(2, 2, 'OCCUPIED'),
-(3, 6, 'AVAILABLE'),
-(4, 4, 'OCCUPIED'),
-(5, 8, 'AVAILABLE');
+INSERT INTO tables (table_number, capacity, status, combine_group, zone) VALUES
+(1, 4, 'AVAILABLE', 1, 'MAIN'),
+(2, 2, 'OCCUPIED', 1, 'MAIN'),
+(3, 6, 'AVAILABLE', 0, 'TERRACE'),
+(4, 4, 'OCCUPIED', 1, 'MAIN'),
+(5, 8, 'AVAILABLE', 0, 'TERRACE');
 
 -- Insert sample staff
-INSERT INTO staff (name, role, status) VALUES
-('John Smith', 'WAITER', 'AVAILABLE'),
-('Sarah Johnson', 'WAITER', 'AVAILABLE'),
-('Mike Davis', 'CHEF', 'AVAILABLE'),
-('Emily Brown', 'WAITER', 'BUSY'),
-('David Wilson', 'MANAGER', 'AVAILABLE');
+INSERT INTO staff (name, role, status, zone) VALUES
+('John Smith', 'WAITER', 'AVAILABLE', 'MAIN'),
+('Sarah Johnson', 'WAITER', 'AVAILABLE', 'TERRACE'),
+('Mike Davis', 'CHEF', 'AVAILABLE', NULL),
+('Emily Brown', 'WAITER', 'BUSY', 'MAIN'),
+('David Wilson', 'MANAGER', 'AVAILABLE', NULL);
+
+-- Insert sample menu
+INSERT INTO menu_items (name, price, station, prep_time) VALUES
+('Caesar Salad', 12.50, 'COLD', 6),
+('Grilled Chicken', 20.50, 'GRILL', 15),
+('Pasta Carbonara', 24.00, 'SAUTE', 14),
+('Garlic Bread', 6.00, 'OVEN', 6),
+('Tiramisu', 8.00, 'PASTRY', 3),
+('Soup of the Day', 8.25, 'SAUTE', 4),
+('Burger', 15.00, 'GRILL', 10),
+('Fries', 9.00, 'FRYER', 6),
+('Steak', 35.00, 'GRILL', 20),
+('Wine', 25.75, 'BAR', 1),
+('Pizza Margherita', 18.00, 'OVEN', 12),
+('Pizza Pepperoni', 20.00, 'OVEN', 12),
+('Soft Drinks', 6.00, 'BAR', 1),
+('Chicken Wings', 14.50, 'FRYER', 8),
+('Cola', 3.50, 'BAR', 1),
+('Fish & Chips', 22.00, 'FRYER', 12),
+('Beer', 6.00, 'BAR', 1),
+('Apple Pie', 8.25, 'PASTRY', 4),
+('Salmon Fillet', 28.00, 'GRILL', 12),
+('Rice', 5.00, 'SAUTE', 3),
+('Green Salad', 7.00, 'COLD', 4),
+('Ribeye Steak', 42.00, 'GRILL', 25),
+('Mashed Potatoes', 8.00, 'SAUTE', 5),
+('Red Wine', 30.75, 'BAR', 1),
+('Chicken Sandwich', 12.50, 'GRILL', 9),
+('French Fries', 6.00, 'FRYER', 6),
+('Milkshake', 8.00, 'BAR', 3),
+('Spaghetti Bolognese', 26.00, 'SAUTE', 14),
+('BBQ Ribs', 32.00, 'GRILL', 19),
+('Corn on the Cob', 8.00, 'GRILL', 8),
+('Iced Tea', 6.00, 'BAR', 1),
+('Club Sandwich', 15.00, 'COLD', 7),
+('Onion Rings', 7.00, 'FRYER', 6),
+('Lemonade', 5.00, 'BAR', 1),
+('Lobster Tail', 45.00, 'GRILL', 21),
+('Butter', 3.00, 'COLD', 1),
+('White Wine', 22.00, 'BAR', 1),
+('Chicken Curry', 24.00, 'SAUTE', 14),
+('Naan Bread', 6.00, 'OVEN', 5),
+('Mango Lassi', 5.00, 'BAR', 2),
+('Beef Tenderloin', 48.00, 'GRILL', 26),
+('Roasted Vegetables', 10.00, 'OVEN', 15),
+('Champagne', 35.00, 'BAR', 1),
+('Tacos', 18.00, 'GRILL', 11),
+('Guacamole', 8.00, 'COLD', 4),
+('Salsa', 4.00, 'COLD', 2),
+('Pasta Alfredo', 28.00, 'SAUTE', 14),
+('Breadsticks', 6.00, 'OVEN', 6),
+('Grilled Salmon', 32.00, 'GRILL', 18),
+('Asparagus', 9.00, 'SAUTE', 6),
+('Hamburger', 14.00, 'GRILL', 10),
+('Cheese Burger', 16.00, 'GRILL', 13);
 
 -- Insert sample orders (20 orders total)
 INSERT INTO orders (table_id, staff_id, order_number, status, priority, estimated_time, total_amount) VALUES
@@ -195,3 +328,13 @@ INSERT INTO order_items (order_id, item_name, quantity, price) VALUES
 (20, 'Cheese Burger', 1, 16.00),
 (20, 'Soft Drinks', 2, 6.00);
 
+-- Link the sample items to the menu (only off-menu items keep their name)
+UPDATE order_items oi
+JOIN menu_items m ON m.name = oi.item_name
+SET oi.menu_item_id = m.menu_item_id, oi.item_name = NULL
+WHERE oi.item_id > 0  -- key condition keeps MySQL Workbench's safe update mode happy
+  AND oi.menu_item_id IS NULL;
+
+-- Start the order ID sequence after the sample orders
+INSERT IGNORE INTO sequences (name, next_value)
+SELECT 'orders', COALESCE(MAX(order_id), 0) + 1 FROM orders;
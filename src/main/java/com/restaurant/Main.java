@@ -1,5 +1,6 @@
 package com.restaurant;
 
+import com.restaurant.cli.HeadlessLauncher;
 import com.restaurant.ui.RestaurantController;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -10,7 +11,8 @@ import javafx.stage.Stage;
 /**
  * Main application class for Restaurant Order & Queue Optimization System
  * 
- * This is the entry point of the JavaFX application.
+ * This is the entry point of the JavaFX application. When started with a
+ * headless command (see {@link HeadlessLauncher}) no window is opened.
  */
 public class Main extends Application {
 
@@ -38,6 +40,9 @@ public class Main extends Application {
      * @param args Command line arguments
      */
     public static void main(String[] args) {
+        if (args.length > 0 && HeadlessLauncher.isHeadlessCommand(args[0])) {
+            System.exit(HeadlessLauncher.run(args));
+        }
         launch(args);
     }
 }
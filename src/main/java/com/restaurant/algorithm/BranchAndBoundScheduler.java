@@ -0,0 +1,606 @@
+package com.restaurant.algorithm;
+
+import com.restaurant.model.Order;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Exact scheduler for a single kitchen line, by parallel anytime branch-and-bound
+ *
+ * Finds the sequence that minimizes the total weighted completion time
+ * (1|r_j|&Sigma;w_jC_j) or the total weighted tardiness (1|r_j|&Sigma;w_jT_j)
+ * of orders that become available at their creation time. The weight of an
+ * order is 11 - priority, so priority 1 weighs 10 and priority 10 weighs 1;
+ * an order is due {@code dueMinutes} after it was created. Times are whole
+ * minutes, as estimated_time is.
+ *
+ * The search is a depth-first branch-and-bound over sequences that starts
+ * from the best of three dispatching rules. Nodes are pruned by:
+ * <ul>
+ *   <li>a lower bound on the cost of the remaining orders;</li>
+ *   <li>active schedules: an order is not started next if another order
+ *       could be finished before it can even start;</li>
+ *   <li>adjacent swaps: two orders that were both available are never kept
+ *       in the order that costs more;</li>
+ *   <li>a memo of (scheduled set, last order, time): a state reached again
+ *       at no lower cost has nothing new to offer.</li>
+ * </ul>
+ * The subtrees of the first two positions are searched in parallel, most
+ * promising first, and share the incumbent. The search is anytime: when the
+ * time budget runs out it returns the best sequence found with a lower bound
+ * (the smallest bound of every subtree not searched to the end), so the
+ * optimality gap is known. Up to {@link #MAX_ORDERS} orders are searched;
+ * larger inputs get the best dispatching rule and the root bound.
+ *
+ * As a {@link SchedulingAlgorithm} all orders are taken as available, which
+ * is the situation of a pending queue. Not registered with the service
+ * loader: the exact search is meant for measuring the heuristics, not for
+ * every screen refresh.
+ */
+public class BranchAndBoundScheduler implements SchedulingAlgorithm {
+    /** Largest input that is searched */
+    public static final int MAX_ORDERS = 64;
+    /** Default time budget of a search */
+    public static final long DEFAULT_BUDGET_MILLIS = 1_000;
+    /** Default minutes from creation until an order is due (tardiness objective) */
+    public static final int DEFAULT_DUE_MINUTES = 30;
+
+    /** Memo entries kept per search; beyond it the memo stops growing */
+    private static final int MEMO_LIMIT = 1 << 20;
+    /** Nodes between checks of the clock */
+    private static final int CLOCK_INTERVAL = 256;
+
+    /**
+     * Cost function to minimize
+     */
+    public enum Objective {
+        /** Sum of weight times completion minute */
+        WEIGHTED_COMPLETION,
+        /** Sum of weight times minutes finished after the due time */
+        WEIGHTED_TARDINESS
+    }
+
+    /**
+     * Outcome of a search
+     */
+    public static final class Result {
+        private final List<Order> sequence;
+        private final long cost;
+        private final long lowerBound;
+        private final long nodes;
+        private final long elapsedNanos;
+
+        Result(List<Order> sequence, long cost, long lowerBound, long nodes, long elapsedNanos) {
+            this.sequence = sequence;
+            this.cost = cost;
+            this.lowerBound = Math.min(cost, lowerBound);
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Gets the best sequence found
+         *
+         * @return Orders in processing order
+         */
+        public List<Order> getSequence() {
+            return sequence;
+        }
+
+        public long getCost() {
+            return cost;
+        }
+
+        /**
+         * Gets a cost no sequence can beat
+         *
+         * @return Lower bound; equals the cost if the sequence is optimal
+         */
+        public long getLowerBound() {
+            return lowerBound;
+        }
+
+        /**
+         * Gets how much the sequence may still be above the optimum
+         *
+         * @return (cost - lower bound) / cost; 0 if proven optimal
+         */
+        public double getGap() {
+            return cost == 0 ? 0 : (cost - lowerBound) / (double) cost;
+        }
+
+        public boolean isOptimal() {
+            return lowerBound == cost;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+
+    private final Objective objective;
+    private final int dueMinutes;
+    private final long budgetMillis;
+    private final int threads;
+
+    /**
+     * Creates a weighted completion time scheduler with the default budget on all cores
+     */
+    public BranchAndBoundScheduler() {
+        this(Objective.WEIGHTED_COMPLETION, DEFAULT_DUE_MINUTES, DEFAULT_BUDGET_MILLIS,
+            Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a scheduler
+     *
+     * @param objective Cost function to minimize
+     * @param dueMinutes Minutes from creation until an order is due (tardiness only)
+     * @param budgetMillis Time after which the best sequence so far is returned
+     * @param threads Number of threads searching in parallel
+     */
+    public BranchAndBoundScheduler(Objective objective, int dueMinutes, long budgetMillis, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one thread is required");
+        }
+        if (budgetMillis < 0 || dueMinutes < 0) {
+            throw new IllegalArgumentException("budget and due minutes must not be negative");
+        }
+        this.objective = Objects.requireNonNull(objective);
+        this.dueMinutes = dueMinutes;
+        this.budgetMillis = budgetMillis;
+        this.threads = threads;
+    }
+
+    @Override
+    public List<Order> schedule(List<Order> orders) {
+        return solve(orders, null).getSequence();
+    }
+
+    /**
+     * Searches with orders available from their creation time, starting at the time of the context
+     */
+    @Override
+    public Schedule schedule(List<Order> orders, SchedulingContext context) {
+        return toSchedule(solve(orders, context.getNow()).getSequence(), context);
+    }
+
+    /**
+     * Searches the best sequence of orders that become available at their creation time
+     *
+     * @param orders Orders to sequence
+     * @param start Time the kitchen can start; orders created earlier are available at once.
+     *              null makes every order available at once
+     * @return Best sequence found within the budget, with its lower bound
+     */
+    public Result solve(List<Order> orders, LocalDateTime start) {
+        long begin = System.nanoTime();
+        Search search = new Search(orders, start, begin + budgetMillis * 1_000_000L);
+        search.run();
+        List<Order> sequence = new ArrayList<>(orders.size());
+        for (int j : search.bestSequence) {
+            sequence.add(orders.get(j));
+        }
+        return new Result(sequence, search.bestCost.get(), search.lowerBound(), search.nodes.sum(),
+            System.nanoTime() - begin);
+    }
+
+    /**
+     * Computes the cost of a given sequence, with every order started as early as possible
+     *
+     * @param sequence Orders in processing order
+     * @param start Time the kitchen can start, or null if every order is available at once
+     * @return Cost under this scheduler's objective
+     */
+    public long cost(List<Order> sequence, LocalDateTime start) {
+        long cost = 0;
+        long time = 0;
+        for (Order order : sequence) {
+            int release = release(order, start);
+            time = Math.max(time, release) + processing(order);
+            cost += jobCost(weight(order), time, release + dueMinutes);
+        }
+        return cost;
+    }
+
+    /**
+     * Gets the weight of an order in the objective
+     *
+     * @param order Order
+     * @return 11 - priority, between 1 and 10
+     */
+    public static int weight(Order order) {
+        return 11 - Math.min(10, Math.max(1, order.getPriority()));
+    }
+
+    public Objective getObjective() {
+        return objective;
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "Branch and Bound (optimal)";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Searches all processing orders with branch-and-bound and returns the one with the lowest " +
+               "total priority-weighted " + (objective == Objective.WEIGHTED_COMPLETION ? "completion time" : "lateness") +
+               ", or the best one found and its distance from optimal when the time budget runs out.";
+    }
+
+    private static int release(Order order, LocalDateTime start) {
+        if (start == null || order.getCreatedAt() == null) {
+            return 0;
+        }
+        return (int) Math.max(0, Duration.between(start, order.getCreatedAt()).toMinutes());
+    }
+
+    private static int processing(Order order) {
+        return Math.max(0, order.getEstimatedTime());
+    }
+
+    private long jobCost(int weight, long completion, long due) {
+        if (objective == Objective.WEIGHTED_COMPLETION) {
+            return weight * completion;
+        }
+        return weight * Math.max(0, completion - due);
+    }
+
+    /**
+     * State of the memo: orders done, the last of them and the time it finished
+     */
+    private static final class State {
+        final long done;
+        final int last;
+        final int time;
+
+        State(long done, int last, int time) {
+            this.done = done;
+            this.last = last;
+            this.time = time;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof State)) {
+                return false;
+            }
+            State state = (State) other;
+            return done == state.done && last == state.last && time == state.time;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(done * 31 + last) * 31 + time;
+        }
+    }
+
+    /**
+     * One search; shared by its worker threads
+     */
+    private final class Search {
+        final int n;
+        final int[] p;
+        final int[] r;
+        final int[] w;
+        final int[] d;
+        /** Orders by weight / processing time, highest first (Smith's rule) */
+        final int[] ratioOrder;
+        final long deadline;
+
+        final AtomicLong bestCost = new AtomicLong(Long.MAX_VALUE);
+        int[] bestSequence;
+        final AtomicLong abandonedBound = new AtomicLong(Long.MAX_VALUE);
+        final LongAdder nodes = new LongAdder();
+        final ConcurrentHashMap<State, Long> memo = new ConcurrentHashMap<>();
+        final AtomicInteger memoSize = new AtomicInteger();
+        volatile boolean timedOut;
+
+        Search(List<Order> orders, LocalDateTime start, long deadline) {
+            n = orders.size();
+            p = new int[n];
+            r = new int[n];
+            w = new int[n];
+            d = new int[n];
+            for (int j = 0; j < n; j++) {
+                Order order = orders.get(j);
+                p[j] = processing(order);
+                r[j] = release(order, start);
+                w[j] = weight(order);
+                d[j] = r[j] + dueMinutes;
+            }
+            Integer[] byRatio = new Integer[n];
+            for (int j = 0; j < n; j++) {
+                byRatio[j] = j;
+            }
+            // w_a / p_a > w_b / p_b without division, so zero processing times sort first
+            Arrays.sort(byRatio, (a, b) -> Long.compare((long) w[b] * p[a], (long) w[a] * p[b]));
+            ratioOrder = new int[n];
+            for (int j = 0; j < n; j++) {
+                ratioOrder[j] = byRatio[j];
+            }
+            this.deadline = deadline;
+        }
+
+        void run() {
+            dispatch(Comparator.comparingInt(j -> 0));
+            dispatch(Comparator.comparingInt(j -> r[j]));
+            dispatch(Comparator.comparingInt(j -> d[j]));
+            if (n == 0) {
+                return;
+            }
+            if (n > MAX_ORDERS) {
+                abandonedBound.set(bound(0, 0));
+                return;
+            }
+
+            // Subtrees of the first two positions, searched best bound first
+            List<long[]> roots = new ArrayList<>();
+            for (int first : candidates(0, 0L)) {
+                int firstEnd = Math.max(0, r[first]) + p[first];
+                long firstCost = jobCost(w[first], firstEnd, d[first]);
+                long firstDone = 1L << first;
+                if (n == 1) {
+                    roots.add(new long[] {firstCost, first, -1});
+                    continue;
+                }
+                for (int second : candidates(firstEnd, firstDone)) {
+                    if (swapDominated(first, firstEnd - p[first], second)) {
+                        continue;
+                    }
+                    int end = Math.max(firstEnd, r[second]) + p[second];
+                    long cost = firstCost + jobCost(w[second], end, d[second]);
+                    roots.add(new long[] {cost + bound(end, firstDone | 1L << second), first, second});
+                }
+            }
+            roots.sort(Comparator.comparingLong(root -> root[0]));
+
+            if (threads == 1 || roots.size() <= 1) {
+                for (long[] root : roots) {
+                    new Worker().searchRoot(root);
+                }
+                return;
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, roots.size()), runnable -> {
+                Thread thread = new Thread(runnable, "branch-and-bound");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<?>> futures = new ArrayList<>(roots.size());
+                for (long[] root : roots) {
+                    futures.add(pool.submit(() -> new Worker().searchRoot(root)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                timedOut = true;
+                abandonedBound.set(bound(0, 0));
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Branch-and-bound search failed", e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        /**
+         * Searches subtrees one after another on one thread
+         */
+        final class Worker {
+            final int[] sequence = new int[n];
+            long visited;
+
+            void searchRoot(long[] root) {
+                int first = (int) root[1];
+                int second = (int) root[2];
+                int firstEnd = Math.max(0, r[first]) + p[first];
+                long cost = jobCost(w[first], firstEnd, d[first]);
+                sequence[0] = first;
+                if (second < 0) {
+                    improve(cost, sequence);
+                    return;
+                }
+                if (timedOut || root[0] >= bestCost.get()) {
+                    abandon(root[0]);
+                    return;
+                }
+                int start = Math.max(firstEnd, r[second]);
+                int end = start + p[second];
+                sequence[1] = second;
+                dfs(end, 1L << first | 1L << second, second, start, cost + jobCost(w[second], end, d[second]), 2);
+                nodes.add(visited);
+            }
+
+            void dfs(int time, long done, int last, int lastStart, long cost, int depth) {
+                if (depth == n) {
+                    improve(cost, sequence);
+                    return;
+                }
+                if (++visited % CLOCK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                    timedOut = true;
+                }
+                for (int j : candidates(time, done)) {
+                    if (swapDominated(last, lastStart, j)) {
+                        continue;
+                    }
+                    int start = Math.max(time, r[j]);
+                    int end = start + p[j];
+                    long childCost = cost + jobCost(w[j], end, d[j]);
+                    long childDone = done | 1L << j;
+                    long lowerBound = childCost + bound(end, childDone);
+                    if (lowerBound >= bestCost.get()) {
+                        continue;
+                    }
+                    if (timedOut) {
+                        // Not searched: its bound limits how much better the unexplored sequences can be
+                        abandon(lowerBound);
+                        continue;
+                    }
+                    if (!remember(new State(childDone, j, end), childCost)) {
+                        continue;
+                    }
+                    sequence[depth] = j;
+                    dfs(end, childDone, j, start, childCost, depth + 1);
+                }
+            }
+        }
+
+        /**
+         * Lists the orders that may go next in an active schedule, best ratio first
+         */
+        int[] candidates(int time, long done) {
+            // Earliest time any remaining order could be finished
+            long earliestEnd = Long.MAX_VALUE;
+            for (int j = 0; j < n; j++) {
+                if ((done & 1L << j) == 0) {
+                    earliestEnd = Math.min(earliestEnd, Math.max(time, r[j]) + p[j]);
+                }
+            }
+            int[] candidates = new int[n];
+            int count = 0;
+            for (int j : ratioOrder) {
+                // Starting j later than that would leave room for a whole order before it
+                if ((done & 1L << j) == 0 && (Math.max(time, r[j]) < earliestEnd || p[j] == 0)) {
+                    candidates[count++] = j;
+                }
+            }
+            return Arrays.copyOf(candidates, count);
+        }
+
+        /**
+         * Checks whether j right after last costs more than the other way round, with both available
+         */
+        boolean swapDominated(int last, int lastStart, int j) {
+            if (r[j] > lastStart) {
+                return false;
+            }
+            // Both orders finish at the same time in either sequence, so the rest is unaffected
+            long kept = jobCost(w[last], lastStart + p[last], d[last])
+                        + jobCost(w[j], lastStart + p[last] + p[j], d[j]);
+            long swapped = jobCost(w[j], lastStart + p[j], d[j])
+                           + jobCost(w[last], lastStart + p[j] + p[last], d[last]);
+            // Ties go to the shorter order: together with the active schedule rule, which only moves
+            // orders earlier, every pruned sequence then has a kept one of lower (cost, sum of completions)
+            return swapped < kept || (swapped == kept && (p[j] < p[last] || (p[j] == p[last] && j < last)));
+        }
+
+        /**
+         * Lower bound on the cost of the orders not done yet, from a time on
+         */
+        long bound(int time, long done) {
+            if (objective == Objective.WEIGHTED_COMPLETION) {
+                // Each order on its own, and Smith's rule with release times dropped
+                long alone = 0;
+                int earliestRelease = Integer.MAX_VALUE;
+                for (int j = 0; j < n; j++) {
+                    if ((done & 1L << j) == 0) {
+                        alone += (long) w[j] * (Math.max(time, r[j]) + p[j]);
+                        earliestRelease = Math.min(earliestRelease, r[j]);
+                    }
+                }
+                long smith = 0;
+                long clock = Math.max(time, earliestRelease);
+                for (int j : ratioOrder) {
+                    if ((done & 1L << j) == 0) {
+                        clock += p[j];
+                        smith += w[j] * clock;
+                    }
+                }
+                return Math.max(alone, smith);
+            }
+            long alone = 0;
+            for (int j = 0; j < n; j++) {
+                if ((done & 1L << j) == 0) {
+                    alone += (long) w[j] * Math.max(0, Math.max(time, r[j]) + p[j] - d[j]);
+                }
+            }
+            return alone;
+        }
+
+        /**
+         * Records a state; false if it was reached before at no higher cost
+         */
+        boolean remember(State state, long cost) {
+            Long known = memo.get(state);
+            if (known != null) {
+                if (known <= cost) {
+                    return false;
+                }
+                memo.put(state, cost);
+                return true;
+            }
+            if (memoSize.get() < MEMO_LIMIT && memo.putIfAbsent(state, cost) == null) {
+                memoSize.incrementAndGet();
+            }
+            return true;
+        }
+
+        void abandon(long lowerBound) {
+            abandonedBound.accumulateAndGet(lowerBound, Math::min);
+        }
+
+        synchronized void improve(long cost, int[] sequence) {
+            if (cost < bestCost.get()) {
+                bestSequence = sequence.clone();
+                bestCost.set(cost);
+            }
+        }
+
+        /**
+         * Runs a non-delay dispatching rule: whenever the kitchen is free, the best available order starts
+         */
+        void dispatch(Comparator<Integer> rule) {
+            int[] sequence = new int[n];
+            boolean[] used = new boolean[n];
+            long time = 0;
+            long cost = 0;
+            Comparator<Integer> order = rule.thenComparing(j -> -(double) w[j] / Math.max(1, p[j])).thenComparing(j -> j);
+            for (int k = 0; k < n; k++) {
+                long earliestRelease = Long.MAX_VALUE;
+                for (int j = 0; j < n; j++) {
+                    if (!used[j]) {
+                        earliestRelease = Math.min(earliestRelease, r[j]);
+                    }
+                }
+                time = Math.max(time, earliestRelease);
+                Integer next = null;
+                for (int j = 0; j < n; j++) {
+                    if (!used[j] && r[j] <= time && (next == null || order.compare(j, next) < 0)) {
+                        next = j;
+                    }
+                }
+                used[next] = true;
+                sequence[k] = next;
+                time += p[next];
+                cost += jobCost(w[next], time, d[next]);
+            }
+            improve(cost, sequence);
+        }
+
+        long lowerBound() {
+            return timedOut || abandonedBound.get() != Long.MAX_VALUE
+                ? Math.min(bestCost.get(), abandonedBound.get()) : bestCost.get();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.restaurant.algorithm;
+
+import java.util.Locale;
+
+/**
+ * Weights of the objectives a schedule is judged by
+ *
+ * The cost of a schedule is
+ * {@code wait * total wait + tardiness * weighted tardiness + makespan * makespan
+ * + priority * priority violations}, with times in minutes (see
+ * {@link ScheduleEvaluator} for the exact definitions). Immutable.
+ */
+public final class CostWeights {
+    /** Waits and lateness count most, then priority order, then the end of the backlog */
+    public static final CostWeights DEFAULT = new CostWeights(1, 5, 1, 2, 30);
+
+    private final double wait;
+    private final double tardiness;
+    private final double makespan;
+    private final double priority;
+    private final int dueMinutes;
+
+    /**
+     * Creates weights
+     *
+     * @param wait Weight of the total minutes from creation to ready
+     * @param tardiness Weight of the priority-weighted minutes ready after the due time
+     * @param makespan Weight of the minute the last order is ready
+     * @param priority Weight of each order started before a more urgent order that was waiting as long
+     * @param dueMinutes Minutes from creation until an order is due
+     */
+    public CostWeights(double wait, double tardiness, double makespan, double priority, int dueMinutes) {
+        if (wait < 0 || tardiness < 0 || makespan < 0 || priority < 0 || dueMinutes < 0) {
+            throw new IllegalArgumentException("Weights and due minutes must not be negative");
+        }
+        this.wait = wait;
+        this.tardiness = tardiness;
+        this.makespan = makespan;
+        this.priority = priority;
+        this.dueMinutes = dueMinutes;
+    }
+
+    /**
+     * Parses weights like {@code wait=1,tardiness=5,makespan=1,priority=2,due=30}
+     *
+     * @param text Comma-separated name=value pairs; missing names keep their {@link #DEFAULT}
+     * @return Weights
+     * @throws IllegalArgumentException if a name is unknown or a value is not a number
+     */
+    public static CostWeights parse(String text) {
+        double wait = DEFAULT.wait;
+        double tardiness = DEFAULT.tardiness;
+        double makespan = DEFAULT.makespan;
+        double priority = DEFAULT.priority;
+        int due = DEFAULT.dueMinutes;
+        for (String pair : text.split(",")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected name=value instead of " + pair);
+            }
+            String name = parts[0].trim();
+            try {
+                switch (name) {
+                    case "wait":
+                        wait = Double.parseDouble(parts[1].trim());
+                        break;
+                    case "tardiness":
+                        tardiness = Double.parseDouble(parts[1].trim());
+                        break;
+                    case "makespan":
+                        makespan = Double.parseDouble(parts[1].trim());
+                        break;
+                    case "priority":
+                        priority = Double.parseDouble(parts[1].trim());
+                        break;
+                    case "due":
+                        due = Integer.parseInt(parts[1].trim());
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown weight " + name);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Weight " + name + " must be a number");
+            }
+        }
+        return new CostWeights(wait, tardiness, makespan, priority, due);
+    }
+
+    public double getWait() {
+        return wait;
+    }
+
+    public double getTardiness() {
+        return tardiness;
+    }
+
+    public double getMakespan() {
+        return makespan;
+    }
+
+    public double getPriority() {
+        return priority;
+    }
+
+    public int getDueMinutes() {
+        return dueMinutes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "wait=%s,tardiness=%s,makespan=%s,priority=%s,due=%d",
+            wait, tardiness, makespan, priority, dueMinutes);
+    }
+}
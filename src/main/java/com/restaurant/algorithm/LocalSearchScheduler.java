@@ -0,0 +1,389 @@
+package com.restaurant.algorithm;
+
+import com.restaurant.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-objective scheduler by parallel late acceptance local search
+ *
+ * Minimizes the weighted cost of a {@link ScheduleEvaluator}: waits,
+ * tardiness, makespan and priority violations in a kitchen with stations.
+ * Every thread improves its own sequence by random swaps and moves of
+ * single orders, near each other or anywhere. A move is accepted if it is
+ * no worse than the current sequence or than the sequence of a fixed number
+ * of steps ago (late acceptance hill climbing), which lets the search leave
+ * local optima without a temperature to tune. Moves are evaluated
+ * incrementally from the first changed position without allocating. The
+ * threads start from the seed schedules in turn (by default the output of
+ * Shortest Processing Time and Priority Queue Scheduling; a single thread
+ * starts from the cheapest) and share the
+ * best sequence: a thread that stops improving continues from it.
+ *
+ * Every improvement of the shared best sequence is recorded with its time,
+ * so {@link Result#getConvergence()} shows how quickly the search converges.
+ * The search stops when the time budget is used up.
+ *
+ * Not registered with the service loader: each schedule takes the whole
+ * budget, which is meant for large backlogs and tuning, not for every
+ * screen refresh.
+ */
+public class LocalSearchScheduler implements SchedulingAlgorithm {
+    /** Default time budget of a search */
+    public static final long DEFAULT_BUDGET_MILLIS = 500;
+
+    /** Iterations between checks of the clock */
+    private static final int CLOCK_INTERVAL = 256;
+    /** Largest distance of a "nearby" move */
+    private static final int NEARBY = 8;
+
+    /**
+     * The shared best cost at one point of the search
+     */
+    public static final class ConvergencePoint {
+        private final long elapsedNanos;
+        private final long evaluations;
+        private final double cost;
+
+        ConvergencePoint(long elapsedNanos, long evaluations, double cost) {
+            this.elapsedNanos = elapsedNanos;
+            this.evaluations = evaluations;
+            this.cost = cost;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Gets the number of moves evaluated by all threads until then (counted in steps of a few hundred)
+         *
+         * @return Evaluations
+         */
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+    }
+
+    /**
+     * Outcome of a search
+     */
+    public static final class Result {
+        private final List<Order> sequence;
+        private final ScheduleEvaluator.Breakdown breakdown;
+        private final double[] seedCosts;
+        private final List<ConvergencePoint> convergence;
+        private final long evaluations;
+        private final long elapsedNanos;
+
+        Result(List<Order> sequence, ScheduleEvaluator.Breakdown breakdown, double[] seedCosts,
+               List<ConvergencePoint> convergence, long evaluations, long elapsedNanos) {
+            this.sequence = sequence;
+            this.breakdown = breakdown;
+            this.seedCosts = seedCosts;
+            this.convergence = convergence;
+            this.evaluations = evaluations;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public List<Order> getSequence() {
+            return sequence;
+        }
+
+        public ScheduleEvaluator.Breakdown getBreakdown() {
+            return breakdown;
+        }
+
+        /**
+         * Gets the cost of every seed schedule, in the order they were given
+         *
+         * @return Seed costs
+         */
+        public double[] getSeedCosts() {
+            return seedCosts.clone();
+        }
+
+        /**
+         * Gets every improvement of the best sequence, starting with the best seed
+         *
+         * @return Convergence points in time order
+         */
+        public List<ConvergencePoint> getConvergence() {
+            return convergence;
+        }
+
+        public long getEvaluations() {
+            return evaluations;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /**
+         * Gets when the search first came within a fraction of its final cost
+         *
+         * @param fraction Allowed excess over the final cost, e.g. 0.01
+         * @return Milliseconds from the start
+         */
+        public double getMillisToWithin(double fraction) {
+            double target = breakdown.getCost() + Math.abs(breakdown.getCost()) * fraction;
+            for (ConvergencePoint point : convergence) {
+                if (point.getCost() <= target) {
+                    return point.getElapsedNanos() / 1e6;
+                }
+            }
+            return elapsedNanos / 1e6;
+        }
+    }
+
+    private final CostWeights weights;
+    private final int cooks;
+    private final long budgetMillis;
+    private final int threads;
+    private final long seed;
+
+    /**
+     * Creates a scheduler with the default weights, one cook per station and the default budget on all cores
+     */
+    public LocalSearchScheduler() {
+        this(CostWeights.DEFAULT, 1, DEFAULT_BUDGET_MILLIS, Runtime.getRuntime().availableProcessors(), 42);
+    }
+
+    /**
+     * Creates a scheduler
+     *
+     * @param weights Weights of the objectives
+     * @param cooks Cooks per station
+     * @param budgetMillis Time the search runs
+     * @param threads Number of threads searching in parallel
+     * @param seed Seed of the random moves; with one thread the result is reproducible
+     */
+    public LocalSearchScheduler(CostWeights weights, int cooks, long budgetMillis, int threads, long seed) {
+        if (cooks < 1 || threads < 1) {
+            throw new IllegalArgumentException("At least one cook and one thread are required");
+        }
+        if (budgetMillis < 0) {
+            throw new IllegalArgumentException("budget must not be negative");
+        }
+        this.weights = Objects.requireNonNull(weights);
+        this.cooks = cooks;
+        this.budgetMillis = budgetMillis;
+        this.threads = threads;
+        this.seed = seed;
+    }
+
+    @Override
+    public List<Order> schedule(List<Order> orders) {
+        return solve(orders, null, defaultSeeds(orders)).getSequence();
+    }
+
+    /**
+     * Searches from the time of the context, with its cost weights if it has any
+     *
+     * The search keeps its own cooks per station; the chefs of the context only time the result.
+     */
+    @Override
+    public Schedule schedule(List<Order> orders, SchedulingContext context) {
+        LocalSearchScheduler scheduler = context.getWeights() == null ? this
+            : new LocalSearchScheduler(context.getWeights(), cooks, budgetMillis, threads, seed);
+        return toSchedule(scheduler.solve(orders, context.getNow(), defaultSeeds(orders)).getSequence(), context);
+    }
+
+    /**
+     * Gets the default seed schedules: Shortest Processing Time and Priority Queue Scheduling
+     *
+     * @param orders Orders to schedule
+     * @return Seed sequences
+     */
+    public static List<List<Order>> defaultSeeds(List<Order> orders) {
+        List<List<Order>> seeds = new ArrayList<>(2);
+        seeds.add(new ShortestProcessingTime().schedule(orders));
+        seeds.add(new PriorityQueueScheduling().schedule(orders));
+        return seeds;
+    }
+
+    /**
+     * Searches a low-cost sequence
+     *
+     * @param orders Orders to schedule
+     * @param start Start of the schedule; orders created earlier are available at once.
+     *              null makes every order available at once
+     * @param seeds Sequences of the same orders to start from; at least one
+     * @return Best sequence found within the budget
+     */
+    public Result solve(List<Order> orders, LocalDateTime start, List<List<Order>> seeds) {
+        if (seeds.isEmpty()) {
+            throw new IllegalArgumentException("At least one seed schedule is required");
+        }
+        long begin = System.nanoTime();
+        ScheduleEvaluator base = new ScheduleEvaluator(orders, start, weights, cooks);
+        int n = base.size();
+        int[][] seedSequences = new int[seeds.size()][n];
+        double[] seedCosts = new double[seeds.size()];
+        for (int s = 0; s < seeds.size(); s++) {
+            seedCosts[s] = base.setSequence(seeds.get(s));
+            base.getSequence(seedSequences[s]);
+        }
+
+        Search search = new Search(begin, begin + budgetMillis * 1_000_000L, n);
+        for (int s = 0; s < seeds.size(); s++) {
+            search.offer(seedCosts[s], seedSequences[s]);
+        }
+        if (n > 1) {
+            if (threads == 1) {
+                search.climb(base.copy(), search.bestSequence, new Random(seed));
+            } else {
+                search.runParallel(base, seedSequences);
+            }
+        }
+
+        base.setSequence(search.bestSequence);
+        return new Result(base.getOrders(), base.getBreakdown(), seedCosts,
+            Collections.unmodifiableList(new ArrayList<>(search.convergence)), search.evaluations.get(),
+            System.nanoTime() - begin);
+    }
+
+    @Override
+    public String getAlgorithmName() {
+        return "Local Search (multi-objective)";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Starts from the SPT and priority schedules and improves them by swapping and moving orders, " +
+               "judging each schedule by weighted waits, lateness, total time and priority order " +
+               "across the kitchen stations.";
+    }
+
+    /**
+     * One search; shared by its worker threads
+     */
+    private final class Search {
+        final long begin;
+        final long deadline;
+        final int n;
+        final int history;
+        final int stall;
+        final AtomicLong evaluations = new AtomicLong();
+        final List<ConvergencePoint> convergence = new ArrayList<>();
+        double bestCost = Double.POSITIVE_INFINITY;
+        int[] bestSequence;
+
+        Search(long begin, long deadline, int n) {
+            this.begin = begin;
+            this.deadline = deadline;
+            this.n = n;
+            this.history = Math.max(64, n);
+            this.stall = 20 * history;
+        }
+
+        void runParallel(ScheduleEvaluator base, int[][] seedSequences) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "local-search");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                List<Future<?>> futures = new ArrayList<>(threads);
+                for (int t = 0; t < threads; t++) {
+                    ScheduleEvaluator evaluator = base.copy();
+                    int[] start = seedSequences[t % seedSequences.length];
+                    Random random = new Random(seed + t);
+                    futures.add(pool.submit(() -> climb(evaluator, start, random)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Local search failed", e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        /**
+         * Late acceptance hill climbing from a start sequence until the deadline
+         */
+        void climb(ScheduleEvaluator evaluator, int[] start, Random random) {
+            double current = evaluator.setSequence(start);
+            double[] recent = new double[history];
+            Arrays.fill(recent, current);
+            double ownBest = current;
+            long lastImprovement = 0;
+            int[] buffer = new int[n];
+            long iteration = 0;
+            while (true) {
+                if (++iteration % CLOCK_INTERVAL == 0) {
+                    evaluations.addAndGet(CLOCK_INTERVAL);
+                    if (System.nanoTime() > deadline) {
+                        return;
+                    }
+                }
+                int a = random.nextInt(n);
+                int b;
+                if (random.nextBoolean()) {
+                    b = Math.max(0, Math.min(n - 1, a + random.nextInt(2 * NEARBY + 1) - NEARBY));
+                } else {
+                    b = random.nextInt(n);
+                }
+                if (a == b) {
+                    continue;
+                }
+                double candidate = random.nextBoolean() ? evaluator.trySwap(a, b) : evaluator.tryMove(a, b);
+                int slot = (int) (iteration % history);
+                if (candidate <= current || candidate <= recent[slot]) {
+                    evaluator.keep();
+                    current = candidate;
+                    if (current < ownBest) {
+                        ownBest = current;
+                        lastImprovement = iteration;
+                        if (current < bestCost) {
+                            evaluator.getSequence(buffer);
+                            offer(current, buffer);
+                        }
+                    }
+                } else {
+                    evaluator.undo();
+                }
+                recent[slot] = current;
+
+                if (iteration - lastImprovement > stall) {
+                    // Stuck: continue from the best sequence any thread found
+                    synchronized (this) {
+                        System.arraycopy(bestSequence, 0, buffer, 0, n);
+                    }
+                    current = evaluator.setSequence(buffer);
+                    ownBest = current;
+                    Arrays.fill(recent, current);
+                    lastImprovement = iteration;
+                }
+            }
+        }
+
+        synchronized void offer(double cost, int[] sequence) {
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestSequence = sequence.clone();
+                convergence.add(new ConvergencePoint(System.nanoTime() - begin, evaluations.get(), cost));
+            }
+        }
+    }
+}
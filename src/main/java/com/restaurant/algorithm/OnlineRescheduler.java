@@ -0,0 +1,369 @@
+package com.restaurant.algorithm;
+
+import com.restaurant.model.Order;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Non-preemptive online plan of a kitchen with several chefs
+ *
+ * The plan starts from a live snapshot: orders in PREPARING are on the
+ * stove and keep their chef until their remaining time has passed, and the
+ * PENDING orders are queued in the algorithm's {@link
+ * SchedulingAlgorithm#getQueueOrder() queue order}. Each queued order goes
+ * to the chef that becomes free first, which gives every order a projected
+ * start and finish in minutes from the snapshot.
+ *
+ * Committed work is never reordered: the orders in progress, and the queued
+ * orders that were due to start within the frozen horizon when the snapshot
+ * was loaded (the chefs have already been told about them). An arriving
+ * order is placed by binary search among the remaining orders, and only the
+ * suffix from its position is planned again; the chefs' state at that
+ * position is recovered from the plan itself. A re-plan therefore costs
+ * O(log n) comparisons plus O((n - k) * chefs) for the k orders before the
+ * insertion point that keep their times.
+ *
+ * Not thread-safe; callers that share a plan must synchronize.
+ */
+public class OnlineRescheduler {
+
+    /**
+     * One order of the plan
+     */
+    public static final class Slot {
+        private final Order order;
+        private final int chef;
+        private final int startMinute;
+        private final int endMinute;
+        private final boolean committed;
+
+        Slot(Order order, int chef, int startMinute, int endMinute, boolean committed) {
+            this.order = order;
+            this.chef = chef;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+            this.committed = committed;
+        }
+
+        public Order getOrder() {
+            return order;
+        }
+
+        /**
+         * Gets the chef (0-based) the order is planned for
+         *
+         * @return Chef index
+         */
+        public int getChef() {
+            return chef;
+        }
+
+        /**
+         * Gets the projected start in minutes from the snapshot; 0 for orders in progress
+         *
+         * @return Start minute
+         */
+        public int getStartMinute() {
+            return startMinute;
+        }
+
+        public int getEndMinute() {
+            return endMinute;
+        }
+
+        /**
+         * Whether the order is in progress or frozen, so it will not move
+         *
+         * @return true if committed
+         */
+        public boolean isCommitted() {
+            return committed;
+        }
+    }
+
+    private final Comparator<Order> queueOrder;
+    private final int chefs;
+    private final int frozenMinutes;
+
+    // Orders in progress; never change until the next snapshot
+    private final List<Order> inProgress = new ArrayList<>();
+    private int[] inProgressChef = new int[0];
+    private int[] inProgressEnd = new int[0];
+    /** Minute each chef is free once the orders in progress are done */
+    private final int[] baseFree;
+
+    // Queue in plan order; entries below frozenCount are committed
+    private Order[] queue = new Order[16];
+    private int[] chef = new int[16];
+    private int[] start = new int[16];
+    private int[] end = new int[16];
+    private int size;
+    private int frozenCount;
+
+    private final int[] free;
+    private int lastReplanned;
+
+    /**
+     * Creates an empty plan
+     *
+     * @param queueOrder Order of the queue (see {@link SchedulingAlgorithm#getQueueOrder()})
+     * @param chefs Number of orders prepared at the same time
+     * @param frozenMinutes Queued orders projected to start within this many minutes of a snapshot are committed
+     */
+    public OnlineRescheduler(Comparator<Order> queueOrder, int chefs, int frozenMinutes) {
+        if (chefs < 1) {
+            throw new IllegalArgumentException("At least one chef is required");
+        }
+        if (frozenMinutes < 0) {
+            throw new IllegalArgumentException("frozenMinutes must not be negative");
+        }
+        this.queueOrder = queueOrder;
+        this.chefs = chefs;
+        this.frozenMinutes = frozenMinutes;
+        this.baseFree = new int[chefs];
+        this.free = new int[chefs];
+    }
+
+    /**
+     * Creates an empty plan for an algorithm that sorts the queue
+     *
+     * @param algorithm Algorithm whose queue order is used
+     * @param chefs Number of orders prepared at the same time
+     * @param frozenMinutes Queued orders projected to start within this many minutes of a snapshot are committed
+     * @return Plan
+     * @throws IllegalArgumentException if the algorithm has no queue order
+     */
+    public static OnlineRescheduler forAlgorithm(SchedulingAlgorithm algorithm, int chefs, int frozenMinutes) {
+        Comparator<Order> queueOrder = algorithm.getQueueOrder();
+        if (queueOrder == null) {
+            throw new IllegalArgumentException(algorithm.getAlgorithmName() + " cannot be rescheduled online");
+        }
+        return new OnlineRescheduler(queueOrder, chefs, frozenMinutes);
+    }
+
+    /**
+     * Estimates the minutes an order in PREPARING still needs
+     *
+     * The order is taken to have started at its last update, which is when
+     * its status changed to PREPARING.
+     *
+     * @param order Order in progress
+     * @param now Time of the snapshot
+     * @return Remaining minutes, at least 0
+     */
+    public static int remainingMinutes(Order order, LocalDateTime now) {
+        if (order.getUpdatedAt() == null) {
+            return order.getEstimatedTime();
+        }
+        long elapsed = Duration.between(order.getUpdatedAt(), now).toMinutes();
+        return (int) Math.max(0, order.getEstimatedTime() - Math.max(0, elapsed));
+    }
+
+    /**
+     * Replaces the plan with a live snapshot
+     *
+     * Orders in PREPARING are in progress, PENDING orders are queued, other
+     * statuses are ignored.
+     *
+     * @param active Active orders in any order
+     * @param now Time of the snapshot, to compute the remaining time of orders in progress
+     */
+    public void load(List<Order> active, LocalDateTime now) {
+        inProgress.clear();
+        List<Order> pending = new ArrayList<>();
+        for (Order order : active) {
+            if (order.getStatus() == Order.OrderStatus.PREPARING) {
+                inProgress.add(order);
+            } else if (order.getStatus() == Order.OrderStatus.PENDING) {
+                pending.add(order);
+            }
+        }
+
+        // Orders in progress keep their chef; if there are more than chefs, the extra ones follow on the first free chef
+        inProgressChef = new int[inProgress.size()];
+        inProgressEnd = new int[inProgress.size()];
+        Arrays.fill(baseFree, 0);
+        for (int i = 0; i < inProgress.size(); i++) {
+            int c = earliest(baseFree);
+            inProgressChef[i] = c;
+            inProgressEnd[i] = baseFree[c] + remainingMinutes(inProgress.get(i), now);
+            baseFree[c] = inProgressEnd[i];
+        }
+
+        pending.sort(queueOrder);
+        size = 0;
+        frozenCount = 0;
+        ensureCapacity(pending.size());
+        for (Order order : pending) {
+            queue[size++] = order;
+        }
+        replanFrom(0);
+        while (frozenCount < size && start[frozenCount] < frozenMinutes) {
+            frozenCount++;
+        }
+    }
+
+    /**
+     * Inserts an arriving order behind the committed work at its place in the queue order
+     *
+     * @param order New PENDING order
+     * @return Position in the queue (0 = next to start)
+     */
+    public int insert(Order order) {
+        int low = frozenCount;
+        int high = size;
+        // Upper bound: an order that compares equal to queued ones goes behind them
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (queueOrder.compare(queue[mid], order) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        ensureCapacity(size + 1);
+        System.arraycopy(queue, low, queue, low + 1, size - low);
+        System.arraycopy(chef, low, chef, low + 1, size - low);
+        System.arraycopy(start, low, start, low + 1, size - low);
+        System.arraycopy(end, low, end, low + 1, size - low);
+        queue[low] = order;
+        size++;
+        replanFrom(low);
+        return low;
+    }
+
+    /**
+     * Removes a queued order, e.g. because it was cancelled
+     *
+     * The orders behind it move up in time but keep their sequence.
+     *
+     * @param orderId ID of the order
+     * @return true if the order was queued
+     */
+    public boolean remove(int orderId) {
+        for (int i = 0; i < size; i++) {
+            if (queue[i].getOrderId() == orderId) {
+                System.arraycopy(queue, i + 1, queue, i, size - i - 1);
+                System.arraycopy(chef, i + 1, chef, i, size - i - 1);
+                System.arraycopy(start, i + 1, start, i, size - i - 1);
+                System.arraycopy(end, i + 1, end, i, size - i - 1);
+                queue[--size] = null;
+                if (i < frozenCount) {
+                    frozenCount--;
+                }
+                replanFrom(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the orders in progress followed by the queue
+     *
+     * @return Orders in plan order
+     */
+    public List<Order> getOrders() {
+        List<Order> orders = new ArrayList<>(inProgress.size() + size);
+        orders.addAll(inProgress);
+        orders.addAll(Arrays.asList(queue).subList(0, size));
+        return orders;
+    }
+
+    /**
+     * Gets the full plan: orders in progress first, then the queue
+     *
+     * @return Slots in plan order
+     */
+    public List<Slot> getPlan() {
+        List<Slot> plan = new ArrayList<>(inProgress.size() + size);
+        for (int i = 0; i < inProgress.size(); i++) {
+            plan.add(new Slot(inProgress.get(i), inProgressChef[i], 0, inProgressEnd[i], true));
+        }
+        for (int i = 0; i < size; i++) {
+            plan.add(new Slot(queue[i], chef[i], start[i], end[i], i < frozenCount));
+        }
+        return Collections.unmodifiableList(plan);
+    }
+
+    /**
+     * Gets the number of queued orders, committed or not
+     *
+     * @return Queue length
+     */
+    public int getQueueSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of queued orders that are committed
+     *
+     * @return Frozen queue length
+     */
+    public int getFrozenCount() {
+        return frozenCount;
+    }
+
+    /**
+     * Gets the number of queued orders whose times the last change re-planned
+     *
+     * @return Length of the re-planned suffix
+     */
+    public int getLastReplanned() {
+        return lastReplanned;
+    }
+
+    /**
+     * Plans positions from..size-1 again; positions before keep their chef and times
+     */
+    private void replanFrom(int from) {
+        // Each chef is free after the last queued order before 'from' that was planned for it
+        System.arraycopy(baseFree, 0, free, 0, chefs);
+        int found = 0;
+        boolean[] seen = new boolean[chefs];
+        for (int i = from - 1; i >= 0 && found < chefs; i--) {
+            if (!seen[chef[i]]) {
+                seen[chef[i]] = true;
+                free[chef[i]] = end[i];
+                found++;
+            }
+        }
+        for (int i = from; i < size; i++) {
+            int c = earliest(free);
+            chef[i] = c;
+            start[i] = free[c];
+            end[i] = free[c] + queue[i].getEstimatedTime();
+            free[c] = end[i];
+        }
+        lastReplanned = size - from;
+    }
+
+    /**
+     * Finds the chef that is free first; the lowest index among equals
+     */
+    private static int earliest(int[] freeAt) {
+        int best = 0;
+        for (int c = 1; c < freeAt.length; c++) {
+            if (freeAt[c] < freeAt[best]) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > queue.length) {
+            int length = Math.max(capacity, queue.length * 2);
+            queue = Arrays.copyOf(queue, length);
+            chef = Arrays.copyOf(chef, length);
+            start = Arrays.copyOf(start, length);
+            end = Arrays.copyOf(end, length);
+        }
+    }
+}
@@ -25,20 +25,28 @@ import java.util.List;
  */
 public class PriorityQueueScheduling implements SchedulingAlgorithm {
 
+    private static final Comparator<Order> QUEUE_ORDER = Comparator
+        .comparingInt(Order::getPriority)
+        .thenComparing(Order::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparingInt(Order::getOrderId);
+
     @Override
     public List<Order> schedule(List<Order> orders) {
         // Create a copy to avoid modifying the original list
         List<Order> scheduledOrders = new ArrayList<>(orders);
         
         // Sort by priority (ascending - lower number = higher priority)
-        // If priorities are equal, sort by creation time (FIFO)
-        scheduledOrders.sort(Comparator
-            .comparingInt(Order::getPriority)
-            .thenComparing(order -> order.getCreatedAt() != null ? order.getCreatedAt() : java.time.LocalDateTime.MIN));
+        // If priorities are equal, sort by creation time (FIFO), then ID
+        scheduledOrders.sort(QUEUE_ORDER);
         
         return scheduledOrders;
     }
 
+    @Override
+    public Comparator<Order> getQueueOrder() {
+        return QUEUE_ORDER;
+    }
+
     @Override
     public String getAlgorithmName() {
         return "Priority Queue Scheduling";
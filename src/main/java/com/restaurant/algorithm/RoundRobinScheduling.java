@@ -2,6 +2,7 @@ package com.restaurant.algorithm;
 
 import com.restaurant.model.Order;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -14,6 +15,8 @@ import java.util.List;
  * Algorithm: Orders are processed in a round-robin fashion with a time quantum.
  * For visualization purposes, we maintain the original order but simulate
  * the round-robin processing pattern.
+ * The sequence is the order of the first slices; {@link #toSchedule} times
+ * the rounds with the quantum of the {@link SchedulingContext}.
  * 
  * Advantages:
  * - Fair distribution of processing time
@@ -27,7 +30,13 @@ import java.util.List;
  */
 public class RoundRobinScheduling implements SchedulingAlgorithm {
     
+    /** Name of the {@link SchedulingContext} parameter that sets the time quantum in minutes */
+    public static final String QUANTUM_PARAMETER = "quantum";
+
     private static final int TIME_QUANTUM = 5; // Time quantum in minutes
+    private static final Comparator<Order> QUEUE_ORDER = Comparator
+        .comparing(Order::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparingInt(Order::getOrderId);
 
     @Override
     public List<Order> schedule(List<Order> orders) {
@@ -43,16 +52,24 @@ public class RoundRobinScheduling implements SchedulingAlgorithm {
         // For visualization, we maintain FIFO order but simulate the round-robin concept
         
         // Sort by creation time to maintain FIFO order (first come, first served)
-        scheduledOrders.sort((o1, o2) -> {
-            if (o1.getCreatedAt() == null && o2.getCreatedAt() == null) return 0;
-            if (o1.getCreatedAt() == null) return 1;
-            if (o2.getCreatedAt() == null) return -1;
-            return o1.getCreatedAt().compareTo(o2.getCreatedAt());
-        });
+        scheduledOrders.sort(QUEUE_ORDER);
         
         return scheduledOrders;
     }
 
+    /**
+     * Times the sequence in rounds: every order gets the time quantum of the
+     * context (default {@value #TIME_QUANTUM} minutes) before the next one
+     *
+     * @param sequence Orders in FIFO order
+     * @param context Kitchen to time the sequence in
+     * @return Time-sliced schedule
+     */
+    @Override
+    public Schedule toSchedule(List<Order> sequence, SchedulingContext context) {
+        return Schedule.timeSliced(sequence, context, context.getParameter(QUANTUM_PARAMETER, TIME_QUANTUM));
+    }
+
     /**
      * Gets the time quantum used for round-robin processing
      * 
@@ -62,6 +79,11 @@ public class RoundRobinScheduling implements SchedulingAlgorithm {
         return TIME_QUANTUM;
     }
 
+    @Override
+    public Comparator<Order> getQueueOrder() {
+        return QUEUE_ORDER;
+    }
+
     @Override
     public String getAlgorithmName() {
         return "Round Robin Scheduling";
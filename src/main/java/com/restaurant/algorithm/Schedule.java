@@ -0,0 +1,271 @@
+package com.restaurant.algorithm;
+
+import com.restaurant.model.Order;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A sequence of orders with the projected time of every order
+ *
+ * Times are whole minutes from the time of the {@link SchedulingContext}.
+ * The chefs first finish the orders in progress, then take the orders in
+ * sequence, each on the chef that is free first. A time-sliced schedule
+ * (Round Robin) works on each order for at most a quantum at a time and puts
+ * it back at the end of the queue, so an order starts with its first slice
+ * and is ready after its last one.
+ *
+ * The aggregate metrics are computed once, with the timings: waits until
+ * each order starts, makespan, and the orders ready after their due time
+ * (creation plus the due minutes of the context's weights), with lateness
+ * weighted 11 - priority as in {@link ScheduleEvaluator}.
+ */
+public final class Schedule {
+    private final LocalDateTime now;
+    private final int chefs;
+    private final List<Order> orders;
+    private final int[] start;
+    private final int[] end;
+    private final int[] chef;
+    private final ScheduleMetrics metrics;
+    private final int lateOrders;
+    private final long weightedTardiness;
+
+    private Schedule(LocalDateTime now, int chefs, List<Order> orders, int[] start, int[] end, int[] chef,
+                     int dueMinutes) {
+        this.now = now;
+        this.chefs = chefs;
+        this.orders = Collections.unmodifiableList(orders);
+        this.start = start;
+        this.end = end;
+        this.chef = chef;
+
+        int n = orders.size();
+        int[] waits = new int[n];
+        long totalWait = 0;
+        int makespan = 0;
+        int late = 0;
+        long tardiness = 0;
+        LocalDate today = now.toLocalDate();
+        int nowSecondOfDay = now.toLocalTime().toSecondOfDay();
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < n; i++) {
+            waits[i] = start[i];
+            totalWait += start[i];
+            makespan = Math.max(makespan, end[i]);
+            Order order = orders.get(i);
+            LocalDateTime created = order.getCreatedAt();
+            long createdSecond;
+            if (created == null) {
+                createdSecond = 0;
+            } else if (created.toLocalDate().equals(today)) {
+                // Most orders are from today; skips the epoch day arithmetic
+                createdSecond = created.toLocalTime().toSecondOfDay() - nowSecondOfDay;
+            } else {
+                createdSecond = created.toEpochSecond(ZoneOffset.UTC) - nowSecond;
+            }
+            long due = dueMinutes + createdSecond / 60;
+            if (end[i] > due) {
+                late++;
+                tardiness += BranchAndBoundScheduler.weight(order) * (end[i] - due);
+            }
+        }
+        this.metrics = ScheduleMetrics.of(waits, totalWait, makespan);
+        this.lateOrders = late;
+        this.weightedTardiness = tardiness;
+    }
+
+    /**
+     * Times a sequence that is prepared without interruption
+     *
+     * @param sequence Orders in the order the chefs take them
+     * @param context Kitchen to time the sequence in
+     * @return Timed schedule
+     */
+    public static Schedule sequential(List<Order> sequence, SchedulingContext context) {
+        int n = sequence.size();
+        int[] free = busyChefs(context);
+        int[] start = new int[n];
+        int[] end = new int[n];
+        int[] chef = new int[n];
+        for (int i = 0; i < n; i++) {
+            int c = earliest(free);
+            chef[i] = c;
+            start[i] = free[c];
+            end[i] = start[i] + Math.max(0, sequence.get(i).getEstimatedTime());
+            free[c] = end[i];
+        }
+        return new Schedule(context.getNow(), context.getChefs(), sequence, start, end, chef, dueMinutes(context));
+    }
+
+    /**
+     * Times a sequence that is prepared in slices: the next chef works on the
+     * first order in the queue for up to a quantum and, if it is not done,
+     * puts it back at the end of the queue
+     *
+     * @param sequence Orders in their initial queue order
+     * @param context Kitchen to time the sequence in
+     * @param quantum Minutes per slice; 0 or less prepares every order without interruption
+     * @return Timed schedule; the chef of an order is the one that started it
+     */
+    public static Schedule timeSliced(List<Order> sequence, SchedulingContext context, int quantum) {
+        if (quantum <= 0) {
+            return sequential(sequence, context);
+        }
+        int n = sequence.size();
+        int[] free = busyChefs(context);
+        int[] start = new int[n];
+        int[] end = new int[n];
+        int[] chef = new int[n];
+        int[] remaining = new int[n];
+        int[] available = new int[n];
+        // Ring buffer of queued positions; an order is at most once in the queue
+        int[] queue = new int[Math.max(1, n)];
+        int head = 0;
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            remaining[i] = Math.max(0, sequence.get(i).getEstimatedTime());
+            chef[i] = -1;
+            queue[size++] = i;
+        }
+        while (size > 0) {
+            int i = queue[head];
+            head = (head + 1) % queue.length;
+            size--;
+            int c = earliest(free);
+            int time = Math.max(free[c], available[i]);
+            if (chef[i] < 0) {
+                chef[i] = c;
+                start[i] = time;
+            }
+            int slice = Math.min(quantum, remaining[i]);
+            remaining[i] -= slice;
+            free[c] = time + slice;
+            if (remaining[i] == 0) {
+                end[i] = free[c];
+            } else {
+                available[i] = free[c];
+                queue[(head + size) % queue.length] = i;
+                size++;
+            }
+        }
+        return new Schedule(context.getNow(), context.getChefs(), sequence, start, end, chef, dueMinutes(context));
+    }
+
+    /**
+     * Gets when each chef is free of the orders in progress
+     */
+    private static int[] busyChefs(SchedulingContext context) {
+        int[] free = new int[context.getChefs()];
+        // Orders in progress keep a chef; if there are more than chefs, the extra ones follow on the first free chef
+        for (Order order : context.getInProgress()) {
+            int c = earliest(free);
+            free[c] += OnlineRescheduler.remainingMinutes(order, context.getNow());
+        }
+        return free;
+    }
+
+    private static int earliest(int[] free) {
+        int best = 0;
+        for (int c = 1; c < free.length; c++) {
+            if (free[c] < free[best]) {
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    private static int dueMinutes(SchedulingContext context) {
+        CostWeights weights = context.getWeights();
+        return (weights != null ? weights : CostWeights.DEFAULT).getDueMinutes();
+    }
+
+    public LocalDateTime getNow() {
+        return now;
+    }
+
+    /**
+     * Gets the number of chefs the schedule was timed for
+     *
+     * @return Chefs, at least 1
+     */
+    public int getChefs() {
+        return chefs;
+    }
+
+    /**
+     * Gets the orders in sequence
+     *
+     * @return Read-only list
+     */
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    /**
+     * Gets when an order starts
+     *
+     * @param position Position in the sequence
+     * @return Minutes from now
+     */
+    public int getStartMinutes(int position) {
+        return start[position];
+    }
+
+    /**
+     * Gets when an order is ready
+     *
+     * @param position Position in the sequence
+     * @return Minutes from now
+     */
+    public int getEndMinutes(int position) {
+        return end[position];
+    }
+
+    /**
+     * Gets the chef that starts an order
+     *
+     * @param position Position in the sequence
+     * @return Chef index, from 0
+     */
+    public int getChef(int position) {
+        return chef[position];
+    }
+
+    public LocalDateTime getStart(int position) {
+        return now.plusMinutes(start[position]);
+    }
+
+    public LocalDateTime getEnd(int position) {
+        return now.plusMinutes(end[position]);
+    }
+
+    /**
+     * Gets the wait and makespan metrics
+     *
+     * @return Metrics, with waits until each order starts
+     */
+    public ScheduleMetrics getMetrics() {
+        return metrics;
+    }
+
+    public int getLateOrders() {
+        return lateOrders;
+    }
+
+    /**
+     * Gets the lateness of all orders, weighted 11 - priority
+     *
+     * @return Weighted minutes after the due times
+     */
+    public long getWeightedTardiness() {
+        return weightedTardiness;
+    }
+}
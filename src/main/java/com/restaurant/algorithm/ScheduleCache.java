@@ -0,0 +1,243 @@
+package com.restaurant.algorithm;
+
+import com.restaurant.model.Order;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Shares schedule results between callers that schedule the same orders
+ *
+ * Results are keyed by the algorithm and a 64-bit fingerprint of the input:
+ * the position, ID, status, priority, estimated time, creation time, table,
+ * branch and staff member of every order, which are the fields the
+ * algorithms read. Computing the fingerprint is a single pass over the
+ * orders, much cheaper than a schedule. Callers that ask for a schedule that
+ * is still being computed wait for that computation instead of starting
+ * their own, so several screens refreshing at once share one run.
+ *
+ * The cache stores the schedule as positions in the input, not the orders,
+ * and applies them to the caller's orders: equal fingerprints mean the same
+ * order IDs at the same positions, so a result computed from an earlier load
+ * never hands out stale order objects. The least recently used results are
+ * evicted beyond the capacity.
+ */
+public class ScheduleCache {
+    /** Default number of cached schedules */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    /**
+     * Algorithm plus input fingerprint
+     */
+    private static final class Key {
+        final String algorithm;
+        final int size;
+        final long fingerprint;
+
+        Key(String algorithm, int size, long fingerprint) {
+            this.algorithm = algorithm;
+            this.size = size;
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return size == key.size && fingerprint == key.fingerprint && algorithm.equals(key.algorithm);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(algorithm, size, fingerprint);
+        }
+    }
+
+    private final Map<Key, CompletableFuture<int[]>> results;
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a cache with {@link #DEFAULT_CAPACITY} entries
+     */
+    public ScheduleCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a cache
+     *
+     * @param capacity Maximum number of cached schedules
+     */
+    public ScheduleCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CompletableFuture<int[]>> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Schedules orders, reusing an earlier result for the same algorithm and input
+     *
+     * @param algorithm Algorithm to apply
+     * @param orders Orders to schedule
+     * @return The caller's orders in scheduled order
+     */
+    public List<Order> schedule(SchedulingAlgorithm algorithm, List<Order> orders) {
+        Key key = new Key(algorithm.getClass().getName(), orders.size(), fingerprint(orders));
+
+        CompletableFuture<int[]> result;
+        boolean compute = false;
+        synchronized (this) {
+            result = results.get(key);
+            if (result == null) {
+                result = new CompletableFuture<>();
+                results.put(key, result);
+                compute = true;
+                misses++;
+            } else {
+                hits++;
+            }
+        }
+
+        if (compute) {
+            List<Order> scheduled;
+            try {
+                scheduled = algorithm.schedule(orders);
+            } catch (RuntimeException e) {
+                discard(key, result, e);
+                throw e;
+            }
+            int[] positions = positions(orders, scheduled);
+            if (positions == null) {
+                discard(key, result, new IllegalStateException(
+                    algorithm.getAlgorithmName() + " returned orders that were not in its input"));
+            } else {
+                result.complete(positions);
+            }
+            return scheduled;
+        }
+
+        int[] positions;
+        try {
+            positions = result.join();
+        } catch (CompletionException e) {
+            // The computing caller failed and reports it; this one schedules on its own
+            return algorithm.schedule(orders);
+        }
+        List<Order> scheduled = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            scheduled.add(orders.get(position));
+        }
+        return scheduled;
+    }
+
+    /**
+     * Schedules orders like {@link #schedule(SchedulingAlgorithm, List)} and times them for a kitchen
+     *
+     * The sequence is shared through the cache, so it is the algorithm's
+     * {@link SchedulingAlgorithm#schedule(List)}; only the times use the context.
+     *
+     * @param algorithm Algorithm to apply
+     * @param orders Orders to schedule
+     * @param context Kitchen to time the schedule in
+     * @return The caller's orders in scheduled order, with projected times
+     */
+    public Schedule schedule(SchedulingAlgorithm algorithm, List<Order> orders, SchedulingContext context) {
+        return algorithm.toSchedule(schedule(algorithm, orders), context);
+    }
+
+    /**
+     * Computes the fingerprint of an input; equal inputs in the same order have equal fingerprints
+     *
+     * @param orders Orders to schedule
+     * @return 64-bit fingerprint
+     */
+    public static long fingerprint(List<Order> orders) {
+        long hash = orders.size();
+        for (Order order : orders) {
+            hash = mix(hash, order.getOrderId());
+            hash = mix(hash, order.getStatus() != null ? order.getStatus().ordinal() : -1);
+            hash = mix(hash, ((long) order.getPriority() << 32) | (order.getEstimatedTime() & 0xFFFFFFFFL));
+            hash = mix(hash, ((long) order.getTableId() << 32) | (order.getBranchId() & 0xFFFFFFFFL));
+            hash = mix(hash, order.getStaffId() != null ? order.getStaffId() : Long.MIN_VALUE);
+            LocalDateTime createdAt = order.getCreatedAt();
+            hash = mix(hash, createdAt != null
+                ? createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + createdAt.getNano() : Long.MIN_VALUE);
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the number of calls answered from the cache, including calls that waited for a running computation
+     *
+     * @return Hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of calls that computed a schedule
+     *
+     * @return Miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Removes all cached schedules
+     */
+    public synchronized void clear() {
+        results.clear();
+    }
+
+    private synchronized void discard(Key key, CompletableFuture<int[]> result, RuntimeException cause) {
+        results.remove(key, result);
+        result.completeExceptionally(cause);
+    }
+
+    /**
+     * Maps each scheduled order to its position in the input
+     *
+     * @return Input positions in scheduled order, or null if a scheduled order is not part of the input
+     */
+    private static int[] positions(List<Order> orders, List<Order> scheduled) {
+        Map<Order, Integer> inputPositions = new IdentityHashMap<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            inputPositions.put(orders.get(i), i);
+        }
+        int[] positions = new int[scheduled.size()];
+        for (int i = 0; i < positions.length; i++) {
+            Integer position = inputPositions.get(scheduled.get(i));
+            if (position == null) {
+                return null;
+            }
+            positions[i] = position;
+        }
+        return positions;
+    }
+
+    private static long mix(long hash, long value) {
+        long h = (hash ^ value) * MIX;
+        return h ^ (h >>> 29);
+    }
+}
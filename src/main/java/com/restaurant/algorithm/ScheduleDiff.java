@@ -0,0 +1,244 @@
+package com.restaurant.algorithm;
+
+import com.restaurant.model.Order;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Minimal edit script between two versions of a schedule
+ *
+ * Orders are matched by order ID. The diff contains:
+ *
+ * - REMOVED: an order that is no longer in the schedule
+ * - INSERTED: a new order and its position in the new schedule
+ * - MOVED: an order whose position changed relative to the others
+ * - STATUS_CHANGED / UPDATED: an order whose status or other displayed
+ *   fields changed (reported in addition to a move, if any)
+ *
+ * Moves are kept to a minimum: the orders that keep their relative order form
+ * a longest increasing subsequence of old positions and are not reported as
+ * moved. A schedule where one order jumped to the front therefore produces
+ * one MOVED change, not one per shifted order.
+ *
+ * Changes are listed with all removals first, followed by the other changes
+ * by ascending new position. Applying them in that order (see
+ * {@link #apply}) turns the old schedule into the new one:
+ * remove every REMOVED and MOVED order, then insert every INSERTED and MOVED
+ * order at its new position, then replace updated orders in place.
+ */
+public class ScheduleDiff {
+
+    /**
+     * Kind of change
+     */
+    public enum ChangeType {
+        REMOVED,
+        INSERTED,
+        MOVED,
+        STATUS_CHANGED,
+        UPDATED
+    }
+
+    /**
+     * One change of the edit script
+     */
+    public static class Change {
+        private final ChangeType type;
+        private final int orderId;
+        private final int fromIndex;
+        private final int toIndex;
+        private final Order order;
+
+        private Change(ChangeType type, int orderId, int fromIndex, int toIndex, Order order) {
+            this.type = type;
+            this.orderId = orderId;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.order = order;
+        }
+
+        public ChangeType getType() {
+            return type;
+        }
+
+        public int getOrderId() {
+            return orderId;
+        }
+
+        /**
+         * Gets the position in the old schedule
+         *
+         * @return Old index, or -1 for inserted orders
+         */
+        public int getFromIndex() {
+            return fromIndex;
+        }
+
+        /**
+         * Gets the position in the new schedule
+         *
+         * @return New index, or -1 for removed orders
+         */
+        public int getToIndex() {
+            return toIndex;
+        }
+
+        /**
+         * Gets the new version of the order
+         *
+         * @return Order from the new schedule, or null for removed orders
+         */
+        public Order getOrder() {
+            return order;
+        }
+
+        @Override
+        public String toString() {
+            return type + " order " + orderId + " [" + fromIndex + " -> " + toIndex + "]";
+        }
+    }
+
+    private ScheduleDiff() {
+    }
+
+    /**
+     * Computes the changes that turn one schedule into another
+     *
+     * @param oldSchedule Previous schedule
+     * @param newSchedule Current schedule
+     * @return Changes in application order (empty if nothing changed)
+     */
+    public static List<Change> compute(List<Order> oldSchedule, List<Order> newSchedule) {
+        Map<Integer, Integer> oldIndexById = new HashMap<>(oldSchedule.size() * 2);
+        for (int i = 0; i < oldSchedule.size(); i++) {
+            oldIndexById.put(oldSchedule.get(i).getOrderId(), i);
+        }
+
+        // Old index of every order of the new schedule (-1 = inserted)
+        int[] oldIndexOfNew = new int[newSchedule.size()];
+        boolean[] stillPresent = new boolean[oldSchedule.size()];
+        for (int j = 0; j < newSchedule.size(); j++) {
+            Integer oldIndex = oldIndexById.get(newSchedule.get(j).getOrderId());
+            oldIndexOfNew[j] = oldIndex != null ? oldIndex : -1;
+            if (oldIndex != null) {
+                stillPresent[oldIndex] = true;
+            }
+        }
+
+        List<Change> changes = new ArrayList<>();
+        for (int i = oldSchedule.size() - 1; i >= 0; i--) {
+            if (!stillPresent[i]) {
+                changes.add(new Change(ChangeType.REMOVED, oldSchedule.get(i).getOrderId(), i, -1, null));
+            }
+        }
+
+        boolean[] keepsPosition = longestIncreasingSubsequence(oldIndexOfNew);
+        for (int j = 0; j < newSchedule.size(); j++) {
+            Order order = newSchedule.get(j);
+            int oldIndex = oldIndexOfNew[j];
+            if (oldIndex < 0) {
+                changes.add(new Change(ChangeType.INSERTED, order.getOrderId(), -1, j, order));
+                continue;
+            }
+            if (!keepsPosition[j]) {
+                changes.add(new Change(ChangeType.MOVED, order.getOrderId(), oldIndex, j, order));
+            }
+            Order previous = oldSchedule.get(oldIndex);
+            if (previous.getStatus() != order.getStatus()) {
+                changes.add(new Change(ChangeType.STATUS_CHANGED, order.getOrderId(), oldIndex, j, order));
+            } else if (!sameDisplayedFields(previous, order)) {
+                changes.add(new Change(ChangeType.UPDATED, order.getOrderId(), oldIndex, j, order));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Applies changes produced by {@link #compute} to the old schedule
+     *
+     * @param schedule Old schedule; modified in place
+     * @param changes Changes in the order returned by compute()
+     */
+    public static void apply(List<Order> schedule, List<Change> changes) {
+        Map<Integer, Integer> indexById = new HashMap<>(schedule.size() * 2);
+        for (int i = 0; i < schedule.size(); i++) {
+            indexById.put(schedule.get(i).getOrderId(), i);
+        }
+
+        List<Integer> removals = new ArrayList<>();
+        for (Change change : changes) {
+            if (change.type == ChangeType.REMOVED || change.type == ChangeType.MOVED) {
+                Integer index = indexById.get(change.orderId);
+                if (index != null) {
+                    removals.add(index);
+                }
+            }
+        }
+        removals.sort((a, b) -> Integer.compare(b, a));
+        for (int index : removals) {
+            schedule.remove(index);
+        }
+
+        for (Change change : changes) {
+            if (change.type == ChangeType.INSERTED || change.type == ChangeType.MOVED) {
+                schedule.add(change.toIndex, change.order);
+            }
+        }
+        for (Change change : changes) {
+            if (change.type == ChangeType.STATUS_CHANGED || change.type == ChangeType.UPDATED) {
+                schedule.set(change.toIndex, change.order);
+            }
+        }
+    }
+
+    private static boolean sameDisplayedFields(Order a, Order b) {
+        return a.getPriority() == b.getPriority()
+            && a.getEstimatedTime() == b.getEstimatedTime()
+            && a.getTableId() == b.getTableId()
+            && Double.compare(a.getTotalAmount(), b.getTotalAmount()) == 0
+            && Objects.equals(a.getOrderNumber(), b.getOrderNumber())
+            && Objects.equals(a.getStaffId(), b.getStaffId());
+    }
+
+    /**
+     * Marks the positions that belong to a longest strictly increasing
+     * subsequence of the non-negative values (patience sorting, O(n log n))
+     */
+    private static boolean[] longestIncreasingSubsequence(int[] values) {
+        int n = values.length;
+        int[] tailValue = new int[n];
+        int[] tailPosition = new int[n];
+        int[] predecessor = new int[n];
+        int length = 0;
+
+        for (int j = 0; j < n; j++) {
+            int value = values[j];
+            if (value < 0) {
+                continue;
+            }
+            int slot = Arrays.binarySearch(tailValue, 0, length, value);
+            if (slot < 0) {
+                slot = -slot - 1;
+            }
+            tailValue[slot] = value;
+            tailPosition[slot] = j;
+            predecessor[j] = slot > 0 ? tailPosition[slot - 1] : -1;
+            if (slot == length) {
+                length++;
+            }
+        }
+
+        boolean[] inSubsequence = new boolean[n];
+        int position = length > 0 ? tailPosition[length - 1] : -1;
+        while (position >= 0) {
+            inSubsequence[position] = true;
+            position = predecessor[position];
+        }
+        return inSubsequence;
+    }
+}
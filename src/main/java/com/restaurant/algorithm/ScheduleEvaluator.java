@@ -0,0 +1,455 @@
+package com.restaurant.algorithm;
+
+import com.restaurant.model.MenuItem;
+import com.restaurant.model.Order;
+import com.restaurant.model.OrderItem;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental cost of an order sequence in a kitchen with stations
+ *
+ * Every order needs work at the stations of its menu items (the longest
+ * prep time of its items per station, since items of one station are cooked
+ * together); an order without menu items needs its estimated time on a
+ * general line. Each station has the same number of cooks. Orders go
+ * through the sequence in turn: at every station it needs, an order starts
+ * with the cook that is free first, but not before it was created. An
+ * order is ready when its last station is done. Times are whole minutes
+ * from the start of the schedule.
+ *
+ * The cost combines, with {@link CostWeights}:
+ * <ul>
+ *   <li>wait: the minutes from creation to ready, summed over all orders;</li>
+ *   <li>tardiness: minutes ready after the due time, weighted 11 - priority;</li>
+ *   <li>makespan: the minute the last order is ready;</li>
+ *   <li>priority violations: orders sequenced before an order of higher
+ *       priority (lower number) that was created no later.</li>
+ * </ul>
+ *
+ * A move changes the sequence from some position on, so the evaluator keeps
+ * the state after every position (station free times and cost sums) and
+ * evaluates a move from its first changed position only. Priority
+ * violations of earlier positions do not change either, since the set of
+ * orders behind them stays the same. Evaluating a move allocates nothing.
+ *
+ * Not thread-safe; use {@link #copy()} for every thread.
+ */
+public class ScheduleEvaluator {
+    private static final int PRIORITIES = 10;
+    /** Resource of orders without menu items */
+    private static final int LINE = MenuItem.Station.values().length;
+    private static final int RESOURCES = LINE + 1;
+
+    /**
+     * Cost of a sequence split by objective
+     */
+    public static final class Breakdown {
+        private final long waitMinutes;
+        private final long weightedTardiness;
+        private final int makespan;
+        private final int priorityViolations;
+        private final double cost;
+
+        Breakdown(long waitMinutes, long weightedTardiness, int makespan, int priorityViolations, double cost) {
+            this.waitMinutes = waitMinutes;
+            this.weightedTardiness = weightedTardiness;
+            this.makespan = makespan;
+            this.priorityViolations = priorityViolations;
+            this.cost = cost;
+        }
+
+        public long getWaitMinutes() {
+            return waitMinutes;
+        }
+
+        public long getWeightedTardiness() {
+            return weightedTardiness;
+        }
+
+        public int getMakespan() {
+            return makespan;
+        }
+
+        public int getPriorityViolations() {
+            return priorityViolations;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+    }
+
+    // Instance, shared by copies
+    private final List<Order> orders;
+    private final CostWeights weights;
+    private final int cooks;
+    private final int n;
+    private final int[] release;
+    private final int[] weight;
+    private final int[] priority;
+    private final int[] due;
+    /** Tasks of order j are taskStart[j] .. taskStart[j + 1] - 1 */
+    private final int[] taskStart;
+    private final int[] taskResource;
+    private final int[] taskMinutes;
+
+    // State of this copy
+    private final int slots;
+    private final int[] sequence;
+    private final int[] prefixFree;
+    private final long[] prefixWait;
+    private final long[] prefixTardiness;
+    private final int[] prefixMakespan;
+    private final int[] prefixViolations;
+    private final int[] free;
+    private final int[] urgentRelease = new int[PRIORITIES + 1];
+    private double cost;
+    private int pendingFrom = -1;
+    private int moveA;
+    private int moveB;
+    private boolean moveIsSwap;
+
+    /**
+     * Creates an evaluator with the orders in their given sequence
+     *
+     * @param orders Orders to sequence; items with a menu item define the station work
+     * @param start Start of the schedule; orders created earlier are available at once.
+     *              null makes every order available at once
+     * @param weights Weights of the objectives
+     * @param cooks Cooks per station
+     */
+    public ScheduleEvaluator(List<Order> orders, LocalDateTime start, CostWeights weights, int cooks) {
+        if (cooks < 1) {
+            throw new IllegalArgumentException("At least one cook per station is required");
+        }
+        this.orders = new ArrayList<>(orders);
+        this.weights = weights;
+        this.cooks = cooks;
+        this.n = orders.size();
+        this.release = new int[n];
+        this.weight = new int[n];
+        this.priority = new int[n];
+        this.due = new int[n];
+        this.taskStart = new int[n + 1];
+        List<int[]> tasks = new ArrayList<>();
+        int[] stationMinutes = new int[RESOURCES];
+        for (int j = 0; j < n; j++) {
+            Order order = orders.get(j);
+            release[j] = start == null || order.getCreatedAt() == null
+                ? 0 : (int) Math.max(0, Duration.between(start, order.getCreatedAt()).toMinutes());
+            priority[j] = Math.min(PRIORITIES, Math.max(1, order.getPriority()));
+            weight[j] = 11 - priority[j];
+            due[j] = release[j] + weights.getDueMinutes();
+
+            Arrays.fill(stationMinutes, -1);
+            if (order.getItems() != null) {
+                for (OrderItem item : order.getItems()) {
+                    MenuItem menuItem = item.getMenuItem();
+                    if (menuItem != null && menuItem.getStation() != null) {
+                        int station = menuItem.getStation().ordinal();
+                        stationMinutes[station] = Math.max(stationMinutes[station], menuItem.getPrepTime());
+                    }
+                }
+            }
+            taskStart[j] = tasks.size();
+            for (int s = 0; s < LINE; s++) {
+                if (stationMinutes[s] >= 0) {
+                    tasks.add(new int[] {s, stationMinutes[s]});
+                }
+            }
+            if (tasks.size() == taskStart[j]) {
+                tasks.add(new int[] {LINE, Math.max(0, order.getEstimatedTime())});
+            }
+        }
+        taskStart[n] = tasks.size();
+        this.taskResource = new int[tasks.size()];
+        this.taskMinutes = new int[tasks.size()];
+        for (int t = 0; t < tasks.size(); t++) {
+            taskResource[t] = tasks.get(t)[0];
+            taskMinutes[t] = tasks.get(t)[1];
+        }
+
+        this.slots = RESOURCES * cooks;
+        this.sequence = new int[n];
+        for (int j = 0; j < n; j++) {
+            sequence[j] = j;
+        }
+        this.prefixFree = new int[(n + 1) * slots];
+        this.prefixWait = new long[n + 1];
+        this.prefixTardiness = new long[n + 1];
+        this.prefixMakespan = new int[n + 1];
+        this.prefixViolations = new int[n + 1];
+        this.free = new int[slots];
+        this.cost = evaluateFrom(0, true);
+    }
+
+    /**
+     * Creates an evaluator for the same instance and sequence, for another thread
+     */
+    private ScheduleEvaluator(ScheduleEvaluator other) {
+        this.orders = other.orders;
+        this.weights = other.weights;
+        this.cooks = other.cooks;
+        this.n = other.n;
+        this.release = other.release;
+        this.weight = other.weight;
+        this.priority = other.priority;
+        this.due = other.due;
+        this.taskStart = other.taskStart;
+        this.taskResource = other.taskResource;
+        this.taskMinutes = other.taskMinutes;
+        this.slots = other.slots;
+        this.sequence = other.sequence.clone();
+        this.prefixFree = other.prefixFree.clone();
+        this.prefixWait = other.prefixWait.clone();
+        this.prefixTardiness = other.prefixTardiness.clone();
+        this.prefixMakespan = other.prefixMakespan.clone();
+        this.prefixViolations = other.prefixViolations.clone();
+        this.free = new int[slots];
+        this.cost = other.cost;
+    }
+
+    /**
+     * Creates an independent evaluator with the same orders and current sequence
+     *
+     * @return Copy for use on another thread
+     */
+    public ScheduleEvaluator copy() {
+        return new ScheduleEvaluator(this);
+    }
+
+    public int size() {
+        return n;
+    }
+
+    /**
+     * Gets the cost of the current sequence
+     *
+     * @return Weighted cost
+     */
+    public double getCost() {
+        return cost;
+    }
+
+    /**
+     * Replaces the sequence
+     *
+     * @param newSequence Positions of the orders in the constructor's list, in processing order
+     * @return Cost of the new sequence
+     */
+    public double setSequence(int[] newSequence) {
+        if (newSequence.length != n) {
+            throw new IllegalArgumentException("Sequence has " + newSequence.length + " orders instead of " + n);
+        }
+        System.arraycopy(newSequence, 0, sequence, 0, n);
+        pendingFrom = -1;
+        cost = evaluateFrom(0, true);
+        return cost;
+    }
+
+    /**
+     * Replaces the sequence with orders of the constructor's list in a given order
+     *
+     * @param ordered The same order objects in processing order
+     * @return Cost of the new sequence
+     * @throws IllegalArgumentException if the orders are not the evaluator's
+     */
+    public double setSequence(List<Order> ordered) {
+        if (ordered.size() != n) {
+            throw new IllegalArgumentException("Sequence has " + ordered.size() + " orders instead of " + n);
+        }
+        Map<Order, Integer> positions = new IdentityHashMap<>(n);
+        for (int j = 0; j < n; j++) {
+            positions.put(orders.get(j), j);
+        }
+        int[] newSequence = new int[n];
+        for (int q = 0; q < n; q++) {
+            Integer j = positions.remove(ordered.get(q));
+            if (j == null) {
+                throw new IllegalArgumentException("Order " + ordered.get(q).getOrderId() + " is not part of this schedule");
+            }
+            newSequence[q] = j;
+        }
+        return setSequence(newSequence);
+    }
+
+    /**
+     * Copies the current sequence
+     *
+     * @param target Array of {@link #size()} positions to fill
+     */
+    public void getSequence(int[] target) {
+        System.arraycopy(sequence, 0, target, 0, n);
+    }
+
+    /**
+     * Gets the orders in the current sequence
+     *
+     * @return Orders in processing order
+     */
+    public List<Order> getOrders() {
+        List<Order> ordered = new ArrayList<>(n);
+        for (int j : sequence) {
+            ordered.add(orders.get(j));
+        }
+        return ordered;
+    }
+
+    /**
+     * Evaluates exchanging the orders at two positions; call {@link #keep()} or {@link #undo()} next
+     *
+     * @param a First position
+     * @param b Second position
+     * @return Cost with the exchange
+     */
+    public double trySwap(int a, int b) {
+        int order = sequence[a];
+        sequence[a] = sequence[b];
+        sequence[b] = order;
+        return pending(Math.min(a, b), a, b, true);
+    }
+
+    /**
+     * Evaluates moving the order at one position to another; call {@link #keep()} or {@link #undo()} next
+     *
+     * @param from Current position
+     * @param to New position; the orders in between shift by one
+     * @return Cost with the move
+     */
+    public double tryMove(int from, int to) {
+        shift(from, to);
+        return pending(Math.min(from, to), from, to, false);
+    }
+
+    /**
+     * Keeps the move evaluated last
+     */
+    public void keep() {
+        if (pendingFrom < 0) {
+            throw new IllegalStateException("No move to keep");
+        }
+        cost = evaluateFrom(pendingFrom, true);
+        pendingFrom = -1;
+    }
+
+    /**
+     * Restores the sequence before the move evaluated last
+     */
+    public void undo() {
+        if (pendingFrom < 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        if (moveIsSwap) {
+            int order = sequence[moveA];
+            sequence[moveA] = sequence[moveB];
+            sequence[moveB] = order;
+        } else {
+            shift(moveB, moveA);
+        }
+        pendingFrom = -1;
+    }
+
+    /**
+     * Splits the cost of the current sequence by objective
+     *
+     * @return Cost breakdown
+     */
+    public Breakdown getBreakdown() {
+        return new Breakdown(prefixWait[n], prefixTardiness[n], prefixMakespan[n], prefixViolations[n], cost);
+    }
+
+    private double pending(int from, int a, int b, boolean swap) {
+        if (pendingFrom >= 0) {
+            throw new IllegalStateException("Keep or undo the previous move first");
+        }
+        pendingFrom = from;
+        moveA = a;
+        moveB = b;
+        moveIsSwap = swap;
+        return evaluateFrom(from, false);
+    }
+
+    private void shift(int from, int to) {
+        int order = sequence[from];
+        if (from < to) {
+            System.arraycopy(sequence, from + 1, sequence, from, to - from);
+        } else {
+            System.arraycopy(sequence, to, sequence, to + 1, from - to);
+        }
+        sequence[to] = order;
+    }
+
+    /**
+     * Computes the cost with positions from..n-1 as they are now and the stored state before
+     *
+     * @param commit Whether to store the state after every position
+     */
+    private double evaluateFrom(int from, boolean commit) {
+        System.arraycopy(prefixFree, from * slots, free, 0, slots);
+        long wait = prefixWait[from];
+        long tardiness = prefixTardiness[from];
+        int makespan = prefixMakespan[from];
+        for (int q = from; q < n; q++) {
+            int j = sequence[q];
+            int ready = release[j];
+            for (int t = taskStart[j]; t < taskStart[j + 1]; t++) {
+                int base = taskResource[t] * cooks;
+                int cook = base;
+                for (int c = base + 1; c < base + cooks; c++) {
+                    if (free[c] < free[cook]) {
+                        cook = c;
+                    }
+                }
+                int end = Math.max(free[cook], release[j]) + taskMinutes[t];
+                free[cook] = end;
+                ready = Math.max(ready, end);
+            }
+            wait += ready - release[j];
+            tardiness += (long) weight[j] * Math.max(0, ready - due[j]);
+            makespan = Math.max(makespan, ready);
+            if (commit) {
+                System.arraycopy(free, 0, prefixFree, (q + 1) * slots, slots);
+                prefixWait[q + 1] = wait;
+                prefixTardiness[q + 1] = tardiness;
+                prefixMakespan[q + 1] = makespan;
+            }
+        }
+
+        // Backwards: an order is a violation if a more urgent order created no later comes after it
+        Arrays.fill(urgentRelease, Integer.MAX_VALUE);
+        int violations = 0;
+        for (int q = n - 1; q >= from; q--) {
+            int j = sequence[q];
+            if (urgentRelease[priority[j] - 1] <= release[j]) {
+                violations++;
+                if (commit) {
+                    // Marks the position; turned into prefix sums below
+                    prefixViolations[q + 1] = 1;
+                }
+            } else if (commit) {
+                prefixViolations[q + 1] = 0;
+            }
+            // urgentRelease[p] = earliest creation among later orders with priority p or more urgent
+            for (int p = priority[j]; p <= PRIORITIES; p++) {
+                if (release[j] < urgentRelease[p]) {
+                    urgentRelease[p] = release[j];
+                }
+            }
+        }
+        if (commit) {
+            for (int q = from; q < n; q++) {
+                prefixViolations[q + 1] += prefixViolations[q];
+            }
+        }
+        violations += prefixViolations[from];
+        return weights.getWait() * wait + weights.getTardiness() * tardiness
+               + weights.getMakespan() * makespan + weights.getPriority() * violations;
+    }
+}
@@ -0,0 +1,122 @@
+package com.restaurant.algorithm;
+
+import com.restaurant.model.Order;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aggregate metrics for a scheduled order sequence
+ *
+ * Orders are assumed to be prepared one after another by a single kitchen,
+ * in the sequence produced by a scheduling algorithm. The waiting time of an
+ * order is the sum of the estimated times of all orders before it, and the
+ * makespan is the time at which the last order is finished.
+ *
+ * {@link Schedule} computes the same metrics for several chefs, orders in
+ * progress and time-sliced algorithms; with one idle chef and no time slices
+ * both give the same numbers.
+ */
+public class ScheduleMetrics {
+    private final int orderCount;
+    private final long totalWait;
+    private final double averageWait;
+    private final int medianWait;
+    private final int p95Wait;
+    private final int maxWait;
+    private final int makespan;
+
+    private ScheduleMetrics(int orderCount, long totalWait, int medianWait, int p95Wait, int maxWait, int makespan) {
+        this.orderCount = orderCount;
+        this.totalWait = totalWait;
+        this.averageWait = orderCount == 0 ? 0.0 : totalWait / (double) orderCount;
+        this.medianWait = medianWait;
+        this.p95Wait = p95Wait;
+        this.maxWait = maxWait;
+        this.makespan = makespan;
+    }
+
+    /**
+     * Computes the metrics of an order sequence
+     *
+     * @param scheduledOrders Orders in processing order
+     * @return Metrics for the sequence
+     */
+    public static ScheduleMetrics of(List<Order> scheduledOrders) {
+        int n = scheduledOrders.size();
+        if (n == 0) {
+            return new ScheduleMetrics(0, 0, 0, 0, 0, 0);
+        }
+
+        int[] waits = new int[n];
+        long totalWait = 0;
+        int currentTime = 0;
+        for (int i = 0; i < n; i++) {
+            waits[i] = currentTime;
+            totalWait += currentTime;
+            currentTime += scheduledOrders.get(i).getEstimatedTime();
+        }
+        return of(waits, totalWait, currentTime);
+    }
+
+    /**
+     * Computes the metrics from the waits of a timed schedule
+     *
+     * @param waits Wait of every order until it starts; sorted in place
+     * @param totalWait Sum of the waits
+     * @param makespan Time the last order is finished
+     * @return Metrics for the schedule
+     */
+    static ScheduleMetrics of(int[] waits, long totalWait, int makespan) {
+        int n = waits.length;
+        if (n == 0) {
+            return new ScheduleMetrics(0, 0, 0, 0, 0, makespan);
+        }
+        // Waits are already non-decreasing for a single kitchen, but sort anyway
+        // so that negative or zero estimates cannot skew the percentiles
+        Arrays.sort(waits);
+        return new ScheduleMetrics(n, totalWait, percentile(waits, 0.50), percentile(waits, 0.95),
+                                   waits[n - 1], makespan);
+    }
+
+    /**
+     * Nearest-rank percentile of a sorted array
+     */
+    private static int percentile(int[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public long getTotalWait() {
+        return totalWait;
+    }
+
+    public double getAverageWait() {
+        return averageWait;
+    }
+
+    public int getMedianWait() {
+        return medianWait;
+    }
+
+    public int getP95Wait() {
+        return p95Wait;
+    }
+
+    public int getMaxWait() {
+        return maxWait;
+    }
+
+    public int getMakespan() {
+        return makespan;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d orders | Avg Wait: %.1f min | P95 Wait: %d min | Max Wait: %d min | Makespan: %d min",
+            orderCount, averageWait, p95Wait, maxWait, makespan);
+    }
+}
@@ -1,6 +1,7 @@
 package com.restaurant.algorithm;
 
 import com.restaurant.model.Order;
+import java.util.Comparator;
 import java.util.List;
 
 /**
@@ -18,6 +19,35 @@ public interface SchedulingAlgorithm {
      */
     List<Order> schedule(List<Order> orders);
 
+    /**
+     * Schedules orders for a kitchen and times the result
+     *
+     * Algorithms that can use the time, the chefs, the orders in progress or
+     * the cost weights override this; by default the orders are sequenced
+     * with {@link #schedule(List)} and timed with {@link #toSchedule}.
+     *
+     * @param orders Orders to schedule
+     * @param context Kitchen to schedule for
+     * @return Sequence with projected times and metrics
+     */
+    default Schedule schedule(List<Order> orders, SchedulingContext context) {
+        return toSchedule(schedule(orders), context);
+    }
+
+    /**
+     * Times a sequence this algorithm produced
+     *
+     * Lets callers that already have the sequence, e.g. from a
+     * {@link ScheduleCache}, get the times without scheduling again.
+     *
+     * @param sequence Orders in processing order
+     * @param context Kitchen to time the sequence in
+     * @return Sequence with projected times and metrics
+     */
+    default Schedule toSchedule(List<Order> sequence, SchedulingContext context) {
+        return Schedule.sequential(sequence, context);
+    }
+
     /**
      * Gets the name of the algorithm
      * 
@@ -31,5 +61,17 @@ public interface SchedulingAlgorithm {
      * @return Algorithm description
      */
     String getDescription();
-}
 
+    /**
+     * Gets the order this algorithm sorts the queue by, if it is a plain sort
+     *
+     * {@link OnlineRescheduler} uses it to insert an arriving order at its
+     * place instead of scheduling the whole queue again. Ties must be broken
+     * so that no two orders compare equal.
+     *
+     * @return Queue order, or null if the algorithm has to see the whole queue
+     */
+    default Comparator<Order> getQueueOrder() {
+        return null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.restaurant.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+/**
+ * Registry and lookup for the available scheduling algorithms
+ *
+ * Algorithms are discovered through {@link ServiceLoader}: every class
+ * listed in a META-INF/services/com.restaurant.algorithm.SchedulingAlgorithm
+ * file on the class path is offered, so a plugin jar adds algorithms without
+ * code changes here. The built-in algorithms are listed in this project's
+ * own service file. Discovery only loads the classes; an algorithm is
+ * instantiated the first time it is used and then shared, which is why
+ * algorithms must be stateless.
+ *
+ * Headless commands, the HTTP service and the desktop UI use this class so
+ * that all of them offer the same set of algorithms.
+ */
+public class SchedulingAlgorithms {
+
+    /**
+     * One discovered algorithm, instantiated on first use
+     */
+    private static final class Entry {
+        final ServiceLoader.Provider<SchedulingAlgorithm> provider;
+        final String key;
+        private volatile SchedulingAlgorithm instance;
+
+        Entry(ServiceLoader.Provider<SchedulingAlgorithm> provider) {
+            this.provider = provider;
+            this.key = provider.type().getSimpleName();
+        }
+
+        SchedulingAlgorithm get() {
+            SchedulingAlgorithm algorithm = instance;
+            if (algorithm == null) {
+                synchronized (this) {
+                    algorithm = instance;
+                    if (algorithm == null) {
+                        algorithm = provider.get();
+                        instance = algorithm;
+                    }
+                }
+            }
+            return algorithm;
+        }
+    }
+
+    /**
+     * Discovered once, when the registry is first used
+     */
+    private static final class Registry {
+        static final List<Entry> ENTRIES = ServiceLoader.load(SchedulingAlgorithm.class).stream()
+            .map(Entry::new)
+            .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+    }
+
+    private SchedulingAlgorithms() {
+    }
+
+    /**
+     * Gets the keys (simple class names) of all available algorithms without instantiating them
+     *
+     * @return Keys in discovery order
+     */
+    public static List<String> keys() {
+        List<String> keys = new ArrayList<>(Registry.ENTRIES.size());
+        for (Entry entry : Registry.ENTRIES) {
+            keys.add(entry.key);
+        }
+        return keys;
+    }
+
+    /**
+     * Gets every available algorithm
+     *
+     * The instances are shared with all other callers.
+     *
+     * @return List of algorithms in discovery order
+     */
+    public static List<SchedulingAlgorithm> createAll() {
+        List<SchedulingAlgorithm> algorithms = new ArrayList<>(Registry.ENTRIES.size());
+        for (Entry entry : Registry.ENTRIES) {
+            algorithms.add(entry.get());
+        }
+        return algorithms;
+    }
+
+    /**
+     * Gets an algorithm by its class name or display name (case-insensitive)
+     *
+     * A class name is resolved without instantiating any other algorithm.
+     *
+     * @param key Simple class name (e.g. "RoundRobinScheduling") or display name (e.g. "Round Robin Scheduling")
+     * @return Shared algorithm instance, or null if none matches
+     */
+    public static SchedulingAlgorithm get(String key) {
+        for (Entry entry : Registry.ENTRIES) {
+            if (entry.key.equalsIgnoreCase(key)) {
+                return entry.get();
+            }
+        }
+        return find(createAll(), key);
+    }
+
+    /**
+     * Finds an algorithm by its display name or class name (case-insensitive)
+     *
+     * @param algorithms Algorithms to search
+     * @param key Display name (e.g. "Round Robin Scheduling") or simple class name (e.g. "RoundRobinScheduling")
+     * @return Matching algorithm, or null if none matches
+     */
+    public static SchedulingAlgorithm find(List<SchedulingAlgorithm> algorithms, String key) {
+        for (SchedulingAlgorithm algorithm : algorithms) {
+            if (algorithm.getAlgorithmName().equalsIgnoreCase(key)
+                    || algorithm.getClass().getSimpleName().equalsIgnoreCase(key)) {
+                return algorithm;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package com.restaurant.algorithm;
+
+import com.restaurant.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The kitchen a schedule is made for
+ *
+ * Holds the time of the schedule, the number of chefs, the orders they are
+ * working on, optional cost weights and named algorithm parameters (such as
+ * {@link RoundRobinScheduling#QUANTUM_PARAMETER}). Algorithms that do not
+ * need a value ignore it, and an algorithm ignores parameters of other
+ * algorithms, so one context can be passed to every algorithm. Immutable.
+ */
+public final class SchedulingContext {
+    private final LocalDateTime now;
+    private final int chefs;
+    private final List<Order> inProgress;
+    private final CostWeights weights;
+    private final Map<String, Integer> parameters;
+
+    /**
+     * Creates a context of one idle chef
+     *
+     * @param now Time the schedule starts
+     */
+    public SchedulingContext(LocalDateTime now) {
+        this(now, 1, Collections.emptyList(), null, Collections.emptyMap());
+    }
+
+    /**
+     * Creates a context
+     *
+     * @param now Time the schedule starts
+     * @param chefs Number of chefs working in parallel
+     * @param inProgress Orders the chefs are preparing; each keeps a chef busy for its remaining time
+     * @param weights Weights for algorithms that minimize a cost, or null to leave them to the algorithm
+     * @param parameters Algorithm parameters by name
+     */
+    public SchedulingContext(LocalDateTime now, int chefs, List<Order> inProgress, CostWeights weights,
+                             Map<String, Integer> parameters) {
+        if (chefs < 1) {
+            throw new IllegalArgumentException("At least one chef is required");
+        }
+        this.now = Objects.requireNonNull(now);
+        this.chefs = chefs;
+        this.inProgress = List.copyOf(inProgress);
+        this.weights = weights;
+        this.parameters = Map.copyOf(parameters);
+    }
+
+    public LocalDateTime getNow() {
+        return now;
+    }
+
+    public int getChefs() {
+        return chefs;
+    }
+
+    /**
+     * Gets the orders in progress
+     *
+     * @return Read-only list
+     */
+    public List<Order> getInProgress() {
+        return inProgress;
+    }
+
+    /**
+     * Gets the cost weights
+     *
+     * @return Weights, or null if the algorithm uses its own
+     */
+    public CostWeights getWeights() {
+        return weights;
+    }
+
+    /**
+     * Gets an algorithm parameter
+     *
+     * @param name Parameter name
+     * @param defaultValue Value if the parameter is not set
+     * @return Parameter value
+     */
+    public int getParameter(String name, int defaultValue) {
+        return parameters.getOrDefault(name, defaultValue);
+    }
+}
@@ -25,17 +25,28 @@ import java.util.List;
  */
 public class ShortestProcessingTime implements SchedulingAlgorithm {
 
+    /** Estimated time, then oldest first, as the pending orders are loaded */
+    private static final Comparator<Order> QUEUE_ORDER = Comparator
+        .comparingInt(Order::getEstimatedTime)
+        .thenComparing(Order::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparingInt(Order::getOrderId);
+
     @Override
     public List<Order> schedule(List<Order> orders) {
         // Create a copy to avoid modifying the original list
         List<Order> scheduledOrders = new ArrayList<>(orders);
         
-        // Sort by estimated time (shortest first)
-        scheduledOrders.sort(Comparator.comparingInt(Order::getEstimatedTime));
+        // Sort by estimated time (shortest first); ties by creation time, then ID
+        scheduledOrders.sort(QUEUE_ORDER);
         
         return scheduledOrders;
     }
 
+    @Override
+    public Comparator<Order> getQueueOrder() {
+        return QUEUE_ORDER;
+    }
+
     @Override
     public String getAlgorithmName() {
         return "Shortest Processing Time (SPT)";
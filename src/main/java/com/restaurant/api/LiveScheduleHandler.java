@@ -0,0 +1,357 @@
+package com.restaurant.api;
+
+import com.restaurant.algorithm.OnlineRescheduler;
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.dao.OrderDAO;
+import com.restaurant.event.OrderEvent;
+import com.restaurant.event.OrderEventHandler;
+import com.restaurant.model.Order;
+import com.restaurant.store.ScheduleCheckpoint;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps the live kitchen schedules up to date from order lifecycle events
+ *
+ * The live schedule of an algorithm lists the orders in PREPARING first (they
+ * are already on the stove, oldest first), followed by the PENDING orders in
+ * the sequence chosen by the algorithm. After each batch of events the
+ * active orders are loaded once and every {@link ScheduleFeed} is updated, so
+ * a burst of status changes results in one database query and one diff per
+ * algorithm.
+ *
+ * Algorithms that sort the queue by a fixed order keep an {@link
+ * OnlineRescheduler} plan: while the same orders are in PREPARING, arriving
+ * orders are inserted at their place and finished or cancelled ones removed,
+ * instead of sorting the whole queue again. Any other change (an order
+ * started or edited) reloads the plan.
+ *
+ * For a fast restart the active orders and every feed can be written to a
+ * {@link ScheduleCheckpoint}. On startup the checkpoint is restored, so the
+ * feeds serve the last schedule right away, and {@link #replayDelta()} then
+ * loads only the orders changed since the checkpoint instead of the whole
+ * queue.
+ *
+ * Event IDs of the feeds carry a stream epoch. A checkpoint written at
+ * shutdown keeps it, so clients resume with their last event ID across the
+ * restart; after any other restart the epoch is new and clients reload.
+ */
+public class LiveScheduleHandler implements OrderEventHandler {
+    private static final int HISTORY_LIMIT = 256;
+    /** Re-read before the watermark: updated_at has whole seconds and is set before the change commits */
+    private static final Duration REPLAY_MARGIN = Duration.ofSeconds(5);
+    /**
+     * Oldest checkpoint that is caught up by a delta; older ones are reloaded in full, since
+     * an order finished since then may already have moved to the archive tables
+     */
+    private static final Duration MAX_REPLAY_AGE = Duration.ofHours(1);
+    private static final Comparator<Order> OLDEST_FIRST = Comparator
+        .comparing(Order::getCreatedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparingInt(Order::getOrderId);
+
+    private final OrderDAO orderDAO;
+    private final Map<String, ScheduleFeed> feeds = new LinkedHashMap<>();
+    private final Map<Integer, Order> active = new HashMap<>();
+    private LocalDateTime watermark;  // Database time up to which the active orders are complete
+    private Duration clockOffset;  // Database clock minus local clock, measured on first use
+    private volatile String streamEpoch = Long.toString(System.currentTimeMillis(), 36);
+    // Incremental plans by feed key, for algorithms with a queue order
+    private final Map<String, OnlineRescheduler> plans = new HashMap<>();
+    // Orders the plans were last brought up to date with; null until they are loaded
+    private Map<Integer, Order> plannedInProgress;
+    private final Map<Integer, Order> plannedPending = new HashMap<>();
+
+    /**
+     * Creates a handler with one feed per algorithm
+     *
+     * @param orderDAO DAO used to load the active orders
+     * @param algorithms Algorithms to maintain live schedules for
+     */
+    public LiveScheduleHandler(OrderDAO orderDAO, List<SchedulingAlgorithm> algorithms) {
+        this.orderDAO = orderDAO;
+        for (SchedulingAlgorithm algorithm : algorithms) {
+            String key = algorithm.getClass().getSimpleName();
+            feeds.put(key, new ScheduleFeed(algorithm, HISTORY_LIMIT));
+            if (algorithm.getQueueOrder() != null) {
+                // The feeds publish the sequence only: one chef and nothing frozen keeps it the algorithm's full order
+                plans.put(key, OnlineRescheduler.forAlgorithm(algorithm, 1, 0));
+            }
+        }
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+        if (endOfBatch) {
+            refresh();
+        }
+    }
+
+    /**
+     * Reloads the active orders and updates every feed
+     *
+     * If the database cannot be reached the feeds keep their last schedule.
+     */
+    public synchronized void refresh() {
+        try {
+            LocalDateTime loadedAt = databaseNow();
+            List<Order> loaded = orderDAO.loadOrdersByStatus(Order.OrderStatus.PREPARING, Order.OrderStatus.PENDING);
+            active.clear();
+            for (Order order : loaded) {
+                active.put(order.getOrderId(), order);
+            }
+            watermark = loadedAt;
+        } catch (SQLException e) {
+            System.err.println("Error loading active orders: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+        updateFeeds();
+    }
+
+    /**
+     * Restores the active orders and the feeds from a checkpoint
+     *
+     * The feeds continue at the checkpointed sequence numbers. If the
+     * checkpoint was written at shutdown its stream epoch is kept too, so
+     * clients that were connected before the restart can resume; a periodic
+     * checkpoint may be behind what clients saw, so they get a new epoch and
+     * a snapshot. Feeds of algorithms that are not in the checkpoint stay
+     * empty until the next update.
+     *
+     * @param file Checkpoint file
+     * @return Watermark of the checkpoint
+     * @throws IOException if the checkpoint cannot be read
+     */
+    public synchronized LocalDateTime restoreCheckpoint(Path file) throws IOException {
+        ScheduleCheckpoint checkpoint = ScheduleCheckpoint.read(file);
+        active.clear();
+        for (Order order : checkpoint.getOrders()) {
+            active.put(order.getOrderId(), order);
+        }
+        for (Map.Entry<String, ScheduleCheckpoint.FeedState> entry : checkpoint.getFeeds().entrySet()) {
+            ScheduleFeed feed = feeds.get(entry.getKey());
+            if (feed == null) {
+                continue;
+            }
+            List<Order> schedule = new ArrayList<>(entry.getValue().getOrderIds().length);
+            for (int orderId : entry.getValue().getOrderIds()) {
+                Order order = active.get(orderId);
+                if (order != null) {
+                    schedule.add(order);
+                }
+            }
+            feed.restore(entry.getValue().getSequence(), schedule);
+        }
+        if (checkpoint.isAtShutdown()) {
+            streamEpoch = checkpoint.getStreamEpoch();
+        }
+        plannedInProgress = null;
+        watermark = checkpoint.getWatermark();
+        return watermark;
+    }
+
+    /**
+     * Brings restored state up to date by loading only the orders changed since its watermark
+     *
+     * Falls back to a full {@link #refresh()} if nothing was restored or the
+     * checkpoint is too old to be caught up safely.
+     *
+     * @return Number of changed orders applied, or -1 if the orders were reloaded in full
+     * @throws SQLException if the changed orders cannot be loaded
+     */
+    public synchronized int replayDelta() throws SQLException {
+        LocalDateTime loadedAt = databaseNow();
+        if (watermark == null || watermark.isBefore(loadedAt.minus(MAX_REPLAY_AGE))) {
+            refresh();
+            return -1;
+        }
+        List<Order> changed = orderDAO.loadOrdersChangedSince(watermark.minus(REPLAY_MARGIN));
+        for (Order order : changed) {
+            if (order.getStatus() == Order.OrderStatus.PREPARING || order.getStatus() == Order.OrderStatus.PENDING) {
+                active.put(order.getOrderId(), order);
+            } else {
+                active.remove(order.getOrderId());
+            }
+        }
+        watermark = loadedAt;
+        updateFeeds();
+        return changed.size();
+    }
+
+    /**
+     * Writes the active orders, every feed and the watermark to a checkpoint
+     *
+     * @param file Checkpoint file; replaced atomically
+     * @param atShutdown Whether the feeds no longer change, i.e. event processing has stopped
+     * @return false if there is no state to write yet
+     * @throws IOException if the checkpoint cannot be written
+     */
+    public boolean writeCheckpoint(Path file, boolean atShutdown) throws IOException {
+        ScheduleCheckpoint checkpoint;
+        synchronized (this) {
+            if (watermark == null) {
+                return false;
+            }
+            Map<String, ScheduleCheckpoint.FeedState> feedStates = new LinkedHashMap<>();
+            for (Map.Entry<String, ScheduleFeed> entry : feeds.entrySet()) {
+                ScheduleFeed.Snapshot snapshot = entry.getValue().snapshot();
+                int[] orderIds = new int[snapshot.getOrders().size()];
+                for (int i = 0; i < orderIds.length; i++) {
+                    orderIds[i] = snapshot.getOrders().get(i).getOrderId();
+                }
+                feedStates.put(entry.getKey(), new ScheduleCheckpoint.FeedState(snapshot.getSequence(), orderIds));
+            }
+            checkpoint = new ScheduleCheckpoint(watermark, streamEpoch, atShutdown, new ArrayList<>(active.values()),
+                feedStates);
+        }
+        // Encoding and the disk write happen outside the lock, so events are not held up
+        checkpoint.write(file);
+        return true;
+    }
+
+    private void updateFeeds() {
+        List<Order> sorted = new ArrayList<>(active.values());
+        sorted.sort(OLDEST_FIRST);
+        List<Order> preparing = new ArrayList<>();
+        List<Order> pending = new ArrayList<>();
+        for (Order order : sorted) {
+            if (order.getStatus() == Order.OrderStatus.PREPARING) {
+                preparing.add(order);
+            } else {
+                pending.add(order);
+            }
+        }
+        List<Order> readOnlyPending = Collections.unmodifiableList(pending);
+        updatePlans(sorted, preparing, pending);
+
+        for (Map.Entry<String, ScheduleFeed> entry : feeds.entrySet()) {
+            ScheduleFeed feed = entry.getValue();
+            OnlineRescheduler plan = plans.get(entry.getKey());
+            if (plan != null) {
+                feed.update(plan.getOrders());
+                continue;
+            }
+            List<Order> live = new ArrayList<>(sorted.size());
+            live.addAll(preparing);
+            live.addAll(feed.getAlgorithm().schedule(readOnlyPending));
+            feed.update(live);
+        }
+    }
+
+    /**
+     * Brings the incremental plans up to date with the active orders
+     *
+     * Inserts and removes queued orders if the orders in progress are the
+     * same and no queued order was changed; otherwise loads every plan again.
+     */
+    private void updatePlans(List<Order> sorted, List<Order> preparing, List<Order> pending) {
+        if (plans.isEmpty()) {
+            return;
+        }
+        Map<Integer, Order> inProgress = new HashMap<>();
+        for (Order order : preparing) {
+            inProgress.put(order.getOrderId(), order);
+        }
+        boolean reload = plannedInProgress == null || !inProgress.keySet().equals(plannedInProgress.keySet());
+        for (int i = 0; !reload && i < preparing.size(); i++) {
+            Order order = preparing.get(i);
+            reload = isEdited(plannedInProgress.get(order.getOrderId()), order);
+        }
+        List<Order> added = new ArrayList<>();
+        for (int i = 0; !reload && i < pending.size(); i++) {
+            Order order = pending.get(i);
+            Order planned = plannedPending.get(order.getOrderId());
+            if (planned == null) {
+                added.add(order);
+            } else {
+                reload = isEdited(planned, order);
+            }
+        }
+
+        if (reload) {
+            for (OnlineRescheduler plan : plans.values()) {
+                plan.load(sorted, watermark);
+            }
+            plannedPending.clear();
+        } else {
+            Set<Integer> queued = new HashSet<>();
+            for (Order order : pending) {
+                queued.add(order.getOrderId());
+            }
+            for (Integer orderId : new ArrayList<>(plannedPending.keySet())) {
+                if (!queued.contains(orderId)) {
+                    for (OnlineRescheduler plan : plans.values()) {
+                        plan.remove(orderId);
+                    }
+                    plannedPending.remove(orderId);
+                }
+            }
+            for (Order order : added) {
+                for (OnlineRescheduler plan : plans.values()) {
+                    plan.insert(order);
+                }
+            }
+        }
+        for (Order order : reload ? pending : added) {
+            plannedPending.put(order.getOrderId(), order);
+        }
+        plannedInProgress = inProgress;
+    }
+
+    /**
+     * Whether a reloaded order differs from the one in the plans; updated_at changes with every edit of the row
+     */
+    private static boolean isEdited(Order planned, Order order) {
+        return !Objects.equals(planned.getUpdatedAt(), order.getUpdatedAt()) || planned.getVersion() != order.getVersion();
+    }
+
+    /**
+     * Estimates the database clock without a query per load; the offset is measured once
+     */
+    private LocalDateTime databaseNow() throws SQLException {
+        if (clockOffset == null) {
+            LocalDateTime local = LocalDateTime.now();
+            clockOffset = Duration.between(local, orderDAO.getDatabaseTime());
+        }
+        return LocalDateTime.now().plus(clockOffset);
+    }
+
+    /**
+     * Gets the epoch that event IDs of the feeds start with
+     *
+     * @return Epoch; changes only when a checkpoint written at shutdown is restored
+     */
+    public String getStreamEpoch() {
+        return streamEpoch;
+    }
+
+    /**
+     * Finds the feed of an algorithm
+     *
+     * @param key Display name or simple class name of the algorithm (case-insensitive)
+     * @return Feed, or null if there is no such algorithm
+     */
+    public ScheduleFeed getFeed(String key) {
+        for (Map.Entry<String, ScheduleFeed> entry : feeds.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(key)
+                    || entry.getValue().getAlgorithm().getAlgorithmName().equalsIgnoreCase(key)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,839 @@
+package com.restaurant.api;
+
+import com.restaurant.algorithm.RoundRobinScheduling;
+import com.restaurant.algorithm.Schedule;
+import com.restaurant.algorithm.ScheduleCache;
+import com.restaurant.algorithm.ScheduleDiff;
+import com.restaurant.algorithm.ScheduleMetrics;
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.algorithm.SchedulingAlgorithms;
+import com.restaurant.algorithm.SchedulingContext;
+import com.restaurant.dao.MenuDAO;
+import com.restaurant.dao.OrderDAO;
+import com.restaurant.dao.OrderNumberGenerator;
+import com.restaurant.database.ReplicaRouter;
+import com.restaurant.event.EventMetricsHandler;
+import com.restaurant.event.OrderEventRing;
+import com.restaurant.forecast.ArrivalForecaster;
+import com.restaurant.forecast.LoadPredictor;
+import com.restaurant.model.MenuItem;
+import com.restaurant.model.Order;
+import com.restaurant.model.Staff;
+import com.restaurant.model.StatusUpdate;
+import com.restaurant.staffing.StaffAssigner;
+import com.restaurant.util.JsonParser;
+import com.restaurant.util.JsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP/JSON service for POS terminals and kitchen screens
+ *
+ * Built on the JDK's own HttpServer so no extra dependencies are needed.
+ * Endpoints:
+ *
+ *   GET  /health                          liveness check
+ *   GET  /algorithms                      available scheduling algorithms
+ *   GET  /menu                            menu items with station and prep time
+ *   GET  /orders                          pending orders
+ *   POST /orders                          create an order (see {@link OrderJson#fromRequest})
+ *   GET  /orders/{id}                     one order with its items
+ *   PUT  /orders/{id}/status              change status, body {"status": "PREPARING"}
+ *   GET  /schedule?algorithm=X&amp;limit=N    next N pending orders under algorithm X with projected times
+ *                                         (also chefs=N and the Round Robin quantum=M in minutes)
+ *   GET  /events/stats                    lifecycle event counters (if an event ring is attached)
+ *   GET  /staff                           staff with live workload and status (if a staff assigner is attached)
+ *   GET  /schedule/stream?algorithm=X     server-sent events with schedule diffs (if a live schedule is attached)
+ *   GET  /forecast?hours=3&amp;chefs=4       expected arrivals, item mix and queue depth per quarter hour
+ *                                         (if a forecaster is attached; also algorithm=X and items=N)
+ *
+ * The schedule stream first sends a "snapshot" event with the full live
+ * schedule, followed by a "diff" event for every change (see
+ * {@link ScheduleDiff}). Every event has an ID; a client that reconnects
+ * with the standard Last-Event-ID header (or ?since=ID) only receives the
+ * diffs it missed, or a new snapshot if it is too far behind. Streams run on
+ * their own threads so that they do not occupy the request workers.
+ *
+ * Order creation and status changes are published to an optional
+ * {@link OrderEventRing} after they have been stored, so other components
+ * can react to them. With a {@link StaffAssigner} attached, new orders
+ * without a staffId are given to the least-loaded waiter.
+ *
+ * Requests are handled by a bounded worker pool. When all workers are busy
+ * and the queue is full, the accepting thread runs the request itself, which
+ * stops it from accepting new connections until capacity frees up. The
+ * project targets Java 11, so virtual threads are not used; the number of
+ * concurrent database calls is bounded by the connection pool anyway. A
+ * different executor (e.g. a virtual-thread-per-task executor on newer JDKs)
+ * can be passed to the constructor.
+ */
+public class OrderApiServer {
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+    private static final int MAX_STREAMS = 256;
+    private static final long STREAM_HEARTBEAT_MILLIS = 15_000;
+    /** Largest request body read; an order with hundreds of items is a few kilobytes */
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    /** Clients whose read-your-writes sessions are remembered; the least recently seen are dropped */
+    private static final int MAX_CLIENT_SESSIONS = 4096;
+    /** Header that identifies a client across connections; the remote address is used without it */
+    private static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final OrderDAO orderDAO;
+    private final MenuDAO menuDAO = new MenuDAO();
+    private final List<SchedulingAlgorithm> algorithms;
+    private final ScheduleCache scheduleCache;
+    private volatile OrderEventRing eventRing;
+    private volatile EventMetricsHandler eventMetrics;
+    private volatile LiveScheduleHandler liveSchedule;
+    private volatile OrderNumberGenerator orderNumbers;
+    private volatile StaffAssigner staffAssigner;
+    private volatile ArrivalForecaster forecaster;
+    private volatile ReplicaRouter replicaRouter;
+    private final Map<String, ReplicaRouter.Session> clientSessions =
+        new LinkedHashMap<String, ReplicaRouter.Session>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ReplicaRouter.Session> eldest) {
+                return size() > MAX_CLIENT_SESSIONS;
+            }
+        };
+    private final ExecutorService streamExecutor;
+    private final Semaphore streamPermits = new Semaphore(MAX_STREAMS);
+
+    /**
+     * Creates a server with a bounded worker pool
+     *
+     * @param address Address to listen on
+     * @param workerThreads Number of worker threads
+     * @param orderDAO DAO used for all order operations
+     * @throws IOException if the address cannot be bound
+     */
+    public OrderApiServer(InetSocketAddress address, int workerThreads, OrderDAO orderDAO) throws IOException {
+        this(address, createBoundedExecutor(workerThreads), orderDAO);
+    }
+
+    /**
+     * Creates a server with a caller-supplied executor
+     *
+     * @param address Address to listen on
+     * @param executor Executor that runs request handlers
+     * @param orderDAO DAO used for all order operations
+     * @throws IOException if the address cannot be bound
+     */
+    public OrderApiServer(InetSocketAddress address, ExecutorService executor, OrderDAO orderDAO) throws IOException {
+        this.orderDAO = orderDAO;
+        this.executor = executor;
+        this.algorithms = SchedulingAlgorithms.createAll();
+        this.scheduleCache = new ScheduleCache();
+        this.streamExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "api-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Small JSON responses are written as separate header and body packets; without
+        // TCP_NODELAY, Nagle's algorithm and delayed ACKs add ~40 ms to every keep-alive request
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(executor);
+        server.createContext("/health", exchange -> handle(exchange, this::health));
+        server.createContext("/algorithms", exchange -> handle(exchange, this::listAlgorithms));
+        server.createContext("/menu", exchange -> handle(exchange, this::listMenu));
+        server.createContext("/orders", exchange -> handle(exchange, this::orders));
+        server.createContext("/schedule", exchange -> handle(exchange, this::schedule));
+        server.createContext("/events/stats", exchange -> handle(exchange, this::eventStats));
+        server.createContext("/staff", exchange -> handle(exchange, this::listStaff));
+        server.createContext("/schedule/stream", this::stream);
+        server.createContext("/forecast", exchange -> handle(exchange, this::forecast));
+    }
+
+    /**
+     * Attaches a generator that assigns order IDs and numbers to new orders
+     *
+     * Without a generator, orders must be posted with an orderNumber and
+     * get their ID from the database.
+     *
+     * @param orderNumbers Generator backed by the orders sequence
+     */
+    public void setOrderNumberGenerator(OrderNumberGenerator orderNumbers) {
+        this.orderNumbers = orderNumbers;
+    }
+
+    /**
+     * Attaches a staff assigner that picks the waiter and chef of new orders
+     *
+     * Its workload is only released when orders are served if a
+     * {@link com.restaurant.staffing.StaffEventHandler} is registered on the
+     * event ring.
+     *
+     * @param staffAssigner Assigner tracking the live staff workload
+     */
+    public void setStaffAssigner(StaffAssigner staffAssigner) {
+        this.staffAssigner = staffAssigner;
+    }
+
+    /**
+     * Attaches the arrival forecaster served by /forecast; every created order is recorded in it
+     *
+     * @param forecaster Forecaster, warmed up with the order history
+     */
+    public void setForecaster(ArrivalForecaster forecaster) {
+        this.forecaster = forecaster;
+    }
+
+    /**
+     * Attaches the replica router of the DAO's database, so every client reads its own writes
+     *
+     * Requests run on any worker thread; each one acts for the session of its
+     * client, identified by the {@value #CLIENT_ID_HEADER} header or else the
+     * remote address. After a client wrote, its reads go to the primary or a
+     * replica that has caught up.
+     *
+     * @param replicaRouter Router, or null if reads are not routed to replicas
+     */
+    public void setReplicaRouter(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    /**
+     * Attaches the live schedules served by /schedule/stream
+     *
+     * @param liveSchedule Handler that keeps the live schedules up to date
+     */
+    public void setLiveSchedule(LiveScheduleHandler liveSchedule) {
+        this.liveSchedule = liveSchedule;
+    }
+
+    /**
+     * Attaches an event ring that receives every stored lifecycle transition
+     *
+     * @param eventRing Started ring; must use MULTI producer mode because every worker thread publishes
+     * @param eventMetrics Metrics handler registered on the ring (may be null)
+     */
+    public void setEventRing(OrderEventRing eventRing, EventMetricsHandler eventMetrics) {
+        this.eventRing = eventRing;
+        this.eventMetrics = eventMetrics;
+    }
+
+    private static ExecutorService createBoundedExecutor(int workerThreads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "api-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(DEFAULT_QUEUE_CAPACITY), threadFactory,
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Starts accepting requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server and its worker pool
+     *
+     * @param delaySeconds Time allowed for running requests to finish
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        streamExecutor.shutdownNow();
+        executor.shutdown();
+    }
+
+    /**
+     * Gets the address the server is bound to (useful when started on port 0)
+     *
+     * @return Bound address
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    /**
+     * Response produced by an endpoint
+     */
+    static class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, new JsonWriter().beginObject().name("error").value(message).endObject().toString());
+        }
+    }
+
+    /**
+     * Thrown when a request body is larger than {@link #MAX_BODY_BYTES}
+     */
+    static class PayloadTooLargeException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        PayloadTooLargeException() {
+            super("Request body exceeds " + MAX_BODY_BYTES + " bytes");
+        }
+    }
+
+    /**
+     * Endpoint implementation
+     */
+    interface Endpoint {
+        Response handle(HttpExchange exchange) throws IOException;
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        ReplicaRouter router = replicaRouter;
+        if (router != null) {
+            router.bindSession(clientSession(exchange));
+        }
+        Response response;
+        try {
+            response = endpoint.handle(exchange);
+        } catch (PayloadTooLargeException e) {
+            response = Response.error(413, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            response = Response.error(400, e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Error handling " + exchange.getRequestMethod() + " " + exchange.getRequestURI() + ": " + e.getMessage());
+            e.printStackTrace();
+            response = Response.error(500, "Internal server error");
+        } finally {
+            if (router != null) {
+                router.bindSession(null);
+            }
+        }
+        send(exchange, response);
+    }
+
+    private ReplicaRouter.Session clientSession(HttpExchange exchange) {
+        String client = exchange.getRequestHeaders().getFirst(CLIENT_ID_HEADER);
+        if (client == null || client.isBlank()) {
+            client = exchange.getRemoteAddress().getAddress().getHostAddress();
+        }
+        synchronized (clientSessions) {
+            return clientSessions.computeIfAbsent(client, key -> new ReplicaRouter.Session());
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private Response health(HttpExchange exchange) {
+        return new Response(200, "{\"status\":\"UP\"}");
+    }
+
+    private Response listMenu(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return Response.error(405, "Method not allowed");
+        }
+        JsonWriter json = new JsonWriter().beginArray();
+        for (MenuItem item : menuDAO.getCatalog().getItems()) {
+            OrderJson.writeMenuItem(json, item);
+        }
+        return new Response(200, json.endArray().toString());
+    }
+
+    private Response listAlgorithms(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return Response.error(405, "Method not allowed");
+        }
+        JsonWriter json = new JsonWriter().beginArray();
+        for (SchedulingAlgorithm algorithm : algorithms) {
+            json.beginObject()
+                .name("key").value(algorithm.getClass().getSimpleName())
+                .name("name").value(algorithm.getAlgorithmName())
+                .name("description").value(algorithm.getDescription())
+                .endObject();
+        }
+        return new Response(200, json.endArray().toString());
+    }
+
+    private Response orders(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] segments = exchange.getRequestURI().getPath().split("/");
+        // segments: "", "orders", [id], ["status"]
+        if (segments.length < 2 || !segments[1].equals("orders")) {
+            return Response.error(404, "Not found");
+        }
+
+        if (segments.length == 2) {
+            if (method.equals("GET")) {
+                return orderList(orderDAO.getAllPendingOrders());
+            }
+            if (method.equals("POST")) {
+                return createOrder(exchange);
+            }
+            return Response.error(405, "Method not allowed");
+        }
+
+        int orderId;
+        try {
+            orderId = Integer.parseInt(segments[2]);
+        } catch (NumberFormatException e) {
+            return Response.error(404, "Not found");
+        }
+
+        if (segments.length == 3 && method.equals("GET")) {
+            Order order = orderDAO.getOrderById(orderId);
+            if (order == null) {
+                return Response.error(404, "Order " + orderId + " not found");
+            }
+            JsonWriter json = new JsonWriter();
+            OrderJson.write(json, order, true);
+            return new Response(200, json.toString());
+        }
+        if (segments.length == 4 && segments[3].equals("status")
+                && (method.equals("PUT") || method.equals("POST"))) {
+            return updateStatus(exchange, orderId);
+        }
+        return Response.error(404, "Not found");
+    }
+
+    private Response createOrder(HttpExchange exchange) throws IOException {
+        Order order = OrderJson.fromRequest(JsonParser.parseObject(readBody(exchange)), menuDAO.getCatalog());
+        if (orderNumbers != null) {
+            try {
+                orderNumbers.assign(order);
+            } catch (SQLException e) {
+                System.err.println("Error assigning order ID: " + e.getMessage());
+                return Response.error(503, "Order IDs are unavailable: " + e.getMessage());
+            }
+        } else if (order.getOrderNumber() == null) {
+            return Response.error(400, "orderNumber is required");
+        }
+        StaffAssigner staff = staffAssigner;
+        if (staff != null) {
+            staff.assignOrder(order);
+        }
+        if (!orderDAO.createOrder(order)) {
+            if (staff != null) {
+                staff.unassign(order);
+            }
+            return Response.error(409, "Order could not be created (duplicate order number or unknown table?)");
+        }
+        if (staff != null) {
+            staff.orderCreated(order);
+        }
+        publish(order.getOrderId(), null, order.getStatus());
+        Order stored = orderDAO.getOrderById(order.getOrderId());
+        ArrivalForecaster arrivals = forecaster;
+        if (arrivals != null && stored != null) {
+            // The stored order has the database's created_at, like the history the forecaster learned from
+            arrivals.record(stored);
+        }
+        JsonWriter json = new JsonWriter();
+        OrderJson.write(json, stored != null ? stored : order, true);
+        return new Response(201, json.toString());
+    }
+
+    private Response updateStatus(HttpExchange exchange, int orderId) throws IOException {
+        Map<String, Object> body = JsonParser.parseObject(readBody(exchange));
+        Order.OrderStatus status = parseStatus(OrderJson.requireString(body, "status"));
+        StatusUpdate update;
+        if (body.get("version") != null) {
+            // Terminal sends what it showed; the change only applies if nobody changed the order since
+            update = orderDAO.compareAndSetStatus(orderId, parseStatus(OrderJson.requireString(body, "expectedStatus")),
+                OrderJson.requireInt(body, "version"), status);
+        } else {
+            update = orderDAO.transitionStatus(orderId, status);
+        }
+
+        switch (update.getOutcome()) {
+            case APPLIED:
+                publish(orderId, update.getPreviousStatus(), status);
+                break;
+            case NOT_FOUND:
+                return Response.error(404, "Order " + orderId + " not found");
+            case FAILED:
+                return Response.error(503, "Order status could not be updated");
+            default:
+                break;
+        }
+        JsonWriter json = new JsonWriter().beginObject()
+            .name("orderId").value(orderId)
+            .name("status").value(update.getStatus().name())
+            .name("version").value(update.getVersion());
+        if (update.getOutcome() == StatusUpdate.Outcome.CONFLICT) {
+            json.name("error").value("Order " + orderId + " was changed to " + update.getStatus() + " by someone else");
+        } else if (update.getOutcome() == StatusUpdate.Outcome.ILLEGAL) {
+            json.name("error").value("Order " + orderId + " cannot move from " + update.getStatus() + " to " + status);
+        }
+        return new Response(update.isApplied() ? 200 : 409, json.endObject().toString());
+    }
+
+    private static Order.OrderStatus parseStatus(String statusName) {
+        try {
+            return Order.OrderStatus.valueOf(statusName);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown status " + statusName);
+        }
+    }
+
+    private Response schedule(HttpExchange exchange) {
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return Response.error(405, "Method not allowed");
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String key = query.getOrDefault("algorithm", algorithms.get(0).getClass().getSimpleName());
+        SchedulingAlgorithm algorithm = SchedulingAlgorithms.find(algorithms, key);
+        if (algorithm == null) {
+            return Response.error(404, "Unknown algorithm " + key);
+        }
+        int limit = parseLimit(query.get("limit"));
+        int chefs = parseNumber(query.get("chefs"), "chefs", 1, 1, 100);
+        Map<String, Integer> parameters = new HashMap<>();
+        if (query.containsKey("quantum")) {
+            parameters.put(RoundRobinScheduling.QUANTUM_PARAMETER,
+                parseNumber(query.get("quantum"), "quantum", 0, 0, 1440));
+        }
+
+        // The chefs first finish the orders in PREPARING; their remaining time is measured on the database clock
+        LocalDateTime now;
+        List<Order> inProgress = new ArrayList<>();
+        List<Order> pending = new ArrayList<>();
+        try {
+            now = orderDAO.getDatabaseTime();
+            for (Order order : orderDAO.loadOrdersByStatus(Order.OrderStatus.PREPARING, Order.OrderStatus.PENDING)) {
+                (order.getStatus() == Order.OrderStatus.PREPARING ? inProgress : pending).add(order);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error loading the kitchen for a schedule: " + e.getMessage());
+            return Response.error(503, "Active orders are unavailable");
+        }
+        SchedulingContext context = new SchedulingContext(now, chefs, inProgress, null, parameters);
+
+        // Screens polling an unchanged queue share one computation per algorithm
+        Schedule scheduled = scheduleCache.schedule(algorithm, pending, context);
+        ScheduleMetrics metrics = scheduled.getMetrics();
+        JsonWriter json = new JsonWriter().beginObject()
+            .name("algorithm").value(algorithm.getAlgorithmName())
+            .name("pendingCount").value(scheduled.size())
+            .name("inProgressCount").value(inProgress.size())
+            .name("chefs").value(chefs)
+            .name("averageWait").value(metrics.getAverageWait())
+            .name("makespan").value(metrics.getMakespan())
+            .name("lateOrders").value(scheduled.getLateOrders())
+            .name("orders").beginArray();
+        for (int i = 0; i < scheduled.size() && i < limit; i++) {
+            json.beginObject()
+                .name("position").value(i + 1)
+                .name("projectedStart").value(scheduled.getStartMinutes(i))
+                .name("projectedEnd").value(scheduled.getEndMinutes(i))
+                .name("chef").value(scheduled.getChef(i) + 1)
+                .name("order");
+            OrderJson.write(json, scheduled.getOrders().get(i), false);
+            json.endObject();
+        }
+        return new Response(200, json.endArray().endObject().toString());
+    }
+
+    private Response forecast(HttpExchange exchange) {
+        ArrivalForecaster arrivals = forecaster;
+        if (arrivals == null) {
+            return Response.error(404, "No forecaster attached");
+        }
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return Response.error(405, "Method not allowed");
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String key = query.getOrDefault("algorithm", algorithms.get(0).getClass().getSimpleName());
+        SchedulingAlgorithm algorithm = SchedulingAlgorithms.find(algorithms, key);
+        if (algorithm == null) {
+            return Response.error(404, "Unknown algorithm " + key);
+        }
+        int hours = parseNumber(query.get("hours"), "hours", 3, 1, 24);
+        int chefs = parseNumber(query.get("chefs"), "chefs", 4, 1, 100);
+        int items = parseNumber(query.get("items"), "items", 5, 0, 100);
+
+        LocalDateTime now;
+        List<Order> active;
+        try {
+            now = orderDAO.getDatabaseTime();
+            active = orderDAO.loadOrdersByStatus(Order.OrderStatus.PREPARING, Order.OrderStatus.PENDING);
+        } catch (SQLException e) {
+            System.err.println("Error loading the kitchen for a forecast: " + e.getMessage());
+            return Response.error(503, "Active orders are unavailable");
+        }
+        arrivals.advanceTo(now);
+        List<ArrivalForecaster.Bucket> buckets = arrivals.forecast(now, hours * 60 / ArrivalForecaster.BUCKET_MINUTES);
+        LoadPredictor.Prediction prediction = new LoadPredictor(algorithm, chefs).predict(buckets, active, now);
+        JsonWriter json = new JsonWriter().beginObject()
+            .name("at").value(now.toString())
+            .name("algorithm").value(algorithm.getAlgorithmName())
+            .name("chefs").value(chefs)
+            .name("activeOrders").value(active.size())
+            .name("level").value(arrivals.getLevel())
+            .name("prediction");
+        OrderJson.writePrediction(json, prediction, items);
+        return new Response(200, json.endObject().toString());
+    }
+
+    private Response listStaff(HttpExchange exchange) {
+        StaffAssigner staff = staffAssigner;
+        if (staff == null) {
+            return Response.error(404, "No staff assigner attached");
+        }
+        if (!exchange.getRequestMethod().equals("GET")) {
+            return Response.error(405, "Method not allowed");
+        }
+        JsonWriter json = new JsonWriter().beginArray();
+        for (Staff member : staff.getStaff()) {
+            json.beginObject()
+                .name("staffId").value(member.getStaffId())
+                .name("name").value(member.getName())
+                .name("role").value(member.getRole().name())
+                .name("zone").value(member.getZone())
+                .name("status").value(member.getStatus().name())
+                .name("load").value(staff.getLoad(member.getStaffId()))
+                .endObject();
+        }
+        return new Response(200, json.endArray().toString());
+    }
+
+    private Response eventStats(HttpExchange exchange) {
+        EventMetricsHandler metrics = eventMetrics;
+        if (metrics == null) {
+            return Response.error(404, "No event pipeline attached");
+        }
+        JsonWriter json = new JsonWriter().beginObject()
+            .name("events").value(metrics.getEventCount())
+            .name("eventsPerSecond").value(metrics.getEventsPerSecond())
+            .name("averageBatchSize").value(metrics.getAverageBatchSize())
+            .name("backlog").value(eventRing.getBacklog())
+            .name("byStatus").beginObject();
+        for (Order.OrderStatus status : Order.OrderStatus.values()) {
+            json.name(status.name()).value(metrics.getCount(status));
+        }
+        return new Response(200, json.endObject().endObject().toString());
+    }
+
+    private void publish(int orderId, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+        OrderEventRing ring = eventRing;
+        if (ring != null) {
+            // Blocks while the ring is full, which slows intake down to the speed of the slowest handler
+            ring.publish(orderId, previousStatus, newStatus);
+        }
+    }
+
+    private void stream(HttpExchange exchange) throws IOException {
+        LiveScheduleHandler live = liveSchedule;
+        if (live == null) {
+            send(exchange, Response.error(404, "No live schedule attached"));
+            return;
+        }
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String key = query.getOrDefault("algorithm", algorithms.get(0).getClass().getSimpleName());
+        ScheduleFeed feed = live.getFeed(key);
+        if (feed == null) {
+            send(exchange, Response.error(404, "Unknown algorithm " + key));
+            return;
+        }
+        if (!streamPermits.tryAcquire()) {
+            send(exchange, Response.error(503, "Too many open schedule streams"));
+            return;
+        }
+
+        String lastEventId = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+        String epoch = live.getStreamEpoch();
+        long since = parseResumePoint(lastEventId != null ? lastEventId : query.get("since"), epoch);
+        try {
+            streamExecutor.execute(() -> runStream(exchange, feed, since, epoch));
+        } catch (RejectedExecutionException e) {
+            streamPermits.release();
+            send(exchange, Response.error(503, "Server is shutting down"));
+        }
+    }
+
+    private void runStream(HttpExchange exchange, ScheduleFeed feed, long since, String epoch) {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+
+            long last = since;
+            while (!Thread.currentThread().isInterrupted()) {
+                List<ScheduleFeed.Batch> batches = feed.awaitSince(last, STREAM_HEARTBEAT_MILLIS);
+                if (batches == null) {
+                    ScheduleFeed.Snapshot snapshot = feed.snapshot();
+                    JsonWriter json = new JsonWriter().beginObject()
+                        .name("sequence").value(snapshot.getSequence())
+                        .name("orders").beginArray();
+                    for (Order order : snapshot.getOrders()) {
+                        OrderJson.write(json, order, false);
+                    }
+                    writeEvent(out, epoch, "snapshot", snapshot.getSequence(), json.endArray().endObject().toString());
+                    last = snapshot.getSequence();
+                } else if (batches.isEmpty()) {
+                    // Comment line: keeps proxies from closing an idle connection
+                    out.write(": keep-alive\n\n".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    for (ScheduleFeed.Batch batch : batches) {
+                        JsonWriter json = new JsonWriter().beginObject()
+                            .name("sequence").value(batch.getSequence())
+                            .name("changes").beginArray();
+                        for (ScheduleDiff.Change change : batch.getChanges()) {
+                            OrderJson.writeChange(json, change);
+                        }
+                        writeEvent(out, epoch, "diff", batch.getSequence(), json.endArray().endObject().toString());
+                        last = batch.getSequence();
+                    }
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // Client disconnected; it can resume with its last event ID
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+            streamPermits.release();
+        }
+    }
+
+    private void writeEvent(OutputStream out, String epoch, String event, long sequence, String data)
+            throws IOException {
+        String frame = "id: " + epoch + "-" + sequence + "\nevent: " + event + "\ndata: " + data + "\n\n";
+        out.write(frame.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses an event ID of the form epoch-sequence
+     *
+     * @param epoch Current stream epoch of the live schedule
+     * @return Sequence to resume after, or -1 if a snapshot is needed
+     */
+    private long parseResumePoint(String eventId, String epoch) {
+        if (eventId == null) {
+            return -1;
+        }
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private Response orderList(List<Order> orders) {
+        JsonWriter json = new JsonWriter().beginArray();
+        for (Order order : orders) {
+            OrderJson.write(json, order, false);
+        }
+        return new Response(200, json.endArray().toString());
+    }
+
+    private static int parseLimit(String value) {
+        if (value == null) {
+            return Integer.MAX_VALUE;
+        }
+        try {
+            int limit = Integer.parseInt(value);
+            if (limit < 0) {
+                throw new IllegalArgumentException("limit must not be negative");
+            }
+            return limit;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("limit must be a number");
+        }
+    }
+
+    private static int parseNumber(String value, String name, int defaultValue, int min, int max) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number < min || number > max) {
+                throw new IllegalArgumentException(name + " must be between " + min + " and " + max);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+    }
+
+    static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    /**
+     * Reads the request body as UTF-8
+     *
+     * @throws PayloadTooLargeException if the body is larger than {@link #MAX_BODY_BYTES}
+     */
+    private static String readBody(HttpExchange exchange) throws IOException {
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (length != null) {
+            try {
+                if (Long.parseLong(length.trim()) > MAX_BODY_BYTES) {
+                    throw new PayloadTooLargeException();
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid Content-Length " + length);
+            }
+        }
+        try (InputStream in = exchange.getRequestBody()) {
+            // Also bounds chunked bodies, which have no Content-Length
+            byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (body.length > MAX_BODY_BYTES) {
+                throw new PayloadTooLargeException();
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+}
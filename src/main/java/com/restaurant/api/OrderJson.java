@@ -0,0 +1,271 @@
+package com.restaurant.api;
+
+import com.restaurant.algorithm.ScheduleDiff;
+import com.restaurant.forecast.ArrivalForecaster;
+import com.restaurant.forecast.LoadPredictor;
+import com.restaurant.model.MenuCatalog;
+import com.restaurant.model.MenuItem;
+import com.restaurant.model.Order;
+import com.restaurant.model.OrderItem;
+import com.restaurant.util.JsonWriter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts orders to and from the JSON representation used by the HTTP service
+ */
+public class OrderJson {
+
+    private OrderJson() {
+    }
+
+    /**
+     * Writes an order as a JSON object
+     *
+     * @param json Writer to append to
+     * @param order Order to write
+     * @param includeItems Whether to include the order items
+     */
+    public static void write(JsonWriter json, Order order, boolean includeItems) {
+        json.beginObject()
+            .name("orderId").value(order.getOrderId())
+            .name("orderNumber").value(order.getOrderNumber())
+            .name("branchId").value(order.getBranchId())
+            .name("tableId").value(order.getTableId());
+        json.name("staffId");
+        if (order.getStaffId() != null) {
+            json.value(order.getStaffId());
+        } else {
+            json.nullValue();
+        }
+        json.name("status").value(order.getStatus().name())
+            .name("version").value(order.getVersion())
+            .name("priority").value(order.getPriority())
+            .name("estimatedTime").value(order.getEstimatedTime())
+            .name("totalAmount").value(order.getTotalAmount())
+            .name("createdAt").value(order.getCreatedAt() != null ? order.getCreatedAt().toString() : null);
+
+        if (includeItems && order.getItems() != null) {
+            json.name("items").beginArray();
+            for (OrderItem item : order.getItems()) {
+                json.beginObject()
+                    .name("itemId").value(item.getItemId());
+                json.name("menuItemId");
+                if (item.getMenuItem() != null) {
+                    json.value(item.getMenuItem().getMenuItemId());
+                } else {
+                    json.nullValue();
+                }
+                json.name("itemName").value(item.getItemName())
+                    .name("quantity").value(item.getQuantity())
+                    .name("price").value(item.getPrice())
+                    .name("notes").value(item.getNotes())
+                    .endObject();
+            }
+            json.endArray();
+        }
+        json.endObject();
+    }
+
+    /**
+     * Writes one schedule change as a JSON object
+     *
+     * @param json Writer to append to
+     * @param change Change to write
+     */
+    public static void writeChange(JsonWriter json, ScheduleDiff.Change change) {
+        json.beginObject()
+            .name("type").value(change.getType().name())
+            .name("orderId").value(change.getOrderId());
+        switch (change.getType()) {
+            case REMOVED:
+                json.name("from").value(change.getFromIndex());
+                break;
+            case INSERTED:
+                json.name("to").value(change.getToIndex()).name("order");
+                write(json, change.getOrder(), false);
+                break;
+            case MOVED:
+                json.name("from").value(change.getFromIndex()).name("to").value(change.getToIndex());
+                break;
+            case STATUS_CHANGED:
+                json.name("at").value(change.getToIndex()).name("status").value(change.getOrder().getStatus().name());
+                break;
+            case UPDATED:
+                json.name("at").value(change.getToIndex()).name("order");
+                write(json, change.getOrder(), false);
+                break;
+            default:
+                break;
+        }
+        json.endObject();
+    }
+
+    /**
+     * Writes one menu item as a JSON object
+     *
+     * @param json Writer to append to
+     * @param item Menu item to write
+     */
+    public static void writeMenuItem(JsonWriter json, MenuItem item) {
+        json.beginObject()
+            .name("menuItemId").value(item.getMenuItemId())
+            .name("name").value(item.getName())
+            .name("price").value(item.getPrice())
+            .name("station").value(item.getStation().name())
+            .name("prepTime").value(item.getPrepTime())
+            .endObject();
+    }
+
+    /**
+     * Writes a load prediction as a JSON object with one entry per forecast bucket
+     *
+     * @param json Writer to append to
+     * @param prediction Prediction to write
+     * @param topItems Number of expected items listed per bucket, most ordered first
+     */
+    public static void writePrediction(JsonWriter json, LoadPredictor.Prediction prediction, int topItems) {
+        json.beginObject()
+            .name("averageWaitMinutes").value(prediction.getAverageWaitMinutes())
+            .name("p95WaitMinutes").value(prediction.getP95WaitMinutes())
+            .name("buckets").beginArray();
+        for (LoadPredictor.Interval interval : prediction.getIntervals()) {
+            ArrivalForecaster.Bucket bucket = interval.getBucket();
+            json.beginObject()
+                .name("start").value(bucket.getStart().toString())
+                .name("expectedOrders").value(bucket.getArrivals())
+                .name("expectedWorkMinutes").value(bucket.getWorkMinutes())
+                .name("utilization").value(interval.getUtilization())
+                .name("queueDepth").value(interval.getQueueDepth())
+                .name("items").beginObject();
+            int written = 0;
+            for (Map.Entry<String, Double> item : bucket.getItems().entrySet()) {
+                if (written++ == topItems) {
+                    break;
+                }
+                json.name(item.getKey()).value(item.getValue());
+            }
+            json.endObject().endObject();
+        }
+        json.endArray().endObject();
+    }
+
+    /**
+     * Creates a new order from a parsed JSON request body
+     *
+     * Required members: tableId. Optional: orderNumber (assigned by the server
+     * when missing), branchId (default 1), staffId, priority (default 5),
+     * estimatedTime and items. An item is either a menu item
+     * (menuItemId, or an itemName found on the menu; price defaults to the
+     * menu price) or an off-menu item (itemName and price); all items accept
+     * quantity and notes. estimatedTime may be omitted if at least one item is
+     * on the menu, in which case it is derived from the menu prep times. The
+     * total amount is computed from the items.
+     *
+     * @param body Parsed JSON object
+     * @param menu Menu used to resolve items
+     * @return New order (not yet stored)
+     * @throws IllegalArgumentException if a required member is missing or invalid
+     */
+    public static Order fromRequest(Map<String, Object> body, MenuCatalog menu) {
+        int priority = body.containsKey("priority") ? requireInt(body, "priority") : 5;
+        if (priority < 1 || priority > 10) {
+            throw new IllegalArgumentException("priority must be between 1 and 10");
+        }
+
+        String orderNumber = body.get("orderNumber") != null ? requireString(body, "orderNumber") : null;
+        Order order = new Order(requireInt(body, "tableId"), orderNumber, priority, 0);
+        if (body.get("branchId") != null) {
+            order.setBranchId(requireInt(body, "branchId"));
+        }
+        if (body.get("staffId") != null) {
+            order.setStaffId(requireInt(body, "staffId"));
+        }
+
+        Object items = body.get("items");
+        if (items instanceof List) {
+            for (Object entry : (List<?>) items) {
+                if (!(entry instanceof Map)) {
+                    throw new IllegalArgumentException("items must be objects");
+                }
+                @SuppressWarnings("unchecked")
+                Map<String, Object> itemBody = (Map<String, Object>) entry;
+                order.addItem(itemFromRequest(itemBody, menu));
+            }
+        } else if (items != null) {
+            throw new IllegalArgumentException("items must be an array");
+        }
+
+        int estimatedTime;
+        if (body.get("estimatedTime") != null) {
+            estimatedTime = requireInt(body, "estimatedTime");
+        } else {
+            estimatedTime = menu.estimatePreparationTime(order.getItems());
+            if (estimatedTime == 0) {
+                throw new IllegalArgumentException("estimatedTime is required unless the order contains menu items");
+            }
+        }
+        if (estimatedTime <= 0) {
+            throw new IllegalArgumentException("estimatedTime must be positive");
+        }
+        order.setEstimatedTime(estimatedTime);
+        return order;
+    }
+
+    private static OrderItem itemFromRequest(Map<String, Object> itemBody, MenuCatalog menu) {
+        int quantity = itemBody.containsKey("quantity") ? requireInt(itemBody, "quantity") : 1;
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be positive");
+        }
+
+        MenuItem menuItem;
+        if (itemBody.get("menuItemId") != null) {
+            int menuItemId = requireInt(itemBody, "menuItemId");
+            menuItem = menu.getById(menuItemId);
+            if (menuItem == null) {
+                throw new IllegalArgumentException("Unknown menu item " + menuItemId);
+            }
+        } else {
+            menuItem = menu.findByName(requireString(itemBody, "itemName"));
+        }
+
+        OrderItem item;
+        if (menuItem != null) {
+            item = new OrderItem(0, menuItem, quantity);
+            if (itemBody.get("price") != null) {
+                item.setPrice(requireNumber(itemBody, "price"));
+            }
+        } else {
+            item = new OrderItem(0, requireString(itemBody, "itemName"), quantity,
+                                 requireNumber(itemBody, "price"));
+        }
+        Object notes = itemBody.get("notes");
+        item.setNotes(notes != null ? notes.toString() : null);
+        return item;
+    }
+
+    static int requireInt(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof Long) || (Long) value != ((Long) value).intValue()) {
+            throw new IllegalArgumentException(name + " must be an integer");
+        }
+        return ((Long) value).intValue();
+    }
+
+    static double requireNumber(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+        return ((Number) value).doubleValue();
+    }
+
+    static String requireString(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof String) || ((String) value).isBlank()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return (String) value;
+    }
+}
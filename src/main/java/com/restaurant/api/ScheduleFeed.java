@@ -0,0 +1,173 @@
+package com.restaurant.api;
+
+import com.restaurant.algorithm.ScheduleDiff;
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.model.Order;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sequenced stream of changes to the live schedule of one algorithm
+ *
+ * Every time the schedule changes, the difference to the previous version is
+ * stored as a batch with the next sequence number. Clients remember the last
+ * sequence they applied and ask for everything after it, so a client that
+ * reconnects after a short disconnect only receives what it missed. Only the
+ * most recent batches are retained; a client that is further behind gets a
+ * full snapshot instead.
+ */
+public class ScheduleFeed {
+    private final SchedulingAlgorithm algorithm;
+    private final int historyLimit;
+    private final ArrayDeque<Batch> history = new ArrayDeque<>();
+    private List<Order> current = Collections.emptyList();
+    private long sequence;
+
+    /**
+     * Changes between two consecutive versions of the schedule
+     */
+    public static class Batch {
+        private final long sequence;
+        private final List<ScheduleDiff.Change> changes;
+
+        Batch(long sequence, List<ScheduleDiff.Change> changes) {
+            this.sequence = sequence;
+            this.changes = changes;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public List<ScheduleDiff.Change> getChanges() {
+            return changes;
+        }
+    }
+
+    /**
+     * Full schedule together with the sequence number it corresponds to
+     */
+    public static class Snapshot {
+        private final long sequence;
+        private final List<Order> orders;
+
+        Snapshot(long sequence, List<Order> orders) {
+            this.sequence = sequence;
+            this.orders = orders;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public List<Order> getOrders() {
+            return orders;
+        }
+    }
+
+    /**
+     * Creates an empty feed
+     *
+     * @param algorithm Algorithm whose schedule the feed describes
+     * @param historyLimit Number of batches kept for resuming clients
+     */
+    public ScheduleFeed(SchedulingAlgorithm algorithm, int historyLimit) {
+        this.algorithm = algorithm;
+        this.historyLimit = historyLimit;
+    }
+
+    public SchedulingAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Replaces the schedule and records the difference to the previous one
+     *
+     * @param schedule New schedule
+     * @return The recorded batch, or null if nothing changed
+     */
+    public synchronized Batch update(List<Order> schedule) {
+        List<ScheduleDiff.Change> changes = ScheduleDiff.compute(current, schedule);
+        current = Collections.unmodifiableList(new ArrayList<>(schedule));
+        if (changes.isEmpty()) {
+            return null;
+        }
+        Batch batch = new Batch(++sequence, Collections.unmodifiableList(changes));
+        history.addLast(batch);
+        if (history.size() > historyLimit) {
+            history.removeFirst();
+        }
+        notifyAll();
+        return batch;
+    }
+
+    /**
+     * Continues a feed from a checkpoint without recording a change
+     *
+     * Clients that applied exactly the checkpointed sequence can resume;
+     * all others get a snapshot.
+     *
+     * @param checkpointSequence Sequence number of the checkpointed schedule
+     * @param schedule Checkpointed schedule
+     */
+    public synchronized void restore(long checkpointSequence, List<Order> schedule) {
+        current = Collections.unmodifiableList(new ArrayList<>(schedule));
+        sequence = checkpointSequence;
+        history.clear();
+        notifyAll();
+    }
+
+    /**
+     * Gets the current schedule and its sequence number
+     *
+     * @return Consistent snapshot
+     */
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(sequence, current);
+    }
+
+    /**
+     * Waits for batches after a given sequence number
+     *
+     * @param since Last sequence number the client has applied
+     * @param timeoutMillis Maximum time to wait if nothing new is available
+     * @return New batches (empty on timeout), or null if the client is too far
+     *         behind (or ahead, e.g. after a server restart) and needs a snapshot
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public synchronized List<Batch> awaitSince(long since, long timeoutMillis) throws InterruptedException {
+        if (!canResumeFrom(since)) {
+            return null;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (sequence <= since) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                return Collections.emptyList();
+            }
+            wait(remaining);
+        }
+        if (!canResumeFrom(since)) {
+            return null;
+        }
+        List<Batch> batches = new ArrayList<>();
+        for (Batch batch : history) {
+            if (batch.sequence > since) {
+                batches.add(batch);
+            }
+        }
+        return batches;
+    }
+
+    private boolean canResumeFrom(long since) {
+        if (since < 0 || since > sequence) {
+            return false;
+        }
+        // All batches after 'since' must still be in the history
+        long oldestRetained = history.isEmpty() ? sequence + 1 : history.peekFirst().sequence;
+        return since >= oldestRetained - 1;
+    }
+}
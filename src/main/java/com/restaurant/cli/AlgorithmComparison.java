@@ -0,0 +1,225 @@
+package com.restaurant.cli;
+
+import com.restaurant.algorithm.*;
+import com.restaurant.dao.OrderDAO;
+import com.restaurant.dao.OrderSnapshotFile;
+import com.restaurant.model.Order;
+import com.restaurant.util.JsonWriter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless comparison of all scheduling algorithms
+ *
+ * Loads one snapshot of orders (from the database or from a snapshot file),
+ * runs every algorithm concurrently on it and prints a machine-readable
+ * report with waiting time statistics, makespan and runtime per algorithm.
+ * Each run produces a timed {@link Schedule} for the given number of idle
+ * chefs, and the runtime includes the timing.
+ *
+ * Usage:
+ *   compare [--file snapshot.csv] [--format json|csv] [--output report.json]
+ *           [--repeat n] [--save-snapshot snapshot.csv] [--chefs 1]
+ *
+ * Without --file, pending orders are loaded from the database.
+ */
+public class AlgorithmComparison {
+    private Path snapshotFile;
+    private Path saveSnapshotFile;
+    private Path outputFile;
+    private String format = "json";
+    private int repeat = 1;
+    private int chefs = 1;
+
+    /**
+     * Result of running one algorithm on the snapshot
+     */
+    public static class Result {
+        private final String algorithmName;
+        private final ScheduleMetrics metrics;
+        private final long bestRuntimeNanos;
+        private final long medianRuntimeNanos;
+
+        Result(String algorithmName, ScheduleMetrics metrics, long bestRuntimeNanos, long medianRuntimeNanos) {
+            this.algorithmName = algorithmName;
+            this.metrics = metrics;
+            this.bestRuntimeNanos = bestRuntimeNanos;
+            this.medianRuntimeNanos = medianRuntimeNanos;
+        }
+
+        public String getAlgorithmName() {
+            return algorithmName;
+        }
+
+        public ScheduleMetrics getMetrics() {
+            return metrics;
+        }
+
+        public long getBestRuntimeNanos() {
+            return bestRuntimeNanos;
+        }
+
+        public long getMedianRuntimeNanos() {
+            return medianRuntimeNanos;
+        }
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        AlgorithmComparison comparison = new AlgorithmComparison();
+        try {
+            comparison.parseArguments(args);
+            List<Order> snapshot = comparison.loadSnapshot();
+            if (comparison.saveSnapshotFile != null) {
+                OrderSnapshotFile.write(comparison.saveSnapshotFile, snapshot);
+            }
+            List<Result> results = comparison.compare(snapshot, SchedulingAlgorithms.createAll());
+            comparison.writeReport(snapshot, results);
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        } catch (Exception e) {
+            System.err.println("Comparison failed: " + e.getMessage());
+            e.printStackTrace();
+            return 1;
+        }
+    }
+
+    private void parseArguments(String[] args) {
+        CommandOptions options = new CommandOptions(args,
+            "--file", "--save-snapshot", "--output", "--format", "--repeat", "--chefs");
+        snapshotFile = options.getPath("--file");
+        saveSnapshotFile = options.getPath("--save-snapshot");
+        outputFile = options.getPath("--output");
+        format = options.getString("--format", format);
+        if (!format.equals("json") && !format.equals("csv")) {
+            throw new IllegalArgumentException("--format must be json or csv");
+        }
+        repeat = options.getInt("--repeat", repeat, 1);
+        chefs = options.getInt("--chefs", chefs, 1);
+    }
+
+    private List<Order> loadSnapshot() throws IOException {
+        List<Order> orders = snapshotFile != null
+            ? OrderSnapshotFile.read(snapshotFile)
+            : new OrderDAO().getAllPendingOrders();
+        // Algorithms copy their input, so one read-only snapshot can be shared by all threads
+        return Collections.unmodifiableList(orders);
+    }
+
+    /**
+     * Runs every algorithm on the same snapshot, one thread per algorithm
+     *
+     * @param snapshot Orders to schedule
+     * @param algorithms Algorithms to run
+     * @return Results in the same order as the algorithms
+     * @throws InterruptedException if interrupted while waiting for results
+     * @throws ExecutionException if an algorithm throws
+     */
+    public List<Result> compare(List<Order> snapshot, List<SchedulingAlgorithm> algorithms)
+            throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(
+            Math.min(algorithms.size(), Runtime.getRuntime().availableProcessors()));
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (SchedulingAlgorithm algorithm : algorithms) {
+                futures.add(executor.submit(() -> runAlgorithm(algorithm, snapshot)));
+            }
+
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Result runAlgorithm(SchedulingAlgorithm algorithm, List<Order> snapshot) {
+        long[] runtimes = new long[repeat];
+        SchedulingContext context = new SchedulingContext(LocalDateTime.now(), chefs, Collections.emptyList(),
+            null, Collections.emptyMap());
+        Schedule scheduled = null;
+        for (int i = 0; i < repeat; i++) {
+            long start = System.nanoTime();
+            scheduled = algorithm.schedule(snapshot, context);
+            runtimes[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(runtimes);
+        return new Result(algorithm.getAlgorithmName(), scheduled.getMetrics(),
+                          runtimes[0], runtimes[repeat / 2]);
+    }
+
+    private void writeReport(List<Order> snapshot, List<Result> results) throws IOException {
+        String report = format.equals("csv") ? toCsv(results) : toJson(snapshot, results);
+        if (outputFile != null) {
+            Files.write(outputFile, report.getBytes(StandardCharsets.UTF_8));
+        } else {
+            System.out.println(report);
+        }
+    }
+
+    private String toJson(List<Order> snapshot, List<Result> results) {
+        JsonWriter json = new JsonWriter();
+        json.beginObject()
+            .name("generatedAt").value(LocalDateTime.now().toString())
+            .name("source").value(snapshotFile != null ? snapshotFile.toString() : "database")
+            .name("orderCount").value(snapshot.size())
+            .name("repeat").value(repeat)
+            .name("chefs").value(chefs)
+            .name("results").beginArray();
+        for (Result result : results) {
+            ScheduleMetrics m = result.getMetrics();
+            json.beginObject()
+                .name("algorithm").value(result.getAlgorithmName())
+                .name("averageWait").value(m.getAverageWait())
+                .name("medianWait").value(m.getMedianWait())
+                .name("p95Wait").value(m.getP95Wait())
+                .name("maxWait").value(m.getMaxWait())
+                .name("totalWait").value(m.getTotalWait())
+                .name("makespan").value(m.getMakespan())
+                .name("runtimeNanosBest").value(result.getBestRuntimeNanos())
+                .name("runtimeNanosMedian").value(result.getMedianRuntimeNanos())
+                .endObject();
+        }
+        json.endArray().endObject();
+        return json.toString();
+    }
+
+    private String toCsv(List<Result> results) {
+        StringBuilder csv = new StringBuilder(
+            "algorithm,average_wait,median_wait,p95_wait,max_wait,total_wait,makespan,runtime_nanos_best,runtime_nanos_median\n");
+        for (Result result : results) {
+            ScheduleMetrics m = result.getMetrics();
+            csv.append('"').append(result.getAlgorithmName()).append('"').append(',')
+               .append(String.format(java.util.Locale.ROOT, "%.2f", m.getAverageWait())).append(',')
+               .append(m.getMedianWait()).append(',')
+               .append(m.getP95Wait()).append(',')
+               .append(m.getMaxWait()).append(',')
+               .append(m.getTotalWait()).append(',')
+               .append(m.getMakespan()).append(',')
+               .append(result.getBestRuntimeNanos()).append(',')
+               .append(result.getMedianRuntimeNanos()).append('\n');
+        }
+        return csv.toString();
+    }
+}
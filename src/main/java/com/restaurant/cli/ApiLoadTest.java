@@ -0,0 +1,148 @@
+package com.restaurant.cli;
+
+import com.restaurant.util.JsonWriter;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test for the embedded HTTP service
+ *
+ * Starts a number of concurrent clients that send GET requests to one
+ * endpoint as fast as they can and reports throughput (requests/sec) and
+ * latency percentiles. Each client sends requests one after another, so the
+ * number of clients is the number of requests in flight.
+ *
+ * Usage:
+ *   loadtest [--url http://localhost:8080] [--path /schedule?limit=10]
+ *            [--clients 32] [--requests 20000] [--warmup 1000]
+ */
+public class ApiLoadTest {
+
+    private ApiLoadTest() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        try {
+            CommandOptions options = new CommandOptions(args, "--url", "--path", "--clients", "--requests", "--warmup");
+            URI target = URI.create(options.getString("--url", "http://localhost:8080")
+                                    + options.getString("--path", "/schedule?limit=10"));
+            int clients = options.getInt("--clients", 32, 1);
+            int requests = options.getInt("--requests", 20_000, 1);
+            int warmup = options.getInt("--warmup", 1_000, 0);
+
+            HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+            HttpRequest request = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30)).GET().build();
+
+            if (warmup > 0) {
+                runPhase(client, request, clients, warmup);
+            }
+            PhaseResult result = runPhase(client, request, clients, requests);
+            System.out.println(result.toJson(target, clients));
+            return result.errors.get() == 0 ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        } catch (Exception e) {
+            System.err.println("Load test failed: " + e.getMessage());
+            e.printStackTrace();
+            return 1;
+        }
+    }
+
+    /**
+     * Latencies and counters of one measurement phase
+     */
+    private static class PhaseResult {
+        final long[] latenciesNanos;
+        final AtomicInteger errors = new AtomicInteger();
+        final AtomicLong bytes = new AtomicLong();
+        long elapsedNanos;
+
+        PhaseResult(int requests) {
+            this.latenciesNanos = new long[requests];
+        }
+
+        String toJson(URI target, int clients) {
+            long[] sorted = latenciesNanos.clone();
+            Arrays.sort(sorted);
+            double seconds = elapsedNanos / 1e9;
+            return new JsonWriter().beginObject()
+                .name("target").value(target.toString())
+                .name("clients").value(clients)
+                .name("requests").value(sorted.length)
+                .name("errors").value(errors.get())
+                .name("elapsedSeconds").value(seconds)
+                .name("requestsPerSecond").value(sorted.length / seconds)
+                .name("latencyMillisP50").value(percentile(sorted, 0.50) / 1e6)
+                .name("latencyMillisP90").value(percentile(sorted, 0.90) / 1e6)
+                .name("latencyMillisP99").value(percentile(sorted, 0.99) / 1e6)
+                .name("latencyMillisMax").value(sorted[sorted.length - 1] / 1e6)
+                .name("responseBytes").value(bytes.get())
+                .endObject().toString();
+        }
+
+        private static long percentile(long[] sorted, double fraction) {
+            int rank = (int) Math.ceil(fraction * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+
+    private static PhaseResult runPhase(HttpClient client, HttpRequest request, int clients, int requests)
+            throws InterruptedException {
+        PhaseResult result = new PhaseResult(requests);
+        AtomicInteger nextRequest = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int c = 0; c < clients; c++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                    int index;
+                    while ((index = nextRequest.getAndIncrement()) < requests) {
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() >= 400) {
+                                result.errors.incrementAndGet();
+                            }
+                            result.bytes.addAndGet(response.body().length);
+                        } catch (Exception e) {
+                            result.errors.incrementAndGet();
+                        }
+                        result.latenciesNanos[index] = System.nanoTime() - begin;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-client-" + c);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        result.elapsedNanos = System.nanoTime() - begin;
+        return result;
+    }
+}
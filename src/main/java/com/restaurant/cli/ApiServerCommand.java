@@ -0,0 +1,203 @@
+package com.restaurant.cli;
+
+import com.restaurant.algorithm.SchedulingAlgorithms;
+import com.restaurant.api.LiveScheduleHandler;
+import com.restaurant.api.OrderApiServer;
+import com.restaurant.dao.BlockIdGenerator;
+import com.restaurant.dao.OrderArchiver;
+import com.restaurant.dao.OrderDAO;
+import com.restaurant.dao.OrderNumberGenerator;
+import com.restaurant.dao.StaffDAO;
+import com.restaurant.dao.TableDAO;
+import com.restaurant.database.DatabaseConnection;
+import com.restaurant.event.EventMetricsHandler;
+import com.restaurant.event.OrderEventRing;
+import com.restaurant.forecast.ArrivalForecaster;
+import com.restaurant.model.Order;
+import com.restaurant.staffing.StaffAssigner;
+import com.restaurant.staffing.StaffEventHandler;
+import com.restaurant.staffing.StaffStatusWriter;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the embedded HTTP service until the process is stopped
+ *
+ * Usage:
+ *   serve [--host 0.0.0.0] [--port 8080] [--threads 16] [--id-block 100] [--archive-minutes 0]
+ *         [--checkpoint file] [--checkpoint-seconds 30] [--forecast-days 0]
+ *
+ * New orders get their ID and order number from blocks of --id-block IDs
+ * reserved in the orders sequence (see {@link BlockIdGenerator}). New
+ * orders without a staff member go to the least-loaded waiter (see
+ * {@link StaffAssigner}); staff status follows their workload. With
+ * --archive-minutes, finished orders are moved to the archive tables in the
+ * background at that interval (see {@link OrderArchiver}).
+ *
+ * With --checkpoint, the live schedules are written to that file every
+ * --checkpoint-seconds and on shutdown. If the file exists at startup the
+ * schedules are restored from it and only orders changed since are loaded
+ * (see {@link LiveScheduleHandler#replayDelta()}); a damaged or unreadable
+ * checkpoint falls back to a full load.
+ *
+ * With --forecast-days, an {@link ArrivalForecaster} learns from the orders
+ * of that many days before the server starts, records every new order and
+ * serves GET /forecast.
+ */
+public class ApiServerCommand {
+
+    private ApiServerCommand() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        try {
+            CommandOptions options = new CommandOptions(args, "--host", "--port", "--threads", "--id-block",
+                                                        "--archive-minutes", "--checkpoint", "--checkpoint-seconds",
+                                                        "--forecast-days");
+            String host = options.getString("--host", "0.0.0.0");
+            int port = options.getInt("--port", 8080, 0);
+            int threads = options.getInt("--threads", 16, 1);
+            int idBlock = options.getInt("--id-block", 100, 1);
+            int archiveMinutes = options.getInt("--archive-minutes", 0, 0);
+            Path checkpoint = options.getPath("--checkpoint");
+            int checkpointSeconds = options.getInt("--checkpoint-seconds", 30, 1);
+            int forecastDays = options.getInt("--forecast-days", 0, 0);
+
+            OrderDAO orderDAO = new OrderDAO();
+            OrderEventRing eventRing = new OrderEventRing("order-events", 4096, OrderEventRing.ProducerType.MULTI);
+            EventMetricsHandler eventMetrics = new EventMetricsHandler();
+            LiveScheduleHandler liveSchedule = new LiveScheduleHandler(orderDAO, SchedulingAlgorithms.createAll());
+            eventRing.addHandler(eventMetrics);
+            eventRing.addHandler(liveSchedule);
+            StaffDAO staffDAO = new StaffDAO();
+            StaffAssigner staffAssigner = new StaffAssigner(staffDAO.getAllStaff(), new StaffStatusWriter(staffDAO));
+            staffAssigner.setTables(new TableDAO().getAllTables());
+            staffAssigner.restore(orderDAO.getOrdersByStatus(
+                Order.OrderStatus.PENDING, Order.OrderStatus.PREPARING, Order.OrderStatus.READY));
+            eventRing.addHandler(new StaffEventHandler(staffAssigner));
+            eventRing.start();
+            loadLiveSchedule(liveSchedule, checkpoint);
+
+            OrderApiServer server = new OrderApiServer(new InetSocketAddress(host, port), threads, orderDAO);
+            server.setEventRing(eventRing, eventMetrics);
+            server.setLiveSchedule(liveSchedule);
+            server.setStaffAssigner(staffAssigner);
+            server.setReplicaRouter(DatabaseConnection.getInstance().getReplicaRouter());
+            server.setOrderNumberGenerator(new OrderNumberGenerator(BlockIdGenerator.forOrders(idBlock)));
+            if (forecastDays > 0) {
+                server.setForecaster(loadForecaster(orderDAO, forecastDays));
+            }
+            OrderArchiver archiver = new OrderArchiver();
+            if (archiveMinutes > 0) {
+                archiver.start(archiveMinutes * 60_000L);
+            }
+            ScheduledExecutorService checkpointer = checkpoint != null
+                ? startCheckpoints(liveSchedule, checkpoint, checkpointSeconds) : null;
+            CountDownLatch stopped = new CountDownLatch(1);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                archiver.close();
+                server.stop(2);
+                eventRing.shutdown(2_000);
+                if (checkpointer != null) {
+                    checkpointer.shutdownNow();
+                    try {
+                        // A periodic write still running must not replace the final checkpoint
+                        checkpointer.awaitTermination(2, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    writeCheckpoint(liveSchedule, checkpoint, true);
+                }
+                stopped.countDown();
+            }));
+            server.start();
+            System.out.println("Order API listening on http://" + server.getAddress().getHostString() + ":"
+                               + server.getAddress().getPort() + " with " + threads + " worker threads");
+            stopped.await();
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        } catch (Exception e) {
+            System.err.println("Server failed: " + e.getMessage());
+            e.printStackTrace();
+            return 1;
+        }
+    }
+
+    /**
+     * Restores the live schedules from a checkpoint and replays the delta, or loads them in full
+     */
+    private static void loadLiveSchedule(LiveScheduleHandler liveSchedule, Path checkpoint) {
+        long begin = System.nanoTime();
+        if (checkpoint != null && Files.exists(checkpoint)) {
+            try {
+                liveSchedule.restoreCheckpoint(checkpoint);
+                long restoredNanos = System.nanoTime() - begin;
+                int changed = liveSchedule.replayDelta();
+                System.out.printf("Live schedules restored from %s in %.1f ms, %s in %.1f ms total%n", checkpoint,
+                    restoredNanos / 1e6, changed >= 0 ? changed + " changed order(s) replayed" : "checkpoint too old, reloaded",
+                    (System.nanoTime() - begin) / 1e6);
+                return;
+            } catch (IOException | SQLException e) {
+                System.err.println("Cannot restore checkpoint, loading all active orders: " + e.getMessage());
+            }
+        }
+        liveSchedule.refresh();
+        System.out.printf("Live schedules loaded in %.1f ms%n", (System.nanoTime() - begin) / 1e6);
+    }
+
+    /**
+     * Warms up a forecaster with the order history before the server accepts orders
+     */
+    private static ArrivalForecaster loadForecaster(OrderDAO orderDAO, int days) throws SQLException {
+        long begin = System.nanoTime();
+        ArrivalForecaster forecaster = new ArrivalForecaster();
+        LocalDateTime now = orderDAO.getDatabaseTime();
+        LocalDateTime from = now.minusDays(days);
+        long orders = orderDAO.streamOrders(from, now, forecaster::record);
+        long items = orderDAO.streamOrderItems(from, now,
+            (orderedAt, item) -> forecaster.recordItem(orderedAt, item.getItemName(), item.getQuantity()));
+        if (orders < 0 || items < 0) {
+            throw new SQLException("Order history could not be read");
+        }
+        System.out.printf("Forecaster learned from %d orders and %d items of %d days in %.1f ms%n",
+            orders, items, days, (System.nanoTime() - begin) / 1e6);
+        return forecaster;
+    }
+
+    private static ScheduledExecutorService startCheckpoints(LiveScheduleHandler liveSchedule, Path checkpoint,
+                                                             int seconds) {
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schedule-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> writeCheckpoint(liveSchedule, checkpoint, false),
+            seconds, seconds, TimeUnit.SECONDS);
+        return scheduler;
+    }
+
+    private static void writeCheckpoint(LiveScheduleHandler liveSchedule, Path checkpoint, boolean atShutdown) {
+        try {
+            liveSchedule.writeCheckpoint(checkpoint, atShutdown);
+        } catch (IOException e) {
+            System.err.println("Error writing checkpoint " + checkpoint + ": " + e.getMessage());
+        }
+    }
+}
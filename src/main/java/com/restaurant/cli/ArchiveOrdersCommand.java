@@ -0,0 +1,56 @@
+package com.restaurant.cli;
+
+import com.restaurant.dao.OrderArchiver;
+import com.restaurant.database.DatabaseConnection;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Moves finished orders to the archive tables once and exits
+ *
+ * Usage:
+ *   archive-orders [--retention-hours 24] [--batch 500] [--pause-ms 200]
+ *
+ * The service can also archive in the background (serve --archive-minutes).
+ */
+public class ArchiveOrdersCommand {
+
+    private ArchiveOrdersCommand() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        OrderArchiver archiver;
+        try {
+            CommandOptions options = new CommandOptions(args, "--retention-hours", "--batch", "--pause-ms");
+            archiver = new OrderArchiver(DatabaseConnection.getInstance(),
+                options.getInt("--batch", OrderArchiver.DEFAULT_BATCH_SIZE, 1),
+                options.getInt("--pause-ms", (int) OrderArchiver.DEFAULT_PAUSE_MILLIS, 0),
+                Duration.ofHours(options.getInt("--retention-hours", (int) OrderArchiver.DEFAULT_RETENTION.toHours(), 0)));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        }
+
+        long begin = System.nanoTime();
+        try {
+            long moved = archiver.archiveAll();
+            System.out.println(String.format(Locale.ROOT, "Archived %d order(s) in %.2f s",
+                moved, (System.nanoTime() - begin) / 1e9));
+            return 0;
+        } catch (SQLException e) {
+            System.err.println("Archiving failed after " + archiver.getArchivedOrders() + " order(s): " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.restaurant.cli;
+
+import com.restaurant.dao.ShardedOrderDAO;
+import com.restaurant.database.ShardedDatabase;
+import com.restaurant.model.BranchTotals;
+import com.restaurant.model.Order;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Cross-branch report over a sharded order database
+ *
+ * "totals" runs one aggregate query per shard in parallel and lists the
+ * totals per branch. "hourly" merges the order streams of all shards in
+ * creation order and writes group-wide orders and revenue per hour; each
+ * hour is written as soon as it is complete.
+ *
+ * Usage:
+ *   branch-report --shards shards.properties --from 2024-01-01 --to 2024-02-01
+ *                 [--report totals|hourly]
+ *
+ * See {@link ShardedDatabase} for the format of the shards file. Output is CSV.
+ */
+public class BranchReportCommand {
+
+    private BranchReportCommand() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        try {
+            CommandOptions options = new CommandOptions(args, "--shards", "--from", "--to", "--report");
+            if (!options.has("--shards") || !options.has("--from") || !options.has("--to")) {
+                throw new IllegalArgumentException("--shards, --from and --to are required");
+            }
+            LocalDateTime from = LocalDate.parse(options.getString("--from", null)).atStartOfDay();
+            LocalDateTime to = LocalDate.parse(options.getString("--to", null)).atStartOfDay();
+            String report = options.getString("--report", "totals");
+            if (!report.equals("totals") && !report.equals("hourly")) {
+                throw new IllegalArgumentException("--report must be totals or hourly");
+            }
+
+            try (ShardedDatabase database = ShardedDatabase.load(options.getPath("--shards"))) {
+                ShardedOrderDAO orderDAO = new ShardedOrderDAO(database);
+                long begin = System.nanoTime();
+                long rows;
+                if (report.equals("totals")) {
+                    rows = writeTotals(orderDAO.loadBranchTotals(from, to));
+                } else {
+                    HourlyWriter writer = new HourlyWriter();
+                    rows = orderDAO.streamOrders(from, to, writer);
+                    if (rows < 0) {
+                        return 1;
+                    }
+                    writer.finish();
+                }
+                System.err.println(String.format(Locale.ROOT, "Read %d row(s) from %d shard(s) in %.2f s",
+                    rows, database.getShards().size(), (System.nanoTime() - begin) / 1e9));
+            }
+            return 0;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        } catch (IOException | SQLException e) {
+            System.err.println("Branch report failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static long writeTotals(List<BranchTotals> totals) {
+        System.out.println("branch,orders,cancelled,revenue,average_actual_time");
+        long orders = 0;
+        long cancelled = 0;
+        double revenue = 0;
+        for (BranchTotals branch : totals) {
+            System.out.println(String.format(Locale.ROOT, "%d,%d,%d,%.2f,%s",
+                branch.getBranchId(), branch.getOrders(), branch.getCancelledOrders(), branch.getRevenue(),
+                Double.isNaN(branch.getAverageActualTime()) ? "" : String.format(Locale.ROOT, "%.1f", branch.getAverageActualTime())));
+            orders += branch.getOrders();
+            cancelled += branch.getCancelledOrders();
+            revenue += branch.getRevenue();
+        }
+        System.out.println(String.format(Locale.ROOT, "total,%d,%d,%.2f,", orders, cancelled, revenue));
+        return totals.size();
+    }
+
+    /**
+     * Sums the merged order stream per hour; relies on creation order
+     */
+    private static final class HourlyWriter implements Consumer<Order> {
+        private LocalDateTime hour;
+        private long orders;
+        private double revenue;
+        private final Set<Integer> branches = new HashSet<>();
+
+        HourlyWriter() {
+            System.out.println("hour,orders,revenue,branches");
+        }
+
+        @Override
+        public void accept(Order order) {
+            if (order.getCreatedAt() == null) {
+                return;
+            }
+            LocalDateTime orderHour = order.getCreatedAt().truncatedTo(ChronoUnit.HOURS);
+            if (!orderHour.equals(hour)) {
+                finish();
+                hour = orderHour;
+            }
+            orders++;
+            if (order.getStatus() != Order.OrderStatus.CANCELLED) {
+                revenue += order.getTotalAmount();
+            }
+            branches.add(order.getBranchId());
+        }
+
+        void finish() {
+            if (hour != null) {
+                System.out.println(String.format(Locale.ROOT, "%s,%d,%.2f,%d", hour, orders, revenue, branches.size()));
+            }
+            orders = 0;
+            revenue = 0;
+            branches.clear();
+        }
+    }
+}
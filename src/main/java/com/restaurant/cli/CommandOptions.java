@@ -0,0 +1,70 @@
+package com.restaurant.cli;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed "--name value" options of a headless command
+ *
+ * Every option takes exactly one value. Unknown options are rejected so that
+ * typos do not silently fall back to defaults.
+ */
+public class CommandOptions {
+    private final Map<String, String> values = new HashMap<>();
+
+    /**
+     * Parses command arguments
+     *
+     * @param args Arguments without the command name
+     * @param allowed Option names accepted by the command (e.g. "--file")
+     * @throws IllegalArgumentException if an option is unknown or has no value
+     */
+    public CommandOptions(String[] args, String... allowed) {
+        Set<String> allowedNames = new HashSet<>(Arrays.asList(allowed));
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+            if (!allowedNames.contains(name)) {
+                throw new IllegalArgumentException("Unknown option " + name);
+            }
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException(name + " requires a value");
+            }
+            values.put(name, args[++i]);
+        }
+    }
+
+    public boolean has(String name) {
+        return values.containsKey(name);
+    }
+
+    public String getString(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public Path getPath(String name) {
+        String value = values.get(name);
+        return value == null ? null : Paths.get(value);
+    }
+
+    public int getInt(String name, int defaultValue, int minimum) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+        if (parsed < minimum) {
+            throw new IllegalArgumentException(name + " must be at least " + minimum);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,117 @@
+package com.restaurant.cli;
+
+import com.restaurant.database.DatabaseConnection;
+import com.restaurant.database.ReplicaRouter;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Shows the primary and the read replicas and where reads are routed
+ *
+ * Checks every replica's lag, sends a number of test reads through the
+ * router and reports how many each replica served. Then it writes nothing
+ * but takes a primary connection, which counts as a write of the session,
+ * and shows that the next read is only served by a replica that has caught
+ * up with it.
+ *
+ * Usage:
+ *   db-status [--reads 100]
+ *
+ * Replicas are configured with -Drestaurant.db.replicas (see
+ * {@link DatabaseConnection}).
+ */
+public class DbStatusCommand {
+
+    private DbStatusCommand() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        int reads;
+        try {
+            CommandOptions options = new CommandOptions(args, "--reads");
+            reads = options.getInt("--reads", 100, 0);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        }
+
+        DatabaseConnection database = DatabaseConnection.getInstance();
+        try (Connection conn = database.getConnection()) {
+            System.out.println("primary: up (" + conn.getMetaData().getURL() + ")");
+        } catch (SQLException e) {
+            System.out.println("primary: DOWN (" + e.getMessage() + ")");
+            return 1;
+        }
+
+        ReplicaRouter router = database.getReplicaRouter();
+        if (router == null) {
+            System.out.println("replicas: none configured, all reads go to the primary");
+            return 0;
+        }
+        router.checkNow();
+        for (ReplicaRouter.Replica replica : router.getReplicas()) {
+            System.out.println(String.format(Locale.ROOT, "replica %s: %s", replica.getName(),
+                replica.isHealthy() ? "up, lag <= " + replica.getLagMillis() + " ms" : "UNAVAILABLE (" + replica.getProblem() + ")"));
+        }
+
+        // A fresh session has no writes, so any healthy replica within the lag limit may serve it
+        router.bindSession(new ReplicaRouter.Session());
+        long[] before = readCounts(router);
+        for (int i = 0; i < reads; i++) {
+            try (Connection conn = database.getReadConnection();
+                 Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT 1")) {
+                rs.next();
+            } catch (SQLException e) {
+                System.err.println("Test read failed: " + e.getMessage());
+                return 1;
+            }
+        }
+        printRouting(router, before, reads + " read(s)");
+
+        try (Connection conn = database.getConnection()) {
+            conn.isValid(1);
+        } catch (SQLException e) {
+            System.err.println("Primary connection failed: " + e.getMessage());
+            return 1;
+        }
+        before = readCounts(router);
+        try (Connection conn = database.getReadConnection()) {
+            conn.isValid(1);
+        } catch (SQLException e) {
+            System.err.println("Test read failed: " + e.getMessage());
+            return 1;
+        }
+        printRouting(router, before, "read right after a write");
+        return 0;
+    }
+
+    private static long[] readCounts(ReplicaRouter router) {
+        long[] counts = new long[router.getReplicas().size() + 1];
+        for (int i = 0; i < router.getReplicas().size(); i++) {
+            counts[i] = router.getReplicas().get(i).getReads();
+        }
+        counts[counts.length - 1] = router.getPrimaryReads();
+        return counts;
+    }
+
+    private static void printRouting(ReplicaRouter router, long[] before, String label) {
+        long[] after = readCounts(router);
+        StringBuilder line = new StringBuilder(label).append(":");
+        for (int i = 0; i < router.getReplicas().size(); i++) {
+            line.append(' ').append(router.getReplicas().get(i).getName()).append('=').append(after[i] - before[i]);
+        }
+        line.append(" primary=").append(after[after.length - 1] - before[before.length - 1]);
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,103 @@
+package com.restaurant.cli;
+
+import com.restaurant.event.EventMetricsHandler;
+import com.restaurant.event.OrderEventRing;
+import com.restaurant.model.Order;
+import com.restaurant.util.JsonWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the throughput of the order event pipeline in events per second
+ *
+ * Publishes synthetic status transitions through an {@link OrderEventRing}
+ * with a number of independent counting handlers and reports how long it
+ * took until every handler had seen every event.
+ *
+ * Usage:
+ *   bench-events [--events 10000000] [--handlers 4] [--producers 1] [--capacity 65536]
+ */
+public class EventPipelineBenchmark {
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    private EventPipelineBenchmark() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        try {
+            CommandOptions options = new CommandOptions(args, "--events", "--handlers", "--producers", "--capacity");
+            int events = options.getInt("--events", 10_000_000, 1);
+            int handlerCount = options.getInt("--handlers", 4, 1);
+            int producers = options.getInt("--producers", 1, 1);
+            int capacity = options.getInt("--capacity", 65_536, 2);
+
+            OrderEventRing ring = new OrderEventRing("bench", capacity,
+                producers == 1 ? OrderEventRing.ProducerType.SINGLE : OrderEventRing.ProducerType.MULTI);
+            List<EventMetricsHandler> handlers = new ArrayList<>();
+            for (int i = 0; i < handlerCount; i++) {
+                EventMetricsHandler handler = new EventMetricsHandler();
+                handlers.add(handler);
+                ring.addHandler(handler);
+            }
+            ring.start();
+
+            int perProducer = events / producers;
+            int total = perProducer * producers;
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(producers);
+            for (int p = 0; p < producers; p++) {
+                Thread producer = new Thread(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < perProducer; i++) {
+                            ring.publish(i, STATUSES[i % 4], STATUSES[(i % 4) + 1]);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                }, "bench-producer-" + p);
+                producer.start();
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            done.await();
+            long publishedNanos = System.nanoTime() - begin;
+            boolean drained = ring.shutdown(60_000);
+            long elapsedNanos = System.nanoTime() - begin;
+
+            double averageBatch = 0;
+            for (EventMetricsHandler handler : handlers) {
+                averageBatch += handler.getAverageBatchSize() / handlers.size();
+            }
+            System.out.println(new JsonWriter().beginObject()
+                .name("events").value(total)
+                .name("handlers").value(handlerCount)
+                .name("producers").value(producers)
+                .name("capacity").value(capacity)
+                .name("drained").value(drained)
+                .name("publishSeconds").value(publishedNanos / 1e9)
+                .name("elapsedSeconds").value(elapsedNanos / 1e9)
+                .name("eventsPerSecond").value(total / (elapsedNanos / 1e9))
+                .name("averageBatchSize").value(averageBatch)
+                .endObject().toString());
+            return drained ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.restaurant.cli;
+
+import com.restaurant.dao.QueryPlanCheck;
+import com.restaurant.dao.TableDAO;
+import com.restaurant.database.DatabaseConnection;
+import com.restaurant.model.Table;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Query plan regression check for the hot DAO queries
+ *
+ * Runs EXPLAIN on every hot query and fails (exit code 1) if one of them
+ * scans a large table, sorts where an index should deliver the order, or
+ * misses its covering index; prints the plans and median/p95 timings.
+ * With --fill, synthetic history is added first until the orders table has
+ * that many rows (use a scratch copy of the database), e.g. --fill 1000000
+ * for timings at a million orders.
+ *
+ * Usage:
+ *   explain-check [--fill 1000000] [--runs 20]
+ */
+public class ExplainCheckCommand {
+
+    private ExplainCheckCommand() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        int fill;
+        int runs;
+        try {
+            CommandOptions options = new CommandOptions(args, "--fill", "--runs");
+            fill = options.getInt("--fill", 0, 0);
+            runs = options.getInt("--runs", 20, 1);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        }
+
+        QueryPlanCheck check = new QueryPlanCheck(DatabaseConnection.getInstance());
+        try {
+            if (fill > 0) {
+                List<Table> tables = new TableDAO().getAllTables();
+                if (tables.isEmpty()) {
+                    System.err.println("--fill needs at least one table in the database");
+                    return 1;
+                }
+                long begin = System.nanoTime();
+                long added = check.fill(fill, tables.get(0).getTableId());
+                System.err.println(String.format(Locale.ROOT, "Added %d order(s) in %.1f s",
+                    added, (System.nanoTime() - begin) / 1e9));
+            }
+
+            Map<String, Long> rows = check.countRows();
+            System.out.println("Rows: " + rows);
+            boolean passed = true;
+            boolean judged = false;
+            for (QueryPlanCheck.Result result : check.run(runs)) {
+                String verdict = !result.isJudged() ? "SMALL" : result.isPassed() ? "PASS" : "FAIL";
+                System.out.println(String.format(Locale.ROOT, "%-20s %-5s median %.3f ms  p95 %.3f ms",
+                    result.getName(), verdict, result.getMedianMillis(), result.getP95Millis()));
+                for (String line : result.getPlan()) {
+                    System.out.println("    " + line);
+                }
+                for (String problem : result.getProblems()) {
+                    System.out.println("    PROBLEM " + problem);
+                }
+                passed &= result.isPassed();
+                judged |= result.isJudged();
+            }
+            if (!judged) {
+                System.err.println("No table has " + QueryPlanCheck.MIN_ROWS
+                                   + " rows yet, so no plan was judged; run with --fill on a scratch database");
+            }
+            return passed ? 0 : 1;
+        } catch (SQLException e) {
+            System.err.println("Explain check failed: " + e.getMessage());
+            return 1;
+        }
+    }
+}
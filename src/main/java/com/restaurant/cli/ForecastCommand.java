@@ -0,0 +1,134 @@
+package com.restaurant.cli;
+
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.algorithm.SchedulingAlgorithms;
+import com.restaurant.api.OrderJson;
+import com.restaurant.dao.OrderDAO;
+import com.restaurant.dao.OrderSnapshotFile;
+import com.restaurant.forecast.ArrivalForecaster;
+import com.restaurant.forecast.LoadPredictor;
+import com.restaurant.model.Order;
+import com.restaurant.util.JsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Forecasts order arrivals and the kitchen queue for the next hours
+ *
+ * The forecaster learns from the order history of the last days (orders
+ * and their items, including archived ones) and forecasts the next hours
+ * per quarter hour. The current PREPARING and PENDING orders are then run
+ * through the kitchen together with the forecast arrivals, under the chosen
+ * algorithm and number of chefs, to predict the queue depth.
+ *
+ * Usage:
+ *   forecast [--days 28] [--hours 4] [--chefs 4] [--algorithm PriorityQueueScheduling] [--items 5]
+ *            [--file trace.csv] [--at 2024-01-05T18:00]
+ *
+ * With --at the forecast starts at a past time, learning only from the
+ * orders before it, and the kitchen starts empty. With --file the history
+ * comes from a snapshot file and --at defaults to its last order.
+ */
+public class ForecastCommand {
+
+    private ForecastCommand() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        int days;
+        int hours;
+        int chefs;
+        int topItems;
+        Path file;
+        LocalDateTime at;
+        SchedulingAlgorithm algorithm;
+        try {
+            CommandOptions options = new CommandOptions(args, "--days", "--hours", "--chefs", "--algorithm",
+                "--items", "--file", "--at");
+            days = options.getInt("--days", 28, 1);
+            hours = options.getInt("--hours", 4, 1);
+            chefs = options.getInt("--chefs", 4, 1);
+            topItems = options.getInt("--items", 5, 0);
+            file = options.getPath("--file");
+            String atText = options.getString("--at", null);
+            at = atText != null ? LocalDateTime.parse(atText) : null;
+            String key = options.getString("--algorithm", "PriorityQueueScheduling");
+            algorithm = SchedulingAlgorithms.get(key);
+            if (algorithm == null) {
+                throw new IllegalArgumentException("Unknown algorithm " + key);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        }
+
+        ArrivalForecaster forecaster = new ArrivalForecaster();
+        List<Order> active;
+        LocalDateTime now;
+        long begin = System.nanoTime();
+        try {
+            if (file != null) {
+                LocalDateTime[] last = new LocalDateTime[1];
+                OrderSnapshotFile.forEach(file, order -> {
+                    if (order.getCreatedAt() != null && (at == null || order.getCreatedAt().isBefore(at))) {
+                        forecaster.record(order);
+                        last[0] = order.getCreatedAt();
+                    }
+                });
+                now = at != null ? at : last[0];
+                if (now == null) {
+                    System.err.println("No orders with created_at in " + file);
+                    return 1;
+                }
+                active = Collections.emptyList();
+            } else {
+                OrderDAO orderDAO = new OrderDAO();
+                // created_at is set by the database, so its clock decides what "now" is
+                now = at != null ? at : orderDAO.getDatabaseTime();
+                LocalDateTime from = now.minusDays(days);
+                if (orderDAO.streamOrders(from, now, forecaster::record) < 0
+                        || orderDAO.streamOrderItems(from, now,
+                            (orderedAt, item) -> forecaster.recordItem(orderedAt, item.getItemName(), item.getQuantity())) < 0) {
+                    return 1;
+                }
+                active = at != null ? Collections.<Order>emptyList()
+                    : orderDAO.loadOrdersByStatus(Order.OrderStatus.PREPARING, Order.OrderStatus.PENDING);
+            }
+        } catch (IOException | SQLException e) {
+            System.err.println("Forecast failed: " + e.getMessage());
+            return 1;
+        }
+        forecaster.advanceTo(now);
+        long learned = System.nanoTime();
+
+        List<ArrivalForecaster.Bucket> buckets = forecaster.forecast(now, hours * 60 / ArrivalForecaster.BUCKET_MINUTES);
+        LoadPredictor.Prediction prediction = new LoadPredictor(algorithm, chefs).predict(buckets, active, now);
+        long predicted = System.nanoTime();
+
+        JsonWriter json = new JsonWriter().beginObject()
+            .name("at").value(now.toString())
+            .name("algorithm").value(algorithm.getAlgorithmName())
+            .name("chefs").value(chefs)
+            .name("activeOrders").value(active.size())
+            .name("level").value(forecaster.getLevel())
+            .name("prediction");
+        OrderJson.writePrediction(json, prediction, topItems);
+        System.out.println(json.endObject().toString());
+        System.err.println(String.format(Locale.ROOT, "Learned from %d orders in %.2f s, predicted in %.1f ms",
+            forecaster.getRecordedOrders(), (learned - begin) / 1e9, (predicted - learned) / 1e6));
+        return 0;
+    }
+}
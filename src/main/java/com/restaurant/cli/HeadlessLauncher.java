@@ -0,0 +1,166 @@
+package com.restaurant.cli;
+
+/**
+ * Dispatches headless (no JavaFX window) commands
+ *
+ * When the application is started with a known command as its first
+ * argument, {@link com.restaurant.Main} hands control to this class instead of
+ * launching the desktop UI. This allows the system to run on servers that
+ * have no display, e.g. for nightly algorithm evaluations.
+ *
+ * The class can also be used as the main class directly, which avoids
+ * loading JavaFX at all.
+ */
+public class HeadlessLauncher {
+
+    private HeadlessLauncher() {
+    }
+
+    /**
+     * Main method for running headless commands without JavaFX on the classpath
+     *
+     * @param args Command line arguments; args[0] is the command name
+     */
+    public static void main(String[] args) {
+        if (args.length == 0 || !isHeadlessCommand(args[0])) {
+            printUsage();
+            System.exit(args.length == 0 ? 0 : 2);
+        }
+        System.exit(run(args));
+    }
+
+    /**
+     * Checks whether the given argument names a headless command
+     *
+     * @param command First command line argument
+     * @return true if the command runs without the UI
+     */
+    public static boolean isHeadlessCommand(String command) {
+        switch (command) {
+            case "compare":
+            case "serve":
+            case "loadtest":
+            case "bench-events":
+            case "bench-memory":
+            case "replay":
+            case "bench-seating":
+            case "branch-report":
+            case "db-status":
+            case "bench-status":
+            case "archive-orders":
+            case "explain-check":
+            case "bench-reschedule":
+            case "forecast":
+            case "optimal-gap":
+            case "bench-local-search":
+            case "help":
+            case "--help":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Runs a headless command
+     *
+     * @param args Full command line; args[0] is the command name
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        String[] commandArgs = new String[args.length - 1];
+        System.arraycopy(args, 1, commandArgs, 0, commandArgs.length);
+
+        switch (args[0]) {
+            case "compare":
+                return AlgorithmComparison.run(commandArgs);
+            case "serve":
+                return ApiServerCommand.run(commandArgs);
+            case "loadtest":
+                return ApiLoadTest.run(commandArgs);
+            case "bench-events":
+                return EventPipelineBenchmark.run(commandArgs);
+            case "bench-memory":
+                return MemoryBenchmark.run(commandArgs);
+            case "replay":
+                return TraceReplayCommand.run(commandArgs);
+            case "bench-seating":
+                return SeatingBenchmark.run(commandArgs);
+            case "branch-report":
+                return BranchReportCommand.run(commandArgs);
+            case "db-status":
+                return DbStatusCommand.run(commandArgs);
+            case "bench-status":
+                return StatusContentionBenchmark.run(commandArgs);
+            case "archive-orders":
+                return ArchiveOrdersCommand.run(commandArgs);
+            case "explain-check":
+                return ExplainCheckCommand.run(commandArgs);
+            case "bench-reschedule":
+                return RescheduleBenchmark.run(commandArgs);
+            case "forecast":
+                return ForecastCommand.run(commandArgs);
+            case "optimal-gap":
+                return OptimalGapCommand.run(commandArgs);
+            case "bench-local-search":
+                return LocalSearchBenchmark.run(commandArgs);
+            default:
+                printUsage();
+                return 0;
+        }
+    }
+
+    private static void printUsage() {
+        System.out.println("Usage: java com.restaurant.Main [command] [options]");
+        System.out.println();
+        System.out.println("Without a command the desktop application is started.");
+        System.out.println();
+        System.out.println("Commands:");
+        System.out.println("  compare [--file snapshot.csv] [--format json|csv] [--output file]");
+        System.out.println("          [--repeat n] [--save-snapshot snapshot.csv] [--chefs 1]");
+        System.out.println("      Runs all scheduling algorithms concurrently on one snapshot of orders");
+        System.out.println("      (pending orders from the database unless --file is given).");
+        System.out.println("  serve [--host 0.0.0.0] [--port 8080] [--threads 16] [--id-block 100] [--archive-minutes 0]");
+        System.out.println("        [--checkpoint file] [--checkpoint-seconds 30] [--forecast-days 0]");
+        System.out.println("      Starts the HTTP/JSON order service.");
+        System.out.println("  loadtest [--url http://localhost:8080] [--path /schedule?limit=10]");
+        System.out.println("           [--clients 32] [--requests 20000] [--warmup 1000]");
+        System.out.println("      Measures requests/sec and latency percentiles of the HTTP service.");
+        System.out.println("  bench-events [--events 10000000] [--handlers 4] [--producers 1] [--capacity 65536]");
+        System.out.println("      Measures order event pipeline throughput in events/sec.");
+        System.out.println("  bench-memory [--orders 1000000] [--items 3]");
+        System.out.println("      Compares heap per order of Order objects and the compact columnar order store.");
+        System.out.println("  replay --from 2024-01-01 --to 2025-01-01 [--file trace.csv] [--algorithms A,B]");
+        System.out.println("         [--chefs 1] [--prep-time actual|estimated] [--day-start-hour 4]");
+        System.out.println("         [--format csv|json] [--output file]");
+        System.out.println("      Replays order history through the algorithms and reports counterfactual waits per day.");
+        System.out.println("  bench-seating [--layout 2:6,4:8,6:4,8:2] [--group 4] [--max-combined 3] [--arrivals 25]");
+        System.out.println("                [--hours 4] [--max-wait 45] [--runs 20] [--seed 42]");
+        System.out.println("      Simulates walk-in parties and compares covers/hour of best-fit and first-fit seating.");
+        System.out.println("  branch-report --shards shards.properties --from 2024-01-01 --to 2024-02-01");
+        System.out.println("                [--report totals|hourly]");
+        System.out.println("      Reports per-branch totals or group-wide hourly orders across all database shards.");
+        System.out.println("  db-status [--reads 100]");
+        System.out.println("      Shows primary and replica health, replica lag and where reads are routed.");
+        System.out.println("  bench-status [--writers 32] [--orders 200] [--cancel-percent 5] [--mode cas|blind|both]");
+        System.out.println("      Races concurrent writers on the same orders with compare-and-set and blind status updates.");
+        System.out.println("  archive-orders [--retention-hours 24] [--batch 500] [--pause-ms 200]");
+        System.out.println("      Moves served and cancelled orders to the archive tables in throttled batches.");
+        System.out.println("  explain-check [--fill 1000000] [--runs 20]");
+        System.out.println("      Fails if a hot query's plan scans a large table, filesorts or misses its covering index.");
+        System.out.println("  bench-reschedule [--backlog 5000] [--chefs 4] [--arrivals 10000] [--frozen-minutes 10]");
+        System.out.println("                   [--urgent-percent 10] [--algorithm PriorityQueueScheduling] [--seed 42]");
+        System.out.println("      Times inserting arriving orders into a live plan without moving work in progress.");
+        System.out.println("  forecast [--days 28] [--hours 4] [--chefs 4] [--algorithm PriorityQueueScheduling] [--items 5]");
+        System.out.println("           [--file trace.csv] [--at 2024-01-05T18:00]");
+        System.out.println("      Forecasts arrivals and item mix per quarter hour and the resulting kitchen queue.");
+        System.out.println("  optimal-gap [--orders 12] [--instances 20] [--budget-ms 1000] [--threads cores]");
+        System.out.println("              [--objective completion|tardiness] [--due-minutes 30]");
+        System.out.println("              [--file trace.csv] [--load-percent 110] [--seed 42]");
+        System.out.println("      Compares the algorithms with the optimal sequence found by branch-and-bound.");
+        System.out.println("  bench-local-search [--orders 500] [--cooks 2] [--budget-ms 2000] [--threads cores]");
+        System.out.println("                     [--weights wait=1,tardiness=5,makespan=1,priority=2,due=30]");
+        System.out.println("                     [--file trace.csv] [--seed 42]");
+        System.out.println("      Improves the SPT and priority schedules of a large backlog by parallel local search.");
+    }
+}
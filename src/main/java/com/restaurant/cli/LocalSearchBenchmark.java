@@ -0,0 +1,168 @@
+package com.restaurant.cli;
+
+import com.restaurant.algorithm.CostWeights;
+import com.restaurant.algorithm.LocalSearchScheduler;
+import com.restaurant.algorithm.ScheduleEvaluator;
+import com.restaurant.dao.OrderSnapshotFile;
+import com.restaurant.model.MenuItem;
+import com.restaurant.model.Order;
+import com.restaurant.model.OrderItem;
+import com.restaurant.util.JsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmarks the multi-objective local search on one large backlog
+ *
+ * The backlog is synthetic (orders of one to four dishes from a menu that
+ * spans every station, arriving over the first part of the shift) or the
+ * first orders of a snapshot file. The report gives the cost of the SPT and
+ * priority seed schedules, the cost breakdown of the best schedule found,
+ * the evaluation rate and how the best cost developed over time.
+ *
+ * Usage:
+ *   bench-local-search [--orders 500] [--cooks 2] [--budget-ms 2000] [--threads cores]
+ *                      [--weights wait=1,tardiness=5,makespan=1,priority=2,due=30]
+ *                      [--file trace.csv] [--seed 42]
+ */
+public class LocalSearchBenchmark {
+    /** Convergence points printed at most; the rest are thinned out evenly */
+    private static final int MAX_POINTS = 40;
+
+    private LocalSearchBenchmark() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        int orderCount;
+        int cooks;
+        int threads;
+        LocalSearchScheduler scheduler;
+        CostWeights weights;
+        Path file;
+        long seed;
+        try {
+            CommandOptions options = new CommandOptions(args, "--orders", "--cooks", "--budget-ms", "--threads",
+                "--weights", "--file", "--seed");
+            orderCount = options.getInt("--orders", 500, 1);
+            cooks = options.getInt("--cooks", 2, 1);
+            threads = options.getInt("--threads", Runtime.getRuntime().availableProcessors(), 1);
+            weights = options.has("--weights") ? CostWeights.parse(options.getString("--weights", ""))
+                                               : CostWeights.DEFAULT;
+            file = options.getPath("--file");
+            seed = options.getInt("--seed", 42, 0);
+            scheduler = new LocalSearchScheduler(weights, cooks,
+                options.getInt("--budget-ms", 2000, 0), threads, seed);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        }
+
+        List<Order> orders;
+        try {
+            orders = file != null ? firstOrders(file, orderCount) : synthetic(orderCount, cooks, new Random(seed));
+        } catch (IOException e) {
+            System.err.println("Cannot read " + file + ": " + e.getMessage());
+            return 1;
+        }
+        if (orders.isEmpty()) {
+            System.err.println("No orders with created_at in " + file);
+            return 1;
+        }
+
+        LocalDateTime start = orders.stream().map(Order::getCreatedAt).min(LocalDateTime::compareTo).get();
+        LocalSearchScheduler.Result result = scheduler.solve(orders, start, LocalSearchScheduler.defaultSeeds(orders));
+        ScheduleEvaluator.Breakdown best = result.getBreakdown();
+        double[] seedCosts = result.getSeedCosts();
+        double bestSeed = Math.min(seedCosts[0], seedCosts[1]);
+        double seconds = result.getElapsedNanos() / 1e9;
+
+        JsonWriter json = new JsonWriter().beginObject()
+            .name("orders").value(orders.size())
+            .name("cooksPerStation").value(cooks)
+            .name("threads").value(threads)
+            .name("weights").value(weights.toString())
+            .name("source").value(file != null ? file.toString() : "synthetic")
+            .name("seeds").beginObject()
+                .name("ShortestProcessingTime").value(seedCosts[0])
+                .name("PriorityQueueScheduling").value(seedCosts[1])
+            .endObject()
+            .name("best").beginObject()
+                .name("cost").value(best.getCost())
+                .name("waitMinutes").value(best.getWaitMinutes())
+                .name("weightedTardiness").value(best.getWeightedTardiness())
+                .name("makespan").value(best.getMakespan())
+                .name("priorityViolations").value(best.getPriorityViolations())
+            .endObject()
+            .name("improvement").value(bestSeed == 0 ? 0 : 1 - best.getCost() / bestSeed)
+            .name("evaluations").value(result.getEvaluations())
+            .name("evaluationsPerSecond").value(seconds == 0 ? 0 : result.getEvaluations() / seconds)
+            .name("millisToWithin1Percent").value(result.getMillisToWithin(0.01))
+            .name("convergence").beginArray();
+        List<LocalSearchScheduler.ConvergencePoint> points = result.getConvergence();
+        int step = Math.max(1, (points.size() + MAX_POINTS - 1) / MAX_POINTS);
+        for (int i = 0; i < points.size(); i++) {
+            if (i % step != 0 && i != points.size() - 1) {
+                continue;
+            }
+            LocalSearchScheduler.ConvergencePoint point = points.get(i);
+            json.beginObject()
+                .name("millis").value(point.getElapsedNanos() / 1e6)
+                .name("evaluations").value(point.getEvaluations())
+                .name("cost").value(point.getCost())
+                .endObject();
+        }
+        System.out.println(json.endArray().endObject().toString());
+        return 0;
+    }
+
+    private static List<Order> firstOrders(Path file, int orderCount) throws IOException {
+        List<Order> orders = new ArrayList<>(orderCount);
+        OrderSnapshotFile.forEach(file, order -> {
+            if (order.getCreatedAt() != null && orders.size() < orderCount) {
+                orders.add(order);
+            }
+        });
+        return orders;
+    }
+
+    private static List<Order> synthetic(int orderCount, int cooks, Random random) {
+        MenuItem.Station[] stations = MenuItem.Station.values();
+        List<MenuItem> menu = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            MenuItem.Station station = stations[i % stations.length];
+            int prep = station == MenuItem.Station.BAR ? 1 + random.nextInt(3) : 4 + random.nextInt(18);
+            menu.add(new MenuItem(i + 1, "Dish " + (i + 1), 5 + i * 0.5, station, prep));
+        }
+        // Arrivals over the first half of the work, so a backlog builds up at every station
+        LocalDateTime start = LocalDateTime.of(2024, 1, 5, 18, 0);
+        long arrivalSeconds = orderCount * 6L * 60 / cooks;
+        List<Order> orders = new ArrayList<>(orderCount);
+        for (int id = 1; id <= orderCount; id++) {
+            Order order = new Order(1 + random.nextInt(40), "SIM-" + id, 1 + random.nextInt(10), 0);
+            order.setOrderId(id);
+            order.setStatus(Order.OrderStatus.PENDING);
+            order.setCreatedAt(start.plusSeconds((long) (random.nextDouble() * arrivalSeconds)));
+            int dishes = 1 + random.nextInt(4);
+            int longest = 0;
+            for (int d = 0; d < dishes; d++) {
+                MenuItem item = menu.get(random.nextInt(menu.size()));
+                order.addItem(new OrderItem(id, item, 1));
+                longest = Math.max(longest, item.getPrepTime());
+            }
+            order.setEstimatedTime(longest);
+            orders.add(order);
+        }
+        return orders;
+    }
+}
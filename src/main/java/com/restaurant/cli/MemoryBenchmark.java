@@ -0,0 +1,141 @@
+package com.restaurant.cli;
+
+import com.restaurant.model.MenuCatalog;
+import com.restaurant.model.MenuItem;
+import com.restaurant.model.Order;
+import com.restaurant.model.OrderItem;
+import com.restaurant.store.CompactOrderStore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Measures heap use per order for Order objects and for {@link CompactOrderStore}
+ *
+ * Generates synthetic orders (items taken from a 50-dish menu, some with
+ * notes), keeps them as a list of Order objects and then as a compact store,
+ * and reports the retained heap of each after a full GC. Run with a heap
+ * large enough for both, e.g. -Xmx4g for a million orders.
+ *
+ * Usage:
+ *   bench-memory [--orders 1000000] [--items 3]
+ */
+public class MemoryBenchmark {
+    private static final String[] NOTES = {"no onions", "extra sauce", "gluten free", "well done"};
+
+    private MemoryBenchmark() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        try {
+            CommandOptions options = new CommandOptions(args, "--orders", "--items");
+            int orderCount = options.getInt("--orders", 1_000_000, 1);
+            int itemsPerOrder = options.getInt("--items", 3, 0);
+            MenuCatalog menu = createMenu();
+
+            long baseline = usedHeap();
+            List<Order> orders = generate(orderCount, itemsPerOrder, menu);
+            long objectBytes = usedHeap() - baseline;
+
+            long beforeStore = usedHeap();
+            CompactOrderStore store = new CompactOrderStore(menu, orderCount);
+            for (Order order : orders) {
+                store.add(order);
+            }
+            long storeBytes = usedHeap() - beforeStore;
+
+            verify(orders, store);
+            Order sample = orders.get(orderCount / 2);
+            orders = null;
+
+            System.out.println(String.format(Locale.ROOT, "Orders: %,d with %d item(s) each", orderCount, itemsPerOrder));
+            System.out.println(String.format(Locale.ROOT, "Order objects:      %,12d bytes  %,7.1f bytes/order",
+                objectBytes, objectBytes / (double) orderCount));
+            System.out.println(String.format(Locale.ROOT, "CompactOrderStore:  %,12d bytes  %,7.1f bytes/order (estimate %,.1f)",
+                storeBytes, storeBytes / (double) orderCount, store.estimateBytes() / (double) orderCount));
+            System.out.println(String.format(Locale.ROOT, "Reduction:          %.1fx", objectBytes / (double) Math.max(1, storeBytes)));
+            System.out.println("Sample: " + store.getById(sample.getOrderId()));
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        } catch (OutOfMemoryError e) {
+            System.err.println("Out of memory; run with a larger -Xmx or fewer --orders");
+            return 1;
+        }
+    }
+
+    private static MenuCatalog createMenu() {
+        MenuItem.Station[] stations = MenuItem.Station.values();
+        List<MenuItem> items = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            items.add(new MenuItem(i, "Dish " + i, 5 + i * 0.5, stations[i % stations.length], 3 + i % 20));
+        }
+        return new MenuCatalog(items);
+    }
+
+    private static List<Order> generate(int count, int itemsPerOrder, MenuCatalog menu) {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 11, 0);
+        List<Order> orders = new ArrayList<>(count);
+        int itemId = 1;
+        for (int i = 1; i <= count; i++) {
+            // Formatted per order, as the DAO would read a fresh String per row
+            Order order = new Order(1 + random.nextInt(40), String.format("ORD-%07d", i), 1 + random.nextInt(10), 0);
+            order.setOrderId(i);
+            order.setBranchId(1 + i % 3);
+            order.setVersion(3);
+            order.setStaffId(random.nextInt(4) == 0 ? null : 1 + random.nextInt(20));
+            order.setStatus(Order.OrderStatus.SERVED);
+            order.setActualTime(5 + random.nextInt(30));
+            order.setCreatedAt(start.plusSeconds(i * 20L));
+            order.setUpdatedAt(start.plusSeconds(i * 20L + 900));
+            for (int k = 0; k < itemsPerOrder; k++) {
+                OrderItem item = new OrderItem(i, menu.getById(1 + random.nextInt(menu.size())), 1 + random.nextInt(3));
+                item.setItemId(itemId++);
+                if (random.nextInt(5) == 0) {
+                    item.setNotes(new String(NOTES[random.nextInt(NOTES.length)]));
+                }
+                order.addItem(item);
+            }
+            order.setEstimatedTime(Math.max(1, menu.estimatePreparationTime(order.getItems())));
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static void verify(List<Order> orders, CompactOrderStore store) {
+        for (int i = 0; i < orders.size(); i += Math.max(1, orders.size() / 1000)) {
+            Order expected = orders.get(i);
+            Order actual = store.get(store.indexOf(expected.getOrderId()));
+            if (!expected.getOrderNumber().equals(actual.getOrderNumber())
+                    || expected.getBranchId() != actual.getBranchId()
+                    || expected.getVersion() != actual.getVersion()
+                    || !expected.getCreatedAt().equals(actual.getCreatedAt())
+                    || expected.getItems().size() != actual.getItems().size()
+                    || Math.abs(expected.getTotalAmount() - actual.getTotalAmount()) > 0.001) {
+                throw new IllegalStateException("Store returned a different order for " + expected.getOrderNumber());
+            }
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        // Several collections so that objects with finalizers or soft references are gone too
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+}
@@ -0,0 +1,205 @@
+package com.restaurant.cli;
+
+import com.restaurant.algorithm.BranchAndBoundScheduler;
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.algorithm.SchedulingAlgorithms;
+import com.restaurant.dao.OrderSnapshotFile;
+import com.restaurant.model.Order;
+import com.restaurant.util.JsonWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how far the scheduling algorithms are from the optimal sequence
+ *
+ * Each instance is a window of consecutive orders that arrive over time at
+ * one kitchen line: real windows from a snapshot file, or synthetic ones at
+ * a given load. Every algorithm dispatches the window online (whenever the
+ * line is free, the first order of the algorithm's schedule of the waiting
+ * orders starts), and {@link BranchAndBoundScheduler} searches the best
+ * sequence within the time budget. The report gives, per algorithm, how
+ * much more its cost is than the best sequence found, and how often the
+ * solver proved that sequence optimal.
+ *
+ * Usage:
+ *   optimal-gap [--orders 12] [--instances 20] [--budget-ms 1000] [--threads cores]
+ *               [--objective completion|tardiness] [--due-minutes 30]
+ *               [--file trace.csv] [--load-percent 110] [--seed 42]
+ */
+public class OptimalGapCommand {
+
+    private OptimalGapCommand() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        int orderCount;
+        int instanceCount;
+        BranchAndBoundScheduler solver;
+        Path file;
+        int loadPercent;
+        long seed;
+        try {
+            CommandOptions options = new CommandOptions(args, "--orders", "--instances", "--budget-ms", "--threads",
+                "--objective", "--due-minutes", "--file", "--load-percent", "--seed");
+            orderCount = options.getInt("--orders", 12, 1);
+            if (orderCount > BranchAndBoundScheduler.MAX_ORDERS) {
+                throw new IllegalArgumentException("--orders must be at most " + BranchAndBoundScheduler.MAX_ORDERS);
+            }
+            instanceCount = options.getInt("--instances", 20, 1);
+            String objective = options.getString("--objective", "completion");
+            if (!objective.equals("completion") && !objective.equals("tardiness")) {
+                throw new IllegalArgumentException("--objective must be completion or tardiness");
+            }
+            solver = new BranchAndBoundScheduler(
+                objective.equals("completion") ? BranchAndBoundScheduler.Objective.WEIGHTED_COMPLETION
+                                               : BranchAndBoundScheduler.Objective.WEIGHTED_TARDINESS,
+                options.getInt("--due-minutes", BranchAndBoundScheduler.DEFAULT_DUE_MINUTES, 0),
+                options.getInt("--budget-ms", (int) BranchAndBoundScheduler.DEFAULT_BUDGET_MILLIS, 0),
+                options.getInt("--threads", Runtime.getRuntime().availableProcessors(), 1));
+            file = options.getPath("--file");
+            loadPercent = options.getInt("--load-percent", 110, 1);
+            seed = options.getInt("--seed", 42, 0);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        }
+
+        List<List<Order>> instances;
+        try {
+            instances = file != null ? windows(file, orderCount, instanceCount)
+                                     : synthetic(orderCount, instanceCount, loadPercent, new Random(seed));
+        } catch (IOException e) {
+            System.err.println("Cannot read " + file + ": " + e.getMessage());
+            return 1;
+        }
+        if (instances.isEmpty()) {
+            System.err.println("No window of " + orderCount + " orders with created_at in " + file);
+            return 1;
+        }
+
+        List<SchedulingAlgorithm> algorithms = SchedulingAlgorithms.createAll();
+        double[] excessSum = new double[algorithms.size()];
+        double[] excessMax = new double[algorithms.size()];
+        int[] optimalHits = new int[algorithms.size()];
+        int proven = 0;
+        double gapSum = 0;
+        double gapMax = 0;
+        long nodes = 0;
+        long nanos = 0;
+        for (List<Order> instance : instances) {
+            LocalDateTime start = instance.stream().map(Order::getCreatedAt).min(LocalDateTime::compareTo).get();
+            BranchAndBoundScheduler.Result result = solver.solve(instance, start);
+            proven += result.isOptimal() ? 1 : 0;
+            gapSum += result.getGap();
+            gapMax = Math.max(gapMax, result.getGap());
+            nodes += result.getNodes();
+            nanos += result.getElapsedNanos();
+            for (int a = 0; a < algorithms.size(); a++) {
+                long cost = solver.cost(dispatch(algorithms.get(a), instance, start), start);
+                double excess = result.getCost() == 0 ? (cost == 0 ? 0 : 1) : cost / (double) result.getCost() - 1;
+                excessSum[a] += excess;
+                excessMax[a] = Math.max(excessMax[a], excess);
+                optimalHits[a] += cost <= result.getCost() ? 1 : 0;
+            }
+        }
+
+        int n = instances.size();
+        JsonWriter json = new JsonWriter().beginObject()
+            .name("objective").value(solver.getObjective().name())
+            .name("instances").value(n)
+            .name("ordersPerInstance").value(instances.get(0).size())
+            .name("source").value(file != null ? file.toString() : "synthetic, load " + loadPercent + "%")
+            .name("solver").beginObject()
+                .name("provenOptimal").value(proven)
+                .name("averageGap").value(gapSum / n)
+                .name("maxGap").value(gapMax)
+                .name("averageMillis").value(nanos / 1e6 / n)
+                .name("averageNodes").value(nodes / (double) n)
+            .endObject()
+            .name("algorithms").beginArray();
+        for (int a = 0; a < algorithms.size(); a++) {
+            json.beginObject()
+                .name("algorithm").value(algorithms.get(a).getAlgorithmName())
+                .name("averageExcess").value(excessSum[a] / n)
+                .name("maxExcess").value(excessMax[a])
+                .name("matchedBest").value(optimalHits[a])
+                .endObject();
+        }
+        System.out.println(json.endArray().endObject().toString());
+        return 0;
+    }
+
+    /**
+     * Runs an algorithm as the kitchen would: whenever the line is free, its first pick of the waiting orders starts
+     */
+    static List<Order> dispatch(SchedulingAlgorithm algorithm, List<Order> orders, LocalDateTime start) {
+        List<Order> remaining = new ArrayList<>(orders);
+        remaining.sort((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()));
+        List<Order> sequence = new ArrayList<>(orders.size());
+        List<Order> waiting = new ArrayList<>();
+        LocalDateTime time = start;
+        while (sequence.size() < orders.size()) {
+            while (!remaining.isEmpty() && !remaining.get(0).getCreatedAt().isAfter(time)) {
+                waiting.add(remaining.remove(0));
+            }
+            if (waiting.isEmpty()) {
+                time = remaining.get(0).getCreatedAt();
+                continue;
+            }
+            Order next = algorithm.schedule(waiting).get(0);
+            waiting.remove(next);
+            sequence.add(next);
+            time = time.plusMinutes(Math.max(0, next.getEstimatedTime()));
+        }
+        return sequence;
+    }
+
+    private static List<List<Order>> windows(Path file, int orderCount, int instanceCount) throws IOException {
+        List<List<Order>> instances = new ArrayList<>();
+        List<Order> window = new ArrayList<>(orderCount);
+        OrderSnapshotFile.forEach(file, order -> {
+            if (order.getCreatedAt() == null || instances.size() == instanceCount) {
+                return;
+            }
+            window.add(order);
+            if (window.size() == orderCount) {
+                instances.add(new ArrayList<>(window));
+                window.clear();
+            }
+        });
+        return instances;
+    }
+
+    private static List<List<Order>> synthetic(int orderCount, int instanceCount, int loadPercent, Random random) {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 5, 18, 0);
+        // Preparation times of 3..30 minutes average 16.5; arrivals are spaced so the line is loaded as asked
+        double meanGapSeconds = 16.5 * 60 * 100 / loadPercent;
+        List<List<Order>> instances = new ArrayList<>(instanceCount);
+        int id = 1;
+        for (int i = 0; i < instanceCount; i++) {
+            List<Order> instance = new ArrayList<>(orderCount);
+            double offset = 0;
+            for (int j = 0; j < orderCount; j++) {
+                Order order = new Order(1, "SIM-" + id, 1 + random.nextInt(10), 3 + random.nextInt(28));
+                order.setOrderId(id++);
+                order.setStatus(Order.OrderStatus.PENDING);
+                order.setCreatedAt(start.plusSeconds((long) offset));
+                instance.add(order);
+                offset += -Math.log(1 - random.nextDouble()) * meanGapSeconds;
+            }
+            instances.add(instance);
+        }
+        return instances;
+    }
+}
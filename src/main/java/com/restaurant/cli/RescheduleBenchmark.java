@@ -0,0 +1,196 @@
+package com.restaurant.cli;
+
+import com.restaurant.algorithm.OnlineRescheduler;
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.algorithm.SchedulingAlgorithms;
+import com.restaurant.model.Order;
+import com.restaurant.util.JsonWriter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures online insertion of arriving orders into a live kitchen plan
+ *
+ * A synthetic snapshot with every chef busy and a backlog of pending orders
+ * is loaded into an {@link OnlineRescheduler}. Then orders arrive one by
+ * one (a share of them with the highest priority) and an uncommitted order
+ * is cancelled after each arrival, so the backlog keeps its size. Each
+ * insertion is timed and compared with scheduling the whole queue again
+ * with the algorithm. At the end the online plan is checked against a
+ * full schedule of the same queue: committed orders must not have moved
+ * and the rest must be in the algorithm's order.
+ *
+ * Usage:
+ *   bench-reschedule [--backlog 5000] [--chefs 4] [--arrivals 10000] [--frozen-minutes 10]
+ *                    [--urgent-percent 10] [--algorithm PriorityQueueScheduling] [--seed 42]
+ */
+public class RescheduleBenchmark {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 5, 19, 0);
+    /** Full re-schedules timed for comparison; they are much slower than insertions */
+    private static final int FULL_RUNS = 200;
+
+    private RescheduleBenchmark() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        int backlog;
+        int chefs;
+        int arrivals;
+        int frozenMinutes;
+        int urgentPercent;
+        long seed;
+        SchedulingAlgorithm algorithm;
+        try {
+            CommandOptions options = new CommandOptions(args, "--backlog", "--chefs", "--arrivals",
+                "--frozen-minutes", "--urgent-percent", "--algorithm", "--seed");
+            backlog = options.getInt("--backlog", 5000, 1);
+            chefs = options.getInt("--chefs", 4, 1);
+            arrivals = options.getInt("--arrivals", 10000, 1);
+            frozenMinutes = options.getInt("--frozen-minutes", 10, 0);
+            urgentPercent = options.getInt("--urgent-percent", 10, 0);
+            seed = options.getInt("--seed", 42, 0);
+            String key = options.getString("--algorithm", "PriorityQueueScheduling");
+            algorithm = SchedulingAlgorithms.get(key);
+            if (algorithm == null) {
+                throw new IllegalArgumentException("Unknown algorithm " + key);
+            }
+            if (algorithm.getQueueOrder() == null) {
+                throw new IllegalArgumentException(algorithm.getAlgorithmName() + " has no queue order");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        }
+
+        Random random = new Random(seed);
+        List<Order> active = new ArrayList<>();
+        int nextId = 1;
+        for (int i = 0; i < chefs; i++) {
+            Order order = order(nextId++, random, urgentPercent, Order.OrderStatus.PREPARING);
+            order.setUpdatedAt(NOW.minusMinutes(random.nextInt(order.getEstimatedTime() + 1)));
+            active.add(order);
+        }
+        for (int i = 0; i < backlog; i++) {
+            active.add(order(nextId++, random, urgentPercent, Order.OrderStatus.PENDING));
+        }
+
+        OnlineRescheduler plan = OnlineRescheduler.forAlgorithm(algorithm, chefs, frozenMinutes);
+        long loadBegin = System.nanoTime();
+        plan.load(active, NOW);
+        long loadNanos = System.nanoTime() - loadBegin;
+        List<OnlineRescheduler.Slot> committedBefore = new ArrayList<>(
+            plan.getPlan().subList(0, chefs + plan.getFrozenCount()));
+
+        long[] insertNanos = new long[arrivals];
+        long replanned = 0;
+        for (int i = 0; i < arrivals; i++) {
+            Order order = order(nextId++, random, urgentPercent, Order.OrderStatus.PENDING);
+            long begin = System.nanoTime();
+            plan.insert(order);
+            insertNanos[i] = System.nanoTime() - begin;
+            replanned += plan.getLastReplanned();
+
+            // Cancel a random uncommitted order so the backlog stays the same size
+            List<Order> queue = plan.getOrders().subList(chefs + plan.getFrozenCount(), chefs + plan.getQueueSize());
+            plan.remove(queue.get(random.nextInt(queue.size())).getOrderId());
+        }
+
+        List<Order> pending = new ArrayList<>(plan.getOrders().subList(chefs, chefs + plan.getQueueSize()));
+        long[] fullNanos = new long[FULL_RUNS];
+        for (int i = 0; i < FULL_RUNS; i++) {
+            long begin = System.nanoTime();
+            algorithm.schedule(pending);
+            fullNanos[i] = System.nanoTime() - begin;
+        }
+
+        boolean consistent = verify(plan, committedBefore, algorithm, chefs);
+        Arrays.sort(insertNanos);
+        Arrays.sort(fullNanos);
+        JsonWriter json = new JsonWriter().beginObject()
+            .name("algorithm").value(algorithm.getAlgorithmName())
+            .name("chefs").value(chefs)
+            .name("backlog").value(plan.getQueueSize())
+            .name("frozen").value(plan.getFrozenCount())
+            .name("arrivals").value(arrivals)
+            .name("loadMillis").value(loadNanos / 1e6)
+            .name("insertMicrosP50").value(percentile(insertNanos, 0.50) / 1e3)
+            .name("insertMicrosP99").value(percentile(insertNanos, 0.99) / 1e3)
+            .name("insertMicrosMax").value(insertNanos[insertNanos.length - 1] / 1e3)
+            .name("replannedPerInsert").value((double) replanned / arrivals)
+            .name("fullScheduleMicrosP50").value(percentile(fullNanos, 0.50) / 1e3)
+            .name("consistent").value(consistent)
+            .endObject();
+        System.out.println(json.toString());
+        return consistent ? 0 : 1;
+    }
+
+    /**
+     * Checks that committed work kept its place and the rest matches a full schedule
+     */
+    private static boolean verify(OnlineRescheduler plan, List<OnlineRescheduler.Slot> committedBefore,
+                                  SchedulingAlgorithm algorithm, int chefs) {
+        List<OnlineRescheduler.Slot> slots = plan.getPlan();
+        for (int i = 0; i < committedBefore.size(); i++) {
+            OnlineRescheduler.Slot before = committedBefore.get(i);
+            OnlineRescheduler.Slot after = slots.get(i);
+            if (before.getOrder() != after.getOrder() || before.getChef() != after.getChef()
+                    || before.getStartMinute() != after.getStartMinute()) {
+                System.err.println("Committed order " + before.getOrder().getOrderId() + " moved");
+                return false;
+            }
+        }
+        int firstMovable = chefs + plan.getFrozenCount();
+        List<Order> movable = plan.getOrders().subList(firstMovable, plan.getOrders().size());
+        List<Order> oldestFirst = new ArrayList<>(movable);
+        oldestFirst.sort((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()));
+        if (!algorithm.schedule(oldestFirst).equals(movable)) {
+            System.err.println("Online queue differs from a full schedule with " + algorithm.getAlgorithmName());
+            return false;
+        }
+
+        // A full re-plan of the same queue must give the same times as the incremental ones
+        int[] free = new int[chefs];
+        for (int i = 0; i < chefs; i++) {
+            free[slots.get(i).getChef()] = Math.max(free[slots.get(i).getChef()], slots.get(i).getEndMinute());
+        }
+        for (int i = chefs; i < slots.size(); i++) {
+            int chef = 0;
+            for (int c = 1; c < chefs; c++) {
+                if (free[c] < free[chef]) {
+                    chef = c;
+                }
+            }
+            OnlineRescheduler.Slot slot = slots.get(i);
+            if (slot.getChef() != chef || slot.getStartMinute() != free[chef]) {
+                System.err.println("Projected start of order " + slot.getOrder().getOrderId() + " is stale");
+                return false;
+            }
+            free[chef] = slot.getEndMinute();
+        }
+        return true;
+    }
+
+    private static Order order(int id, Random random, int urgentPercent, Order.OrderStatus status) {
+        int priority = random.nextInt(100) < urgentPercent ? 1 : 2 + random.nextInt(9);
+        Order order = new Order(1, "SIM-" + id, priority, 3 + random.nextInt(28));
+        order.setOrderId(id);
+        order.setStatus(status);
+        order.setCreatedAt(NOW.plusSeconds(id));
+        return order;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
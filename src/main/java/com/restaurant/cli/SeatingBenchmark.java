@@ -0,0 +1,287 @@
+package com.restaurant.cli;
+
+import com.restaurant.model.Table;
+import com.restaurant.seating.Party;
+import com.restaurant.seating.SeatingAssignment;
+import com.restaurant.seating.SeatingEngine;
+import com.restaurant.seating.SeatingPolicy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Simulates evenings of walk-in parties and compares seating policies
+ *
+ * Parties arrive at random (Poisson) with a typical size mix, wait for a
+ * table and leave if they are not seated within the maximum wait. Each
+ * policy sees exactly the same parties and dining times. Reports covers
+ * (guests seated) per hour, waits, walk-aways and how long a re-plan of the
+ * wait-list takes.
+ *
+ * The layout is a list of capacity:count pairs. Tables of different sizes
+ * are mixed around the room; tables of up to four seats are placed in
+ * combine groups of --group neighbouring small tables.
+ *
+ * Usage:
+ *   bench-seating [--layout 2:6,4:8,6:4,8:2] [--group 4] [--max-combined 3]
+ *                 [--arrivals 25] [--hours 4] [--max-wait 45] [--runs 20] [--seed 42]
+ */
+public class SeatingBenchmark {
+    /** Party sizes 1..8 in percent */
+    private static final int[] SIZE_MIX = {8, 42, 14, 20, 6, 6, 2, 2};
+    private static final LocalDateTime OPENING = LocalDateTime.of(2024, 1, 5, 18, 0);
+
+    private static final int ARRIVAL = 0;
+    private static final int GIVE_UP = 1;
+    private static final int DEPARTURE = 2;
+
+    private SeatingBenchmark() {
+    }
+
+    /**
+     * A walk-in party with its pre-drawn dining time
+     */
+    private static final class Guest {
+        final int id;
+        final int size;
+        final double arrival;
+        final double diningMinutes;
+
+        Guest(int id, int size, double arrival, double diningMinutes) {
+            this.id = id;
+            this.size = size;
+            this.arrival = arrival;
+            this.diningMinutes = diningMinutes;
+        }
+    }
+
+    private static final class Event implements Comparable<Event> {
+        final double time;
+        final int type;
+        final Guest guest;
+        final List<Integer> tableIds;
+
+        Event(double time, int type, Guest guest, List<Integer> tableIds) {
+            this.time = time;
+            this.type = type;
+            this.guest = guest;
+            this.tableIds = tableIds;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            // Departures first, so a freed table is seen by a party arriving at the same time
+            int order = Double.compare(time, other.time);
+            return order != 0 ? order : Integer.compare(other.type, type);
+        }
+    }
+
+    private static final class Totals {
+        long parties;
+        long seated;
+        long covers;
+        long walkedAway;
+        long combined;
+        long spareSeats;
+        double waitMinutes;
+        long plans;
+        long planNanos;
+        long maxPlanNanos;
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        try {
+            CommandOptions options = new CommandOptions(args, "--layout", "--group", "--max-combined",
+                "--arrivals", "--hours", "--max-wait", "--runs", "--seed");
+            int[][] layout = parseLayout(options.getString("--layout", "2:6,4:8,6:4,8:2"));
+            int groupSize = options.getInt("--group", 4, 0);
+            int maxCombined = options.getInt("--max-combined", SeatingEngine.DEFAULT_MAX_COMBINED, 1);
+            int arrivalsPerHour = options.getInt("--arrivals", 25, 1);
+            int hours = options.getInt("--hours", 4, 1);
+            int maxWait = options.getInt("--max-wait", 45, 1);
+            int runs = options.getInt("--runs", 20, 1);
+            long seed = options.getInt("--seed", 42, 0);
+
+            Map<SeatingPolicy, Totals> totals = new HashMap<>();
+            for (SeatingPolicy policy : SeatingPolicy.values()) {
+                totals.put(policy, new Totals());
+            }
+            Random random = new Random(seed);
+            for (int run = 0; run < runs; run++) {
+                List<Guest> guests = generateGuests(random, arrivalsPerHour, hours);
+                for (SeatingPolicy policy : SeatingPolicy.values()) {
+                    SeatingEngine engine = new SeatingEngine(policy, maxCombined, SeatingEngine.DEFAULT_MAX_OVERTAKEN);
+                    engine.setTables(createTables(layout, groupSize));
+                    simulate(engine, guests, maxWait, totals.get(policy));
+                }
+            }
+
+            int seats = 0;
+            int tableCount = 0;
+            for (int[] entry : layout) {
+                seats += entry[0] * entry[1];
+                tableCount += entry[1];
+            }
+            System.out.println(String.format(Locale.ROOT,
+                "%d table(s), %d seats; %d parties/hour for %d hour(s), max wait %d min, %d run(s)",
+                tableCount, seats, arrivalsPerHour, hours, maxWait, runs));
+            System.out.println(String.format(Locale.ROOT, "%-10s %12s %8s %10s %12s %9s %11s %14s",
+                "policy", "covers/hour", "seated", "walk-away", "avg wait min", "combined", "spare/party", "plan avg/max us"));
+            for (SeatingPolicy policy : SeatingPolicy.values()) {
+                Totals t = totals.get(policy);
+                System.out.println(String.format(Locale.ROOT, "%-10s %12.1f %7.1f%% %9.1f%% %12.1f %9d %11.2f %7.1f/%.0f",
+                    policy, t.covers / (double) (hours * runs),
+                    100.0 * t.seated / Math.max(1, t.parties),
+                    100.0 * t.walkedAway / Math.max(1, t.parties),
+                    t.waitMinutes / Math.max(1, t.seated),
+                    t.combined,
+                    t.spareSeats / (double) Math.max(1, t.seated),
+                    t.planNanos / 1000.0 / Math.max(1, t.plans),
+                    t.maxPlanNanos / 1000.0));
+            }
+            Totals best = totals.get(SeatingPolicy.BEST_FIT);
+            Totals first = totals.get(SeatingPolicy.FIRST_FIT);
+            System.out.println(String.format(Locale.ROOT, "Best fit vs first fit: %+.1f%% covers/hour",
+                100.0 * (best.covers - first.covers) / Math.max(1, first.covers)));
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        }
+    }
+
+    private static int[][] parseLayout(String spec) {
+        String[] parts = spec.split(",");
+        int[][] layout = new int[parts.length][];
+        for (int i = 0; i < parts.length; i++) {
+            String[] pair = parts[i].trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("--layout expects capacity:count pairs, got '" + parts[i] + "'");
+            }
+            try {
+                layout[i] = new int[] {Integer.parseInt(pair[0].trim()), Integer.parseInt(pair[1].trim())};
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("--layout expects numbers, got '" + parts[i] + "'");
+            }
+            if (layout[i][0] < 1 || layout[i][1] < 1) {
+                throw new IllegalArgumentException("--layout capacities and counts must be positive");
+            }
+        }
+        return layout;
+    }
+
+    private static List<Table> createTables(int[][] layout, int groupSize) {
+        // Sizes are mixed around the room as in a real floor plan: table numbers
+        // take one table of each capacity in turn
+        int[] remaining = new int[layout.length];
+        int total = 0;
+        for (int i = 0; i < layout.length; i++) {
+            remaining[i] = layout[i][1];
+            total += remaining[i];
+        }
+        List<Table> tables = new ArrayList<>();
+        int smallTables = 0;
+        while (tables.size() < total) {
+            for (int i = 0; i < layout.length; i++) {
+                if (remaining[i] == 0) {
+                    continue;
+                }
+                remaining[i]--;
+                int number = tables.size() + 1;
+                Table table = new Table(number, number, layout[i][0], Table.TableStatus.AVAILABLE);
+                if (groupSize > 1 && layout[i][0] <= 4) {
+                    table.setCombineGroup(1 + smallTables++ / groupSize);
+                }
+                tables.add(table);
+            }
+        }
+        return tables;
+    }
+
+    private static List<Guest> generateGuests(Random random, int arrivalsPerHour, int hours) {
+        List<Guest> guests = new ArrayList<>();
+        double time = 0;
+        double meanGap = 60.0 / arrivalsPerHour;
+        while (true) {
+            time += -Math.log(1 - random.nextDouble()) * meanGap;
+            if (time >= hours * 60.0) {
+                return guests;
+            }
+            int draw = random.nextInt(100);
+            int size = 1;
+            for (int share : SIZE_MIX) {
+                draw -= share;
+                if (draw < 0) {
+                    break;
+                }
+                size++;
+            }
+            // Larger parties stay longer; +-25% variation
+            double dining = (45 + 7 * size) * (0.75 + random.nextDouble() * 0.5);
+            guests.add(new Guest(guests.size() + 1, size, time, dining));
+        }
+    }
+
+    private static void simulate(SeatingEngine engine, List<Guest> guests, int maxWait, Totals totals) {
+        PriorityQueue<Event> events = new PriorityQueue<>();
+        for (Guest guest : guests) {
+            events.add(new Event(guest.arrival, ARRIVAL, guest, null));
+        }
+        while (!events.isEmpty()) {
+            Event event = events.poll();
+            switch (event.type) {
+                case ARRIVAL:
+                    totals.parties++;
+                    Party party = new Party(event.guest.id, null, event.guest.size,
+                        OPENING.plusSeconds((long) (event.guest.arrival * 60)));
+                    if (!engine.addParty(party)) {
+                        totals.walkedAway++;
+                        continue;
+                    }
+                    events.add(new Event(event.time + maxWait, GIVE_UP, event.guest, null));
+                    break;
+                case GIVE_UP:
+                    if (engine.removeParty(event.guest.id)) {
+                        totals.walkedAway++;
+                    }
+                    continue;
+                default:
+                    for (int tableId : event.tableIds) {
+                        engine.tableFreed(tableId);
+                    }
+                    break;
+            }
+
+            long start = System.nanoTime();
+            List<SeatingAssignment> seated = engine.plan();
+            long elapsed = System.nanoTime() - start;
+            totals.plans++;
+            totals.planNanos += elapsed;
+            totals.maxPlanNanos = Math.max(totals.maxPlanNanos, elapsed);
+
+            for (SeatingAssignment assignment : seated) {
+                Guest guest = guests.get(assignment.getParty().getPartyId() - 1);
+                totals.seated++;
+                totals.covers += guest.size;
+                totals.waitMinutes += event.time - guest.arrival;
+                totals.spareSeats += assignment.getSpareSeats();
+                if (assignment.isCombined()) {
+                    totals.combined++;
+                }
+                events.add(new Event(event.time + guest.diningMinutes, DEPARTURE, guest, assignment.getTableIds()));
+            }
+        }
+    }
+}
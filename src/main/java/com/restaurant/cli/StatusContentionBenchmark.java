@@ -0,0 +1,252 @@
+package com.restaurant.cli;
+
+import com.restaurant.dao.BlockIdGenerator;
+import com.restaurant.dao.OrderDAO;
+import com.restaurant.dao.TableDAO;
+import com.restaurant.database.DatabaseConnection;
+import com.restaurant.model.Order;
+import com.restaurant.model.StatusUpdate;
+import com.restaurant.model.Table;
+import com.restaurant.util.JsonWriter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures status changes of many concurrent writers on the same orders
+ *
+ * Every writer plays a kitchen terminal that walks through the same
+ * orders and moves each one forward (PREPARING, READY, SERVED, or now and
+ * then CANCELLED) until it sees a final status, so all writers compete for
+ * the same rows. Mode "cas" uses {@link OrderDAO#transitionStatus}; mode
+ * "blind" replays the old unconditional UPDATE for comparison. The report
+ * shows throughput, latency and outcomes, and checks the orders afterwards:
+ * a legal history has at most three status changes per order, so every
+ * change beyond that is an update that overwrote someone else's.
+ *
+ * The benchmark inserts its own orders (order numbers BENCH-...) into the
+ * configured database and cancels any that are left unfinished.
+ *
+ * Usage:
+ *   bench-status [--writers 32] [--orders 200] [--cancel-percent 5] [--mode cas|blind|both]
+ */
+public class StatusContentionBenchmark {
+    /** Status changes of the longest legal history: PREPARING, READY, SERVED */
+    private static final int MAX_LEGAL_CHANGES = 3;
+
+    private StatusContentionBenchmark() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        int writers;
+        int orderCount;
+        int cancelPercent;
+        String mode;
+        try {
+            CommandOptions options = new CommandOptions(args, "--writers", "--orders", "--cancel-percent", "--mode");
+            writers = options.getInt("--writers", 32, 1);
+            orderCount = options.getInt("--orders", 200, 1);
+            cancelPercent = options.getInt("--cancel-percent", 5, 0);
+            mode = options.getString("--mode", "both");
+            if (!mode.equals("cas") && !mode.equals("blind") && !mode.equals("both")) {
+                throw new IllegalArgumentException("--mode must be cas, blind or both");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        }
+
+        List<Table> tables = new TableDAO().getAllTables();
+        if (tables.isEmpty()) {
+            System.err.println("Benchmark needs at least one table in the database");
+            return 1;
+        }
+        OrderDAO orderDAO = new OrderDAO();
+        try {
+            boolean consistent = true;
+            if (!mode.equals("blind")) {
+                consistent = runMode(true, orderDAO, tables.get(0).getTableId(), writers, orderCount, cancelPercent);
+            }
+            if (!mode.equals("cas")) {
+                runMode(false, orderDAO, tables.get(0).getTableId(), writers, orderCount, cancelPercent);
+            }
+            // Lost updates are expected from blind writes; only compare-and-set must keep the history legal
+            return consistent ? 0 : 1;
+        } catch (SQLException e) {
+            System.err.println("Status benchmark failed: " + e.getMessage());
+            return 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 1;
+        }
+    }
+
+    private static boolean runMode(boolean cas, OrderDAO orderDAO, int tableId, int writers, int orderCount,
+                                   int cancelPercent) throws SQLException, InterruptedException {
+        int[] orderIds = createOrders(orderDAO, tableId, orderCount);
+        AtomicLong[] outcomes = new AtomicLong[StatusUpdate.Outcome.values().length];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = new AtomicLong();
+        }
+        long[][] latencies = new long[writers][];
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(writers);
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    latencies[writer] = walkOrders(cas, orderDAO, orderIds, cancelPercent, outcomes);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "bench-writer-" + w);
+            thread.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedNanos = System.nanoTime() - begin;
+
+        long[] sorted = Arrays.stream(latencies).filter(l -> l != null).flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(sorted);
+        int[] versions = finish(orderDAO, orderIds);
+        long changes = 0;
+        long excess = 0;
+        for (int version : versions) {
+            changes += version;
+            excess += Math.max(0, version - MAX_LEGAL_CHANGES);
+        }
+        long applied = outcomes[StatusUpdate.Outcome.APPLIED.ordinal()].get();
+
+        JsonWriter json = new JsonWriter().beginObject()
+            .name("mode").value(cas ? "cas" : "blind")
+            .name("writers").value(writers)
+            .name("orders").value(orderCount)
+            .name("attempts").value(sorted.length)
+            .name("attemptsPerSecond").value(sorted.length / (elapsedNanos / 1e9))
+            .name("latencyMillisP50").value(sorted.length > 0 ? percentile(sorted, 0.50) / 1e6 : 0)
+            .name("latencyMillisP99").value(sorted.length > 0 ? percentile(sorted, 0.99) / 1e6 : 0);
+        for (StatusUpdate.Outcome outcome : StatusUpdate.Outcome.values()) {
+            json.name(outcome.name().toLowerCase(Locale.ROOT)).value(outcomes[outcome.ordinal()].get());
+        }
+        json.name("statusChangesPerOrder").value((double) changes / orderCount)
+            .name("overwrittenUpdates").value(excess)
+            .endObject();
+        System.out.println(json.toString());
+
+        if (cas && (excess > 0 || changes != applied)) {
+            System.err.println("Compare-and-set history is inconsistent: " + applied + " applied, "
+                               + changes + " recorded, " + excess + " beyond the status machine");
+            return false;
+        }
+        return true;
+    }
+
+    private static long[] walkOrders(boolean cas, OrderDAO orderDAO, int[] orderIds, int cancelPercent,
+                                     AtomicLong[] outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[orderIds.length * (MAX_LEGAL_CHANGES + 1)];
+        int count = 0;
+        for (int orderId : orderIds) {
+            // What this terminal shows; it only learns about other writers from conflicts
+            Order.OrderStatus shown = Order.OrderStatus.PENDING;
+            while (!shown.isFinal()) {
+                Order.OrderStatus next = random.nextInt(100) < cancelPercent
+                    ? Order.OrderStatus.CANCELLED : Order.OrderStatus.values()[shown.ordinal() + 1];
+                long begin = System.nanoTime();
+                StatusUpdate result = cas ? orderDAO.transitionStatus(orderId, next) : writeBlind(orderId, next);
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - begin;
+                outcomes[result.getOutcome().ordinal()].incrementAndGet();
+                if (result.getOutcome() == StatusUpdate.Outcome.FAILED
+                        || result.getOutcome() == StatusUpdate.Outcome.NOT_FOUND) {
+                    break;
+                }
+                shown = result.getStatus();
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    /**
+     * The status update before compare-and-set: last writer wins, no status machine
+     */
+    private static StatusUpdate writeBlind(int orderId, Order.OrderStatus next) {
+        String sql = "UPDATE orders SET status = ?, version = version + 1 WHERE order_id = ?";
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, next.name());
+            pstmt.setInt(2, orderId);
+            StatusUpdate.Outcome outcome = pstmt.executeUpdate() > 0
+                ? StatusUpdate.Outcome.APPLIED : StatusUpdate.Outcome.NOT_FOUND;
+            return new StatusUpdate(outcome, orderId, null, next, -1);
+        } catch (SQLException e) {
+            System.err.println("Error updating order status: " + e.getMessage());
+            return new StatusUpdate(StatusUpdate.Outcome.FAILED, orderId, null, null, -1);
+        }
+    }
+
+    private static int[] createOrders(OrderDAO orderDAO, int tableId, int count) throws SQLException {
+        String prefix = "BENCH-" + Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36) + "-";
+        // IDs come from the orders sequence like those of the service, so a later serve cannot reuse them
+        BlockIdGenerator ids = BlockIdGenerator.forOrders(count);
+        int[] orderIds = new int[count];
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(tableId, prefix + i, 5, 10);
+            order.setOrderId((int) ids.nextId());
+            if (!orderDAO.createOrder(order)) {
+                throw new SQLException("Could not create benchmark order " + order.getOrderNumber());
+            }
+            orderIds[i] = order.getOrderId();
+        }
+        return orderIds;
+    }
+
+    /**
+     * Cancels unfinished benchmark orders and reads every order's version
+     */
+    private static int[] finish(OrderDAO orderDAO, int[] orderIds) throws SQLException {
+        int[] versions = new int[orderIds.length];
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT status, version FROM orders WHERE order_id = ?")) {
+            for (int i = 0; i < orderIds.length; i++) {
+                pstmt.setInt(1, orderIds[i]);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        versions[i] = rs.getInt("version");
+                        if (!Order.OrderStatus.valueOf(rs.getString("status")).isFinal()) {
+                            orderDAO.transitionStatus(orderIds[i], Order.OrderStatus.CANCELLED);
+                        }
+                    }
+                }
+            }
+        }
+        return versions;
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
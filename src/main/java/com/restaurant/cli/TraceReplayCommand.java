@@ -0,0 +1,173 @@
+package com.restaurant.cli;
+
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.algorithm.SchedulingAlgorithms;
+import com.restaurant.dao.OrderDAO;
+import com.restaurant.dao.OrderSnapshotFile;
+import com.restaurant.simulation.KitchenSimulator;
+import com.restaurant.simulation.TraceReplay;
+import com.restaurant.simulation.WaitHistogram;
+import com.restaurant.util.JsonWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays order history to compare algorithms on real service days
+ *
+ * Answers questions like "what if we had used Priority Queue Scheduling last
+ * Saturday": orders are streamed in creation order from the database (or a
+ * snapshot file) and every selected algorithm is simulated on them. One
+ * result line is written per day and algorithm as soon as the day is
+ * complete, followed by a summary per algorithm.
+ *
+ * Usage:
+ *   replay --from 2024-01-01 --to 2025-01-01 [--file trace.csv]
+ *          [--algorithms PriorityQueueScheduling,ShortestProcessingTime]
+ *          [--chefs 1] [--prep-time actual|estimated] [--day-start-hour 4]
+ *          [--format csv|json] [--output results.csv]
+ *
+ * With --file, --from/--to are optional. JSON output is one object per line.
+ */
+public class TraceReplayCommand {
+
+    private TraceReplayCommand() {
+    }
+
+    /**
+     * Entry point used by {@link HeadlessLauncher}
+     *
+     * @param args Command arguments (without the command name)
+     * @return Process exit code
+     */
+    public static int run(String[] args) {
+        try {
+            CommandOptions options = new CommandOptions(args, "--from", "--to", "--file", "--algorithms",
+                "--chefs", "--prep-time", "--day-start-hour", "--format", "--output");
+            Path file = options.getPath("--file");
+            if (file == null && (!options.has("--from") || !options.has("--to"))) {
+                throw new IllegalArgumentException("--from and --to are required when replaying from the database");
+            }
+            List<SchedulingAlgorithm> algorithms = selectAlgorithms(options.getString("--algorithms", null));
+            int chefs = options.getInt("--chefs", 1, 1);
+            String prepTime = options.getString("--prep-time", "actual");
+            if (!prepTime.equals("actual") && !prepTime.equals("estimated")) {
+                throw new IllegalArgumentException("--prep-time must be actual or estimated");
+            }
+            int dayStartHour = options.getInt("--day-start-hour", 4, 0);
+            if (dayStartHour > 23) {
+                throw new IllegalArgumentException("--day-start-hour must be between 0 and 23");
+            }
+            boolean json = options.getString("--format", "csv").equals("json");
+
+            Path output = options.getPath("--output");
+            try (PrintWriter out = output != null
+                    ? new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8))
+                    : new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)))) {
+
+                if (!json) {
+                    out.println("day,algorithm,orders,average_wait,median_wait,p95_wait,max_wait,makespan");
+                }
+                TraceReplay replay = new TraceReplay(algorithms, chefs, prepTime.equals("actual"), dayStartHour,
+                    result -> writeDay(out, json, result));
+
+                long begin = System.nanoTime();
+                long streamed;
+                if (file != null) {
+                    streamed = OrderSnapshotFile.forEach(file, replay);
+                } else {
+                    LocalDate from = LocalDate.parse(options.getString("--from", null));
+                    LocalDate to = LocalDate.parse(options.getString("--to", null));
+                    streamed = new OrderDAO().streamOrders(from.atTime(dayStartHour, 0), to.atTime(dayStartHour, 0), replay);
+                    if (streamed < 0) {
+                        return 1;
+                    }
+                }
+                replay.finish();
+
+                for (int i = 0; i < algorithms.size(); i++) {
+                    writeSummary(out, json, algorithms.get(i).getAlgorithmName(), replay.getTotal(i));
+                }
+                out.flush();
+
+                double seconds = (System.nanoTime() - begin) / 1e9;
+                System.err.println(String.format(Locale.ROOT,
+                    "Replayed %d orders (%d without created_at skipped) through %d algorithm(s) in %.2f s (%.0f orders/s)",
+                    replay.getReplayedOrders(), replay.getSkippedOrders(), algorithms.size(), seconds, streamed / seconds));
+            }
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            return 2;
+        } catch (IOException | UncheckedIOException | IllegalStateException e) {
+            System.err.println("Replay failed: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static List<SchedulingAlgorithm> selectAlgorithms(String keys) {
+        List<SchedulingAlgorithm> all = SchedulingAlgorithms.createAll();
+        if (keys == null) {
+            return all;
+        }
+        List<SchedulingAlgorithm> selected = new ArrayList<>();
+        for (String key : keys.split(",")) {
+            SchedulingAlgorithm algorithm = SchedulingAlgorithms.find(all, key.trim());
+            if (algorithm == null) {
+                throw new IllegalArgumentException("Unknown algorithm " + key.trim());
+            }
+            selected.add(algorithm);
+        }
+        return selected;
+    }
+
+    private static void writeDay(PrintWriter out, boolean json, TraceReplay.DayResult result) {
+        KitchenSimulator.DayStatistics statistics = result.getStatistics();
+        WaitHistogram waits = statistics.getWaits();
+        if (json) {
+            out.println(new JsonWriter().beginObject()
+                .name("day").value(result.getDay().toString())
+                .name("algorithm").value(result.getAlgorithmName())
+                .name("orders").value(waits.getCount())
+                .name("averageWait").value(waits.getAverageMinutes())
+                .name("medianWait").value(waits.getPercentileMinutes(0.50))
+                .name("p95Wait").value(waits.getPercentileMinutes(0.95))
+                .name("maxWait").value(waits.getMaxMinutes())
+                .name("makespan").value(statistics.getMakespanSeconds() / 60.0)
+                .endObject().toString());
+        } else {
+            out.println(String.format(Locale.ROOT, "%s,\"%s\",%d,%.2f,%d,%d,%.2f,%.2f",
+                result.getDay(), result.getAlgorithmName(), waits.getCount(), waits.getAverageMinutes(),
+                waits.getPercentileMinutes(0.50), waits.getPercentileMinutes(0.95), waits.getMaxMinutes(),
+                statistics.getMakespanSeconds() / 60.0));
+        }
+    }
+
+    private static void writeSummary(PrintWriter out, boolean json, String algorithmName, WaitHistogram waits) {
+        if (json) {
+            out.println(new JsonWriter().beginObject()
+                .name("summary").value(true)
+                .name("algorithm").value(algorithmName)
+                .name("orders").value(waits.getCount())
+                .name("averageWait").value(waits.getAverageMinutes())
+                .name("medianWait").value(waits.getPercentileMinutes(0.50))
+                .name("p95Wait").value(waits.getPercentileMinutes(0.95))
+                .name("maxWait").value(waits.getMaxMinutes())
+                .endObject().toString());
+        } else {
+            out.println(String.format(Locale.ROOT, "total,\"%s\",%d,%.2f,%d,%d,%.2f,",
+                algorithmName, waits.getCount(), waits.getAverageMinutes(),
+                waits.getPercentileMinutes(0.50), waits.getPercentileMinutes(0.95), waits.getMaxMinutes()));
+        }
+    }
+}
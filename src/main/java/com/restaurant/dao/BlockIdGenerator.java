@@ -0,0 +1,147 @@
+package com.restaurant.dao;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out unique IDs from blocks reserved in the database (hi/lo)
+ *
+ * A block of IDs is reserved with one database statement; IDs within the
+ * block are then handed out with a single atomic increment, without locks
+ * and without a database round trip. When three quarters of a block are
+ * used, the next block is reserved in the background, so callers normally
+ * never wait for the database. Only the thread that finds a block exhausted
+ * takes a lock, to install the next block.
+ *
+ * Because every block is reserved before it is used, IDs stay unique across
+ * restarts and across several application instances. IDs are increasing per
+ * instance but may have gaps (the unused rest of a block is skipped).
+ */
+public class BlockIdGenerator {
+    private static final Executor PREFETCHER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "id-block-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Reserves blocks of IDs
+     */
+    @FunctionalInterface
+    public interface BlockSource {
+        /**
+         * Reserves a block
+         *
+         * @param size Number of IDs to reserve
+         * @return First ID of the block; the block is [first, first + size)
+         * @throws SQLException if the block cannot be reserved
+         */
+        long reserve(int size) throws SQLException;
+    }
+
+    private static final class Block {
+        final long end;
+        final long prefetchAt;
+        final AtomicLong next;
+
+        Block(long start, long end, long prefetchAt) {
+            this.end = end;
+            this.prefetchAt = prefetchAt;
+            this.next = new AtomicLong(start);
+        }
+    }
+
+    private final BlockSource source;
+    private final int blockSize;
+    private final Object refillLock = new Object();
+    private volatile Block current = new Block(0, 0, -1);
+    private CompletableFuture<Block> prefetched;
+
+    /**
+     * Creates a generator
+     *
+     * @param source Source of ID blocks
+     * @param blockSize Number of IDs reserved at a time
+     */
+    public BlockIdGenerator(BlockSource source, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.source = source;
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Creates a generator for order IDs backed by the orders sequence
+     *
+     * @param blockSize Number of IDs reserved at a time
+     * @return Generator
+     */
+    public static BlockIdGenerator forOrders(int blockSize) {
+        SequenceDAO sequenceDAO = new SequenceDAO();
+        return new BlockIdGenerator(size -> sequenceDAO.reserveBlock(SequenceDAO.ORDER_SEQUENCE, size), blockSize);
+    }
+
+    /**
+     * Gets the next ID
+     *
+     * @return Unique ID
+     * @throws SQLException if a new block is needed and cannot be reserved
+     */
+    public long nextId() throws SQLException {
+        while (true) {
+            Block block = current;
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                if (id == block.prefetchAt) {
+                    prefetch();
+                }
+                return id;
+            }
+            refill(block);
+        }
+    }
+
+    private void prefetch() {
+        synchronized (refillLock) {
+            if (prefetched == null) {
+                prefetched = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return reserve();
+                    } catch (SQLException e) {
+                        throw new CompletionException(e);
+                    }
+                }, PREFETCHER);
+            }
+        }
+    }
+
+    private void refill(Block exhausted) throws SQLException {
+        synchronized (refillLock) {
+            if (current != exhausted) {
+                // Another thread installed a new block already
+                return;
+            }
+            Block next = null;
+            if (prefetched != null) {
+                try {
+                    next = prefetched.join();
+                } catch (CompletionException e) {
+                    System.err.println("Prefetching ID block failed, retrying: " + e.getCause().getMessage());
+                } finally {
+                    prefetched = null;
+                }
+            }
+            current = next != null ? next : reserve();
+        }
+    }
+
+    private Block reserve() throws SQLException {
+        long start = source.reserve(blockSize);
+        return new Block(start, start + blockSize, start + blockSize * 3L / 4);
+    }
+}
@@ -0,0 +1,134 @@
+package com.restaurant.dao;
+
+import com.restaurant.database.DatabaseConnection;
+import com.restaurant.model.MenuCatalog;
+import com.restaurant.model.MenuItem;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for the menu catalog
+ *
+ * The menu changes rarely, so it is read once into an immutable
+ * {@link MenuCatalog} that is shared by all DAO instances and threads.
+ * Call {@link #reloadCatalog()} after the menu_items table was edited.
+ */
+public class MenuDAO {
+    private static final long RETRY_MILLIS = 60_000;
+
+    private static volatile MenuCatalog catalog;
+    private static volatile long lastFailureMillis;
+
+    private final DatabaseConnection dbConnection;
+
+    /**
+     * Constructor - initializes database connection
+     */
+    public MenuDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Gets the menu catalog, loading it on first use
+     *
+     * If the menu cannot be loaded an empty catalog is returned; loading is
+     * retried at most once a minute so that every order load does not repeat
+     * the failing query (e.g. before the menu_items table was created).
+     *
+     * @return Menu catalog (never null)
+     */
+    public MenuCatalog getCatalog() {
+        MenuCatalog current = catalog;
+        if (current != null) {
+            return current;
+        }
+        if (recentlyFailed()) {
+            return MenuCatalog.empty();
+        }
+        try (Connection conn = dbConnection.getReadConnection()) {
+            return getCatalog(conn);
+        } catch (SQLException e) {
+            System.err.println("Error loading menu catalog: " + e.getMessage());
+            e.printStackTrace();
+            return MenuCatalog.empty();
+        }
+    }
+
+    /**
+     * Gets the menu catalog, loading it with a connection the caller already
+     * holds (so a DAO in the middle of a query does not borrow a second one)
+     *
+     * @param conn Open connection
+     * @return Menu catalog (never null)
+     */
+    MenuCatalog getCatalog(Connection conn) {
+        MenuCatalog current = catalog;
+        if (current != null) {
+            return current;
+        }
+        synchronized (MenuDAO.class) {
+            if (catalog != null) {
+                return catalog;
+            }
+            return recentlyFailed() ? MenuCatalog.empty() : reload(conn);
+        }
+    }
+
+    private static boolean recentlyFailed() {
+        return System.currentTimeMillis() - lastFailureMillis < RETRY_MILLIS;
+    }
+
+    /**
+     * Reads the menu from the database and replaces the cached catalog
+     *
+     * @return The new catalog, or an empty catalog if the menu cannot be loaded
+     */
+    public MenuCatalog reloadCatalog() {
+        try (Connection conn = dbConnection.getConnection()) {
+            return reload(conn);
+        } catch (SQLException e) {
+            System.err.println("Error loading menu catalog: " + e.getMessage());
+            e.printStackTrace();
+            return MenuCatalog.empty();
+        }
+    }
+
+    private MenuCatalog reload(Connection conn) {
+        try {
+            MenuCatalog loaded = loadCatalog(conn);
+            catalog = loaded;
+            System.out.println("Loaded " + loaded.size() + " menu item(s)");
+            return loaded;
+        } catch (SQLException | IllegalArgumentException e) {
+            lastFailureMillis = System.currentTimeMillis();
+            System.err.println("Error loading menu catalog: " + e.getMessage());
+            e.printStackTrace();
+            return MenuCatalog.empty();
+        }
+    }
+
+    private MenuCatalog loadCatalog(Connection conn) throws SQLException {
+        List<MenuItem> items = new ArrayList<>();
+        String sql = "SELECT menu_item_id, name, price, station, prep_time FROM menu_items ORDER BY menu_item_id";
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                items.add(new MenuItem(
+                    rs.getInt("menu_item_id"),
+                    rs.getString("name"),
+                    rs.getDouble("price"),
+                    MenuItem.Station.valueOf(rs.getString("station")),
+                    rs.getInt("prep_time")));
+            }
+        }
+
+        return new MenuCatalog(items);
+    }
+}
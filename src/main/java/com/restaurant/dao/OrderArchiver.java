@@ -0,0 +1,204 @@
+package com.restaurant.dao;
+
+import com.restaurant.database.ConnectionProvider;
+import com.restaurant.database.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves finished orders from the orders table to the archive tables
+ *
+ * Orders that are SERVED or CANCELLED and were created longer than the
+ * retention period ago are copied with their items to orders_archive and
+ * order_items_archive and deleted from the live tables, a small batch per
+ * transaction. Batches are separated by a pause so that archiving a long
+ * backlog does not hold locks or saturate the database while orders come
+ * in. Both statuses are final, so an archived order never changes again.
+ *
+ * {@link OrderDAO} reads history from both tables, so archiving is not
+ * visible to callers apart from the queue queries getting faster.
+ */
+public class OrderArchiver implements AutoCloseable {
+    /** Default number of orders moved per transaction */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    /** Default pause between two batches */
+    public static final long DEFAULT_PAUSE_MILLIS = 200;
+    /** Default time a finished order stays in the orders table */
+    public static final Duration DEFAULT_RETENTION = Duration.ofDays(1);
+
+    /** Uses the (status, created_at) index; no ORDER BY, which would need a sort of all matches */
+    static final String SELECT_BATCH_SQL = "SELECT order_id FROM orders " +
+                                           "WHERE status IN ('SERVED', 'CANCELLED') AND created_at < ? LIMIT ?";
+
+    private final ConnectionProvider connections;
+    private final int batchSize;
+    private final long pauseMillis;
+    private final Duration retention;
+    private final AtomicLong archivedOrders = new AtomicLong();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates an archiver for the default database with default settings
+     */
+    public OrderArchiver() {
+        this(DatabaseConnection.getInstance(), DEFAULT_BATCH_SIZE, DEFAULT_PAUSE_MILLIS, DEFAULT_RETENTION);
+    }
+
+    /**
+     * Creates an archiver
+     *
+     * @param connections Database to archive in
+     * @param batchSize Orders moved per transaction
+     * @param pauseMillis Pause between batches
+     * @param retention Time a finished order stays in the orders table
+     */
+    public OrderArchiver(ConnectionProvider connections, int batchSize, long pauseMillis, Duration retention) {
+        this.connections = connections;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+        this.retention = retention;
+    }
+
+    /**
+     * Moves one batch of finished orders that were created before a cutoff
+     *
+     * @param cutoff Orders created at or after this time stay
+     * @return Number of orders moved
+     * @throws SQLException if the batch fails; it is rolled back
+     */
+    public int archiveBatch(LocalDateTime cutoff) throws SQLException {
+        try (Connection conn = connections.getConnection()) {
+            List<Integer> orderIds = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(SELECT_BATCH_SQL)) {
+                pstmt.setTimestamp(1, Timestamp.valueOf(cutoff));
+                pstmt.setInt(2, batchSize);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        orderIds.add(rs.getInt("order_id"));
+                    }
+                }
+            }
+            if (orderIds.isEmpty()) {
+                return 0;
+            }
+
+            String ids = inList(orderIds);
+            conn.setAutoCommit(false);
+            try {
+                execute(conn, "INSERT INTO order_items_archive (" + OrderDAO.ITEM_COLUMNS + ") SELECT "
+                              + OrderDAO.ITEM_COLUMNS + " FROM order_items WHERE order_id IN " + ids);
+                execute(conn, "INSERT INTO orders_archive (" + OrderDAO.ORDER_COLUMNS + ") SELECT "
+                              + OrderDAO.ORDER_COLUMNS + " FROM orders WHERE order_id IN " + ids);
+                execute(conn, "DELETE FROM order_items WHERE order_id IN " + ids);
+                int moved = execute(conn, "DELETE FROM orders WHERE order_id IN " + ids);
+                conn.commit();
+                archivedOrders.addAndGet(moved);
+                return moved;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Moves all finished orders older than the retention period, batch by batch
+     *
+     * @return Number of orders moved
+     * @throws SQLException if a batch fails; earlier batches stay archived
+     * @throws InterruptedException if interrupted during a pause
+     */
+    public long archiveAll() throws SQLException, InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        long total = 0;
+        int moved;
+        do {
+            moved = archiveBatch(cutoff);
+            total += moved;
+            if (moved == batchSize && pauseMillis > 0) {
+                Thread.sleep(pauseMillis);
+            }
+        } while (moved == batchSize);
+        return total;
+    }
+
+    /**
+     * Runs {@link #archiveAll()} periodically on a background thread
+     *
+     * @param intervalMillis Time between the end of one run and the start of the next
+     */
+    public synchronized void start(long intervalMillis) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "order-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                long moved = archiveAll();
+                if (moved > 0) {
+                    System.out.println("Archived " + moved + " finished order(s)");
+                }
+            } catch (SQLException e) {
+                System.err.println("Error archiving orders: " + e.getMessage());
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the number of orders this archiver has moved
+     *
+     * @return Archived order count
+     */
+    public long getArchivedOrders() {
+        return archivedOrders.get();
+    }
+
+    /**
+     * Stops the background runs; a batch in progress still completes
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private static int execute(Connection conn, String sql) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private static String inList(List<Integer> orderIds) {
+        StringBuilder ids = new StringBuilder("(");
+        for (int i = 0; i < orderIds.size(); i++) {
+            if (i > 0) {
+                ids.append(", ");
+            }
+            ids.append(orderIds.get(i));
+        }
+        return ids.append(')').toString();
+    }
+}
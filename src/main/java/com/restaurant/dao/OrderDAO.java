@@ -1,27 +1,94 @@
 package com.restaurant.dao;
 
+import com.restaurant.database.ConnectionProvider;
 import com.restaurant.database.DatabaseConnection;
+import com.restaurant.model.BranchTotals;
+import com.restaurant.model.MenuCatalog;
+import com.restaurant.model.MenuItem;
 import com.restaurant.model.Order;
 import com.restaurant.model.OrderItem;
+import com.restaurant.model.StatusUpdate;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Order operations
  * 
  * This class handles all database operations related to orders,
  * including CRUD operations and querying orders by status.
+ *
+ * History and report reads (all orders, single orders, streams, totals)
+ * use read connections and may be served by a replica. The queue reads
+ * (pending and active orders) stay on the primary: they are triggered by
+ * other threads' writes and must see them at once.
+ *
+ * Served and cancelled orders are moved to archive tables by
+ * {@link OrderArchiver}. History reads (all orders, single orders, streams,
+ * totals) cover the orders table and the archive; the queue reads only see
+ * the orders table, which stays small.
  */
 public class OrderDAO {
-    private DatabaseConnection dbConnection;
+    /** Attempts of {@link #transitionStatus} before a conflict is returned */
+    private static final int MAX_TRANSITION_ATTEMPTS = 3;
+    /** Columns of orders and orders_archive, in the same order */
+    static final String ORDER_COLUMNS = "order_id, branch_id, table_id, staff_id, order_number, status, priority, " +
+                                        "estimated_time, actual_time, total_amount, created_at, updated_at, version";
+    /** Columns of order_items and order_items_archive, in the same order */
+    static final String ITEM_COLUMNS = "item_id, order_id, menu_item_id, item_name, quantity, price, notes, created_at";
+
+    // Queries on the hot access paths; QueryPlanCheck verifies their plans against the indexes in schema.sql
+    static final String PENDING_ORDERS_SQL = "SELECT " + ORDER_COLUMNS + " FROM orders " +
+                                             "WHERE status = 'PENDING' ORDER BY created_at ASC";
+    static final String CHANGED_ORDERS_SQL = "SELECT " + ORDER_COLUMNS + " FROM orders WHERE updated_at >= ?";
+    static final String STREAM_ORDERS_SQL = "SELECT " + ORDER_COLUMNS + " FROM orders " +
+                                            "WHERE created_at >= ? AND created_at < ? " +
+                                            "UNION ALL SELECT " + ORDER_COLUMNS + " FROM orders_archive " +
+                                            "WHERE created_at >= ? AND created_at < ? " +
+                                            "ORDER BY created_at ASC, order_id ASC";
+    // Menu items are stored by ID; the name comes from the menu, or item_name for items not on the menu
+    static final String ITEM_MIX_SQL = "SELECT o.created_at, COALESCE(m.name, i.item_name) AS name, i.quantity " +
+                                       "FROM orders o JOIN order_items i ON i.order_id = o.order_id " +
+                                       "LEFT JOIN menu_items m ON m.menu_item_id = i.menu_item_id " +
+                                       "WHERE o.created_at >= ? AND o.created_at < ? " +
+                                       "UNION ALL SELECT o.created_at, COALESCE(m.name, i.item_name) AS name, i.quantity " +
+                                       "FROM orders_archive o JOIN order_items_archive i ON i.order_id = o.order_id " +
+                                       "LEFT JOIN menu_items m ON m.menu_item_id = i.menu_item_id " +
+                                       "WHERE o.created_at >= ? AND o.created_at < ? " +
+                                       "ORDER BY created_at ASC";
+    // CASE instead of MySQL's boolean sums, so the query also runs on other databases
+    static final String BRANCH_TOTALS_SQL = "SELECT branch_id, COUNT(*) AS orders, " +
+                                            "SUM(CASE WHEN status = 'CANCELLED' THEN 1 ELSE 0 END) AS cancelled, " +
+                                            "SUM(CASE WHEN status = 'CANCELLED' THEN 0 ELSE total_amount END) AS revenue, " +
+                                            "AVG(actual_time) AS average_actual_time " +
+                                            "FROM (SELECT branch_id, status, total_amount, actual_time FROM orders " +
+                                            "WHERE created_at >= ? AND created_at < ? " +
+                                            "UNION ALL SELECT branch_id, status, total_amount, actual_time FROM orders_archive " +
+                                            "WHERE created_at >= ? AND created_at < ?) history " +
+                                            "GROUP BY branch_id ORDER BY branch_id";
+
+    private final ConnectionProvider dbConnection;
+    private final MenuDAO menuDAO;
 
     /**
      * Constructor
      */
     public OrderDAO() {
-        this.dbConnection = DatabaseConnection.getInstance();
+        this(DatabaseConnection.getInstance());
+    }
+
+    /**
+     * Creates a DAO for another database, e.g. one shard of a {@link com.restaurant.database.ShardedDatabase}
+     *
+     * @param connections Source of connections to the database
+     */
+    public OrderDAO(ConnectionProvider connections) {
+        this.dbConnection = connections;
+        this.menuDAO = new MenuDAO();
     }
 
     /**
@@ -30,55 +97,68 @@ public class OrderDAO {
      * @return List of pending orders
      */
     public List<Order> getAllPendingOrders() {
-        List<Order> orders = new ArrayList<>();
-        String sql = "SELECT * FROM orders WHERE status = 'PENDING' ORDER BY created_at ASC";
+        try {
+            List<Order> orders = loadPendingOrders();
+            System.out.println("Total pending orders loaded: " + orders.size());
+            return orders;
+        } catch (SQLException e) {
+            System.err.println("Error retrieving pending orders: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
 
+    /**
+     * Retrieves all pending orders, reporting database errors to the caller
+     * 
+     * Unlike {@link #getAllPendingOrders()}, a failed query is not turned into
+     * an empty list, so callers that poll (e.g. the UI auto-refresh) can tell
+     * "no orders" from "database down" and back off.
+     * 
+     * @return List of pending orders in creation order
+     * @throws SQLException if the orders cannot be queried
+     */
+    public List<Order> loadPendingOrders() throws SQLException {
+        List<Order> orders = new ArrayList<>();
         try (Connection conn = dbConnection.getConnection();
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery(PENDING_ORDERS_SQL)) {
 
-            System.out.println("Querying pending orders...");
-            int count = 0;
             while (rs.next()) {
-                count++;
                 try {
                     Order order = mapResultSetToOrder(rs);
-                    System.out.println("Loading order: " + order.getOrderNumber() + " (ID: " + order.getOrderId() + ")");
                     order.setItems(getOrderItems(order.getOrderId(), conn));
                     orders.add(order);
-                    System.out.println("Successfully loaded order: " + order.getOrderNumber());
                 } catch (Exception e) {
                     System.err.println("Error processing order ID " + rs.getInt("order_id") + ": " + e.getMessage());
                     e.printStackTrace();
                     // Continue processing other orders even if one fails
                 }
             }
-            System.out.println("Total orders found: " + count + ", successfully loaded: " + orders.size());
-        } catch (SQLException e) {
-            System.err.println("Error retrieving pending orders: " + e.getMessage());
-            e.printStackTrace();
         }
 
         return orders;
     }
 
     /**
-     * Retrieves all orders from the database
+     * Retrieves all orders from the database, including archived ones
      * 
-     * @return List of all orders
+     * @return List of all orders, newest first
      */
     public List<Order> getAllOrders() {
         List<Order> orders = new ArrayList<>();
-        String sql = "SELECT * FROM orders ORDER BY created_at DESC";
+        String sql = "SELECT " + ORDER_COLUMNS + ", 0 AS archived FROM orders " +
+                     "UNION ALL SELECT " + ORDER_COLUMNS + ", 1 AS archived FROM orders_archive " +
+                     "ORDER BY created_at DESC";
 
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
                 try {
                     Order order = mapResultSetToOrder(rs);
-                    order.setItems(getOrderItems(order.getOrderId(), conn));
+                    order.setItems(getOrderItems(order.getOrderId(), conn, rs.getBoolean("archived")));
                     orders.add(order);
                 } catch (Exception e) {
                     System.err.println("Error processing order ID " + rs.getInt("order_id") + ": " + e.getMessage());
@@ -93,6 +173,364 @@ public class OrderDAO {
         return orders;
     }
 
+    /**
+     * Retrieves all orders that have one of the given statuses
+     * 
+     * @param statuses Statuses to include
+     * @return List of matching orders, oldest first
+     */
+    public List<Order> getOrdersByStatus(Order.OrderStatus... statuses) {
+        try {
+            return loadOrdersByStatus(statuses);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving orders by status: " + e.getMessage());
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Retrieves all orders that have one of the given statuses, reporting database errors to the caller
+     *
+     * @param statuses Statuses to include
+     * @return List of matching orders, oldest first
+     * @throws SQLException if the orders cannot be queried
+     */
+    public List<Order> loadOrdersByStatus(Order.OrderStatus... statuses) throws SQLException {
+        List<Order> orders = new ArrayList<>();
+        if (statuses.length == 0) {
+            return orders;
+        }
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ordersByStatusSql(statuses.length))) {
+
+            for (int i = 0; i < statuses.length; i++) {
+                pstmt.setString(i + 1, statuses[i].name());
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    try {
+                        Order order = mapResultSetToOrder(rs);
+                        order.setItems(getOrderItems(order.getOrderId(), conn));
+                        orders.add(order);
+                    } catch (Exception e) {
+                        System.err.println("Error processing order ID " + rs.getInt("order_id") + ": " + e.getMessage());
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        return orders;
+    }
+
+    /**
+     * Retrieves the orders changed since a point in time, without items
+     *
+     * Used to catch up from a checkpoint: every insert and status change
+     * sets updated_at, so the result holds every order whose state may
+     * differ from the checkpoint, including orders that left the queue.
+     * updated_at has whole-second precision and is set before the change
+     * commits, so callers should pass a time a few seconds before their
+     * last load.
+     *
+     * @param since Earliest updated_at to include
+     * @return Changed orders in no particular order
+     * @throws SQLException if the orders cannot be queried
+     */
+    public List<Order> loadOrdersChangedSince(LocalDateTime since) throws SQLException {
+        List<Order> orders = new ArrayList<>();
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(CHANGED_ORDERS_SQL)) {
+
+            pstmt.setTimestamp(1, Timestamp.valueOf(since));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(mapResultSetToOrder(rs));
+                }
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Reads the database clock, which sets created_at and updated_at
+     *
+     * @return Current database time
+     * @throws SQLException if the database cannot be reached
+     */
+    public LocalDateTime getDatabaseTime() throws SQLException {
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT CURRENT_TIMESTAMP")) {
+            rs.next();
+            return rs.getTimestamp(1).toLocalDateTime();
+        }
+    }
+
+    /**
+     * Retrieves a single order with its items, looking in the archive if it is not current
+     * 
+     * @param orderId ID of the order
+     * @return The order, or null if it does not exist or cannot be loaded
+     */
+    public Order getOrderById(int orderId) {
+        try (Connection conn = dbConnection.getReadConnection()) {
+            Order order = getOrderById(orderId, conn, false);
+            if (order == null) {
+                // Checked second: the archiver moves orders from the orders table, never back
+                order = getOrderById(orderId, conn, true);
+            }
+            return order;
+        } catch (SQLException e) {
+            System.err.println("Error retrieving order " + orderId + ": " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    static String ordersByStatusSql(int statusCount) {
+        StringBuilder sql = new StringBuilder("SELECT " + ORDER_COLUMNS + " FROM orders WHERE status IN (");
+        for (int i = 0; i < statusCount; i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        return sql.append(") ORDER BY created_at ASC").toString();
+    }
+
+    static String orderByIdSql(boolean archived) {
+        return "SELECT " + ORDER_COLUMNS + " FROM " + (archived ? "orders_archive" : "orders") + " WHERE order_id = ?";
+    }
+
+    static String orderItemsSql(boolean archived) {
+        return "SELECT item_id, order_id, menu_item_id, item_name, quantity, price, notes " +
+               "FROM " + (archived ? "order_items_archive" : "order_items") + " WHERE order_id = ?";
+    }
+
+    private Order getOrderById(int orderId, Connection conn, boolean archived) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(orderByIdSql(archived))) {
+            pstmt.setInt(1, orderId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Order order = mapResultSetToOrder(rs);
+                order.setItems(getOrderItems(order.getOrderId(), conn, archived));
+                return order;
+            }
+        }
+    }
+
+    /**
+     * Inserts a new order together with its items
+     * 
+     * The order and its items are written in one transaction. On success the
+     * generated IDs are stored in the order and item objects. An order that
+     * already has an ID (assigned by {@link OrderNumberGenerator}) is stored
+     * under that ID.
+     * 
+     * @param order Order to insert
+     * @return true if the order was created, false otherwise
+     */
+    public boolean createOrder(Order order) {
+        boolean presetId = order.getOrderId() > 0;
+        String orderSql = "INSERT INTO orders (table_id, staff_id, order_number, status, priority, " +
+                          "estimated_time, total_amount, branch_id" + (presetId ? ", order_id" : "") + ") " +
+                          "VALUES (?, ?, ?, ?, ?, ?, ?, ?" + (presetId ? ", ?" : "") + ")";
+        String itemSql = "INSERT INTO order_items (order_id, menu_item_id, item_name, quantity, price, notes) " +
+                         "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(orderSql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, order.getTableId());
+                    if (order.getStaffId() != null) {
+                        pstmt.setInt(2, order.getStaffId());
+                    } else {
+                        pstmt.setNull(2, Types.INTEGER);
+                    }
+                    pstmt.setString(3, order.getOrderNumber());
+                    pstmt.setString(4, order.getStatus().name());
+                    pstmt.setInt(5, order.getPriority());
+                    pstmt.setInt(6, order.getEstimatedTime());
+                    pstmt.setDouble(7, order.getTotalAmount());
+                    pstmt.setInt(8, order.getBranchId());
+                    if (presetId) {
+                        pstmt.setInt(9, order.getOrderId());
+                    }
+                    pstmt.executeUpdate();
+
+                    if (!presetId) {
+                        try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                            if (!keys.next()) {
+                                throw new SQLException("No order ID generated for order " + order.getOrderNumber());
+                            }
+                            order.setOrderId(keys.getInt(1));
+                        }
+                    }
+                }
+
+                if (order.getItems() != null && !order.getItems().isEmpty()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(itemSql, Statement.RETURN_GENERATED_KEYS)) {
+                        for (OrderItem item : order.getItems()) {
+                            item.setOrderId(order.getOrderId());
+                            pstmt.setInt(1, order.getOrderId());
+                            // Menu items are stored by reference, only off-menu items carry a name
+                            if (item.getMenuItem() != null) {
+                                pstmt.setInt(2, item.getMenuItem().getMenuItemId());
+                                pstmt.setNull(3, Types.VARCHAR);
+                            } else {
+                                pstmt.setNull(2, Types.INTEGER);
+                                pstmt.setString(3, item.getItemName());
+                            }
+                            pstmt.setInt(4, item.getQuantity());
+                            pstmt.setDouble(5, item.getPrice());
+                            pstmt.setString(6, item.getNotes());
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+
+                        try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                            for (OrderItem item : order.getItems()) {
+                                if (keys.next()) {
+                                    item.setItemId(keys.getInt(1));
+                                }
+                            }
+                        }
+                    }
+                }
+
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error creating order " + order.getOrderNumber() + ": " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Streams all orders created in a time range, oldest first, including archived ones
+     * 
+     * Rows are read one at a time from a forward-only result set (MySQL
+     * streaming mode), so the whole history never has to fit in memory.
+     * Order items are not loaded. While the stream is open its connection
+     * cannot be used for other queries.
+     * 
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (exclusive)
+     * @param consumer Receives every order in creation order
+     * @return Number of orders streamed, or -1 if the query failed
+     */
+    public long streamOrders(LocalDateTime from, LocalDateTime to, Consumer<Order> consumer) {
+        long count = 0;
+
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(STREAM_ORDERS_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            // Integer.MIN_VALUE tells MySQL Connector/J to stream rows instead of buffering the result;
+            // other drivers (e.g. an embedded database used for testing) reject it
+            pstmt.setFetchSize(conn.getMetaData().getURL().startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : 1000);
+            pstmt.setTimestamp(1, Timestamp.valueOf(from));
+            pstmt.setTimestamp(2, Timestamp.valueOf(to));
+            pstmt.setTimestamp(3, Timestamp.valueOf(from));
+            pstmt.setTimestamp(4, Timestamp.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapResultSetToOrder(rs));
+                    count++;
+                }
+            }
+            return count;
+        } catch (SQLException e) {
+            System.err.println("Error streaming orders after " + count + " rows: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Streams the items of all orders created in a time range, oldest order first, including archived ones
+     *
+     * Like {@link #streamOrders}, rows are read one at a time. Each item
+     * only carries its name (the menu name for menu items) and quantity.
+     *
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (exclusive)
+     * @param consumer Receives the creation time of the order and the item
+     * @return Number of items streamed, or -1 if the query failed
+     */
+    public long streamOrderItems(LocalDateTime from, LocalDateTime to, BiConsumer<LocalDateTime, OrderItem> consumer) {
+        long count = 0;
+
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(ITEM_MIX_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+            pstmt.setFetchSize(conn.getMetaData().getURL().startsWith("jdbc:mysql:") ? Integer.MIN_VALUE : 1000);
+            pstmt.setTimestamp(1, Timestamp.valueOf(from));
+            pstmt.setTimestamp(2, Timestamp.valueOf(to));
+            pstmt.setTimestamp(3, Timestamp.valueOf(from));
+            pstmt.setTimestamp(4, Timestamp.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    OrderItem item = new OrderItem();
+                    item.setItemName(rs.getString("name"));
+                    item.setQuantity(rs.getInt("quantity"));
+                    consumer.accept(rs.getTimestamp("created_at").toLocalDateTime(), item);
+                    count++;
+                }
+            }
+            return count;
+        } catch (SQLException e) {
+            System.err.println("Error streaming order items after " + count + " rows: " + e.getMessage());
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    /**
+     * Computes order totals per branch for a time range, including archived orders
+     *
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (exclusive)
+     * @return Totals of every branch with orders in the range, ordered by branch
+     * @throws SQLException if the query fails
+     */
+    public List<BranchTotals> loadBranchTotals(LocalDateTime from, LocalDateTime to) throws SQLException {
+        List<BranchTotals> totals = new ArrayList<>();
+
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(BRANCH_TOTALS_SQL)) {
+
+            pstmt.setTimestamp(1, Timestamp.valueOf(from));
+            pstmt.setTimestamp(2, Timestamp.valueOf(to));
+            pstmt.setTimestamp(3, Timestamp.valueOf(from));
+            pstmt.setTimestamp(4, Timestamp.valueOf(to));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    double averageActualTime = rs.getDouble("average_actual_time");
+                    if (rs.wasNull()) {
+                        averageActualTime = Double.NaN;
+                    }
+                    totals.add(new BranchTotals(
+                        rs.getInt("branch_id"),
+                        rs.getLong("orders"),
+                        rs.getLong("cancelled"),
+                        rs.getDouble("revenue"),
+                        averageActualTime));
+                }
+            }
+        }
+
+        return totals;
+    }
+
     /**
      * Retrieves order items for a specific order
      * 
@@ -101,10 +539,14 @@ public class OrderDAO {
      * @return List of order items
      */
     private List<OrderItem> getOrderItems(int orderId, Connection conn) {
+        return getOrderItems(orderId, conn, false);
+    }
+
+    private List<OrderItem> getOrderItems(int orderId, Connection conn, boolean archived) {
         List<OrderItem> items = new ArrayList<>();
-        String sql = "SELECT * FROM order_items WHERE order_id = ?";
+        MenuCatalog menu = menuDAO.getCatalog(conn);
 
-        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(orderItemsSql(archived))) {
             pstmt.setInt(1, orderId);
             ResultSet rs = pstmt.executeQuery();
 
@@ -112,7 +554,13 @@ public class OrderDAO {
                 OrderItem item = new OrderItem();
                 item.setItemId(rs.getInt("item_id"));
                 item.setOrderId(rs.getInt("order_id"));
-                item.setItemName(rs.getString("item_name"));
+                int menuItemId = rs.getInt("menu_item_id");
+                MenuItem menuItem = rs.wasNull() ? null : menu.getById(menuItemId);
+                if (menuItem != null) {
+                    item.setMenuItem(menuItem);
+                } else {
+                    item.setItemName(rs.getString("item_name"));
+                }
                 item.setQuantity(rs.getInt("quantity"));
                 item.setPrice(rs.getDouble("price"));
                 item.setNotes(rs.getString("notes"));
@@ -137,6 +585,7 @@ public class OrderDAO {
     private Order mapResultSetToOrder(ResultSet rs) throws SQLException {
         Order order = new Order();
         order.setOrderId(rs.getInt("order_id"));
+        order.setBranchId(rs.getInt("branch_id"));
         order.setTableId(rs.getInt("table_id"));
         
         int staffId = rs.getInt("staff_id");
@@ -165,32 +614,122 @@ public class OrderDAO {
         if (updatedAt != null) {
             order.setUpdatedAt(updatedAt.toLocalDateTime());
         }
+        order.setVersion(rs.getInt("version"));
 
         return order;
     }
 
     /**
-     * Updates the status of an order
-     * 
+     * Moves an order to a new status if the status machine allows it
+     *
      * @param orderId ID of the order to update
      * @param status New status
-     * @return true if update successful, false otherwise
+     * @return true if the order now has the new status, false otherwise
+     * @see #transitionStatus(int, Order.OrderStatus)
      */
     public boolean updateOrderStatus(int orderId, Order.OrderStatus status) {
-        String sql = "UPDATE orders SET status = ? WHERE order_id = ?";
+        return transitionStatus(orderId, status).isApplied();
+    }
 
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    /**
+     * Moves an order from its current status to a new one without locking it
+     *
+     * Reads the current status and version, checks the transition with
+     * {@link Order.OrderStatus#canTransitionTo} and writes it with
+     * {@link #compareAndSetStatus}. If another writer got in between, the
+     * order is read again and the change is retried as long as it is still
+     * legal (e.g. a cancellation after the kitchen started preparing); if it
+     * is no longer legal (e.g. two terminals both started preparing), the
+     * result is a CONFLICT with the status the other writer set.
+     *
+     * @param orderId ID of the order to update
+     * @param next Requested status
+     * @return Result; ILLEGAL if the order's status could not move to next in the first place
+     */
+    public StatusUpdate transitionStatus(int orderId, Order.OrderStatus next) {
+        try (Connection conn = dbConnection.getConnection()) {
+            for (int attempt = 1; ; attempt++) {
+                StatusUpdate current = readStatus(conn, orderId);
+                if (current.getOutcome() == StatusUpdate.Outcome.NOT_FOUND) {
+                    return current;
+                }
+                if (!current.getStatus().canTransitionTo(next)) {
+                    return new StatusUpdate(attempt == 1 ? StatusUpdate.Outcome.ILLEGAL : StatusUpdate.Outcome.CONFLICT,
+                        orderId, null, current.getStatus(), current.getVersion());
+                }
+                StatusUpdate result = compareAndSetStatus(conn, orderId, current.getStatus(), current.getVersion(), next);
+                if (result.getOutcome() != StatusUpdate.Outcome.CONFLICT || attempt == MAX_TRANSITION_ATTEMPTS) {
+                    return result;
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error updating order status: " + e.getMessage());
+            e.printStackTrace();
+            return new StatusUpdate(StatusUpdate.Outcome.FAILED, orderId, null, null, -1);
+        }
+    }
 
-            pstmt.setString(1, status.name());
-            pstmt.setInt(2, orderId);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+    /**
+     * Changes the status of an order only if nobody changed it since it was read
+     *
+     * The update is a single conditional statement (WHERE status = ? AND
+     * version = ?), so no row lock is held between reading and writing.
+     *
+     * @param orderId ID of the order to update
+     * @param expected Status the caller read
+     * @param expectedVersion Version the caller read
+     * @param next Requested status
+     * @return Result; on CONFLICT it carries the current status and version
+     */
+    public StatusUpdate compareAndSetStatus(int orderId, Order.OrderStatus expected, int expectedVersion,
+                                            Order.OrderStatus next) {
+        if (!expected.canTransitionTo(next)) {
+            return new StatusUpdate(StatusUpdate.Outcome.ILLEGAL, orderId, null, expected, expectedVersion);
+        }
+        try (Connection conn = dbConnection.getConnection()) {
+            return compareAndSetStatus(conn, orderId, expected, expectedVersion, next);
         } catch (SQLException e) {
             System.err.println("Error updating order status: " + e.getMessage());
             e.printStackTrace();
-            return false;
+            return new StatusUpdate(StatusUpdate.Outcome.FAILED, orderId, null, null, -1);
         }
     }
-}
 
+    private StatusUpdate compareAndSetStatus(Connection conn, int orderId, Order.OrderStatus expected,
+                                             int expectedVersion, Order.OrderStatus next) throws SQLException {
+        String sql = "UPDATE orders SET status = ?, version = version + 1 " +
+                     "WHERE order_id = ? AND status = ? AND version = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, next.name());
+            pstmt.setInt(2, orderId);
+            pstmt.setString(3, expected.name());
+            pstmt.setInt(4, expectedVersion);
+            if (pstmt.executeUpdate() > 0) {
+                return new StatusUpdate(StatusUpdate.Outcome.APPLIED, orderId, expected, next, expectedVersion + 1);
+            }
+        }
+        StatusUpdate current = readStatus(conn, orderId);
+        if (current.getOutcome() == StatusUpdate.Outcome.NOT_FOUND) {
+            return current;
+        }
+        return new StatusUpdate(StatusUpdate.Outcome.CONFLICT, orderId, null, current.getStatus(), current.getVersion());
+    }
+
+    /**
+     * Reads the status and version of an order
+     *
+     * @return Result with outcome APPLIED carrying the current state, or NOT_FOUND
+     */
+    private StatusUpdate readStatus(Connection conn, int orderId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT status, version FROM orders WHERE order_id = ?")) {
+            pstmt.setInt(1, orderId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return new StatusUpdate(StatusUpdate.Outcome.NOT_FOUND, orderId, null, null, -1);
+                }
+                return new StatusUpdate(StatusUpdate.Outcome.APPLIED, orderId, null,
+                    Order.OrderStatus.valueOf(rs.getString("status")), rs.getInt("version"));
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.restaurant.dao;
+
+import com.restaurant.model.Order;
+
+import java.sql.SQLException;
+
+/**
+ * Assigns order IDs and order numbers before an order is stored
+ *
+ * The order number is derived from the ID ("ORD-000123"), so both are unique
+ * as long as the ID is, and terminals can print the number on the ticket
+ * before the order reaches the database. Formatting works on a local char
+ * array and shares no state between threads.
+ */
+public class OrderNumberGenerator {
+    private static final String PREFIX = "ORD-";
+    private static final int MIN_DIGITS = 6;
+
+    private final BlockIdGenerator ids;
+
+    /**
+     * Creates a generator
+     *
+     * @param ids Source of unique order IDs
+     */
+    public OrderNumberGenerator(BlockIdGenerator ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Gives an order a new ID and, if it has none, an order number
+     *
+     * @param order Order to update
+     * @throws SQLException if no ID can be reserved
+     */
+    public void assign(Order order) throws SQLException {
+        long id = ids.nextId();
+        if (id > Integer.MAX_VALUE) {
+            throw new SQLException("Order ID sequence exhausted (" + id + ")");
+        }
+        order.setOrderId((int) id);
+        if (order.getOrderNumber() == null || order.getOrderNumber().isBlank()) {
+            order.setOrderNumber(format(id));
+        }
+    }
+
+    /**
+     * Formats an order number, e.g. 123 as "ORD-000123"
+     *
+     * @param id Order ID (non-negative)
+     * @return Order number with at least six digits
+     */
+    public static String format(long id) {
+        char[] digits = new char[20];
+        int position = digits.length;
+        long value = id;
+        do {
+            digits[--position] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (digits.length - position < MIN_DIGITS) {
+            digits[--position] = '0';
+        }
+        return PREFIX.concat(new String(digits, position, digits.length - position));
+    }
+}
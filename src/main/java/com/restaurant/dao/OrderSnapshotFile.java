@@ -0,0 +1,149 @@
+package com.restaurant.dao;
+
+import com.restaurant.model.Order;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes order snapshots as CSV files
+ *
+ * A snapshot contains the columns of the orders table that the scheduling
+ * algorithms look at. It allows algorithms to be evaluated on a fixed set of
+ * orders without a running database, e.g. on a build server.
+ *
+ * Format: one header line followed by one line per order with the columns
+ * order_id, table_id, staff_id, order_number, status, priority,
+ * estimated_time, actual_time, total_amount, created_at, updated_at.
+ * Empty fields are read as NULL. Timestamps use ISO-8601 (2024-05-01T18:30:00).
+ */
+public class OrderSnapshotFile {
+    private static final String HEADER =
+        "order_id,table_id,staff_id,order_number,status,priority,estimated_time,actual_time,total_amount,created_at,updated_at";
+
+    private OrderSnapshotFile() {
+    }
+
+    /**
+     * Reads all orders from a snapshot file
+     *
+     * @param file Path of the CSV file
+     * @return Orders in file order
+     * @throws IOException if the file cannot be read or contains an invalid line
+     */
+    public static List<Order> read(Path file) throws IOException {
+        List<Order> orders = new ArrayList<>();
+        forEach(file, orders::add);
+        return orders;
+    }
+
+    /**
+     * Streams the orders of a snapshot file one line at a time
+     *
+     * Only one order is held in memory at a time, so arbitrarily large trace
+     * files can be processed.
+     *
+     * @param file Path of the CSV file
+     * @param consumer Receives every order in file order
+     * @return Number of orders read
+     * @throws IOException if the file cannot be read or contains an invalid line
+     */
+    public static long forEach(Path file, Consumer<Order> consumer) throws IOException {
+        long count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || line.startsWith("#") || (lineNumber == 1 && line.startsWith("order_id"))) {
+                    continue;
+                }
+                Order order;
+                try {
+                    order = parseLine(line);
+                } catch (RuntimeException e) {
+                    throw new IOException("Invalid snapshot line " + lineNumber + " in " + file + ": " + e.getMessage(), e);
+                }
+                consumer.accept(order);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes orders to a snapshot file, replacing any existing content
+     *
+     * @param file Path of the CSV file
+     * @param orders Orders to write
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Path file, List<Order> orders) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Order order : orders) {
+                writer.write(formatLine(order));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static Order parseLine(String line) {
+        String[] f = line.split(",", -1);
+        if (f.length != 11) {
+            throw new IllegalArgumentException("expected 11 columns but found " + f.length);
+        }
+
+        Order order = new Order();
+        order.setOrderId(Integer.parseInt(f[0].trim()));
+        order.setTableId(Integer.parseInt(f[1].trim()));
+        order.setStaffId(parseNullableInt(f[2]));
+        order.setOrderNumber(f[3].trim());
+        order.setStatus(Order.OrderStatus.valueOf(f[4].trim()));
+        order.setPriority(Integer.parseInt(f[5].trim()));
+        order.setEstimatedTime(Integer.parseInt(f[6].trim()));
+        order.setActualTime(parseNullableInt(f[7]));
+        order.setTotalAmount(f[8].isBlank() ? 0.0 : Double.parseDouble(f[8].trim()));
+        order.setCreatedAt(parseNullableTime(f[9]));
+        order.setUpdatedAt(parseNullableTime(f[10]));
+        return order;
+    }
+
+    private static String formatLine(Order order) {
+        if (order.getOrderNumber() != null && order.getOrderNumber().indexOf(',') >= 0) {
+            throw new IllegalArgumentException("Order number must not contain commas: " + order.getOrderNumber());
+        }
+        return order.getOrderId() + "," +
+               order.getTableId() + "," +
+               nullToEmpty(order.getStaffId()) + "," +
+               nullToEmpty(order.getOrderNumber()) + "," +
+               order.getStatus().name() + "," +
+               order.getPriority() + "," +
+               order.getEstimatedTime() + "," +
+               nullToEmpty(order.getActualTime()) + "," +
+               order.getTotalAmount() + "," +
+               nullToEmpty(order.getCreatedAt()) + "," +
+               nullToEmpty(order.getUpdatedAt());
+    }
+
+    private static Integer parseNullableInt(String field) {
+        return field.isBlank() ? null : Integer.valueOf(field.trim());
+    }
+
+    private static LocalDateTime parseNullableTime(String field) {
+        return field.isBlank() ? null : LocalDateTime.parse(field.trim());
+    }
+
+    private static String nullToEmpty(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
@@ -0,0 +1,321 @@
+package com.restaurant.dao;
+
+import com.restaurant.database.ConnectionProvider;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Checks the MySQL query plans of the DAO's hot queries and times them
+ *
+ * Every query runs through EXPLAIN with realistic parameters. A query fails
+ * if MySQL reads a large table completely (type ALL or a full index scan),
+ * sorts its rows (filesort) where the index should deliver them in order,
+ * or has to read table rows where the index is meant to cover the query.
+ * Sorting is accepted where it is inherent: merging the live and archive
+ * tables, and the active-orders query, whose IN list over two statuses is
+ * read as two index ranges. Tables with fewer than {@link #MIN_ROWS} rows
+ * are not judged, since MySQL rightly scans small tables; use
+ * {@link #fill} to get a realistic size.
+ *
+ * The SQL is the DAO's own (package constants of {@link OrderDAO} and
+ * {@link OrderArchiver}), so a changed query is checked as it runs.
+ */
+public class QueryPlanCheck {
+    /** Smallest table whose plan is judged */
+    public static final long MIN_ROWS = 10_000;
+
+    private static final int FILL_BATCH = 1_000;
+    private static final String[] TABLES = {"orders", "order_items", "orders_archive", "order_items_archive"};
+
+    /**
+     * Plan and timing of one query
+     */
+    public static final class Result {
+        private final String name;
+        private final List<String> plan = new ArrayList<>();
+        private final List<String> problems = new ArrayList<>();
+        private boolean judged;
+        private double medianMillis;
+        private double p95Millis;
+
+        Result(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the EXPLAIN rows, one line per table
+         *
+         * @return Plan lines
+         */
+        public List<String> getPlan() {
+            return plan;
+        }
+
+        /**
+         * Gets the plan problems found on large tables
+         *
+         * @return Problems; empty if the plan is fine
+         */
+        public List<String> getProblems() {
+            return problems;
+        }
+
+        /**
+         * Whether any table of the query was large enough to judge its plan
+         *
+         * @return true if the plan was judged
+         */
+        public boolean isJudged() {
+            return judged;
+        }
+
+        public boolean isPassed() {
+            return problems.isEmpty();
+        }
+
+        public double getMedianMillis() {
+            return medianMillis;
+        }
+
+        public double getP95Millis() {
+            return p95Millis;
+        }
+    }
+
+    /**
+     * A hot query with sample parameters and what its plan must look like
+     */
+    private static final class Query {
+        final String name;
+        final String sql;
+        final Object[] params;
+        final boolean sortAllowed;
+        final boolean covering;
+
+        Query(String name, String sql, boolean sortAllowed, boolean covering, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+            this.sortAllowed = sortAllowed;
+            this.covering = covering;
+        }
+    }
+
+    private final ConnectionProvider connections;
+
+    /**
+     * Creates a check
+     *
+     * @param connections Database to check (the primary; plans of replicas may differ)
+     */
+    public QueryPlanCheck(ConnectionProvider connections) {
+        this.connections = connections;
+    }
+
+    /**
+     * Counts the rows of the order tables
+     *
+     * @return Row count per table name
+     * @throws SQLException if a table cannot be counted
+     */
+    public Map<String, Long> countRows() throws SQLException {
+        Map<String, Long> counts = new HashMap<>();
+        try (Connection conn = connections.getConnection();
+             Statement stmt = conn.createStatement()) {
+            for (String table : TABLES) {
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+                    rs.next();
+                    counts.put(table, rs.getLong(1));
+                }
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Explains and times every hot query
+     *
+     * @param runs Timed executions per query
+     * @return One result per query
+     * @throws SQLException if a query cannot be explained or run
+     */
+    public List<Result> run(int runs) throws SQLException {
+        Map<String, Long> rowCounts = countRows();
+        List<Result> results = new ArrayList<>();
+        try (Connection conn = connections.getConnection()) {
+            for (Query query : queries(conn)) {
+                Result result = new Result(query.name);
+                explain(conn, query, rowCounts, result);
+                time(conn, query, runs, result);
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private static List<Query> queries(Connection conn) throws SQLException {
+        int orderId = 1;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT MAX(order_id) FROM orders")) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                orderId = rs.getInt(1);
+            }
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp weekAgo = Timestamp.valueOf(LocalDateTime.now().minusDays(7));
+        Timestamp monthAgo = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        Timestamp dayAgo = Timestamp.valueOf(LocalDateTime.now().minusDays(1));
+
+        List<Query> queries = new ArrayList<>();
+        queries.add(new Query("pending-queue", OrderDAO.PENDING_ORDERS_SQL, false, false));
+        queries.add(new Query("active-orders", OrderDAO.ordersByStatusSql(2), true, false, "PREPARING", "PENDING"));
+        queries.add(new Query("order-by-id", OrderDAO.orderByIdSql(false), false, false, orderId));
+        queries.add(new Query("order-items", OrderDAO.orderItemsSql(false), false, false, orderId));
+        queries.add(new Query("checkpoint-delta", OrderDAO.CHANGED_ORDERS_SQL, false, false,
+            Timestamp.valueOf(LocalDateTime.now().minusMinutes(5))));
+        queries.add(new Query("stream-week", OrderDAO.STREAM_ORDERS_SQL, true, false, weekAgo, now, weekAgo, now));
+        queries.add(new Query("item-mix-week", OrderDAO.ITEM_MIX_SQL, true, false, weekAgo, now, weekAgo, now));
+        queries.add(new Query("branch-totals-month", OrderDAO.BRANCH_TOTALS_SQL, false, true,
+            monthAgo, now, monthAgo, now));
+        queries.add(new Query("archive-batch", OrderArchiver.SELECT_BATCH_SQL, false, true,
+            dayAgo, OrderArchiver.DEFAULT_BATCH_SIZE));
+        return queries;
+    }
+
+    private static void explain(Connection conn, Query query, Map<String, Long> rowCounts, Result result)
+            throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + query.sql)) {
+            bind(pstmt, query.params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String table = rs.getString("table");
+                    String type = rs.getString("type");
+                    String key = rs.getString("key");
+                    String extra = rs.getString("Extra");
+                    List<String> notes = extra != null ? Arrays.asList(extra.split("; ")) : Collections.emptyList();
+                    result.plan.add(String.format(Locale.ROOT, "%s: %s %s rows=%d%s", table, type, key,
+                        rs.getLong("rows"), extra != null ? " (" + extra + ")" : ""));
+
+                    // Derived tables and union results (<derived2>, <union1,2>) are temporary; only judge real tables
+                    Long tableRows = table != null ? rowCounts.get(table) : null;
+                    if (tableRows == null || tableRows < MIN_ROWS) {
+                        continue;
+                    }
+                    result.judged = true;
+                    if ("ALL".equals(type)) {
+                        result.problems.add(table + ": full table scan");
+                    } else if ("index".equals(type)) {
+                        result.problems.add(table + ": full index scan of " + key);
+                    }
+                    if (notes.contains("Using filesort") && !query.sortAllowed) {
+                        result.problems.add(table + ": filesort instead of index order");
+                    }
+                    if (query.covering && !notes.contains("Using index")) {
+                        result.problems.add(table + ": index " + key + " does not cover the query");
+                    }
+                }
+            }
+        }
+    }
+
+    private static void time(Connection conn, Query query, int runs, Result result) throws SQLException {
+        long[] nanos = new long[runs];
+        try (PreparedStatement pstmt = conn.prepareStatement(query.sql)) {
+            bind(pstmt, query.params);
+            for (int i = 0; i < runs; i++) {
+                long begin = System.nanoTime();
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Read every row, as the DAO does
+                    }
+                }
+                nanos[i] = System.nanoTime() - begin;
+            }
+        }
+        Arrays.sort(nanos);
+        if (runs > 0) {
+            result.medianMillis = nanos[runs / 2] / 1e6;
+            result.p95Millis = nanos[Math.max(0, (int) Math.ceil(0.95 * runs) - 1)] / 1e6;
+        }
+    }
+
+    private static void bind(PreparedStatement pstmt, Object[] params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            pstmt.setObject(i + 1, params[i]);
+        }
+    }
+
+    /**
+     * Adds synthetic served and cancelled orders with two items each until the orders table has a size
+     *
+     * The orders are spread over the last year and three branches; their
+     * numbers start with PLAN-. Use a scratch copy of the database. The
+     * orders ID sequence is moved past the new IDs.
+     *
+     * @param targetRows Row count of the orders table to reach
+     * @param tableId Existing table the orders belong to
+     * @return Number of orders added
+     * @throws SQLException if inserting fails
+     */
+    public long fill(long targetRows, int tableId) throws SQLException {
+        long existing = countRows().get("orders");
+        long added = 0;
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        try (Connection conn = connections.getConnection();
+             Statement stmt = conn.createStatement()) {
+            String prefix = "PLAN-" + Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36) + "-";
+            while (existing + added < targetRows) {
+                int batch = (int) Math.min(FILL_BATCH, targetRows - existing - added);
+                int lastId;
+                try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(order_id), 0) FROM orders")) {
+                    rs.next();
+                    lastId = rs.getInt(1);
+                }
+                StringBuilder sql = new StringBuilder("INSERT INTO orders (branch_id, table_id, order_number, status, " +
+                    "priority, estimated_time, actual_time, total_amount, created_at, updated_at) VALUES ");
+                for (int i = 0; i < batch; i++) {
+                    LocalDateTime created = now.minusSeconds(random.nextInt(365 * 24 * 3600));
+                    String timestamp = "'" + Timestamp.valueOf(created) + "'";
+                    sql.append(i == 0 ? "(" : ", (")
+                        .append(1 + random.nextInt(3)).append(", ")
+                        .append(tableId).append(", '")
+                        .append(prefix).append(added + i).append("', '")
+                        .append(random.nextInt(100) < 3 ? "CANCELLED" : "SERVED").append("', ")
+                        .append(1 + random.nextInt(10)).append(", ")
+                        .append(5 + random.nextInt(40)).append(", ")
+                        .append(5 + random.nextInt(50)).append(", ")
+                        .append(String.format(Locale.ROOT, "%.2f", 10 + random.nextInt(9000) / 100.0)).append(", ")
+                        .append(timestamp).append(", ").append(timestamp).append(')');
+                }
+                stmt.executeUpdate(sql.toString());
+                stmt.executeUpdate("INSERT INTO order_items (order_id, item_name, quantity, price) " +
+                    "SELECT order_id, 'Plan item', 1, 9.50 FROM orders WHERE order_id > " + lastId +
+                    " UNION ALL SELECT order_id, 'Plan side', 2, 3.25 FROM orders WHERE order_id > " + lastId);
+                added += batch;
+            }
+            // Orders created through the service take preset IDs from this sequence
+            stmt.executeUpdate("UPDATE sequences SET next_value = GREATEST(next_value, " +
+                "(SELECT COALESCE(MAX(order_id), 0) + 1 FROM orders)) WHERE name = 'orders'");
+        }
+        return added;
+    }
+}
@@ -0,0 +1,68 @@
+package com.restaurant.dao;
+
+import com.restaurant.database.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Data Access Object for named sequences
+ *
+ * A sequence is a row in the sequences table holding the next free value.
+ * Values are handed out in blocks (see {@link BlockIdGenerator}) so that
+ * only one statement is needed per block instead of one per ID.
+ */
+public class SequenceDAO {
+    /** Sequence that order IDs (and order numbers) are taken from */
+    public static final String ORDER_SEQUENCE = "orders";
+
+    private final DatabaseConnection dbConnection;
+
+    /**
+     * Constructor - initializes database connection
+     */
+    public SequenceDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Reserves a block of consecutive values
+     *
+     * The sequence row is advanced by a single UPDATE, which is atomic across
+     * all application instances. A reserved block is never handed out again,
+     * even if the application stops before using it, so restarts cannot
+     * produce duplicates (unused values are simply skipped).
+     *
+     * @param name Name of the sequence
+     * @param size Number of values to reserve
+     * @return First value of the block; the block is [first, first + size)
+     * @throws SQLException if the sequence does not exist or the database fails
+     */
+    public long reserveBlock(String name, int size) throws SQLException {
+        if (size < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        // LAST_INSERT_ID(expr) stores the new value for this connection, so the
+        // reserved range is known without a second locking read
+        String update = "UPDATE sequences SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?";
+
+        try (Connection conn = dbConnection.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(update)) {
+                pstmt.setInt(1, size);
+                pstmt.setString(2, name);
+                if (pstmt.executeUpdate() == 0) {
+                    throw new SQLException("Sequence '" + name + "' does not exist; " +
+                                           "run database/migrate_order_sequence.sql");
+                }
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT LAST_INSERT_ID()")) {
+                rs.next();
+                return rs.getLong(1) - size;
+            }
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.restaurant.dao;
+
+import com.restaurant.database.ShardedDatabase;
+import com.restaurant.model.BranchTotals;
+import com.restaurant.model.Order;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Order access across the shards of a {@link ShardedDatabase}
+ *
+ * Writes and single-branch reads go to the shard of the order's branch.
+ * Cross-branch reads are scatter-gather: the query runs on all shards in
+ * parallel, each with a connection from its own pool, and the results are
+ * combined. Streamed results are merged on the fly (k-way merge on
+ * created_at), so a report over all branches sees one stream in time order
+ * without buffering any shard's result.
+ *
+ * Order IDs and numbers are only unique within a shard; across branches an
+ * order is identified by branch and order ID. All shards must hold the
+ * same menu, since menu items are cached once for the application.
+ */
+public class ShardedOrderDAO {
+    /** Orders handed from a shard thread to the merging thread at a time */
+    private static final int CHUNK_SIZE = 256;
+    /** Chunks buffered per shard before its query waits for the merge */
+    private static final int BUFFERED_CHUNKS = 16;
+    private static final List<Order> END_OF_STREAM = Collections.emptyList();
+    private static final Comparator<Order> CREATION_ORDER = Comparator
+        .comparing(Order::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+        .thenComparingInt(Order::getBranchId)
+        .thenComparingInt(Order::getOrderId);
+
+    private final ShardedDatabase database;
+    private final Map<ShardedDatabase.Shard, OrderDAO> shardDAOs = new HashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "shard-query");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a DAO for all shards
+     *
+     * @param database Shards and their branches
+     */
+    public ShardedOrderDAO(ShardedDatabase database) {
+        this.database = database;
+        for (ShardedDatabase.Shard shard : database.getShards()) {
+            shardDAOs.put(shard, new OrderDAO(shard));
+        }
+    }
+
+    /**
+     * Gets the DAO of the shard that stores a branch
+     *
+     * @param branchId Branch key
+     * @return DAO of the branch's shard (it also sees other branches of that shard)
+     */
+    public OrderDAO forBranch(int branchId) {
+        return shardDAOs.get(database.shardFor(branchId));
+    }
+
+    /**
+     * Stores an order in the shard of its branch
+     *
+     * @param order Order to insert
+     * @return true if the order was created, false otherwise
+     */
+    public boolean createOrder(Order order) {
+        return forBranch(order.getBranchId()).createOrder(order);
+    }
+
+    /**
+     * Retrieves the pending orders of one branch
+     *
+     * @param branchId Branch key
+     * @return Pending orders of the branch
+     * @throws SQLException if the shard cannot be read
+     */
+    public List<Order> loadPendingOrders(int branchId) throws SQLException {
+        List<Order> orders = forBranch(branchId).loadPendingOrders();
+        orders.removeIf(order -> order.getBranchId() != branchId);
+        return orders;
+    }
+
+    /**
+     * Computes order totals per branch over all shards in parallel
+     *
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (exclusive)
+     * @return Totals of every branch with orders in the range, ordered by branch
+     * @throws SQLException if any shard fails; partial totals are not returned
+     */
+    public List<BranchTotals> loadBranchTotals(LocalDateTime from, LocalDateTime to) throws SQLException {
+        List<CompletableFuture<List<BranchTotals>>> results = new ArrayList<>();
+        for (ShardedDatabase.Shard shard : database.getShards()) {
+            OrderDAO dao = shardDAOs.get(shard);
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return dao.loadBranchTotals(from, to);
+                } catch (SQLException e) {
+                    throw new CompletionException(new SQLException("Shard " + shard.getName() + ": " + e.getMessage(), e));
+                }
+            }, executor));
+        }
+
+        List<BranchTotals> totals = new ArrayList<>();
+        for (CompletableFuture<List<BranchTotals>> result : results) {
+            try {
+                totals.addAll(result.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof SQLException) {
+                    throw (SQLException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        totals.sort(Comparator.comparingInt(BranchTotals::getBranchId));
+        return totals;
+    }
+
+    /**
+     * Streams the orders of all branches created in a time range, oldest first
+     *
+     * Every shard streams its orders on its own thread into a small buffer;
+     * the calling thread merges the buffers and passes the orders to the
+     * consumer in creation order. Order items are not loaded.
+     *
+     * @param from Start of the range (inclusive)
+     * @param to End of the range (exclusive)
+     * @param consumer Receives every order in creation order, on the calling thread
+     * @return Number of orders streamed, or -1 if a shard failed (the stream stops early)
+     */
+    public long streamOrders(LocalDateTime from, LocalDateTime to, Consumer<Order> consumer) {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        List<ShardStream> streams = new ArrayList<>();
+        for (ShardedDatabase.Shard shard : database.getShards()) {
+            ShardStream stream = new ShardStream(cancelled);
+            streams.add(stream);
+            OrderDAO dao = shardDAOs.get(shard);
+            executor.execute(() -> stream.produce(dao, from, to));
+        }
+
+        PriorityQueue<ShardStream> heads = new PriorityQueue<>(streams.size(),
+            (a, b) -> CREATION_ORDER.compare(a.head, b.head));
+        long count = 0;
+        try {
+            for (ShardStream stream : streams) {
+                if (stream.advance()) {
+                    heads.add(stream);
+                } else if (stream.failed) {
+                    return -1;
+                }
+            }
+            while (!heads.isEmpty()) {
+                ShardStream stream = heads.poll();
+                consumer.accept(stream.head);
+                count++;
+                if (stream.advance()) {
+                    heads.add(stream);
+                } else if (stream.failed) {
+                    return -1;
+                }
+            }
+            return count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } finally {
+            // Stops the queries of the other shards if the merge ended early
+            cancelled.set(true);
+        }
+    }
+
+    /**
+     * Orders of one shard, passed from its query thread to the merging thread
+     */
+    private static final class ShardStream {
+        private final BlockingQueue<List<Order>> chunks = new ArrayBlockingQueue<>(BUFFERED_CHUNKS);
+        private final AtomicBoolean cancelled;
+        private volatile boolean failed;
+
+        // Query thread
+        private List<Order> filling = new ArrayList<>(CHUNK_SIZE);
+
+        // Merging thread
+        private List<Order> chunk = Collections.emptyList();
+        private int position;
+        private Order head;
+
+        ShardStream(AtomicBoolean cancelled) {
+            this.cancelled = cancelled;
+        }
+
+        void produce(OrderDAO dao, LocalDateTime from, LocalDateTime to) {
+            try {
+                long streamed = dao.streamOrders(from, to, order -> {
+                    filling.add(order);
+                    if (filling.size() == CHUNK_SIZE) {
+                        hand(filling);
+                        filling = new ArrayList<>(CHUNK_SIZE);
+                    }
+                });
+                if (streamed < 0) {
+                    failed = true;
+                } else if (!filling.isEmpty()) {
+                    hand(filling);
+                }
+            } catch (CancellationException e) {
+                return;
+            } catch (RuntimeException e) {
+                System.err.println("Error streaming orders from shard: " + e.getMessage());
+                e.printStackTrace();
+                failed = true;
+            }
+            try {
+                hand(END_OF_STREAM);
+            } catch (CancellationException e) {
+                // Nobody is waiting any more
+            }
+        }
+
+        private void hand(List<Order> orders) {
+            try {
+                while (!chunks.offer(orders, 100, TimeUnit.MILLISECONDS)) {
+                    if (cancelled.get()) {
+                        throw new CancellationException();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException();
+            }
+        }
+
+        /**
+         * Moves to the next order of this shard
+         *
+         * @return false at the end of the stream (check failed)
+         */
+        boolean advance() throws InterruptedException {
+            if (++position < chunk.size()) {
+                head = chunk.get(position);
+                return true;
+            }
+            List<Order> next = chunks.take();
+            if (next == END_OF_STREAM) {
+                head = null;
+                return false;
+            }
+            chunk = next;
+            position = 0;
+            head = next.get(0);
+            return true;
+        }
+    }
+}
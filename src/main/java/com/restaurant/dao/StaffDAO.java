@@ -0,0 +1,79 @@
+package com.restaurant.dao;
+
+import com.restaurant.database.DatabaseConnection;
+import com.restaurant.model.Staff;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for staff members
+ */
+public class StaffDAO {
+    private final DatabaseConnection dbConnection;
+
+    /**
+     * Constructor - initializes database connection
+     */
+    public StaffDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Retrieves all staff members ordered by ID
+     *
+     * @return List of staff members (empty if they cannot be loaded)
+     */
+    public List<Staff> getAllStaff() {
+        List<Staff> staff = new ArrayList<>();
+        String sql = "SELECT staff_id, name, role, status, zone FROM staff ORDER BY staff_id";
+
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                Staff member = new Staff(
+                    rs.getInt("staff_id"),
+                    rs.getString("name"),
+                    Staff.StaffRole.valueOf(rs.getString("role")),
+                    Staff.StaffStatus.valueOf(rs.getString("status")));
+                member.setZone(rs.getString("zone"));
+                staff.add(member);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving staff: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return staff;
+    }
+
+    /**
+     * Updates the status of a staff member
+     *
+     * @param staffId ID of the staff member
+     * @param status New status
+     * @return true if update successful, false otherwise
+     */
+    public boolean updateStaffStatus(int staffId, Staff.StaffStatus status) {
+        String sql = "UPDATE staff SET status = ? WHERE staff_id = ?";
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, status.name());
+            pstmt.setInt(2, staffId);
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.err.println("Error updating staff status: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
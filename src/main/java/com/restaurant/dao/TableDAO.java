@@ -0,0 +1,90 @@
+package com.restaurant.dao;
+
+import com.restaurant.database.DatabaseConnection;
+import com.restaurant.model.Table;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object for restaurant tables
+ */
+public class TableDAO {
+    private final DatabaseConnection dbConnection;
+
+    /**
+     * Constructor - initializes database connection
+     */
+    public TableDAO() {
+        this.dbConnection = DatabaseConnection.getInstance();
+    }
+
+    /**
+     * Retrieves all tables ordered by table number
+     *
+     * @return List of tables (empty if they cannot be loaded)
+     */
+    public List<Table> getAllTables() {
+        List<Table> tables = new ArrayList<>();
+        String sql = "SELECT table_id, table_number, capacity, status, combine_group, zone FROM tables ORDER BY table_number";
+
+        try (Connection conn = dbConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                Table table = new Table(
+                    rs.getInt("table_id"),
+                    rs.getInt("table_number"),
+                    rs.getInt("capacity"),
+                    Table.TableStatus.valueOf(rs.getString("status")));
+                table.setCombineGroup(rs.getInt("combine_group"));
+                table.setZone(rs.getString("zone"));
+                tables.add(table);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error retrieving tables: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return tables;
+    }
+
+    /**
+     * Updates the status of one or more tables in a single statement,
+     * e.g. all tables pushed together for one party
+     *
+     * @param tableIds IDs of the tables
+     * @param status New status
+     * @return true if all tables were updated, false otherwise
+     */
+    public boolean updateTableStatus(List<Integer> tableIds, Table.TableStatus status) {
+        if (tableIds.isEmpty()) {
+            return true;
+        }
+        StringBuilder sql = new StringBuilder("UPDATE tables SET status = ? WHERE table_id IN (");
+        for (int i = 0; i < tableIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+
+            pstmt.setString(1, status.name());
+            for (int i = 0; i < tableIds.size(); i++) {
+                pstmt.setInt(i + 2, tableIds.get(i));
+            }
+            return pstmt.executeUpdate() == tableIds.size();
+        } catch (SQLException e) {
+            System.err.println("Error updating table status: " + e.getMessage());
+            e.printStackTrace();
+            return false;
+        }
+    }
+}
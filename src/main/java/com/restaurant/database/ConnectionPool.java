@@ -0,0 +1,222 @@
+package com.restaurant.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Small bounded JDBC connection pool
+ *
+ * Connections handed out by {@link #borrow()} are wrappers around a physical
+ * connection. Calling close() on the wrapper returns the physical connection
+ * to the pool instead of closing it, so existing code that uses
+ * try-with-resources keeps working unchanged while several threads can use
+ * the database at the same time.
+ *
+ * At most maxSize connections exist at any time. Idle connections are
+ * validated before reuse when they have not been used for a while.
+ */
+public class ConnectionPool {
+    private static final long VALIDATE_AFTER_IDLE_MILLIS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+    private final Semaphore permits;
+    private final ConcurrentLinkedDeque<IdleConnection> idle;
+    private volatile boolean closed;
+
+    /**
+     * Idle physical connection with the time it was returned
+     */
+    private static class IdleConnection {
+        final Connection connection;
+        final long returnedAt;
+
+        IdleConnection(Connection connection, long returnedAt) {
+            this.connection = connection;
+            this.returnedAt = returnedAt;
+        }
+    }
+
+    /**
+     * Creates a pool; connections are opened lazily
+     *
+     * @param url JDBC URL
+     * @param user Database user
+     * @param password Database password
+     * @param maxSize Maximum number of open connections
+     * @param borrowTimeoutMillis How long borrow() waits for a free connection
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize, long borrowTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be at least 1");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+        this.idle = new ConcurrentLinkedDeque<>();
+    }
+
+    /**
+     * Borrows a connection; close it to give it back to the pool
+     *
+     * @return Pooled connection
+     * @throws SQLException if no connection becomes free in time or the database cannot be reached
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool for " + url + " is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            return wrap(takePhysicalConnection());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private Connection takePhysicalConnection() throws SQLException {
+        IdleConnection candidate;
+        // Most recently returned connections first: they are the least likely to have timed out
+        while ((candidate = idle.pollFirst()) != null) {
+            boolean stale = System.currentTimeMillis() - candidate.returnedAt > VALIDATE_AFTER_IDLE_MILLIS;
+            if (!stale || candidate.connection.isValid(2)) {
+                return candidate.connection;
+            }
+            closeQuietly(candidate.connection);
+        }
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    private void release(Connection physical, boolean broken) {
+        try {
+            if (broken || closed || physical.isClosed()) {
+                closeQuietly(physical);
+            } else {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                if (physical.isReadOnly()) {
+                    physical.setReadOnly(false);
+                }
+                idle.offerFirst(new IdleConnection(physical, System.currentTimeMillis()));
+            }
+        } catch (SQLException e) {
+            closeQuietly(physical);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Connection wrap(Connection physical) {
+        AtomicBoolean returned = new AtomicBoolean(false);
+        InvocationHandler handler = new InvocationHandler() {
+            private boolean broken;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "close":
+                        if (returned.compareAndSet(false, true)) {
+                            release(physical, broken);
+                        }
+                        return null;
+                    case "isClosed":
+                        return returned.get() || physical.isClosed();
+                    case "unwrap":
+                        if (args[0] == Connection.class) {
+                            return proxy;
+                        }
+                        break;
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "PooledConnection[" + physical + "]";
+                    default:
+                        break;
+                }
+                if (returned.get()) {
+                    throw new SQLException("Connection has already been returned to the pool");
+                }
+                try {
+                    return method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    Throwable cause = e.getCause();
+                    // SQLState class 08 = connection exception; do not reuse the connection
+                    if (cause instanceof SQLException) {
+                        String state = ((SQLException) cause).getSQLState();
+                        if (state != null && state.startsWith("08")) {
+                            broken = true;
+                        }
+                    }
+                    throw cause;
+                }
+            }
+        };
+        return (Connection) Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, handler);
+    }
+
+    /**
+     * Gets the maximum number of connections
+     *
+     * @return Pool size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Gets the number of connections currently lent out
+     *
+     * @return Active connection count
+     */
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * Closes all idle connections; connections still in use are closed when returned
+     */
+    public void close() {
+        closed = true;
+        IdleConnection candidate;
+        while ((candidate = idle.pollFirst()) != null) {
+            closeQuietly(candidate.connection);
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+}
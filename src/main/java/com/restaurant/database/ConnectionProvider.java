@@ -0,0 +1,36 @@
+package com.restaurant.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source of database connections for the DAOs
+ *
+ * Implemented by {@link DatabaseConnection} for the default database and by
+ * the shards of a {@link ShardedDatabase}. Read-only calls that can live
+ * with slightly stale data (reports, history) use
+ * {@link #getReadConnection()}, which may be served by a replica.
+ */
+@FunctionalInterface
+public interface ConnectionProvider {
+    /**
+     * Gets a connection; callers must close it
+     *
+     * @return Open connection
+     * @throws SQLException if no connection can be obtained
+     */
+    Connection getConnection() throws SQLException;
+
+    /**
+     * Gets a connection for read-only queries; callers must close it
+     *
+     * The connection may point at a replica that lags slightly behind the
+     * primary, but it always sees the caller's own earlier writes.
+     *
+     * @return Open connection
+     * @throws SQLException if no connection can be obtained
+     */
+    default Connection getReadConnection() throws SQLException {
+        return getConnection();
+    }
+}
@@ -1,23 +1,41 @@
 package com.restaurant.database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Manages database connections to MySQL
  * 
  * This class provides a singleton connection manager for the MySQL database.
  * It handles connection creation, closing, and error handling.
+ *
+ * Connections come from a small pool, so several threads (e.g. the UI and the
+ * HTTP service) can use the database at the same time. Callers must close the
+ * connections they get; closing returns them to the pool.
+ *
+ * Read replicas are configured with system properties:
+ *
+ *   -Drestaurant.db.replicas=jdbc:mysql://replica1:3306/restaurant_db,jdbc:mysql://replica2:3306/restaurant_db
+ *   -Drestaurant.db.max-replica-lag=5000   (milliseconds, optional)
+ *
+ * With replicas, {@link #getReadConnection()} is routed by a
+ * {@link ReplicaRouter}; without, all connections come from the primary.
  */
-public class DatabaseConnection {
+public class DatabaseConnection implements ConnectionProvider {
     // Database configuration - Update these values according to your MySQL setup
     private static final String DB_URL = "jdbc:mysql://localhost:3306/restaurant_db";
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = "root";  // Change this to your MySQL password
+    private static final int POOL_SIZE = 10;
+    private static final long BORROW_TIMEOUT_MILLIS = 5_000;
+    private static final String REPLICAS_PROPERTY = "restaurant.db.replicas";
+    private static final String MAX_REPLICA_LAG_PROPERTY = "restaurant.db.max-replica-lag";
     
     private static DatabaseConnection instance;
-    private Connection connection;
+    private final ConnectionPool pool;
+    private final ReplicaRouter router;
 
     /**
      * Private constructor for singleton pattern
@@ -30,6 +48,32 @@ public class DatabaseConnection {
             System.err.println("MySQL JDBC Driver not found!");
             e.printStackTrace();
         }
+        pool = new ConnectionPool(DB_URL, DB_USER, DB_PASSWORD, POOL_SIZE, BORROW_TIMEOUT_MILLIS);
+        router = createRouter(pool);
+    }
+
+    private static ReplicaRouter createRouter(ConnectionPool primary) {
+        String urls = System.getProperty(REPLICAS_PROPERTY, "").trim();
+        if (urls.isEmpty()) {
+            return null;
+        }
+        List<ReplicaRouter.Replica> replicas = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (!url.isBlank()) {
+                replicas.add(new ReplicaRouter.Replica(url.trim(), new ConnectionPool(url.trim(), DB_USER, DB_PASSWORD,
+                    POOL_SIZE, BORROW_TIMEOUT_MILLIS)));
+            }
+        }
+        long maxLag = ReplicaRouter.DEFAULT_MAX_LAG_MILLIS;
+        String lag = System.getProperty(MAX_REPLICA_LAG_PROPERTY);
+        if (lag != null) {
+            try {
+                maxLag = Long.parseLong(lag.trim());
+            } catch (NumberFormatException e) {
+                System.err.println("Ignoring invalid " + MAX_REPLICA_LAG_PROPERTY + ": " + lag);
+            }
+        }
+        return new ReplicaRouter(primary, replicas, maxLag, ReplicaRouter.DEFAULT_CHECK_INTERVAL_MILLIS);
     }
 
     /**
@@ -45,29 +89,44 @@ public class DatabaseConnection {
     }
 
     /**
-     * Gets a database connection
+     * Gets a database connection from the pool
      * 
-     * @return Connection object
+     * @return Connection object; close it to return it to the pool
      * @throws SQLException if connection fails
      */
+    @Override
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
-        }
-        return connection;
+        return router != null ? router.getConnection() : pool.borrow();
     }
 
     /**
-     * Closes the database connection
+     * Gets a connection for read-only queries, from a replica if one is up to date
+     *
+     * @return Connection object; close it to return it to the pool
+     * @throws SQLException if connection fails
+     */
+    @Override
+    public Connection getReadConnection() throws SQLException {
+        return router != null ? router.getReadConnection() : pool.borrow();
+    }
+
+    /**
+     * Gets the replica router
+     *
+     * @return Router, or null if no replicas are configured
+     */
+    public ReplicaRouter getReplicaRouter() {
+        return router;
+    }
+
+    /**
+     * Closes all pooled database connections
      */
     public void closeConnection() {
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+        if (router != null) {
+            router.close();
         }
+        pool.close();
     }
 
     /**
@@ -76,8 +135,7 @@ public class DatabaseConnection {
      * @return true if connection is successful, false otherwise
      */
     public boolean testConnection() {
-        try {
-            Connection conn = getConnection();
+        try (Connection conn = getConnection()) {
             return conn != null && !conn.isClosed();
         } catch (SQLException e) {
             System.err.println("Database connection test failed: " + e.getMessage());
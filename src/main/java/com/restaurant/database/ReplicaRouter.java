@@ -0,0 +1,332 @@
+package com.restaurant.database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends writes to the primary database and read-only queries to replicas
+ *
+ * A background monitor asks every replica for its replication lag (SHOW
+ * REPLICA STATUS, or SHOW SLAVE STATUS on servers before MySQL 8.0.22).
+ * From the lag it knows up to which point in time a replica has applied the
+ * primary's changes. A read goes to a replica (round robin) only if
+ *
+ *   - the replica answered the last check and is replicating,
+ *   - its lag is at most the configured maximum, and
+ *   - it has applied everything up to the current session's last write
+ *     (read-your-writes).
+ *
+ * Otherwise, and whenever a replica connection cannot be obtained, the
+ * read falls back to the primary. Every connection taken from the primary
+ * counts as a write of the session when it is closed. The lag is reported
+ * in whole seconds, so a replica is assumed to be up to one more second
+ * behind than reported.
+ *
+ * The session is per thread unless the caller binds a {@link Session} of its
+ * own, e.g. one per client.
+ */
+public class ReplicaRouter implements ConnectionProvider, AutoCloseable {
+    /** Default maximum lag for a replica to serve reads */
+    public static final long DEFAULT_MAX_LAG_MILLIS = 5_000;
+    /** Default interval between lag checks */
+    public static final long DEFAULT_CHECK_INTERVAL_MILLIS = 1_000;
+
+    /**
+     * A client whose writes its later reads must see
+     */
+    public static final class Session {
+        private volatile long lastWriteMillis = Long.MIN_VALUE;
+
+        /**
+         * Gets the time the session last released a primary connection
+         *
+         * @return Epoch milliseconds, or Long.MIN_VALUE if it never wrote
+         */
+        public long getLastWriteMillis() {
+            return lastWriteMillis;
+        }
+    }
+
+    /**
+     * A replica and what the last lag check found
+     */
+    public static final class Replica {
+        private final String name;
+        private final ConnectionPool pool;
+        private volatile boolean healthy;
+        private volatile long lagMillis = -1;
+        private volatile long caughtUpToMillis = Long.MIN_VALUE;
+        private volatile String problem = "not checked yet";
+        private volatile boolean legacyStatusSyntax;
+        private final AtomicLong reads = new AtomicLong();
+
+        /**
+         * Creates a replica
+         *
+         * @param name Name used in status output
+         * @param pool Connection pool of the replica
+         */
+        public Replica(String name, ConnectionPool pool) {
+            this.name = name;
+            this.pool = pool;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Whether the last check reached the replica and found replication running
+         *
+         * @return true if healthy
+         */
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        /**
+         * Gets the lag found by the last check
+         *
+         * @return Lag in milliseconds, or -1 if unknown
+         */
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        /**
+         * Gets the reason the replica is not healthy
+         *
+         * @return Problem description, or null if healthy
+         */
+        public String getProblem() {
+            return problem;
+        }
+
+        /**
+         * Gets the number of reads the replica served
+         *
+         * @return Read count
+         */
+        public long getReads() {
+            return reads.get();
+        }
+    }
+
+    private final ConnectionPool primary;
+    private final List<Replica> replicas;
+    private final long maxLagMillis;
+    private final ThreadLocal<Session> sessions = ThreadLocal.withInitial(Session::new);
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a router and starts checking the replicas
+     *
+     * @param primary Connection pool of the primary
+     * @param replicas Replicas that may serve reads
+     * @param maxLagMillis Maximum lag for a replica to serve reads
+     * @param checkIntervalMillis Interval between lag checks
+     */
+    public ReplicaRouter(ConnectionPool primary, List<Replica> replicas, long maxLagMillis, long checkIntervalMillis) {
+        this.primary = primary;
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.maxLagMillis = maxLagMillis;
+        monitor.scheduleWithFixedDelay(this::checkReplicas, 0, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets a primary connection; closing it marks a write of the current session
+     *
+     * @return Open connection to the primary
+     * @throws SQLException if no connection can be obtained
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        Session session = sessions.get();
+        Connection pooled = primary.borrow();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    session.lastWriteMillis = System.currentTimeMillis();
+                }
+                try {
+                    return method.invoke(pooled, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    /**
+     * Gets a connection to an up-to-date replica, or to the primary if there is none
+     *
+     * @return Open connection
+     * @throws SQLException if no connection can be obtained
+     */
+    @Override
+    public Connection getReadConnection() throws SQLException {
+        long lastWrite = sessions.get().lastWriteMillis;
+        int count = replicas.size();
+        int start = count > 0 ? Math.floorMod(nextReplica.getAndIncrement(), count) : 0;
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (!replica.healthy || replica.lagMillis > maxLagMillis || replica.caughtUpToMillis < lastWrite) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.borrow();
+                try {
+                    // Guards against a write sent to a replica by mistake; the pool resets the flag
+                    connection.setReadOnly(true);
+                } catch (SQLException e) {
+                    // Gives the permit back; a broken connection is discarded by the pool
+                    connection.close();
+                    throw e;
+                }
+                replica.reads.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                replica.healthy = false;
+                replica.problem = e.getMessage();
+                System.err.println("Replica " + replica.name + " unavailable, reading from primary: " + e.getMessage());
+            }
+        }
+        primaryReads.incrementAndGet();
+        // A fallback read is not a write, so it bypasses the write tracking of getConnection()
+        return primary.borrow();
+    }
+
+    /**
+     * Gets the session of the current thread
+     *
+     * @return Session
+     */
+    public Session currentSession() {
+        return sessions.get();
+    }
+
+    /**
+     * Makes the current thread act for a session, e.g. the client of a request
+     *
+     * @param session Session to use, or null for a new session of this thread
+     */
+    public void bindSession(Session session) {
+        if (session == null) {
+            sessions.remove();
+        } else {
+            sessions.set(session);
+        }
+    }
+
+    /**
+     * Gets the replicas with their last check results
+     *
+     * @return Replicas
+     */
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Gets the number of reads that went to the primary
+     *
+     * @return Read count
+     */
+    public long getPrimaryReads() {
+        return primaryReads.get();
+    }
+
+    /**
+     * Runs a lag check of all replicas now and waits for it
+     */
+    public void checkNow() {
+        try {
+            monitor.submit(this::checkReplicas).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Replica check failed: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Stops the monitor and closes the replica pools (the primary pool is left open)
+     */
+    @Override
+    public void close() {
+        monitor.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            long checkedAt = System.currentTimeMillis();
+            try (Connection connection = replica.pool.borrow()) {
+                Long lagSeconds = readLagSeconds(replica, connection);
+                if (lagSeconds == null) {
+                    replica.healthy = false;
+                    replica.lagMillis = -1;
+                    replica.problem = "replication is not running";
+                } else {
+                    // Whole seconds: the replica may be up to a second further behind
+                    long lag = (lagSeconds + 1) * 1000;
+                    replica.lagMillis = lag;
+                    replica.caughtUpToMillis = checkedAt - lag;
+                    replica.problem = null;
+                    replica.healthy = true;
+                }
+            } catch (SQLException e) {
+                replica.healthy = false;
+                replica.lagMillis = -1;
+                replica.problem = e.getMessage();
+            }
+        }
+    }
+
+    private static Long readLagSeconds(Replica replica, Connection connection) throws SQLException {
+        if (!replica.legacyStatusSyntax) {
+            try {
+                return readLagSeconds(connection, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                // MySQL before 8.0.22 (syntax error, SQLState 42000) only knows the old names
+                if (!"42000".equals(e.getSQLState())) {
+                    throw e;
+                }
+                replica.legacyStatusSyntax = true;
+            }
+        }
+        return readLagSeconds(connection, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+    }
+
+    private static Long readLagSeconds(Connection connection, String sql, String column) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (!rs.next()) {
+                // Not configured as a replica
+                return null;
+            }
+            long lag = rs.getLong(column);
+            return rs.wasNull() ? null : lag;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.restaurant.database;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * A set of databases (shards) that each hold the orders of some branches
+ *
+ * Every shard has the full schema and its own connection pool. A branch
+ * is stored in exactly one shard, chosen by the branch key: branches listed
+ * for a shard go there, any other branch goes to shard (branchId mod number
+ * of shards). List branches explicitly in production; the modulo fallback
+ * moves branches when a shard is added.
+ *
+ * Configuration is a properties file:
+ *
+ *   shards=north,south
+ *   shard.north.url=jdbc:mysql://localhost:3306/restaurant_db
+ *   shard.north.user=root
+ *   shard.north.password=root
+ *   shard.north.pool-size=10
+ *   shard.north.branches=1,2,3
+ *   shard.south.url=jdbc:mysql://localhost:3307/restaurant_db
+ *   ...
+ *
+ * Shards can be separate MySQL instances or schemas of one instance; any
+ * JDBC URL whose driver is on the classpath works, so an embedded database
+ * can stand in for MySQL in tests.
+ */
+public class ShardedDatabase implements AutoCloseable {
+    private static final int DEFAULT_POOL_SIZE = 10;
+    private static final long BORROW_TIMEOUT_MILLIS = 5_000;
+
+    /**
+     * One database of the set
+     */
+    public static final class Shard implements ConnectionProvider {
+        private final String name;
+        private final String url;
+        private final ConnectionPool pool;
+
+        Shard(String name, String url, ConnectionPool pool) {
+            this.name = name;
+            this.url = url;
+            this.pool = pool;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return pool.borrow();
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + url + ")";
+        }
+    }
+
+    private final List<Shard> shards;
+    private final Map<Integer, Shard> branchShards;
+
+    private ShardedDatabase(List<Shard> shards, Map<Integer, Shard> branchShards) {
+        this.shards = Collections.unmodifiableList(shards);
+        this.branchShards = branchShards;
+    }
+
+    /**
+     * Reads the shard configuration from a properties file
+     *
+     * @param file Properties file (see class documentation)
+     * @return Sharded database; connections are opened lazily
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public static ShardedDatabase load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Creates the shards described by properties
+     *
+     * @param properties Shard configuration (see class documentation)
+     * @return Sharded database; connections are opened lazily
+     * @throws IllegalArgumentException if the configuration is invalid
+     */
+    public static ShardedDatabase fromProperties(Properties properties) {
+        String names = properties.getProperty("shards", "").trim();
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("No shards configured (property 'shards')");
+        }
+        List<Shard> shards = new ArrayList<>();
+        Map<Integer, Shard> branchShards = new HashMap<>();
+        for (String rawName : names.split(",")) {
+            String name = rawName.trim();
+            String prefix = "shard." + name + ".";
+            String url = properties.getProperty(prefix + "url");
+            if (url == null || url.isBlank()) {
+                throw new IllegalArgumentException("Missing " + prefix + "url");
+            }
+            int poolSize = parseInt(properties.getProperty(prefix + "pool-size"), DEFAULT_POOL_SIZE, prefix + "pool-size");
+            Shard shard = new Shard(name, url, new ConnectionPool(url,
+                properties.getProperty(prefix + "user", ""),
+                properties.getProperty(prefix + "password", ""),
+                poolSize, BORROW_TIMEOUT_MILLIS));
+            shards.add(shard);
+
+            String branches = properties.getProperty(prefix + "branches", "").trim();
+            if (!branches.isEmpty()) {
+                for (String branch : branches.split(",")) {
+                    int branchId = parseInt(branch.trim(), 0, prefix + "branches");
+                    Shard previous = branchShards.put(branchId, shard);
+                    if (previous != null) {
+                        throw new IllegalArgumentException("Branch " + branchId + " is listed for shards "
+                                                           + previous.getName() + " and " + name);
+                    }
+                }
+            }
+        }
+        return new ShardedDatabase(shards, branchShards);
+    }
+
+    private static int parseInt(String value, int defaultValue, String property) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(property + " must be a number, got '" + value + "'");
+        }
+    }
+
+    /**
+     * Gets the shard that stores a branch
+     *
+     * @param branchId Branch key
+     * @return Shard of the branch
+     */
+    public Shard shardFor(int branchId) {
+        Shard shard = branchShards.get(branchId);
+        return shard != null ? shard : shards.get(Math.floorMod(branchId, shards.size()));
+    }
+
+    /**
+     * Gets all shards in configuration order
+     *
+     * @return Shards
+     */
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    /**
+     * Closes the connection pools of all shards
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards) {
+            shard.pool.close();
+        }
+    }
+}
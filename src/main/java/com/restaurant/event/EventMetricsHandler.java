@@ -0,0 +1,68 @@
+package com.restaurant.event;
+
+import com.restaurant.model.Order;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Handler that counts lifecycle events per target status
+ *
+ * Counters are only written by the handler thread and can be read from any
+ * thread, e.g. to report them through the HTTP service.
+ */
+public class EventMetricsHandler implements OrderEventHandler {
+    private final AtomicLongArray countsByStatus = new AtomicLongArray(Order.OrderStatus.values().length);
+    private final long startedAtNanos = System.nanoTime();
+    private volatile long eventCount;
+    private volatile long batchCount;
+    private volatile long lastSequence = -1;
+
+    @Override
+    public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+        countsByStatus.lazySet(event.getNewStatus().ordinal(), countsByStatus.get(event.getNewStatus().ordinal()) + 1);
+        if (endOfBatch) {
+            // Publishing the totals once per batch keeps the volatile writes off the per-event path
+            eventCount += sequence - lastSequence;
+            batchCount++;
+            lastSequence = sequence;
+        }
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Gets the number of events that moved an order into the given status
+     *
+     * @param status Target status
+     * @return Event count
+     */
+    public long getCount(Order.OrderStatus status) {
+        return countsByStatus.get(status.ordinal());
+    }
+
+    /**
+     * Gets the average number of events handled per second since creation
+     *
+     * @return Events per second
+     */
+    public double getEventsPerSecond() {
+        double seconds = (System.nanoTime() - startedAtNanos) / 1e9;
+        return seconds > 0 ? eventCount / seconds : 0.0;
+    }
+
+    /**
+     * Gets the average number of events per batch
+     *
+     * @return Average batch size
+     */
+    public double getAverageBatchSize() {
+        long batches = batchCount;
+        return batches > 0 ? eventCount / (double) batches : 0.0;
+    }
+}
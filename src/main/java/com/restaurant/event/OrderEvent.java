@@ -0,0 +1,51 @@
+package com.restaurant.event;
+
+import com.restaurant.model.Order;
+
+/**
+ * Order lifecycle event stored in a slot of the {@link OrderEventRing}
+ *
+ * Event objects are allocated once when the ring is created and are reused
+ * for every event that passes through their slot. A slot is not reused
+ * before the handler has finished the batch it belongs to; handlers must copy
+ * any value they want to keep longer than that.
+ */
+public class OrderEvent {
+    private int orderId;
+    private Order.OrderStatus previousStatus;
+    private Order.OrderStatus newStatus;
+    private long timestampMillis;
+
+    void set(int orderId, Order.OrderStatus previousStatus, Order.OrderStatus newStatus, long timestampMillis) {
+        this.orderId = orderId;
+        this.previousStatus = previousStatus;
+        this.newStatus = newStatus;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public int getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Gets the status before the transition
+     *
+     * @return Previous status, or null if unknown (e.g. for newly created orders)
+     */
+    public Order.OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public Order.OrderStatus getNewStatus() {
+        return newStatus;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Order %d: %s -> %s", orderId, previousStatus, newStatus);
+    }
+}
@@ -0,0 +1,26 @@
+package com.restaurant.event;
+
+/**
+ * Consumer of order lifecycle events
+ *
+ * Each handler registered with an {@link OrderEventRing} runs on its own
+ * thread and sees every event exactly once, in publication order. Handlers
+ * are independent of each other: a slow handler only holds back the
+ * publisher once the ring is full, never the other handlers.
+ */
+public interface OrderEventHandler {
+    /**
+     * Called for every published event
+     *
+     * Events that were already available when the handler woke up are
+     * delivered as one batch; endOfBatch is true for the last event of the
+     * batch. Handlers that write to slow resources (database, UI) should
+     * collect events and flush when endOfBatch is true.
+     *
+     * @param event Event in the ring slot (reused after this call returns)
+     * @param sequence Sequence number of the event
+     * @param endOfBatch Whether this is the last event currently available
+     * @throws Exception if handling fails; the error is logged and processing continues
+     */
+    void onEvent(OrderEvent event, long sequence, boolean endOfBatch) throws Exception;
+}
@@ -0,0 +1,324 @@
+package com.restaurant.event;
+
+import com.restaurant.model.Order;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free ring buffer that distributes order lifecycle events to handlers
+ *
+ * Events are written into preallocated slots of a power-of-two sized array
+ * and identified by an ever increasing sequence number. Publishing never
+ * takes a lock:
+ *
+ * - SINGLE producer mode: one thread owns the sequence counter and publishes
+ *   by writing the slot and then advancing the cursor (single-writer
+ *   sequencing, no CAS at all).
+ * - MULTI producer mode: threads claim sequences with a CAS on the cursor and
+ *   mark their slot as available when it is written, so handlers never see a
+ *   half-written event.
+ *
+ * Every handler runs on its own thread with its own sequence and processes
+ * all events that are available as one batch. The publisher may not overwrite
+ * a slot until every handler has moved past it; when the ring is full,
+ * {@link #publish} waits (backpressure) and {@link #tryPublish} returns -1.
+ *
+ * Usage: register handlers with {@link #addHandler}, call {@link #start},
+ * publish events, and call {@link #shutdown} to drain and stop.
+ */
+public class OrderEventRing {
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Whether one or several threads publish events
+     */
+    public enum ProducerType {
+        SINGLE,
+        MULTI
+    }
+
+    private final OrderEvent[] slots;
+    private final int mask;
+    private final int indexShift;
+    private final ProducerType producerType;
+    private final int[] availableRounds;
+    private final String name;
+
+    // SINGLE: highest published sequence; MULTI: highest claimed sequence
+    private final Sequence cursor = new Sequence(-1);
+    // Only used by the single producer thread
+    private long nextSequence = -1;
+    private long cachedGatingSequence = -1;
+    // Only used in MULTI mode; may be stale, which is safe
+    private final Sequence multiGatingCache = new Sequence(-1);
+
+    private final List<EventProcessor> processors = new ArrayList<>();
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+    private volatile boolean running;
+
+    /**
+     * Creates a ring buffer
+     *
+     * @param name Name used for handler threads
+     * @param capacity Number of slots; must be a power of two
+     * @param producerType SINGLE if exactly one thread publishes, MULTI otherwise
+     */
+    public OrderEventRing(String name, int capacity, ProducerType producerType) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two");
+        }
+        this.name = name;
+        this.slots = new OrderEvent[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new OrderEvent();
+        }
+        this.mask = capacity - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(capacity);
+        this.producerType = producerType;
+        this.availableRounds = new int[capacity];
+        for (int i = 0; i < capacity; i++) {
+            availableRounds[i] = -1;
+        }
+    }
+
+    /**
+     * Registers a handler; must be called before {@link #start}
+     *
+     * @param handler Handler to add
+     */
+    public synchronized void addHandler(OrderEventHandler handler) {
+        if (running) {
+            throw new IllegalStateException("Handlers must be added before the ring is started");
+        }
+        processors.add(new EventProcessor(handler));
+    }
+
+    /**
+     * Starts one thread per registered handler
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        Sequence[] gating = new Sequence[processors.size()];
+        for (int i = 0; i < gating.length; i++) {
+            gating[i] = processors.get(i).sequence;
+        }
+        gatingSequences = gating;
+        running = true;
+        int index = 0;
+        for (EventProcessor processor : processors) {
+            Thread thread = new Thread(processor, name + "-handler-" + (index++));
+            thread.setDaemon(true);
+            processor.thread = thread;
+            thread.start();
+        }
+    }
+
+    /**
+     * Publishes an event, waiting while the ring is full
+     *
+     * @param orderId ID of the order
+     * @param previousStatus Status before the transition (null if unknown)
+     * @param newStatus Status after the transition
+     * @return Sequence number of the event
+     */
+    public long publish(int orderId, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+        long sequence = producerType == ProducerType.SINGLE ? claimSingle(true) : claimMulti(true);
+        write(sequence, orderId, previousStatus, newStatus);
+        return sequence;
+    }
+
+    /**
+     * Publishes an event unless the ring is full
+     *
+     * @param orderId ID of the order
+     * @param previousStatus Status before the transition (null if unknown)
+     * @param newStatus Status after the transition
+     * @return Sequence number of the event, or -1 if the ring is full
+     */
+    public long tryPublish(int orderId, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+        long sequence = producerType == ProducerType.SINGLE ? claimSingle(false) : claimMulti(false);
+        if (sequence >= 0) {
+            write(sequence, orderId, previousStatus, newStatus);
+        }
+        return sequence;
+    }
+
+    private void write(long sequence, int orderId, Order.OrderStatus previousStatus, Order.OrderStatus newStatus) {
+        slots[(int) sequence & mask].set(orderId, previousStatus, newStatus, System.currentTimeMillis());
+        if (producerType == ProducerType.SINGLE) {
+            cursor.set(sequence);
+        } else {
+            AVAILABLE.setRelease(availableRounds, (int) sequence & mask, (int) (sequence >>> indexShift));
+        }
+    }
+
+    private long claimSingle(boolean wait) {
+        long next = nextSequence + 1;
+        long wrapPoint = next - slots.length;
+        if (wrapPoint > cachedGatingSequence) {
+            long minimum;
+            int attempt = 0;
+            while (wrapPoint > (minimum = minimumGatingSequence(nextSequence))) {
+                if (!wait) {
+                    return -1;
+                }
+                backOff(attempt++);
+            }
+            cachedGatingSequence = minimum;
+        }
+        nextSequence = next;
+        return next;
+    }
+
+    private long claimMulti(boolean wait) {
+        int attempt = 0;
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - slots.length;
+            long cachedGating = multiGatingCache.get();
+
+            if (wrapPoint > cachedGating) {
+                long minimum = minimumGatingSequence(current);
+                if (wrapPoint > minimum) {
+                    if (!wait) {
+                        return -1;
+                    }
+                    backOff(attempt++);
+                    continue;
+                }
+                multiGatingCache.set(minimum);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long minimumGatingSequence(long defaultValue) {
+        long minimum = defaultValue;
+        for (Sequence sequence : gatingSequences) {
+            minimum = Math.min(minimum, sequence.get());
+        }
+        return minimum;
+    }
+
+    /**
+     * Highest sequence up to which all events are published
+     */
+    private long highestPublished(long lowerBound, long upperBound) {
+        if (producerType == ProducerType.SINGLE) {
+            return upperBound;
+        }
+        for (long sequence = lowerBound; sequence <= upperBound; sequence++) {
+            int round = (int) AVAILABLE.getAcquire(availableRounds, (int) sequence & mask);
+            if (round != (int) (sequence >>> indexShift)) {
+                return sequence - 1;
+            }
+        }
+        return upperBound;
+    }
+
+    private static void backOff(int attempt) {
+        if (attempt < SPIN_TRIES) {
+            Thread.onSpinWait();
+        } else if (attempt < SPIN_TRIES + YIELD_TRIES) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /**
+     * Gets the number of events published but not yet seen by the slowest handler
+     *
+     * @return Backlog of the slowest handler
+     */
+    public long getBacklog() {
+        long published = cursor.get();
+        return published - minimumGatingSequence(published);
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Waits until every handler has processed all published events, then stops the handler threads
+     *
+     * @param timeoutMillis Maximum time to wait for the handlers to catch up
+     * @return true if all events were processed before the timeout
+     */
+    public boolean shutdown(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        long published = cursor.get();
+        boolean drained = true;
+        int attempt = 0;
+        while (minimumGatingSequence(published) < published) {
+            if (System.currentTimeMillis() > deadline) {
+                drained = false;
+                break;
+            }
+            backOff(attempt++);
+        }
+        running = false;
+        synchronized (this) {
+            for (EventProcessor processor : processors) {
+                if (processor.thread != null) {
+                    LockSupport.unpark(processor.thread);
+                }
+            }
+        }
+        return drained;
+    }
+
+    /**
+     * Runs one handler: waits for new events and hands them over in batches
+     */
+    private class EventProcessor implements Runnable {
+        private final OrderEventHandler handler;
+        private final Sequence sequence = new Sequence(-1);
+        private volatile Thread thread;
+
+        EventProcessor(OrderEventHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.get() + 1;
+            int attempt = 0;
+            while (running) {
+                long claimed = cursor.get();
+                long available = claimed < next ? claimed : highestPublished(next, claimed);
+                if (available < next) {
+                    backOff(attempt++);
+                    continue;
+                }
+                attempt = 0;
+
+                for (long current = next; current <= available; current++) {
+                    try {
+                        handler.onEvent(slots[(int) current & mask], current, current == available);
+                    } catch (Exception e) {
+                        System.err.println("Order event handler " + handler.getClass().getSimpleName()
+                                           + " failed on event " + current + ": " + e.getMessage());
+                        e.printStackTrace();
+                    }
+                }
+                // Releasing the slots only after the whole batch lets the handler keep references until endOfBatch
+                sequence.set(available);
+                next = available + 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.restaurant.forecast;
+
+import com.restaurant.model.Order;
+import com.restaurant.model.OrderItem;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rolling forecast of order arrivals, kitchen work and item mix per quarter hour
+ *
+ * Orders are counted in 15-minute buckets. When a bucket is over, its
+ * counts are folded into a weekly profile with one slot per weekday and
+ * quarter hour (Tuesday 19:15-19:30 is one slot): an exponentially weighted
+ * moving average of the arrivals, the estimated preparation minutes, the
+ * mix of preparation times and priorities, and the quantity of every item.
+ * The first observation of a slot initialises it. A level factor tracks how
+ * busy the recent buckets were compared to their profile (a rainy Friday),
+ * and is applied to the next buckets with a decaying weight.
+ *
+ * Recording an order is O(1) (plus its items); each 15-minute bucket is
+ * folded once when the first order or {@link #advanceTo} after it arrives,
+ * at a cost bounded by the number of distinct items of its slot. Orders are
+ * expected in creation order, as from {@link com.restaurant.dao.OrderDAO#streamOrders}
+ * followed by live orders; an order older than the open bucket is counted
+ * in the open bucket. Thread-safe.
+ */
+public class ArrivalForecaster {
+    /** Length of a bucket */
+    public static final int BUCKET_MINUTES = 15;
+    /** Default weight of the newest week in the profile */
+    public static final double DEFAULT_ALPHA = 0.3;
+
+    static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+    static final int SLOTS = 7 * BUCKETS_PER_DAY;
+    /** Preparation time classes of 5 minutes; the last one is open-ended */
+    static final int PREP_CLASSES = 12;
+    static final int PRIORITIES = 10;
+
+    private static final long BUCKET_SECONDS = BUCKET_MINUTES * 60L;
+    /** Weight of the newest bucket in the level factor */
+    private static final double LEVEL_BETA = 0.1;
+    /** Share of the level deviation kept per bucket of the forecast horizon */
+    private static final double LEVEL_DAMPING = 0.9;
+
+    /**
+     * Expected load of one bucket
+     */
+    public static final class Bucket {
+        private final LocalDateTime start;
+        private final double arrivals;
+        private final double workMinutes;
+        private final double[] prepMix;
+        private final double[] priorityMix;
+        private final Map<String, Double> items;
+
+        Bucket(LocalDateTime start, double arrivals, double workMinutes, double[] prepMix, double[] priorityMix,
+               Map<String, Double> items) {
+            this.start = start;
+            this.arrivals = arrivals;
+            this.workMinutes = workMinutes;
+            this.prepMix = prepMix;
+            this.priorityMix = priorityMix;
+            this.items = items;
+        }
+
+        public LocalDateTime getStart() {
+            return start;
+        }
+
+        /**
+         * Gets the expected number of new orders
+         *
+         * @return Expected arrivals
+         */
+        public double getArrivals() {
+            return arrivals;
+        }
+
+        /**
+         * Gets the expected sum of estimated preparation minutes of the new orders
+         *
+         * @return Expected kitchen work in minutes
+         */
+        public double getWorkMinutes() {
+            return workMinutes;
+        }
+
+        /**
+         * Gets the expected quantity per item, most ordered first
+         *
+         * @return Item name to expected quantity
+         */
+        public Map<String, Double> getItems() {
+            return items;
+        }
+
+        /** Expected orders per 5-minute preparation time class */
+        double[] getPrepMix() {
+            return prepMix;
+        }
+
+        /** Expected orders per priority (index 0 = priority 1) */
+        double[] getPriorityMix() {
+            return priorityMix;
+        }
+    }
+
+    private final double alpha;
+
+    // Weekly profile
+    private final double[] arrivals = new double[SLOTS];
+    private final double[] work = new double[SLOTS];
+    private final double[][] prepMix = new double[SLOTS][PREP_CLASSES];
+    private final double[][] priorityMix = new double[SLOTS][PRIORITIES];
+    private final boolean[] observed = new boolean[SLOTS];
+    private final List<Map<String, Double>> itemMix = new ArrayList<>(SLOTS);
+    private final boolean[] itemsObserved = new boolean[SLOTS];
+    private double level = 1.0;
+
+    // Open order bucket
+    private long bucket = Long.MIN_VALUE;
+    private int bucketArrivals;
+    private long bucketWork;
+    private final int[] bucketPrep = new int[PREP_CLASSES];
+    private final int[] bucketPriority = new int[PRIORITIES];
+
+    // Open item bucket; items may be recorded separately from their orders
+    private long itemBucket = Long.MIN_VALUE;
+    private final Map<String, Integer> bucketItems = new HashMap<>();
+
+    private long recordedOrders;
+
+    /**
+     * Creates a forecaster with {@link #DEFAULT_ALPHA}
+     */
+    public ArrivalForecaster() {
+        this(DEFAULT_ALPHA);
+    }
+
+    /**
+     * Creates a forecaster
+     *
+     * @param alpha Weight of the newest week in the profile (0 &lt; alpha &lt;= 1)
+     */
+    public ArrivalForecaster(double alpha) {
+        if (!(alpha > 0 && alpha <= 1)) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]");
+        }
+        this.alpha = alpha;
+        for (int i = 0; i < SLOTS; i++) {
+            itemMix.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Records a new order and, if loaded, its items
+     *
+     * @param order Order with a creation time; orders without one are ignored
+     */
+    public synchronized void record(Order order) {
+        LocalDateTime createdAt = order.getCreatedAt();
+        if (createdAt == null) {
+            return;
+        }
+        closeOrdersThrough(bucketOf(createdAt));
+        bucketArrivals++;
+        bucketWork += Math.max(0, order.getEstimatedTime());
+        bucketPrep[prepClass(order.getEstimatedTime())]++;
+        bucketPriority[Math.min(PRIORITIES, Math.max(1, order.getPriority())) - 1]++;
+        recordedOrders++;
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                recordItem(createdAt, item.getItemName(), item.getQuantity());
+            }
+        }
+    }
+
+    /**
+     * Records an ordered item, e.g. while reading the item history separately from the orders
+     *
+     * @param orderedAt Creation time of its order
+     * @param name Item name
+     * @param quantity Quantity ordered
+     */
+    public synchronized void recordItem(LocalDateTime orderedAt, String name, int quantity) {
+        if (orderedAt == null || name == null) {
+            return;
+        }
+        closeItemsThrough(bucketOf(orderedAt));
+        bucketItems.merge(name, quantity, Integer::sum);
+    }
+
+    /**
+     * Closes all buckets before a point in time, also if no order came in since
+     *
+     * Call before forecasting, so quiet periods lower the level as well.
+     *
+     * @param now Current time
+     */
+    public synchronized void advanceTo(LocalDateTime now) {
+        long current = bucketOf(now);
+        closeOrdersThrough(current);
+        closeItemsThrough(current);
+    }
+
+    /**
+     * Forecasts the next buckets
+     *
+     * @param from Start of the forecast; rounded down to a bucket boundary
+     * @param buckets Number of buckets to forecast
+     * @return One forecast per bucket
+     */
+    public synchronized List<Bucket> forecast(LocalDateTime from, int buckets) {
+        long first = bucketOf(from);
+        List<Bucket> forecast = new ArrayList<>(buckets);
+        double deviation = level - 1;
+        for (int h = 0; h < buckets; h++) {
+            deviation *= LEVEL_DAMPING;
+            double factor = Math.max(0, 1 + deviation);
+            LocalDateTime start = startOf(first + h);
+            int slot = slotOf(start);
+
+            double[] prep = new double[PREP_CLASSES];
+            for (int c = 0; c < PREP_CLASSES; c++) {
+                prep[c] = prepMix[slot][c] * factor;
+            }
+            double[] priority = new double[PRIORITIES];
+            for (int p = 0; p < PRIORITIES; p++) {
+                priority[p] = priorityMix[slot][p] * factor;
+            }
+            List<Map.Entry<String, Double>> items = new ArrayList<>(itemMix.get(slot).entrySet());
+            items.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+            Map<String, Double> expectedItems = new LinkedHashMap<>();
+            for (Map.Entry<String, Double> item : items) {
+                expectedItems.put(item.getKey(), item.getValue() * factor);
+            }
+            forecast.add(new Bucket(start, arrivals[slot] * factor, work[slot] * factor, prep, priority,
+                Collections.unmodifiableMap(expectedItems)));
+        }
+        return forecast;
+    }
+
+    /**
+     * Gets how busy recent buckets were compared to their profile
+     *
+     * @return Level factor; 1 = as usual
+     */
+    public synchronized double getLevel() {
+        return level;
+    }
+
+    public synchronized long getRecordedOrders() {
+        return recordedOrders;
+    }
+
+    private void closeOrdersThrough(long target) {
+        if (bucket == Long.MIN_VALUE) {
+            bucket = target;
+            return;
+        }
+        if (target <= bucket) {
+            return;
+        }
+        foldOrders(bucket);
+        // After a long gap only the last week of empty buckets matters; each slot is folded once
+        long next = Math.max(bucket + 1, target - SLOTS);
+        for (long b = next; b < target; b++) {
+            foldOrders(b);
+        }
+        bucket = target;
+    }
+
+    private void foldOrders(long closed) {
+        int slot = slotOf(startOf(closed));
+        if (observed[slot]) {
+            level = (1 - LEVEL_BETA) * level + LEVEL_BETA * (bucketArrivals + 1) / (arrivals[slot] + 1);
+        }
+        double weight = observed[slot] ? alpha : 1;
+        arrivals[slot] += weight * (bucketArrivals - arrivals[slot]);
+        work[slot] += weight * (bucketWork - work[slot]);
+        for (int c = 0; c < PREP_CLASSES; c++) {
+            prepMix[slot][c] += weight * (bucketPrep[c] - prepMix[slot][c]);
+            bucketPrep[c] = 0;
+        }
+        for (int p = 0; p < PRIORITIES; p++) {
+            priorityMix[slot][p] += weight * (bucketPriority[p] - priorityMix[slot][p]);
+            bucketPriority[p] = 0;
+        }
+        observed[slot] = true;
+        bucketArrivals = 0;
+        bucketWork = 0;
+    }
+
+    private void closeItemsThrough(long target) {
+        if (itemBucket == Long.MIN_VALUE) {
+            itemBucket = target;
+            return;
+        }
+        if (target <= itemBucket) {
+            return;
+        }
+        foldItems(itemBucket);
+        long next = Math.max(itemBucket + 1, target - SLOTS);
+        for (long b = next; b < target; b++) {
+            foldItems(b);
+        }
+        itemBucket = target;
+    }
+
+    private void foldItems(long closed) {
+        int slot = slotOf(startOf(closed));
+        Map<String, Double> mix = itemMix.get(slot);
+        if (itemsObserved[slot]) {
+            mix.replaceAll((name, quantity) -> quantity * (1 - alpha));
+            for (Map.Entry<String, Integer> item : bucketItems.entrySet()) {
+                mix.merge(item.getKey(), alpha * item.getValue(), Double::sum);
+            }
+            // Items nobody orders any more fade out instead of piling up
+            mix.values().removeIf(quantity -> quantity < 0.01);
+        } else {
+            for (Map.Entry<String, Integer> item : bucketItems.entrySet()) {
+                mix.put(item.getKey(), item.getValue().doubleValue());
+            }
+            itemsObserved[slot] = true;
+        }
+        bucketItems.clear();
+    }
+
+    static long bucketOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), BUCKET_SECONDS);
+    }
+
+    static LocalDateTime startOf(long bucket) {
+        return LocalDateTime.ofEpochSecond(bucket * BUCKET_SECONDS, 0, ZoneOffset.UTC);
+    }
+
+    private static int slotOf(LocalDateTime start) {
+        return (start.getDayOfWeek().getValue() - 1) * BUCKETS_PER_DAY
+               + (start.getHour() * 60 + start.getMinute()) / BUCKET_MINUTES;
+    }
+
+    static int prepClass(int estimatedMinutes) {
+        return Math.min(PREP_CLASSES - 1, Math.max(0, estimatedMinutes) / 5);
+    }
+}
@@ -0,0 +1,240 @@
+package com.restaurant.forecast;
+
+import com.restaurant.algorithm.OnlineRescheduler;
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.model.Order;
+import com.restaurant.simulation.KitchenSimulator;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Predicts the kitchen queue of the next hours from an arrival forecast
+ *
+ * The current kitchen is the starting point: orders in PREPARING keep a
+ * chef busy for their remaining time and PENDING orders are waiting. Every
+ * forecast bucket then contributes its expected number of orders, spread
+ * evenly over the bucket, with preparation times and priorities drawn from
+ * the bucket's expected mix (fractions are carried over to the next bucket,
+ * so 0.4 expected orders per quarter hour still add up). The orders run
+ * through a {@link KitchenSimulator} with the chosen algorithm and number of
+ * chefs, which gives the queue depth at the end of every bucket and the
+ * waiting times of the predicted orders.
+ */
+public class LoadPredictor {
+
+    /**
+     * Predicted load of one bucket
+     */
+    public static final class Interval {
+        private final ArrivalForecaster.Bucket bucket;
+        private final int simulatedArrivals;
+        private final int queueDepth;
+        private final double utilization;
+
+        Interval(ArrivalForecaster.Bucket bucket, int simulatedArrivals, int queueDepth, double utilization) {
+            this.bucket = bucket;
+            this.simulatedArrivals = simulatedArrivals;
+            this.queueDepth = queueDepth;
+            this.utilization = utilization;
+        }
+
+        public ArrivalForecaster.Bucket getBucket() {
+            return bucket;
+        }
+
+        /**
+         * Gets the number of orders that arrived in the simulation (expected arrivals, rounded with carry-over)
+         *
+         * @return Simulated arrivals
+         */
+        public int getSimulatedArrivals() {
+            return simulatedArrivals;
+        }
+
+        /**
+         * Gets the number of orders waiting for a chef at the end of the bucket
+         *
+         * @return Predicted queue depth
+         */
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        /**
+         * Gets the expected new work relative to what the chefs can do in the bucket
+         *
+         * @return Work per chef capacity; above 1 the queue grows
+         */
+        public double getUtilization() {
+            return utilization;
+        }
+    }
+
+    /**
+     * Prediction for a forecast horizon
+     */
+    public static final class Prediction {
+        private final List<Interval> intervals;
+        private final double averageWaitMinutes;
+        private final int p95WaitMinutes;
+
+        Prediction(List<Interval> intervals, double averageWaitMinutes, int p95WaitMinutes) {
+            this.intervals = intervals;
+            this.averageWaitMinutes = averageWaitMinutes;
+            this.p95WaitMinutes = p95WaitMinutes;
+        }
+
+        public List<Interval> getIntervals() {
+            return intervals;
+        }
+
+        /**
+         * Gets the average wait of the current and predicted orders until a chef starts them
+         *
+         * @return Average wait in minutes
+         */
+        public double getAverageWaitMinutes() {
+            return averageWaitMinutes;
+        }
+
+        public int getP95WaitMinutes() {
+            return p95WaitMinutes;
+        }
+    }
+
+    private final SchedulingAlgorithm algorithm;
+    private final int chefs;
+
+    /**
+     * Creates a predictor
+     *
+     * @param algorithm Algorithm the kitchen uses
+     * @param chefs Number of orders prepared at the same time
+     */
+    public LoadPredictor(SchedulingAlgorithm algorithm, int chefs) {
+        if (chefs < 1) {
+            throw new IllegalArgumentException("At least one chef is required");
+        }
+        this.algorithm = algorithm;
+        this.chefs = chefs;
+    }
+
+    /**
+     * Predicts the queue over the forecast buckets
+     *
+     * @param buckets Consecutive forecast buckets, starting at or after now
+     * @param active Current PREPARING and PENDING orders
+     * @param now Current time
+     * @return Prediction with one interval per bucket
+     */
+    public Prediction predict(List<ArrivalForecaster.Bucket> buckets, List<Order> active, LocalDateTime now) {
+        KitchenSimulator kitchen = new KitchenSimulator(algorithm, chefs, false);
+        long nowSecond = now.toEpochSecond(ZoneOffset.UTC);
+        for (Order order : active) {
+            if (order.getStatus() == Order.OrderStatus.PREPARING) {
+                kitchen.occupyChef(nowSecond + OnlineRescheduler.remainingMinutes(order, now) * 60L);
+            }
+        }
+        for (Order order : active) {
+            if (order.getStatus() == Order.OrderStatus.PENDING) {
+                kitchen.arrive(order, nowSecond);
+            }
+        }
+
+        Random random = new Random(42);
+        List<Interval> intervals = new ArrayList<>(buckets.size());
+        double carry = 0;
+        int nextId = -1;
+        for (ArrivalForecaster.Bucket bucket : buckets) {
+            long start = Math.max(nowSecond, bucket.getStart().toEpochSecond(ZoneOffset.UTC));
+            long end = bucket.getStart().toEpochSecond(ZoneOffset.UTC) + ArrivalForecaster.BUCKET_MINUTES * 60L;
+            // A bucket that has already begun only gets the arrivals of its remaining part
+            carry += bucket.getArrivals() * (end - start) / (ArrivalForecaster.BUCKET_MINUTES * 60.0);
+            int count = (int) Math.floor(carry);
+            carry -= count;
+
+            // The expected mix, in whole orders, arriving in random sequence evenly over the bucket
+            List<Integer> prepMinutes = expand(apportion(bucket.getPrepMix(), count), 5, 2);
+            List<Integer> priorities = expand(apportion(bucket.getPriorityMix(), count), 1, 1);
+            Collections.shuffle(prepMinutes, random);
+            Collections.shuffle(priorities, random);
+            for (int i = 0; i < count; i++) {
+                long arrival = start + (long) ((i + 0.5) * (end - start) / count);
+                Order order = new Order();
+                order.setOrderId(nextId--);
+                order.setStatus(Order.OrderStatus.PENDING);
+                order.setEstimatedTime(prepMinutes.get(i));
+                order.setPriority(priorities.get(i));
+                order.setCreatedAt(LocalDateTime.ofEpochSecond(arrival, 0, ZoneOffset.UTC));
+                kitchen.arrive(order, arrival);
+            }
+            kitchen.advanceTo(end);
+            intervals.add(new Interval(bucket, count, kitchen.getWaitingCount(),
+                bucket.getWorkMinutes() / (chefs * (double) ArrivalForecaster.BUCKET_MINUTES)));
+        }
+
+        KitchenSimulator.DayStatistics statistics = kitchen.finishDay();
+        return new Prediction(intervals, statistics.getWaits().getAverageMinutes(),
+            statistics.getWaits().getPercentileMinutes(0.95));
+    }
+
+    /**
+     * Splits a whole number of orders over classes in proportion to their expected counts (largest remainder)
+     *
+     * @param expected Expected orders per class
+     * @param count Orders to split
+     * @return Orders per class, summing to count
+     */
+    static int[] apportion(double[] expected, int count) {
+        int[] counts = new int[expected.length];
+        double total = 0;
+        for (double value : expected) {
+            total += value;
+        }
+        if (count == 0) {
+            return counts;
+        }
+        if (total <= 0) {
+            counts[0] = count;
+            return counts;
+        }
+        double[] remainders = new double[expected.length];
+        int assigned = 0;
+        for (int i = 0; i < expected.length; i++) {
+            double share = expected[i] / total * count;
+            counts[i] = (int) Math.floor(share);
+            remainders[i] = share - counts[i];
+            assigned += counts[i];
+        }
+        while (assigned < count) {
+            int best = 0;
+            for (int i = 1; i < remainders.length; i++) {
+                if (remainders[i] > remainders[best]) {
+                    best = i;
+                }
+            }
+            counts[best]++;
+            remainders[best] = -1;
+            assigned++;
+        }
+        return counts;
+    }
+
+    /**
+     * Lists one value per order: class i stands for the value i * step + offset
+     */
+    private static List<Integer> expand(int[] counts, int step, int offset) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            for (int n = 0; n < counts[i]; n++) {
+                values.add(i * step + offset);
+            }
+        }
+        return values;
+    }
+}
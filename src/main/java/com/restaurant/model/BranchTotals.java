@@ -0,0 +1,54 @@
+package com.restaurant.model;
+
+/**
+ * Order totals of one branch over a period
+ */
+public class BranchTotals {
+    private final int branchId;
+    private final long orders;
+    private final long cancelledOrders;
+    private final double revenue;
+    private final double averageActualTime;
+
+    /**
+     * Creates totals
+     *
+     * @param branchId Branch the totals belong to
+     * @param orders Number of orders, including cancelled ones
+     * @param cancelledOrders Number of cancelled orders
+     * @param revenue Total amount of the orders that were not cancelled
+     * @param averageActualTime Average actual preparation time in minutes, or NaN if none was recorded
+     */
+    public BranchTotals(int branchId, long orders, long cancelledOrders, double revenue, double averageActualTime) {
+        this.branchId = branchId;
+        this.orders = orders;
+        this.cancelledOrders = cancelledOrders;
+        this.revenue = revenue;
+        this.averageActualTime = averageActualTime;
+    }
+
+    public int getBranchId() {
+        return branchId;
+    }
+
+    public long getOrders() {
+        return orders;
+    }
+
+    public long getCancelledOrders() {
+        return cancelledOrders;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public double getAverageActualTime() {
+        return averageActualTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Branch %d: %d orders, %.2f revenue", branchId, orders, revenue);
+    }
+}
@@ -0,0 +1,120 @@
+package com.restaurant.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable in-memory index of the menu
+ *
+ * The catalog is loaded once (see {@link com.restaurant.dao.MenuDAO}) and can
+ * then be shared by any number of threads without locking. Lookups by ID use
+ * an array indexed by menu_item_id, lookups by name a case-insensitive map.
+ */
+public final class MenuCatalog {
+    private static final MenuCatalog EMPTY = new MenuCatalog(Collections.emptyList());
+
+    private final List<MenuItem> items;
+    private final MenuItem[] byId;
+    private final Map<String, MenuItem> byName;
+
+    /**
+     * Builds a catalog
+     *
+     * @param items Menu items; IDs must be unique and non-negative
+     * @throws IllegalArgumentException if two items share an ID
+     */
+    public MenuCatalog(List<MenuItem> items) {
+        int maxId = -1;
+        for (MenuItem item : items) {
+            if (item.getMenuItemId() < 0) {
+                throw new IllegalArgumentException("Invalid menu item ID " + item.getMenuItemId());
+            }
+            maxId = Math.max(maxId, item.getMenuItemId());
+        }
+
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.byId = new MenuItem[maxId + 1];
+        Map<String, MenuItem> names = new HashMap<>(items.size() * 2);
+        for (MenuItem item : items) {
+            if (byId[item.getMenuItemId()] != null) {
+                throw new IllegalArgumentException("Duplicate menu item ID " + item.getMenuItemId());
+            }
+            byId[item.getMenuItemId()] = item;
+            names.put(normalize(item.getName()), item);
+        }
+        this.byName = Collections.unmodifiableMap(names);
+    }
+
+    /**
+     * Gets a catalog without any items
+     *
+     * @return Empty catalog
+     */
+    public static MenuCatalog empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Gets a menu item by ID
+     *
+     * @param menuItemId ID of the menu item
+     * @return The menu item, or null if it is not in the catalog
+     */
+    public MenuItem getById(int menuItemId) {
+        return menuItemId >= 0 && menuItemId < byId.length ? byId[menuItemId] : null;
+    }
+
+    /**
+     * Gets a menu item by name, ignoring case and surrounding whitespace
+     *
+     * @param name Name of the menu item
+     * @return The menu item, or null if it is not in the catalog
+     */
+    public MenuItem findByName(String name) {
+        return name == null ? null : byName.get(normalize(name));
+    }
+
+    /**
+     * Gets all menu items
+     *
+     * @return Unmodifiable list of items in load order
+     */
+    public List<MenuItem> getItems() {
+        return items;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * Estimates the preparation time of an order from its menu items
+     *
+     * The dishes of one order are fired together on their stations and served
+     * together, so the order is ready when its slowest dish is ready. Items
+     * that are not on the menu are ignored.
+     *
+     * @param orderItems Items of the order
+     * @return Estimated preparation time in minutes, or 0 if no item is on the menu
+     */
+    public int estimatePreparationTime(List<OrderItem> orderItems) {
+        int estimate = 0;
+        if (orderItems != null) {
+            for (OrderItem orderItem : orderItems) {
+                MenuItem menuItem = orderItem.getMenuItem();
+                if (menuItem != null) {
+                    estimate = Math.max(estimate, menuItem.getPrepTime());
+                }
+            }
+        }
+        return estimate;
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
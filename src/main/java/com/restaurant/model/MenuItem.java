@@ -0,0 +1,76 @@
+package com.restaurant.model;
+
+/**
+ * Represents a dish or drink on the menu
+ *
+ * Menu items are immutable and shared: every order item that references the
+ * same dish points to the same MenuItem instance (see {@link MenuCatalog}),
+ * so the name is stored once instead of once per order line.
+ */
+public final class MenuItem {
+    private final int menuItemId;
+    private final String name;
+    private final double price;
+    private final Station station;
+    private final int prepTime;
+
+    /**
+     * Kitchen station that prepares an item
+     */
+    public enum Station {
+        GRILL,    // Steaks, burgers, grilled fish
+        FRYER,    // Fries, wings, fried sides
+        SAUTE,    // Pasta, curries, pan dishes
+        OVEN,     // Pizza, roasts, baked dishes
+        COLD,     // Salads, sandwiches, cold starters
+        PASTRY,   // Desserts and bread
+        BAR       // Drinks
+    }
+
+    /**
+     * Creates a menu item
+     *
+     * @param menuItemId Unique identifier of the menu item
+     * @param name Display name
+     * @param price Current price per unit
+     * @param station Station that prepares the item
+     * @param prepTime Preparation time in minutes
+     */
+    public MenuItem(int menuItemId, String name, double price, Station station, int prepTime) {
+        this.menuItemId = menuItemId;
+        this.name = name;
+        this.price = price;
+        this.station = station;
+        this.prepTime = prepTime;
+    }
+
+    public int getMenuItemId() {
+        return menuItemId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getPrice() {
+        return price;
+    }
+
+    public Station getStation() {
+        return station;
+    }
+
+    /**
+     * Gets the preparation time
+     *
+     * @return Preparation time in minutes
+     */
+    public int getPrepTime() {
+        return prepTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (%s, %d min) - $%.2f", name, station, prepTime, price);
+    }
+}
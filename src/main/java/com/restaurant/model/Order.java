@@ -11,7 +11,11 @@ import java.util.List;
  * status, priority, and timing information used for scheduling algorithms.
  */
 public class Order {
+    /** Branch of installations with a single location */
+    public static final int DEFAULT_BRANCH = 1;
+
     private int orderId;
+    private int branchId;
     private int tableId;
     private Integer staffId;
     private String orderNumber;
@@ -22,6 +26,7 @@ public class Order {
     private double totalAmount;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private int version;  // Incremented by every status change; used for compare-and-set updates
     private List<OrderItem> items;
 
     /**
@@ -32,7 +37,39 @@ public class Order {
         PREPARING,  // Order is being prepared
         READY,      // Order is ready to be served
         SERVED,     // Order has been served to customers
-        CANCELLED   // Order was cancelled
+        CANCELLED;  // Order was cancelled
+
+        /**
+         * Checks whether an order may move from this status to another
+         *
+         * Orders move forward one step at a time (PENDING, PREPARING, READY,
+         * SERVED) and can be cancelled until they are served. SERVED and
+         * CANCELLED are final.
+         *
+         * @param next Requested status
+         * @return true if the transition is legal
+         */
+        public boolean canTransitionTo(OrderStatus next) {
+            switch (this) {
+                case PENDING:
+                    return next == PREPARING || next == CANCELLED;
+                case PREPARING:
+                    return next == READY || next == CANCELLED;
+                case READY:
+                    return next == SERVED || next == CANCELLED;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Checks whether the status is final
+         *
+         * @return true for SERVED and CANCELLED
+         */
+        public boolean isFinal() {
+            return this == SERVED || this == CANCELLED;
+        }
     }
 
     /**
@@ -40,6 +77,7 @@ public class Order {
      */
     public Order() {
         this.items = new ArrayList<>();
+        this.branchId = DEFAULT_BRANCH;
         this.priority = 5;  // Default priority
         this.status = OrderStatus.PENDING;
     }
@@ -82,6 +120,19 @@ public class Order {
         this.orderId = orderId;
     }
 
+    /**
+     * Gets the branch (restaurant location) the order belongs to
+     *
+     * @return Branch ID; selects the shard the order is stored in
+     */
+    public int getBranchId() {
+        return branchId;
+    }
+
+    public void setBranchId(int branchId) {
+        this.branchId = branchId;
+    }
+
     public int getTableId() {
         return tableId;
     }
@@ -162,6 +213,19 @@ public class Order {
         this.updatedAt = updatedAt;
     }
 
+    /**
+     * Gets the row version, incremented by every status change
+     *
+     * @return Version as last read from the database
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     public List<OrderItem> getItems() {
         return items;
     }
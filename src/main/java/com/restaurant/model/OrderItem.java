@@ -4,10 +4,13 @@ package com.restaurant.model;
  * Represents an individual item within an order
  * 
  * This class models a single menu item that is part of an order.
+ * Items on the menu reference the shared {@link MenuItem}; the name is only
+ * stored per item for dishes that are not on the menu.
  */
 public class OrderItem {
     private int itemId;
     private int orderId;
+    private MenuItem menuItem;
     private String itemName;
     private int quantity;
     private double price;
@@ -35,6 +38,20 @@ public class OrderItem {
         this.price = price;
     }
 
+    /**
+     * Constructor for an item from the menu, at the current menu price
+     * 
+     * @param orderId ID of the order this item belongs to
+     * @param menuItem Menu item ordered
+     * @param quantity Quantity ordered
+     */
+    public OrderItem(int orderId, MenuItem menuItem, int quantity) {
+        this.orderId = orderId;
+        this.menuItem = menuItem;
+        this.quantity = quantity;
+        this.price = menuItem.getPrice();
+    }
+
     /**
      * Calculates the total price for this item (price * quantity)
      * 
@@ -61,8 +78,26 @@ public class OrderItem {
         this.orderId = orderId;
     }
 
+    /**
+     * Gets the menu item this order item refers to
+     * 
+     * @return Menu item, or null for an item that is not on the menu
+     */
+    public MenuItem getMenuItem() {
+        return menuItem;
+    }
+
+    public void setMenuItem(MenuItem menuItem) {
+        this.menuItem = menuItem;
+    }
+
+    /**
+     * Gets the name of the item, taken from the menu when the item is on it
+     * 
+     * @return Item name
+     */
     public String getItemName() {
-        return itemName;
+        return menuItem != null ? menuItem.getName() : itemName;
     }
 
     public void setItemName(String itemName) {
@@ -95,7 +130,7 @@ public class OrderItem {
 
     @Override
     public String toString() {
-        return String.format("%s x%d - $%.2f", itemName, quantity, getTotalPrice());
+        return String.format("%s x%d - $%.2f", getItemName(), quantity, getTotalPrice());
     }
 }
 
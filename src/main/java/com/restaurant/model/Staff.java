@@ -10,6 +10,7 @@ public class Staff {
     private String name;
     private StaffRole role;
     private StaffStatus status;
+    private String zone;
 
     /**
      * Enumeration for staff roles
@@ -83,6 +84,19 @@ public class Staff {
         this.status = status;
     }
 
+    /**
+     * Gets the floor zone the staff member normally works in
+     *
+     * @return Zone name, or null if not tied to a zone
+     */
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
     @Override
     public String toString() {
         return String.format("%s (%s) - %s", name, role, status);
@@ -0,0 +1,86 @@
+package com.restaurant.model;
+
+/**
+ * Result of a compare-and-set status change of an order
+ */
+public class StatusUpdate {
+
+    /**
+     * What happened to the requested change
+     */
+    public enum Outcome {
+        APPLIED,    // The order now has the requested status
+        CONFLICT,   // Someone else changed the order first; nothing was written
+        ILLEGAL,    // The order's status cannot move to the requested one
+        NOT_FOUND,  // There is no such order
+        FAILED      // The database could not be reached
+    }
+
+    private final Outcome outcome;
+    private final int orderId;
+    private final Order.OrderStatus previousStatus;
+    private final Order.OrderStatus status;
+    private final int version;
+
+    /**
+     * Creates a result
+     *
+     * @param outcome What happened
+     * @param orderId Order the change was requested for
+     * @param previousStatus Status the change replaced (APPLIED), or null
+     * @param status Status of the order after the call, or null if unknown
+     * @param version Version of the order after the call, or -1 if unknown
+     */
+    public StatusUpdate(Outcome outcome, int orderId, Order.OrderStatus previousStatus, Order.OrderStatus status,
+                        int version) {
+        this.outcome = outcome;
+        this.orderId = orderId;
+        this.previousStatus = previousStatus;
+        this.status = status;
+        this.version = version;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public boolean isApplied() {
+        return outcome == Outcome.APPLIED;
+    }
+
+    public int getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Gets the status the change replaced
+     *
+     * @return Previous status if the change was applied, otherwise null
+     */
+    public Order.OrderStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    /**
+     * Gets the current status: the new one if applied, the conflicting one otherwise
+     *
+     * @return Status, or null if the order was not found or could not be read
+     */
+    public Order.OrderStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Gets the current version, to retry a compare-and-set after a conflict
+     *
+     * @return Version, or -1 if unknown
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    @Override
+    public String toString() {
+        return "StatusUpdate[" + outcome + ", order " + orderId + ", status " + status + ", version " + version + "]";
+    }
+}
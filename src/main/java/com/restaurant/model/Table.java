@@ -11,6 +11,8 @@ public class Table {
     private int tableNumber;
     private int capacity;
     private TableStatus status;
+    private int combineGroup;
+    private String zone;
 
     /**
      * Enumeration for table status
@@ -75,6 +77,32 @@ public class Table {
         this.status = status;
     }
 
+    /**
+     * Gets the group of tables this table can be pushed together with
+     *
+     * @return Group number, or 0 if the table cannot be combined
+     */
+    public int getCombineGroup() {
+        return combineGroup;
+    }
+
+    public void setCombineGroup(int combineGroup) {
+        this.combineGroup = combineGroup;
+    }
+
+    /**
+     * Gets the floor zone the table stands in
+     *
+     * @return Zone name, or null if the floor is not divided into zones
+     */
+    public String getZone() {
+        return zone;
+    }
+
+    public void setZone(String zone) {
+        this.zone = zone;
+    }
+
     @Override
     public String toString() {
         return String.format("Table #%d (Capacity: %d, Status: %s)", 
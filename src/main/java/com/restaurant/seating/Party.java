@@ -0,0 +1,66 @@
+package com.restaurant.seating;
+
+import java.time.LocalDateTime;
+
+/**
+ * A group of guests on the wait-list
+ */
+public class Party {
+    private final int partyId;
+    private final String name;
+    private final int size;
+    private final LocalDateTime arrivalTime;
+    private int overtaken;
+
+    /**
+     * Creates a party
+     *
+     * @param partyId Unique identifier of the party
+     * @param name Name the party is called by (may be null)
+     * @param size Number of guests
+     * @param arrivalTime Time the party joined the wait-list
+     */
+    public Party(int partyId, String name, int size, LocalDateTime arrivalTime) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Party size must be positive");
+        }
+        this.partyId = partyId;
+        this.name = name;
+        this.size = size;
+        this.arrivalTime = arrivalTime;
+    }
+
+    public int getPartyId() {
+        return partyId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public LocalDateTime getArrivalTime() {
+        return arrivalTime;
+    }
+
+    /**
+     * Gets how often a party that arrived later was seated first
+     *
+     * @return Number of times this party was overtaken
+     */
+    public int getOvertaken() {
+        return overtaken;
+    }
+
+    void overtake() {
+        overtaken++;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Party %s (%d guests)", name != null ? name : "#" + partyId, size);
+    }
+}
@@ -0,0 +1,83 @@
+package com.restaurant.seating;
+
+import com.restaurant.model.Table;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A party seated at one table or at several tables pushed together
+ */
+public class SeatingAssignment {
+    private final Party party;
+    private final List<Table> tables;
+    private final int seats;
+
+    SeatingAssignment(Party party, List<Table> tables) {
+        this.party = party;
+        this.tables = Collections.unmodifiableList(new ArrayList<>(tables));
+        int total = 0;
+        for (Table table : tables) {
+            total += table.getCapacity();
+        }
+        this.seats = total;
+    }
+
+    public Party getParty() {
+        return party;
+    }
+
+    /**
+     * Gets the tables the party was seated at
+     *
+     * @return One table, or several if tables were combined
+     */
+    public List<Table> getTables() {
+        return tables;
+    }
+
+    /**
+     * Gets the IDs of the assigned tables
+     *
+     * @return Table IDs
+     */
+    public List<Integer> getTableIds() {
+        List<Integer> ids = new ArrayList<>(tables.size());
+        for (Table table : tables) {
+            ids.add(table.getTableId());
+        }
+        return ids;
+    }
+
+    public boolean isCombined() {
+        return tables.size() > 1;
+    }
+
+    /**
+     * Gets the total capacity of the assigned tables
+     *
+     * @return Number of seats
+     */
+    public int getSeats() {
+        return seats;
+    }
+
+    /**
+     * Gets the number of seats left empty by this assignment
+     *
+     * @return Seats minus party size
+     */
+    public int getSpareSeats() {
+        return seats - party.getSize();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder numbers = new StringBuilder();
+        for (Table table : tables) {
+            numbers.append(numbers.length() == 0 ? "#" : "+#").append(table.getTableNumber());
+        }
+        return party + " -> table " + numbers + " (" + seats + " seats)";
+    }
+}
@@ -0,0 +1,418 @@
+package com.restaurant.seating;
+
+import com.restaurant.model.Table;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Seats parties from a wait-list at available tables
+ *
+ * Parties are considered in arrival order. A party gets the single table the
+ * {@link SeatingPolicy} picks; only if no single table is big enough are
+ * tables of the same combine group pushed together (up to a configurable
+ * number of tables). A party that cannot be seated yet is skipped, so smaller
+ * parties behind it may go first, but once it has been overtaken a given
+ * number of times nobody behind it is seated until it is.
+ *
+ * Available tables are kept in sorted sets, so a best fit is one ceiling
+ * lookup and {@link #plan()} re-plans the whole wait-list in microseconds
+ * whenever a table frees up. The engine keeps the status of the tables it
+ * was given up to date; persisting it is up to the caller. Table numbers and
+ * capacities must not change while a table belongs to an engine.
+ *
+ * Not thread-safe; use it from one thread (e.g. the JavaFX thread).
+ */
+public class SeatingEngine {
+    /** Default number of tables that may be pushed together */
+    public static final int DEFAULT_MAX_COMBINED = 3;
+    /** Default number of times a party may be overtaken before it holds the queue */
+    public static final int DEFAULT_MAX_OVERTAKEN = 5;
+
+    private static final Comparator<Table> BY_NUMBER = Comparator.comparingInt(Table::getTableNumber);
+    private static final Comparator<Table> BY_CAPACITY =
+        Comparator.comparingInt(Table::getCapacity).thenComparingInt(Table::getTableNumber);
+
+    private final SeatingPolicy policy;
+    private final int maxCombined;
+    private final int maxOvertaken;
+    private final Map<Integer, Table> tables = new HashMap<>();
+    private final TreeSet<Table> availableByCapacity = new TreeSet<>(BY_CAPACITY);
+    private final TreeSet<Table> availableByNumber = new TreeSet<>(BY_NUMBER);
+    private final TreeMap<Integer, TreeSet<Table>> availableByGroup = new TreeMap<>();
+    private final Map<Integer, Party> waitList = new LinkedHashMap<>();
+    private int largestParty;
+
+    /**
+     * Creates a best-fit engine with the default limits
+     */
+    public SeatingEngine() {
+        this(SeatingPolicy.BEST_FIT, DEFAULT_MAX_COMBINED, DEFAULT_MAX_OVERTAKEN);
+    }
+
+    /**
+     * Creates an engine
+     *
+     * @param policy How tables are picked
+     * @param maxCombined Maximum number of tables pushed together for one party (1 disables combining)
+     * @param maxOvertaken Number of times a party may be overtaken before it holds the queue
+     */
+    public SeatingEngine(SeatingPolicy policy, int maxCombined, int maxOvertaken) {
+        if (maxCombined < 1 || maxOvertaken < 0) {
+            throw new IllegalArgumentException("Invalid seating limits");
+        }
+        this.policy = policy;
+        this.maxCombined = maxCombined;
+        this.maxOvertaken = maxOvertaken;
+    }
+
+    /**
+     * Replaces the tables of the restaurant
+     *
+     * @param newTables All tables with their current status
+     */
+    public void setTables(Collection<Table> newTables) {
+        tables.clear();
+        availableByCapacity.clear();
+        availableByNumber.clear();
+        availableByGroup.clear();
+        Map<Integer, List<Integer>> groupCapacities = new HashMap<>();
+        largestParty = 0;
+        for (Table table : newTables) {
+            tables.put(table.getTableId(), table);
+            if (table.getStatus() == Table.TableStatus.AVAILABLE) {
+                addAvailable(table);
+            }
+            largestParty = Math.max(largestParty, table.getCapacity());
+            if (table.getCombineGroup() > 0) {
+                groupCapacities.computeIfAbsent(table.getCombineGroup(), g -> new ArrayList<>()).add(table.getCapacity());
+            }
+        }
+        for (List<Integer> capacities : groupCapacities.values()) {
+            capacities.sort(Collections.reverseOrder());
+            int seats = 0;
+            for (int i = 0; i < Math.min(maxCombined, capacities.size()); i++) {
+                seats += capacities.get(i);
+            }
+            largestParty = Math.max(largestParty, seats);
+        }
+    }
+
+    /**
+     * Changes the status of a table, e.g. to AVAILABLE when guests leave
+     *
+     * @param tableId ID of the table
+     * @param status New status
+     * @return true if the table is known to the engine
+     */
+    public boolean setTableStatus(int tableId, Table.TableStatus status) {
+        Table table = tables.get(tableId);
+        if (table == null) {
+            return false;
+        }
+        if (table.getStatus() == Table.TableStatus.AVAILABLE) {
+            removeAvailable(table);
+        }
+        table.setStatus(status);
+        if (status == Table.TableStatus.AVAILABLE) {
+            addAvailable(table);
+        }
+        return true;
+    }
+
+    /**
+     * Marks a table as available again
+     *
+     * @param tableId ID of the table
+     * @return true if the table is known to the engine
+     */
+    public boolean tableFreed(int tableId) {
+        return setTableStatus(tableId, Table.TableStatus.AVAILABLE);
+    }
+
+    /**
+     * Puts a party on the wait-list
+     *
+     * @param party Party to add
+     * @return false if no table or combination of tables can ever seat the party
+     */
+    public boolean addParty(Party party) {
+        if (party.getSize() > largestParty) {
+            return false;
+        }
+        waitList.put(party.getPartyId(), party);
+        return true;
+    }
+
+    /**
+     * Takes a party off the wait-list (e.g. because it left)
+     *
+     * @param partyId ID of the party
+     * @return true if the party was still waiting
+     */
+    public boolean removeParty(int partyId) {
+        return waitList.remove(partyId) != null;
+    }
+
+    /**
+     * Gets the waiting parties in arrival order
+     *
+     * @return Copy of the wait-list
+     */
+    public List<Party> getWaitList() {
+        return new ArrayList<>(waitList.values());
+    }
+
+    /**
+     * Gets the available tables in table number order
+     *
+     * @return Copy of the available tables
+     */
+    public List<Table> getAvailableTables() {
+        return new ArrayList<>(availableByNumber);
+    }
+
+    /**
+     * Seats as many waiting parties as possible
+     *
+     * Seated parties leave the wait-list and their tables become OCCUPIED.
+     *
+     * @return The new assignments, in wait-list order
+     */
+    public List<SeatingAssignment> plan() {
+        List<SeatingAssignment> seated = new ArrayList<>();
+        List<Party> skipped = new ArrayList<>();
+        Iterator<Party> parties = waitList.values().iterator();
+        while (parties.hasNext() && !availableByNumber.isEmpty()) {
+            Party party = parties.next();
+            List<Table> chosen = findTables(party.getSize());
+            if (chosen == null) {
+                if (party.getOvertaken() >= maxOvertaken) {
+                    // Tables that free up are kept for this party from now on
+                    break;
+                }
+                skipped.add(party);
+                continue;
+            }
+            parties.remove();
+            for (Table table : chosen) {
+                removeAvailable(table);
+                table.setStatus(Table.TableStatus.OCCUPIED);
+            }
+            for (Party waiting : skipped) {
+                waiting.overtake();
+            }
+            seated.add(new SeatingAssignment(party, chosen));
+        }
+        return seated;
+    }
+
+    /**
+     * Predicts when each waiting party will be seated
+     *
+     * Walks the wait-list in order; each party takes the table (or group of
+     * tables) predicted to be free first and keeps it for visitMinutes.
+     * Parties are assumed to be seated in arrival order, so the quote is on
+     * the safe side for parties that {@link #plan()} lets go ahead.
+     * Available tables without a prediction count as free now; other tables
+     * without a prediction are left out.
+     *
+     * @param freeAt Predicted time each table is free (see {@link TurnoverPredictor})
+     * @param now Current time
+     * @param visitMinutes Expected length of a visit
+     * @return Predicted seating time per party ID
+     */
+    public Map<Integer, LocalDateTime> quoteSeatTimes(Map<Integer, LocalDateTime> freeAt, LocalDateTime now,
+                                                      int visitMinutes) {
+        Map<Table, LocalDateTime> free = new HashMap<>();
+        for (Table table : tables.values()) {
+            LocalDateTime predicted = freeAt.get(table.getTableId());
+            if (predicted == null && table.getStatus() == Table.TableStatus.AVAILABLE) {
+                predicted = now;
+            }
+            if (predicted != null) {
+                free.put(table, predicted.isBefore(now) ? now : predicted);
+            }
+        }
+
+        Map<Integer, LocalDateTime> quotes = new LinkedHashMap<>();
+        for (Party party : waitList.values()) {
+            List<Table> chosen = earliestTables(party.getSize(), free);
+            if (chosen == null) {
+                continue;
+            }
+            LocalDateTime seatedAt = now;
+            for (Table table : chosen) {
+                LocalDateTime tableFree = free.get(table);
+                if (tableFree.isAfter(seatedAt)) {
+                    seatedAt = tableFree;
+                }
+            }
+            for (Table table : chosen) {
+                free.put(table, seatedAt.plusMinutes(visitMinutes));
+            }
+            quotes.put(party.getPartyId(), seatedAt);
+        }
+        return quotes;
+    }
+
+    private List<Table> earliestTables(int size, Map<Table, LocalDateTime> free) {
+        Table best = null;
+        for (Map.Entry<Table, LocalDateTime> entry : free.entrySet()) {
+            Table table = entry.getKey();
+            if (table.getCapacity() < size) {
+                continue;
+            }
+            if (best == null) {
+                best = table;
+                continue;
+            }
+            int order = entry.getValue().compareTo(free.get(best));
+            if (order < 0 || order == 0 && BY_CAPACITY.compare(table, best) < 0) {
+                best = table;
+            }
+        }
+        if (best != null) {
+            return Collections.singletonList(best);
+        }
+
+        // Push together the tables of a group that free up first
+        Map<Integer, List<Table>> groups = new TreeMap<>();
+        for (Table table : free.keySet()) {
+            if (table.getCombineGroup() > 0) {
+                groups.computeIfAbsent(table.getCombineGroup(), g -> new ArrayList<>()).add(table);
+            }
+        }
+        List<Table> bestGroup = null;
+        LocalDateTime bestTime = null;
+        for (List<Table> group : groups.values()) {
+            group.sort(Comparator.comparing((Table table) -> free.get(table)).thenComparing(BY_CAPACITY.reversed()));
+            int seats = 0;
+            for (int i = 0; i < Math.min(maxCombined, group.size()); i++) {
+                seats += group.get(i).getCapacity();
+                if (seats >= size) {
+                    LocalDateTime time = free.get(group.get(i));
+                    if (bestTime == null || time.isBefore(bestTime)) {
+                        bestTime = time;
+                        bestGroup = new ArrayList<>(group.subList(0, i + 1));
+                    }
+                    break;
+                }
+            }
+        }
+        return bestGroup;
+    }
+
+    private List<Table> findTables(int size) {
+        Table single = policy == SeatingPolicy.BEST_FIT ? bestSingle(size) : firstSingle(size);
+        if (single != null) {
+            return Collections.singletonList(single);
+        }
+        if (maxCombined < 2) {
+            return null;
+        }
+        CombinationSearch search = new CombinationSearch(size);
+        for (TreeSet<Table> group : availableByGroup.values()) {
+            if (group.size() > 1 && search.run(group.toArray(new Table[0]))) {
+                break;
+            }
+        }
+        return search.best;
+    }
+
+    private Table bestSingle(int size) {
+        return availableByCapacity.ceiling(new Table(0, Integer.MIN_VALUE, size, Table.TableStatus.AVAILABLE));
+    }
+
+    private Table firstSingle(int size) {
+        if (availableByCapacity.last().getCapacity() < size) {
+            return null;
+        }
+        for (Table table : availableByNumber) {
+            if (table.getCapacity() >= size) {
+                return table;
+            }
+        }
+        return null;
+    }
+
+    private void addAvailable(Table table) {
+        availableByCapacity.add(table);
+        availableByNumber.add(table);
+        if (table.getCombineGroup() > 0) {
+            availableByGroup.computeIfAbsent(table.getCombineGroup(), g -> new TreeSet<>(BY_NUMBER)).add(table);
+        }
+    }
+
+    private void removeAvailable(Table table) {
+        availableByCapacity.remove(table);
+        availableByNumber.remove(table);
+        TreeSet<Table> group = availableByGroup.get(table.getCombineGroup());
+        if (group != null) {
+            group.remove(table);
+            if (group.isEmpty()) {
+                availableByGroup.remove(table.getCombineGroup());
+            }
+        }
+    }
+
+    /**
+     * Depth-first search over combinations of one group's available tables
+     *
+     * Best fit keeps the combination with the fewest seats (then the fewest
+     * tables); first fit stops at the first combination in table number order.
+     */
+    private final class CombinationSearch {
+        private final int size;
+        private final Table[] chosen = new Table[maxCombined];
+        private List<Table> best;
+        private int bestSeats = Integer.MAX_VALUE;
+        private int bestCount = Integer.MAX_VALUE;
+
+        CombinationSearch(int size) {
+            this.size = size;
+        }
+
+        /**
+         * @return true if the search is complete (first fit found a combination)
+         */
+        boolean run(Table[] candidates) {
+            return search(candidates, 0, 0, 0);
+        }
+
+        private boolean search(Table[] candidates, int start, int depth, int seats) {
+            for (int i = start; i < candidates.length; i++) {
+                int total = seats + candidates[i].getCapacity();
+                if (total > bestSeats) {
+                    continue;
+                }
+                chosen[depth] = candidates[i];
+                if (total >= size) {
+                    // More tables would only add empty seats
+                    if (depth > 0 && (total < bestSeats || depth + 1 < bestCount)) {
+                        best = Arrays.asList(Arrays.copyOf(chosen, depth + 1));
+                        bestSeats = total;
+                        bestCount = depth + 1;
+                        if (policy == SeatingPolicy.FIRST_FIT) {
+                            return true;
+                        }
+                    }
+                } else if (depth + 1 < maxCombined && search(candidates, i + 1, depth + 1, total)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
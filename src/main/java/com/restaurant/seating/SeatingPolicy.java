@@ -0,0 +1,11 @@
+package com.restaurant.seating;
+
+/**
+ * How the seating engine picks tables for a party
+ */
+public enum SeatingPolicy {
+    /** Smallest table (or combination) with enough seats; wastes the fewest seats */
+    BEST_FIT,
+    /** First table (or combination) in table number order with enough seats */
+    FIRST_FIT
+}
@@ -0,0 +1,107 @@
+package com.restaurant.seating;
+
+import com.restaurant.model.Order;
+import com.restaurant.model.Table;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Predicts when occupied tables will be free again from their open orders
+ *
+ * A table is expected to free up a fixed dining time after its latest order
+ * is served. Orders still in the kitchen are served when their estimated
+ * preparation time is up, READY orders right away, and SERVED orders were
+ * served at their last update. A table without a recent order is assumed to
+ * still have to order.
+ */
+public class TurnoverPredictor {
+    /** Default minutes guests stay after their food is served */
+    public static final int DEFAULT_DINING_MINUTES = 40;
+
+    /** Minutes to order and get the food when a table has not ordered yet */
+    private static final int ORDERING_MINUTES = 20;
+    /** Orders older than this belong to earlier guests */
+    private static final int MAX_VISIT_MINUTES = 240;
+
+    private final int diningMinutes;
+
+    /**
+     * Creates a predictor with the default dining time
+     */
+    public TurnoverPredictor() {
+        this(DEFAULT_DINING_MINUTES);
+    }
+
+    /**
+     * Creates a predictor
+     *
+     * @param diningMinutes Minutes guests stay after their food is served
+     */
+    public TurnoverPredictor(int diningMinutes) {
+        this.diningMinutes = diningMinutes;
+    }
+
+    /**
+     * Predicts when each table is free
+     *
+     * @param tables Tables with their current status
+     * @param openOrders Orders of the current guests (PENDING, PREPARING, READY or SERVED)
+     * @param now Current time
+     * @return Predicted free time per table ID; available tables are free now,
+     *         reserved tables are left out
+     */
+    public Map<Integer, LocalDateTime> predictFreeTimes(Collection<Table> tables, Collection<Order> openOrders,
+                                                         LocalDateTime now) {
+        LocalDateTime cutoff = now.minusMinutes(MAX_VISIT_MINUTES);
+        Map<Integer, Order> latestOrders = new HashMap<>();
+        for (Order order : openOrders) {
+            if (order.getStatus() == Order.OrderStatus.CANCELLED
+                    || order.getCreatedAt() == null || order.getCreatedAt().isBefore(cutoff)) {
+                continue;
+            }
+            latestOrders.merge(order.getTableId(), order,
+                (a, b) -> b.getCreatedAt().isAfter(a.getCreatedAt()) ? b : a);
+        }
+
+        Map<Integer, LocalDateTime> freeAt = new HashMap<>();
+        for (Table table : tables) {
+            if (table.getStatus() == Table.TableStatus.AVAILABLE) {
+                freeAt.put(table.getTableId(), now);
+            } else if (table.getStatus() == Table.TableStatus.OCCUPIED) {
+                freeAt.put(table.getTableId(), predictFreeAt(latestOrders.get(table.getTableId()), now));
+            }
+        }
+        return freeAt;
+    }
+
+    /**
+     * Predicts when an occupied table is free
+     *
+     * @param latestOrder Latest order of the table, or null if it has not ordered yet
+     * @param now Current time
+     * @return Predicted free time (never before now)
+     */
+    public LocalDateTime predictFreeAt(Order latestOrder, LocalDateTime now) {
+        if (latestOrder == null) {
+            return now.plusMinutes(ORDERING_MINUTES + diningMinutes);
+        }
+        LocalDateTime servedAt;
+        switch (latestOrder.getStatus()) {
+            case SERVED:
+                servedAt = latestOrder.getUpdatedAt() != null ? latestOrder.getUpdatedAt() : latestOrder.getCreatedAt();
+                break;
+            case READY:
+                servedAt = now;
+                break;
+            default:
+                servedAt = latestOrder.getCreatedAt().plusMinutes(latestOrder.getEstimatedTime());
+                break;
+        }
+        LocalDateTime freeAt = servedAt.plusMinutes(diningMinutes);
+        // Tables past their prediction are expected to free up any moment
+        return freeAt.isBefore(now) ? now : freeAt;
+    }
+}
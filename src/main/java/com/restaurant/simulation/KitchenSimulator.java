@@ -0,0 +1,201 @@
+package com.restaurant.simulation;
+
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.model.Order;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Discrete-event simulation of one kitchen running one scheduling algorithm
+ *
+ * Orders arrive at their historical creation time. Whenever a chef becomes
+ * free and orders are waiting, the algorithm is asked to schedule the
+ * waiting orders and the chef starts the first one. The clock is simulated:
+ * it jumps from event to event, so a full service day is replayed in
+ * microseconds.
+ *
+ * Waiting time is the time between arrival and start of preparation.
+ * Preparation takes the recorded actual_time when available (and enabled),
+ * otherwise estimated_time.
+ */
+public class KitchenSimulator {
+    private final SchedulingAlgorithm algorithm;
+    private final boolean useActualTime;
+    private final long[] chefFreeAt;
+    private final List<Order> waiting = new ArrayList<>();
+    private final List<Order> readOnlyWaiting = Collections.unmodifiableList(waiting);
+    private final List<Long> waitingArrival = new ArrayList<>();
+
+    private long lastArrival = Long.MIN_VALUE;
+    private long firstArrival = Long.MIN_VALUE;
+    private long lastCompletion;
+    private WaitHistogram dayWaits = new WaitHistogram();
+
+    /**
+     * Creates a simulator with all chefs idle
+     *
+     * @param algorithm Algorithm that picks the next order
+     * @param chefs Number of orders that can be prepared at the same time
+     * @param useActualTime Whether to use actual_time as preparation time when recorded
+     */
+    public KitchenSimulator(SchedulingAlgorithm algorithm, int chefs, boolean useActualTime) {
+        if (chefs < 1) {
+            throw new IllegalArgumentException("At least one chef is required");
+        }
+        this.algorithm = algorithm;
+        this.useActualTime = useActualTime;
+        this.chefFreeAt = new long[chefs];
+    }
+
+    public SchedulingAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Processes the arrival of an order
+     *
+     * @param order Arriving order
+     * @param arrivalSecond Arrival time in seconds on the simulated clock (non-decreasing)
+     */
+    public void arrive(Order order, long arrivalSecond) {
+        if (arrivalSecond < lastArrival) {
+            throw new IllegalStateException("Orders must arrive in time order");
+        }
+        // Everything that could start before this arrival happens first, without this order
+        dispatchUntil(arrivalSecond);
+        if (firstArrival == Long.MIN_VALUE) {
+            firstArrival = arrivalSecond;
+        }
+        lastArrival = arrivalSecond;
+        waiting.add(order);
+        waitingArrival.add(arrivalSecond);
+        dispatchUntil(arrivalSecond);
+    }
+
+    /**
+     * Marks the chef that is free first as busy until a given time, e.g. with an order already in progress
+     *
+     * @param untilSecond Time the chef is free again, on the simulated clock
+     */
+    public void occupyChef(long untilSecond) {
+        int chef = earliestFreeChef();
+        chefFreeAt[chef] = Math.max(chefFreeAt[chef], untilSecond);
+        lastCompletion = Math.max(lastCompletion, chefFreeAt[chef]);
+    }
+
+    /**
+     * Starts every waiting order that a chef can take up to a point in time
+     *
+     * @param second Simulated time to run the kitchen to
+     */
+    public void advanceTo(long second) {
+        dispatchUntil(second);
+    }
+
+    /**
+     * Gets the number of orders that arrived and have not started yet
+     *
+     * @return Queue length
+     */
+    public int getWaitingCount() {
+        return waiting.size();
+    }
+
+    /**
+     * Runs the kitchen until every waiting order has started and returns the day's statistics
+     *
+     * The kitchen is then reset for the next service day.
+     *
+     * @return Waiting times of the day
+     */
+    public DayStatistics finishDay() {
+        dispatchUntil(Long.MAX_VALUE);
+        DayStatistics statistics = new DayStatistics(dayWaits,
+            firstArrival == Long.MIN_VALUE ? 0 : Math.max(0, lastCompletion - firstArrival));
+
+        dayWaits = new WaitHistogram();
+        firstArrival = Long.MIN_VALUE;
+        lastArrival = Long.MIN_VALUE;
+        lastCompletion = 0;
+        for (int i = 0; i < chefFreeAt.length; i++) {
+            chefFreeAt[i] = 0;
+        }
+        return statistics;
+    }
+
+    private void dispatchUntil(long now) {
+        while (!waiting.isEmpty()) {
+            int chef = earliestFreeChef();
+            // The waiting set has not changed since the last arrival, so a decision
+            // cannot be made before that arrival even if the chef was idle earlier
+            long decisionTime = Math.max(chefFreeAt[chef], lastArrival);
+            if (decisionTime > now) {
+                return;
+            }
+
+            Order next = algorithm.schedule(readOnlyWaiting).get(0);
+            int index = indexOf(next);
+            long arrival = waitingArrival.get(index);
+            waiting.remove(index);
+            waitingArrival.remove(index);
+
+            long finish = decisionTime + preparationSeconds(next);
+            chefFreeAt[chef] = finish;
+            lastCompletion = Math.max(lastCompletion, finish);
+            dayWaits.record(decisionTime - arrival);
+        }
+    }
+
+    private int indexOf(Order order) {
+        for (int i = 0; i < waiting.size(); i++) {
+            if (waiting.get(i) == order) {
+                return i;
+            }
+        }
+        throw new IllegalStateException(algorithm.getAlgorithmName() + " returned an order that was not waiting");
+    }
+
+    private int earliestFreeChef() {
+        int best = 0;
+        for (int i = 1; i < chefFreeAt.length; i++) {
+            if (chefFreeAt[i] < chefFreeAt[best]) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private long preparationSeconds(Order order) {
+        Integer actual = order.getActualTime();
+        int minutes = useActualTime && actual != null ? actual : order.getEstimatedTime();
+        return Math.max(0, minutes) * 60L;
+    }
+
+    /**
+     * Waiting time statistics of one simulated day
+     */
+    public static class DayStatistics {
+        private final WaitHistogram waits;
+        private final long makespanSeconds;
+
+        DayStatistics(WaitHistogram waits, long makespanSeconds) {
+            this.waits = waits;
+            this.makespanSeconds = makespanSeconds;
+        }
+
+        public WaitHistogram getWaits() {
+            return waits;
+        }
+
+        /**
+         * Gets the time from the first arrival to the last completion
+         *
+         * @return Makespan in seconds
+         */
+        public long getMakespanSeconds() {
+            return makespanSeconds;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.restaurant.simulation;
+
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.model.Order;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Replays historical orders through several scheduling algorithms at once
+ *
+ * Orders are fed one at a time in arrival (created_at) order, e.g. straight
+ * from a streaming database query, and each algorithm gets its own
+ * {@link KitchenSimulator}. At the end of every service day the counterfactual
+ * waiting times of each algorithm are reported to a listener and the
+ * kitchens are reset. Only the orders waiting on the current day are kept in
+ * memory, so a year of history can be replayed in one pass.
+ */
+public class TraceReplay implements Consumer<Order> {
+    private final List<KitchenSimulator> simulators = new ArrayList<>();
+    private final List<WaitHistogram> totals = new ArrayList<>();
+    private final Consumer<DayResult> listener;
+    private final int dayStartHour;
+    private LocalDate currentDay;
+    private long replayedOrders;
+    private long skippedOrders;
+
+    /**
+     * Result of one algorithm on one service day
+     */
+    public static class DayResult {
+        private final LocalDate day;
+        private final String algorithmName;
+        private final KitchenSimulator.DayStatistics statistics;
+
+        DayResult(LocalDate day, String algorithmName, KitchenSimulator.DayStatistics statistics) {
+            this.day = day;
+            this.algorithmName = algorithmName;
+            this.statistics = statistics;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public String getAlgorithmName() {
+            return algorithmName;
+        }
+
+        public KitchenSimulator.DayStatistics getStatistics() {
+            return statistics;
+        }
+    }
+
+    /**
+     * Creates a replay
+     *
+     * @param algorithms Algorithms to evaluate
+     * @param chefs Number of orders prepared in parallel
+     * @param useActualTime Whether to use the recorded actual_time as preparation time
+     * @param dayStartHour Hour at which a service day starts (orders before it belong to the previous day)
+     * @param listener Receives the result of every algorithm at the end of each day
+     */
+    public TraceReplay(List<SchedulingAlgorithm> algorithms, int chefs, boolean useActualTime,
+                       int dayStartHour, Consumer<DayResult> listener) {
+        for (SchedulingAlgorithm algorithm : algorithms) {
+            simulators.add(new KitchenSimulator(algorithm, chefs, useActualTime));
+            totals.add(new WaitHistogram());
+        }
+        this.dayStartHour = dayStartHour;
+        this.listener = listener;
+    }
+
+    /**
+     * Feeds the next historical order
+     *
+     * @param order Order with a creation time not earlier than the previous one
+     */
+    @Override
+    public void accept(Order order) {
+        LocalDateTime createdAt = order.getCreatedAt();
+        if (createdAt == null) {
+            skippedOrders++;
+            return;
+        }
+        LocalDate day = createdAt.minusHours(dayStartHour).toLocalDate();
+        if (currentDay != null && !day.equals(currentDay)) {
+            if (day.isBefore(currentDay)) {
+                throw new IllegalStateException("Orders must be replayed in creation order (order "
+                                                + order.getOrderId() + " is earlier than " + currentDay + ")");
+            }
+            finishDay();
+        }
+        currentDay = day;
+
+        long arrivalSecond = createdAt.toEpochSecond(ZoneOffset.UTC);
+        for (KitchenSimulator simulator : simulators) {
+            simulator.arrive(order, arrivalSecond);
+        }
+        replayedOrders++;
+    }
+
+    /**
+     * Completes the last service day; call after the final order
+     */
+    public void finish() {
+        if (currentDay != null) {
+            finishDay();
+            currentDay = null;
+        }
+    }
+
+    private void finishDay() {
+        for (int i = 0; i < simulators.size(); i++) {
+            KitchenSimulator simulator = simulators.get(i);
+            KitchenSimulator.DayStatistics statistics = simulator.finishDay();
+            totals.get(i).add(statistics.getWaits());
+            listener.accept(new DayResult(currentDay, simulator.getAlgorithm().getAlgorithmName(), statistics));
+        }
+    }
+
+    /**
+     * Gets the waiting times of one algorithm over all replayed days
+     *
+     * @param index Index of the algorithm in the list passed to the constructor
+     * @return Combined histogram
+     */
+    public WaitHistogram getTotal(int index) {
+        return totals.get(index);
+    }
+
+    public long getReplayedOrders() {
+        return replayedOrders;
+    }
+
+    public long getSkippedOrders() {
+        return skippedOrders;
+    }
+}
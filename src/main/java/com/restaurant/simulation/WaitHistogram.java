@@ -0,0 +1,77 @@
+package com.restaurant.simulation;
+
+/**
+ * Fixed-size histogram of waiting times with one-minute buckets
+ *
+ * Percentiles can be computed without keeping every individual waiting
+ * time, so memory use does not grow with the number of replayed orders.
+ * Waits of a day or longer all fall into the last bucket.
+ */
+public class WaitHistogram {
+    private static final int BUCKETS = 24 * 60;
+
+    private final long[] counts = new long[BUCKETS + 1];
+    private long count;
+    private long totalSeconds;
+    private long maxSeconds;
+
+    /**
+     * Records one waiting time
+     *
+     * @param waitSeconds Waiting time in seconds
+     */
+    public void record(long waitSeconds) {
+        int bucket = (int) Math.min(BUCKETS, waitSeconds / 60);
+        counts[bucket]++;
+        count++;
+        totalSeconds += waitSeconds;
+        maxSeconds = Math.max(maxSeconds, waitSeconds);
+    }
+
+    /**
+     * Adds all values of another histogram to this one
+     *
+     * @param other Histogram to merge
+     */
+    public void add(WaitHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        totalSeconds += other.totalSeconds;
+        maxSeconds = Math.max(maxSeconds, other.maxSeconds);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAverageMinutes() {
+        return count == 0 ? 0.0 : totalSeconds / 60.0 / count;
+    }
+
+    public double getMaxMinutes() {
+        return maxSeconds / 60.0;
+    }
+
+    /**
+     * Gets a percentile with one-minute resolution
+     *
+     * @param fraction Percentile as a fraction (0.95 = 95th percentile)
+     * @return Upper bound of the bucket containing the percentile, in minutes
+     */
+    public int getPercentileMinutes(double fraction) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return i + 1;
+            }
+        }
+        return BUCKETS + 1;
+    }
+}
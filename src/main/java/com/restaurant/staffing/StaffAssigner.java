@@ -0,0 +1,422 @@
+package com.restaurant.staffing;
+
+import com.restaurant.model.Order;
+import com.restaurant.model.Staff;
+import com.restaurant.model.Table;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Assigns tables and orders to the least-loaded waiter and orders to the
+ * least-loaded chef, and keeps staff status in line with their workload
+ *
+ * Workload is counted in units: a waiter carries {@link #TABLE_UNITS} per
+ * table they serve and {@link #ORDER_UNITS} per open order, a chef the
+ * estimated preparation minutes of the orders in their queue. Each staff
+ * member's load is an atomic counter; picking a staff member reads all
+ * counters and claims the winner with a compare-and-set, rescanning if
+ * another thread changed that counter in the meantime. No locks are taken,
+ * so request threads never wait for each other.
+ *
+ * With zone affinity, the least-loaded staff member of the table's zone is
+ * preferred unless someone elsewhere has more than the zone slack less
+ * work. Orders go to the waiter serving the table if there is one.
+ *
+ * A staff member becomes BUSY when their load reaches the busy threshold
+ * for their role and AVAILABLE again when it drops below; OFF_DUTY staff
+ * are never assigned. Status changes are reported to a
+ * {@link StatusListener} (e.g. {@link StaffStatusWriter} to store them).
+ */
+public class StaffAssigner {
+    /** Load a waiter carries per open order */
+    public static final int ORDER_UNITS = 1;
+    /** Load a waiter carries per table they serve */
+    public static final int TABLE_UNITS = 2;
+    /** Default waiter load at which the waiter counts as BUSY */
+    public static final int DEFAULT_WAITER_BUSY_LOAD = 8;
+    /** Default minutes of queued preparation at which a chef counts as BUSY */
+    public static final int DEFAULT_CHEF_BUSY_MINUTES = 45;
+    /** Default extra load accepted to stay within a table's zone */
+    public static final int DEFAULT_ZONE_SLACK = 2;
+
+    /**
+     * Receives staff status changes
+     */
+    @FunctionalInterface
+    public interface StatusListener {
+        /**
+         * Called after a staff member's status changed; may be called
+         * concurrently from several threads
+         *
+         * @param staffId ID of the staff member
+         * @param status New status
+         */
+        void statusChanged(int staffId, Staff.StaffStatus status);
+    }
+
+    private static final class Workload {
+        final Staff staff;
+        final int busyLoad;
+        final AtomicInteger load = new AtomicInteger();
+        final AtomicReference<Staff.StaffStatus> status;
+
+        Workload(Staff staff, int busyLoad) {
+            this.staff = staff;
+            this.busyLoad = busyLoad;
+            this.status = new AtomicReference<>(staff.getStatus());
+        }
+    }
+
+    private static final class Charge {
+        final Workload workload;
+        final int units;
+
+        Charge(Workload workload, int units) {
+            this.workload = workload;
+            this.units = units;
+        }
+    }
+
+    private final Map<Integer, Workload> workloads = new HashMap<>();
+    private final Workload[][] workloadsByRole = new Workload[Staff.StaffRole.values().length][];
+    private final int zoneSlack;
+    private final StatusListener listener;
+    private final Map<Integer, String> tableZones = new ConcurrentHashMap<>();
+    private final Map<Integer, Charge> tableCharges = new ConcurrentHashMap<>();
+    private final Map<Integer, Charge> waiterCharges = new ConcurrentHashMap<>();
+    private final Map<Integer, Charge> chefCharges = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an assigner with the default thresholds
+     *
+     * @param staff All staff members
+     * @param listener Receives status changes (may be null)
+     */
+    public StaffAssigner(Collection<Staff> staff, StatusListener listener) {
+        this(staff, DEFAULT_WAITER_BUSY_LOAD, DEFAULT_CHEF_BUSY_MINUTES, DEFAULT_ZONE_SLACK, listener);
+    }
+
+    /**
+     * Creates an assigner
+     *
+     * @param staff All staff members; they are copied, later changes are not seen
+     * @param waiterBusyLoad Waiter load at which the waiter counts as BUSY
+     * @param chefBusyMinutes Queued preparation minutes at which a chef counts as BUSY
+     * @param zoneSlack Extra load accepted to stay within a table's zone (0 = only on ties)
+     * @param listener Receives status changes (may be null)
+     */
+    public StaffAssigner(Collection<Staff> staff, int waiterBusyLoad, int chefBusyMinutes, int zoneSlack,
+                         StatusListener listener) {
+        if (waiterBusyLoad < 1 || chefBusyMinutes < 1 || zoneSlack < 0) {
+            throw new IllegalArgumentException("Invalid staff thresholds");
+        }
+        this.zoneSlack = zoneSlack;
+        this.listener = listener;
+
+        List<List<Workload>> byRole = new ArrayList<>();
+        for (int i = 0; i < workloadsByRole.length; i++) {
+            byRole.add(new ArrayList<>());
+        }
+        for (Staff member : staff) {
+            Staff copy = new Staff(member.getStaffId(), member.getName(), member.getRole(), member.getStatus());
+            copy.setZone(member.getZone());
+            Workload workload = new Workload(copy,
+                member.getRole() == Staff.StaffRole.CHEF ? chefBusyMinutes : waiterBusyLoad);
+            workloads.put(copy.getStaffId(), workload);
+            byRole.get(copy.getRole().ordinal()).add(workload);
+        }
+        for (int i = 0; i < workloadsByRole.length; i++) {
+            workloadsByRole[i] = byRole.get(i).toArray(new Workload[0]);
+        }
+        // The stored status may be stale; derive it from the (empty) workload
+        for (Workload workload : workloads.values()) {
+            updateStatus(workload);
+        }
+    }
+
+    /**
+     * Sets the tables, so that orders can be matched to the zone of their table
+     *
+     * @param tables All tables
+     */
+    public void setTables(Collection<Table> tables) {
+        tableZones.clear();
+        for (Table table : tables) {
+            if (table.getZone() != null) {
+                tableZones.put(table.getTableId(), table.getZone());
+            }
+        }
+    }
+
+    /**
+     * Charges the staff members of orders that are already open, e.g. after a restart
+     *
+     * @param openOrders Orders that are not yet served or cancelled
+     */
+    public void restore(Collection<Order> openOrders) {
+        for (Order order : openOrders) {
+            Workload waiter = order.getStaffId() != null ? workloads.get(order.getStaffId()) : null;
+            if (waiter != null && waiterCharges.putIfAbsent(order.getOrderId(), new Charge(waiter, ORDER_UNITS)) == null) {
+                charge(waiter, ORDER_UNITS);
+            }
+            if (order.getStatus() == Order.OrderStatus.PENDING || order.getStatus() == Order.OrderStatus.PREPARING) {
+                assignChef(order);
+            }
+        }
+    }
+
+    /**
+     * Assigns the least-loaded waiter to a newly seated table
+     *
+     * @param table Table that was seated
+     * @return ID of the waiter, or null if no waiter is on duty
+     */
+    public Integer assignTable(Table table) {
+        if (table.getZone() != null) {
+            tableZones.put(table.getTableId(), table.getZone());
+        }
+        Workload waiter = pick(Staff.StaffRole.WAITER, table.getZone(), TABLE_UNITS);
+        if (waiter == null) {
+            return null;
+        }
+        release(tableCharges.put(table.getTableId(), new Charge(waiter, TABLE_UNITS)));
+        return waiter.staff.getStaffId();
+    }
+
+    /**
+     * Releases the waiter of a table whose guests have left
+     *
+     * @param tableId ID of the table
+     */
+    public void tableFreed(int tableId) {
+        release(tableCharges.remove(tableId));
+    }
+
+    /**
+     * Assigns a waiter to an order that is about to be stored
+     *
+     * An order that already names a staff member keeps it (and is counted
+     * against them). Otherwise the waiter serving the table takes it, or the
+     * least-loaded waiter if nobody serves the table. Call
+     * {@link #orderCreated(Order)} once the order is stored, or
+     * {@link #unassign(Order)} if storing it failed.
+     *
+     * @param order New order; its staff ID is set
+     * @return ID of the waiter, or null if no waiter is on duty
+     */
+    public Integer assignOrder(Order order) {
+        Workload waiter;
+        if (order.getStaffId() != null) {
+            waiter = workloads.get(order.getStaffId());
+            if (waiter != null) {
+                charge(waiter, ORDER_UNITS);
+            }
+            return order.getStaffId();
+        }
+        Charge table = tableCharges.get(order.getTableId());
+        if (table != null && table.workload.status.get() != Staff.StaffStatus.OFF_DUTY) {
+            waiter = table.workload;
+            charge(waiter, ORDER_UNITS);
+        } else {
+            waiter = pick(Staff.StaffRole.WAITER, tableZones.get(order.getTableId()), ORDER_UNITS);
+            if (waiter == null) {
+                return null;
+            }
+        }
+        order.setStaffId(waiter.staff.getStaffId());
+        return order.getStaffId();
+    }
+
+    /**
+     * Records a stored order so that its waiter is released when it is
+     * served, and puts it in the queue of the least-loaded chef
+     *
+     * @param order Order with its final ID
+     */
+    public void orderCreated(Order order) {
+        Workload waiter = order.getStaffId() != null ? workloads.get(order.getStaffId()) : null;
+        if (waiter != null) {
+            waiterCharges.put(order.getOrderId(), new Charge(waiter, ORDER_UNITS));
+        }
+        assignChef(order);
+    }
+
+    /**
+     * Takes back the charge of {@link #assignOrder(Order)} for an order that was not stored
+     *
+     * @param order Order that was not stored
+     */
+    public void unassign(Order order) {
+        Workload waiter = order.getStaffId() != null ? workloads.get(order.getStaffId()) : null;
+        if (waiter != null) {
+            charge(waiter, -ORDER_UNITS);
+        }
+    }
+
+    /**
+     * Puts an order in the queue of the least-loaded chef
+     *
+     * @param order Order with its final ID
+     * @return ID of the chef, or null if no chef is on duty
+     */
+    public Integer assignChef(Order order) {
+        int minutes = Math.max(1, order.getEstimatedTime());
+        Workload chef = pick(Staff.StaffRole.CHEF, null, minutes);
+        if (chef == null) {
+            return null;
+        }
+        release(chefCharges.put(order.getOrderId(), new Charge(chef, minutes)));
+        return chef.staff.getStaffId();
+    }
+
+    /**
+     * Releases workload when an order moves on: the chef when it is READY,
+     * the waiter when it is SERVED or CANCELLED
+     *
+     * @param orderId ID of the order
+     * @param status New status
+     */
+    public void orderStatusChanged(int orderId, Order.OrderStatus status) {
+        switch (status) {
+            case READY:
+                release(chefCharges.remove(orderId));
+                break;
+            case SERVED:
+            case CANCELLED:
+                release(chefCharges.remove(orderId));
+                release(waiterCharges.remove(orderId));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Starts or ends a staff member's shift
+     *
+     * @param staffId ID of the staff member
+     * @param onDuty true when the shift starts, false when it ends
+     * @return true if the staff member is known
+     */
+    public boolean setOnDuty(int staffId, boolean onDuty) {
+        Workload workload = workloads.get(staffId);
+        if (workload == null) {
+            return false;
+        }
+        if (!onDuty) {
+            if (workload.status.getAndSet(Staff.StaffStatus.OFF_DUTY) != Staff.StaffStatus.OFF_DUTY) {
+                notifyListener(workload, Staff.StaffStatus.OFF_DUTY);
+            }
+        } else if (workload.status.compareAndSet(Staff.StaffStatus.OFF_DUTY, Staff.StaffStatus.AVAILABLE)) {
+            notifyListener(workload, Staff.StaffStatus.AVAILABLE);
+            updateStatus(workload);
+        }
+        return true;
+    }
+
+    /**
+     * Gets the current load of a staff member
+     *
+     * @param staffId ID of the staff member
+     * @return Load in units, or 0 if the staff member is unknown
+     */
+    public int getLoad(int staffId) {
+        Workload workload = workloads.get(staffId);
+        return workload != null ? workload.load.get() : 0;
+    }
+
+    /**
+     * Gets all staff members with their current status, ordered by ID
+     *
+     * @return Copies of the staff members
+     */
+    public List<Staff> getStaff() {
+        List<Staff> staff = new ArrayList<>();
+        for (Workload workload : workloads.values()) {
+            Staff copy = new Staff(workload.staff.getStaffId(), workload.staff.getName(),
+                workload.staff.getRole(), workload.status.get());
+            copy.setZone(workload.staff.getZone());
+            staff.add(copy);
+        }
+        staff.sort((a, b) -> Integer.compare(a.getStaffId(), b.getStaffId()));
+        return staff;
+    }
+
+    private Workload pick(Staff.StaffRole role, String zone, int units) {
+        Workload[] candidates = workloadsByRole[role.ordinal()];
+        while (true) {
+            Workload best = null;
+            Workload bestInZone = null;
+            int bestLoad = Integer.MAX_VALUE;
+            int bestZoneLoad = Integer.MAX_VALUE;
+            for (Workload candidate : candidates) {
+                if (candidate.status.get() == Staff.StaffStatus.OFF_DUTY) {
+                    continue;
+                }
+                int load = candidate.load.get();
+                if (load < bestLoad) {
+                    best = candidate;
+                    bestLoad = load;
+                }
+                if (zone != null && load < bestZoneLoad && zone.equals(candidate.staff.getZone())) {
+                    bestInZone = candidate;
+                    bestZoneLoad = load;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            if (bestInZone != null && bestZoneLoad <= bestLoad + zoneSlack) {
+                best = bestInZone;
+                bestLoad = bestZoneLoad;
+            }
+            if (best.load.compareAndSet(bestLoad, bestLoad + units)) {
+                updateStatus(best);
+                return best;
+            }
+            // Another thread changed this counter since the scan; decide again
+        }
+    }
+
+    private void charge(Workload workload, int units) {
+        workload.load.addAndGet(units);
+        updateStatus(workload);
+    }
+
+    private void release(Charge charge) {
+        if (charge != null) {
+            charge(charge.workload, -charge.units);
+        }
+    }
+
+    private void updateStatus(Workload workload) {
+        while (true) {
+            Staff.StaffStatus current = workload.status.get();
+            if (current == Staff.StaffStatus.OFF_DUTY) {
+                return;
+            }
+            Staff.StaffStatus wanted = workload.load.get() >= workload.busyLoad
+                ? Staff.StaffStatus.BUSY : Staff.StaffStatus.AVAILABLE;
+            if (current == wanted) {
+                return;
+            }
+            if (workload.status.compareAndSet(current, wanted)) {
+                notifyListener(workload, wanted);
+                return;
+            }
+        }
+    }
+
+    private void notifyListener(Workload workload, Staff.StaffStatus status) {
+        if (listener != null) {
+            listener.statusChanged(workload.staff.getStaffId(), status);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.restaurant.staffing;
+
+import com.restaurant.event.OrderEvent;
+import com.restaurant.event.OrderEventHandler;
+
+/**
+ * Event handler that releases staff workload as orders move through their lifecycle
+ */
+public class StaffEventHandler implements OrderEventHandler {
+    private final StaffAssigner assigner;
+
+    /**
+     * Creates a handler
+     *
+     * @param assigner Assigner whose workload is updated
+     */
+    public StaffEventHandler(StaffAssigner assigner) {
+        this.assigner = assigner;
+    }
+
+    @Override
+    public void onEvent(OrderEvent event, long sequence, boolean endOfBatch) {
+        assigner.orderStatusChanged(event.getOrderId(), event.getNewStatus());
+    }
+}
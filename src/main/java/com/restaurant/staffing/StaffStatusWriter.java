@@ -0,0 +1,51 @@
+package com.restaurant.staffing;
+
+import com.restaurant.dao.StaffDAO;
+import com.restaurant.model.Staff;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Stores staff status changes in the database in the background
+ *
+ * Changes are written by one background thread so that assigning staff
+ * never waits for the database. Changes that arrive for a staff member
+ * while an earlier one is still waiting to be written replace it, so a
+ * flapping status costs at most one write per flush and the last status
+ * always wins.
+ */
+public class StaffStatusWriter implements StaffAssigner.StatusListener {
+    private final StaffDAO staffDAO;
+    private final Map<Integer, Staff.StaffStatus> pending = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "staff-status-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Creates a writer
+     *
+     * @param staffDAO DAO used to store the status
+     */
+    public StaffStatusWriter(StaffDAO staffDAO) {
+        this.staffDAO = staffDAO;
+    }
+
+    @Override
+    public void statusChanged(int staffId, Staff.StaffStatus status) {
+        if (pending.put(staffId, status) == null) {
+            writer.execute(() -> write(staffId));
+        }
+    }
+
+    private void write(int staffId) {
+        Staff.StaffStatus status = pending.remove(staffId);
+        if (status != null) {
+            staffDAO.updateStaffStatus(staffId, status);
+        }
+    }
+}
@@ -0,0 +1,542 @@
+package com.restaurant.store;
+
+import com.restaurant.model.MenuCatalog;
+import com.restaurant.model.MenuItem;
+import com.restaurant.model.Order;
+import com.restaurant.model.OrderItem;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Memory-compact, columnar store for large numbers of orders
+ *
+ * An {@link Order} object graph costs several hundred bytes per order
+ * (object headers, boxed Integers, two LocalDateTime objects, the order
+ * number String, an ArrayList and one OrderItem plus Strings per item).
+ * This store keeps every field in a primitive array instead:
+ *
+ * - IDs as ints, timestamps as int seconds since 2000-01-01 (UTC), amounts
+ *   as int cents
+ * - status and priority as bytes, times in minutes as shorts
+ * - order numbers like "ORD-000123" as a dictionary-encoded prefix plus a
+ *   number and its digit count
+ * - item names and notes dictionary-encoded; menu items only by menu_item_id
+ * - items of all orders in shared columns, addressed by an offset per order
+ *
+ * Orders are looked up by ID through a primitive open-addressing index.
+ * {@link #get} materialises a detached Order on demand; {@link View} reads
+ * single fields without creating any objects.
+ *
+ * Like ArrayList, the store is not thread-safe.
+ */
+public class CompactOrderStore {
+    private static final int NONE = Integer.MIN_VALUE;
+    private static final short NO_TIME = Short.MIN_VALUE;
+    private static final long EPOCH_BASE = LocalDateTime.of(2000, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC);
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+
+    private final MenuCatalog menu;
+    private final StringDictionary numberPrefixes = new StringDictionary();
+    private final StringDictionary itemNames = new StringDictionary();
+    private final StringDictionary itemNotes = new StringDictionary();
+
+    // Order columns
+    private int size;
+    private int[] orderIds;
+    private int[] branchIds;
+    private int[] tableIds;
+    private int[] staffIds;
+    private int[] versions;
+    private int[] numberPrefix;
+    private int[] numberValue;
+    private byte[] numberWidth;
+    private byte[] statuses;
+    private byte[] priorities;
+    private short[] estimatedTimes;
+    private short[] actualTimes;
+    private int[] amountCents;
+    private int[] createdAt;
+    private int[] updatedAt;
+    private int[] firstItem;
+
+    // Item columns, shared by all orders
+    private int itemCount;
+    private int[] itemIds;
+    private int[] itemMenuIds;
+    private int[] itemNameCodes;
+    private int[] itemNoteCodes;
+    private short[] itemQuantities;
+    private int[] itemPriceCents;
+
+    // Order ID -> index + 1 (0 = empty slot)
+    private int[] indexKeys;
+    private int[] indexValues;
+
+    /**
+     * Read-only view of one stored order
+     *
+     * A view reads directly from the columns; {@link #forEach} reuses a single
+     * view for all orders, so scanning the store allocates nothing.
+     */
+    public final class View {
+        private int index;
+
+        private View(int index) {
+            this.index = index;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public int getOrderId() {
+            return orderIds[index];
+        }
+
+        public int getBranchId() {
+            return branchIds[index];
+        }
+
+        public int getTableId() {
+            return tableIds[index];
+        }
+
+        public Integer getStaffId() {
+            return staffIds[index] == NONE ? null : staffIds[index];
+        }
+
+        public String getOrderNumber() {
+            return decodeOrderNumber(index);
+        }
+
+        public Order.OrderStatus getStatus() {
+            return STATUSES[statuses[index]];
+        }
+
+        /**
+         * Gets the row version, for compare-and-set status updates
+         *
+         * @return Version of the stored order
+         */
+        public int getVersion() {
+            return versions[index];
+        }
+
+        public int getPriority() {
+            return priorities[index];
+        }
+
+        public int getEstimatedTime() {
+            return estimatedTimes[index];
+        }
+
+        public Integer getActualTime() {
+            return actualTimes[index] == NO_TIME ? null : (int) actualTimes[index];
+        }
+
+        public double getTotalAmount() {
+            return amountCents[index] / 100.0;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return decodeTime(createdAt[index]);
+        }
+
+        public int getItemCount() {
+            return firstItem[index + 1] - firstItem[index];
+        }
+
+        /**
+         * Materialises the order
+         *
+         * @return New Order object, independent of the store
+         */
+        public Order toOrder() {
+            return get(index);
+        }
+    }
+
+    /**
+     * Creates an empty store whose menu items cannot be resolved by ID
+     */
+    public CompactOrderStore() {
+        this(MenuCatalog.empty(), 16);
+    }
+
+    /**
+     * Creates an empty store
+     *
+     * @param menu Menu used to store menu items by ID and resolve them again
+     * @param expectedOrders Initial capacity in orders
+     */
+    public CompactOrderStore(MenuCatalog menu, int expectedOrders) {
+        this.menu = menu;
+        int capacity = Math.max(16, expectedOrders);
+        orderIds = new int[capacity];
+        branchIds = new int[capacity];
+        tableIds = new int[capacity];
+        staffIds = new int[capacity];
+        versions = new int[capacity];
+        numberPrefix = new int[capacity];
+        numberValue = new int[capacity];
+        numberWidth = new byte[capacity];
+        statuses = new byte[capacity];
+        priorities = new byte[capacity];
+        estimatedTimes = new short[capacity];
+        actualTimes = new short[capacity];
+        amountCents = new int[capacity];
+        createdAt = new int[capacity];
+        updatedAt = new int[capacity];
+        firstItem = new int[capacity + 1];
+
+        int itemCapacity = capacity * 2;
+        itemIds = new int[itemCapacity];
+        itemMenuIds = new int[itemCapacity];
+        itemNameCodes = new int[itemCapacity];
+        itemNoteCodes = new int[itemCapacity];
+        itemQuantities = new short[itemCapacity];
+        itemPriceCents = new int[itemCapacity];
+
+        int slots = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        indexKeys = new int[slots];
+        indexValues = new int[slots];
+    }
+
+    /**
+     * Adds an order and its items
+     *
+     * @param order Order to store (copied; later changes to it are not seen)
+     * @return Index of the stored order
+     * @throws IllegalArgumentException if the order ID is already stored or a
+     *         field does not fit the compact encoding
+     */
+    public int add(Order order) {
+        if (indexOf(order.getOrderId()) >= 0) {
+            throw new IllegalArgumentException("Order " + order.getOrderId() + " is already stored");
+        }
+        ensureOrderCapacity(size + 1);
+        int i = size;
+
+        orderIds[i] = order.getOrderId();
+        branchIds[i] = order.getBranchId();
+        tableIds[i] = order.getTableId();
+        staffIds[i] = order.getStaffId() != null ? order.getStaffId() : NONE;
+        versions[i] = order.getVersion();
+        encodeOrderNumber(i, order.getOrderNumber());
+        statuses[i] = (byte) order.getStatus().ordinal();
+        priorities[i] = toByte(order.getPriority(), "priority");
+        estimatedTimes[i] = toShort(order.getEstimatedTime(), "estimatedTime");
+        actualTimes[i] = order.getActualTime() != null ? toShort(order.getActualTime(), "actualTime") : NO_TIME;
+        amountCents[i] = toCents(order.getTotalAmount());
+        createdAt[i] = encodeTime(order.getCreatedAt());
+        updatedAt[i] = encodeTime(order.getUpdatedAt());
+
+        List<OrderItem> items = order.getItems();
+        int count = items != null ? items.size() : 0;
+        ensureItemCapacity(itemCount + count);
+        for (int k = 0; k < count; k++) {
+            OrderItem item = items.get(k);
+            int j = itemCount + k;
+            MenuItem menuItem = item.getMenuItem();
+            itemIds[j] = item.getItemId();
+            itemMenuIds[j] = menuItem != null ? menuItem.getMenuItemId() : NONE;
+            // The name is only kept when it cannot be resolved from the menu again
+            itemNameCodes[j] = menuItem != null && menu.getById(menuItem.getMenuItemId()) == menuItem
+                ? StringDictionary.NULL_CODE
+                : itemNames.encode(item.getItemName());
+            itemNoteCodes[j] = itemNotes.encode(item.getNotes());
+            itemQuantities[j] = toShort(item.getQuantity(), "quantity");
+            itemPriceCents[j] = toCents(item.getPrice());
+        }
+        itemCount += count;
+        firstItem[i + 1] = itemCount;
+
+        size++;
+        putIndex(order.getOrderId(), i);
+        return i;
+    }
+
+    /**
+     * Updates the status of a stored order and increments its version, as
+     * every status change in the database does
+     *
+     * @param index Index of the order
+     * @param status New status
+     * @param time Time of the change (may be null)
+     */
+    public void setStatus(int index, Order.OrderStatus status, LocalDateTime time) {
+        checkIndex(index);
+        statuses[index] = (byte) status.ordinal();
+        versions[index]++;
+        updatedAt[index] = encodeTime(time);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Finds an order by ID
+     *
+     * @param orderId ID of the order
+     * @return Index of the order, or -1 if it is not stored
+     */
+    public int indexOf(int orderId) {
+        int mask = indexKeys.length - 1;
+        for (int slot = hash(orderId) & mask; indexValues[slot] != 0; slot = (slot + 1) & mask) {
+            if (indexKeys[slot] == orderId) {
+                return indexValues[slot] - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets a read-only view of an order
+     *
+     * @param index Index of the order
+     * @return View of the order
+     */
+    public View view(int index) {
+        checkIndex(index);
+        return new View(index);
+    }
+
+    /**
+     * Visits every order with one reused view
+     *
+     * @param consumer Receives the view, positioned on each order in turn; it must not keep the view
+     */
+    public void forEach(Consumer<View> consumer) {
+        View view = new View(0);
+        for (int i = 0; i < size; i++) {
+            view.index = i;
+            consumer.accept(view);
+        }
+    }
+
+    /**
+     * Materialises an order with its items
+     *
+     * @param index Index of the order
+     * @return New Order object, independent of the store
+     */
+    public Order get(int index) {
+        checkIndex(index);
+        Order order = new Order();
+        order.setOrderId(orderIds[index]);
+        order.setBranchId(branchIds[index]);
+        order.setTableId(tableIds[index]);
+        order.setStaffId(staffIds[index] == NONE ? null : staffIds[index]);
+        order.setVersion(versions[index]);
+        order.setOrderNumber(decodeOrderNumber(index));
+        order.setStatus(STATUSES[statuses[index]]);
+        order.setPriority(priorities[index]);
+        order.setEstimatedTime(estimatedTimes[index]);
+        order.setActualTime(actualTimes[index] == NO_TIME ? null : (int) actualTimes[index]);
+        order.setCreatedAt(decodeTime(createdAt[index]));
+        order.setUpdatedAt(decodeTime(updatedAt[index]));
+
+        List<OrderItem> items = new ArrayList<>(firstItem[index + 1] - firstItem[index]);
+        for (int j = firstItem[index]; j < firstItem[index + 1]; j++) {
+            OrderItem item = new OrderItem();
+            item.setItemId(itemIds[j]);
+            item.setOrderId(orderIds[index]);
+            if (itemMenuIds[j] != NONE) {
+                item.setMenuItem(menu.getById(itemMenuIds[j]));
+            }
+            if (itemNameCodes[j] != StringDictionary.NULL_CODE) {
+                item.setItemName(itemNames.decode(itemNameCodes[j]));
+            }
+            item.setNotes(itemNotes.decode(itemNoteCodes[j]));
+            item.setQuantity(itemQuantities[j]);
+            item.setPrice(itemPriceCents[j] / 100.0);
+            items.add(item);
+        }
+        order.setItems(items);
+        order.setTotalAmount(amountCents[index] / 100.0);
+        return order;
+    }
+
+    /**
+     * Materialises an order by ID
+     *
+     * @param orderId ID of the order
+     * @return New Order object, or null if the order is not stored
+     */
+    public Order getById(int orderId) {
+        int index = indexOf(orderId);
+        return index >= 0 ? get(index) : null;
+    }
+
+    /**
+     * Estimates the heap used by the store, including unused capacity
+     *
+     * @return Approximate size in bytes
+     */
+    public long estimateBytes() {
+        long orderColumns = (long) orderIds.length * (4 * 10 + 1 * 3 + 2 * 2) + 4L * firstItem.length;
+        long itemColumns = (long) itemIds.length * (4 * 5 + 2);
+        long index = (long) indexKeys.length * 8;
+        return orderColumns + itemColumns + index
+            + numberPrefixes.estimateBytes() + itemNames.estimateBytes() + itemNotes.estimateBytes();
+    }
+
+    private void encodeOrderNumber(int index, String orderNumber) {
+        if (orderNumber == null) {
+            numberPrefix[index] = StringDictionary.NULL_CODE;
+            numberWidth[index] = 0;
+            return;
+        }
+        // Split "ORD-000123" into "ORD-", 123 and 6 digits
+        int digitsStart = orderNumber.length();
+        while (digitsStart > 0 && isAsciiDigit(orderNumber.charAt(digitsStart - 1))) {
+            digitsStart--;
+        }
+        int width = orderNumber.length() - digitsStart;
+        if (width == 0 || width > 9) {
+            numberPrefix[index] = numberPrefixes.encode(orderNumber);
+            numberWidth[index] = 0;
+            return;
+        }
+        numberPrefix[index] = numberPrefixes.encode(orderNumber.substring(0, digitsStart));
+        numberValue[index] = Integer.parseInt(orderNumber, digitsStart, orderNumber.length(), 10);
+        numberWidth[index] = (byte) width;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private String decodeOrderNumber(int index) {
+        String prefix = numberPrefixes.decode(numberPrefix[index]);
+        int width = numberWidth[index];
+        if (prefix == null || width == 0) {
+            return prefix;
+        }
+        String digits = Integer.toString(numberValue[index]);
+        StringBuilder number = new StringBuilder(prefix.length() + width).append(prefix);
+        for (int pad = digits.length(); pad < width; pad++) {
+            number.append('0');
+        }
+        return number.append(digits).toString();
+    }
+
+    private static int encodeTime(LocalDateTime time) {
+        if (time == null) {
+            return NONE;
+        }
+        long seconds = time.toEpochSecond(ZoneOffset.UTC) - EPOCH_BASE;
+        if (seconds <= NONE || seconds > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Timestamp out of range: " + time);
+        }
+        return (int) seconds;
+    }
+
+    private static LocalDateTime decodeTime(int seconds) {
+        return seconds == NONE ? null : LocalDateTime.ofEpochSecond(EPOCH_BASE + seconds, 0, ZoneOffset.UTC);
+    }
+
+    private static int toCents(double amount) {
+        long cents = Math.round(amount * 100);
+        if (cents < Integer.MIN_VALUE || cents > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Amount out of range: " + amount);
+        }
+        return (int) cents;
+    }
+
+    private static byte toByte(int value, String field) {
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException(field + " out of range: " + value);
+        }
+        return (byte) value;
+    }
+
+    private static short toShort(int value, String field) {
+        if (value <= NO_TIME || value > Short.MAX_VALUE) {
+            throw new IllegalArgumentException(field + " out of range: " + value);
+        }
+        return (short) value;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private void putIndex(int orderId, int index) {
+        if (size * 2 > indexKeys.length) {
+            int[] oldKeys = indexKeys;
+            int[] oldValues = indexValues;
+            indexKeys = new int[oldKeys.length * 2];
+            indexValues = new int[oldValues.length * 2];
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldValues[slot] != 0) {
+                    insertIndex(oldKeys[slot], oldValues[slot]);
+                }
+            }
+        }
+        insertIndex(orderId, index + 1);
+    }
+
+    private void insertIndex(int key, int value) {
+        int mask = indexKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (indexValues[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        indexKeys[slot] = key;
+        indexValues[slot] = value;
+    }
+
+    private void ensureOrderCapacity(int needed) {
+        if (needed <= orderIds.length) {
+            return;
+        }
+        int capacity = Math.max(needed, orderIds.length + (orderIds.length >> 1));
+        orderIds = Arrays.copyOf(orderIds, capacity);
+        branchIds = Arrays.copyOf(branchIds, capacity);
+        tableIds = Arrays.copyOf(tableIds, capacity);
+        staffIds = Arrays.copyOf(staffIds, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        numberPrefix = Arrays.copyOf(numberPrefix, capacity);
+        numberValue = Arrays.copyOf(numberValue, capacity);
+        numberWidth = Arrays.copyOf(numberWidth, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        estimatedTimes = Arrays.copyOf(estimatedTimes, capacity);
+        actualTimes = Arrays.copyOf(actualTimes, capacity);
+        amountCents = Arrays.copyOf(amountCents, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        firstItem = Arrays.copyOf(firstItem, capacity + 1);
+    }
+
+    private void ensureItemCapacity(int needed) {
+        if (needed <= itemIds.length) {
+            return;
+        }
+        int capacity = Math.max(needed, itemIds.length + (itemIds.length >> 1));
+        itemIds = Arrays.copyOf(itemIds, capacity);
+        itemMenuIds = Arrays.copyOf(itemMenuIds, capacity);
+        itemNameCodes = Arrays.copyOf(itemNameCodes, capacity);
+        itemNoteCodes = Arrays.copyOf(itemNoteCodes, capacity);
+        itemQuantities = Arrays.copyOf(itemQuantities, capacity);
+        itemPriceCents = Arrays.copyOf(itemPriceCents, capacity);
+    }
+}
@@ -0,0 +1,286 @@
+package com.restaurant.store;
+
+import com.restaurant.model.Order;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary checkpoint of the live scheduling state
+ *
+ * Holds the active orders (without items), the schedule order and sequence
+ * number of every live feed, and the watermark: the database time up to
+ * which the state is complete. After a restart the state is read back and
+ * only orders changed since the watermark are loaded from the database.
+ *
+ * The checkpoint also keeps the stream epoch of the event IDs the feeds
+ * handed out, and whether it was written at shutdown: only then are the
+ * feed sequence numbers the last ones clients saw, so they can resume with
+ * their old event IDs after the restart.
+ *
+ * File layout (big-endian): magic "RQCP", format version, watermark, stream
+ * epoch, shutdown flag, order count, orders as fixed-width records plus the order number, feed count,
+ * feeds as name, sequence and order IDs, and a CRC32 of everything before
+ * it. The file is written to a temporary file, forced to disk and renamed,
+ * so a crash while writing leaves the previous checkpoint intact; it is
+ * read through a memory mapping.
+ */
+public class ScheduleCheckpoint {
+    private static final int MAGIC = 0x52514350;
+    private static final short FORMAT_VERSION = 2;
+    private static final int NO_STAFF = Integer.MIN_VALUE;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final Order.OrderStatus[] STATUSES = Order.OrderStatus.values();
+    /** Fixed part of an order record: 6 ints, 2 bytes, 1 double, 2 longs */
+    private static final int ORDER_RECORD_BYTES = 6 * 4 + 2 + 8 + 2 * 8;
+
+    /**
+     * Schedule of one live feed
+     */
+    public static final class FeedState {
+        private final long sequence;
+        private final int[] orderIds;
+
+        /**
+         * Creates a feed state
+         *
+         * @param sequence Sequence number of the schedule
+         * @param orderIds Order IDs in schedule order
+         */
+        public FeedState(long sequence, int[] orderIds) {
+            this.sequence = sequence;
+            this.orderIds = orderIds;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public int[] getOrderIds() {
+            return orderIds;
+        }
+    }
+
+    private final LocalDateTime watermark;
+    private final String streamEpoch;
+    private final boolean atShutdown;
+    private final List<Order> orders;
+    private final Map<String, FeedState> feeds;
+
+    /**
+     * Creates a checkpoint
+     *
+     * @param watermark Database time up to which the state is complete
+     * @param streamEpoch Epoch of the event IDs of the feeds
+     * @param atShutdown Whether no feed changes after this checkpoint
+     * @param orders Active orders
+     * @param feeds Feed states by feed key
+     */
+    public ScheduleCheckpoint(LocalDateTime watermark, String streamEpoch, boolean atShutdown, List<Order> orders,
+                              Map<String, FeedState> feeds) {
+        this.watermark = watermark;
+        this.streamEpoch = streamEpoch;
+        this.atShutdown = atShutdown;
+        this.orders = orders;
+        this.feeds = feeds;
+    }
+
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    public String getStreamEpoch() {
+        return streamEpoch;
+    }
+
+    /**
+     * Tells whether the checkpoint was written at shutdown, after the last feed change
+     *
+     * @return false for a periodic checkpoint, which clients may be ahead of
+     */
+    public boolean isAtShutdown() {
+        return atShutdown;
+    }
+
+    public List<Order> getOrders() {
+        return orders;
+    }
+
+    public Map<String, FeedState> getFeeds() {
+        return feeds;
+    }
+
+    /**
+     * Writes the checkpoint, replacing an existing file atomically
+     *
+     * @param file Checkpoint file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        byte[] epoch = streamEpoch.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> numbers = new ArrayList<>(orders.size());
+        int size = 4 + 2 + 8 + 2 + epoch.length + 1 + 4;
+        for (Order order : orders) {
+            byte[] number = order.getOrderNumber() != null
+                ? order.getOrderNumber().getBytes(StandardCharsets.UTF_8) : new byte[0];
+            numbers.add(number);
+            size += ORDER_RECORD_BYTES + 2 + number.length;
+        }
+        List<byte[]> names = new ArrayList<>(feeds.size());
+        size += 4;
+        for (Map.Entry<String, FeedState> feed : feeds.entrySet()) {
+            byte[] name = feed.getKey().getBytes(StandardCharsets.UTF_8);
+            names.add(name);
+            size += 2 + name.length + 8 + 4 + 4 * feed.getValue().orderIds.length;
+        }
+        size += 4;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putShort(FORMAT_VERSION).putLong(toMillis(watermark));
+        putBytes(buffer, epoch);
+        buffer.put((byte) (atShutdown ? 1 : 0)).putInt(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            buffer.putInt(order.getOrderId())
+                .putInt(order.getBranchId())
+                .putInt(order.getTableId())
+                .putInt(order.getStaffId() != null ? order.getStaffId() : NO_STAFF)
+                .putInt(order.getEstimatedTime())
+                .putInt(order.getVersion())
+                .put((byte) order.getStatus().ordinal())
+                .put((byte) order.getPriority())
+                .putDouble(order.getTotalAmount())
+                .putLong(toMillis(order.getCreatedAt()))
+                .putLong(toMillis(order.getUpdatedAt()));
+            putBytes(buffer, numbers.get(i));
+        }
+        buffer.putInt(feeds.size());
+        int feedIndex = 0;
+        for (FeedState feed : feeds.values()) {
+            putBytes(buffer, names.get(feedIndex++));
+            buffer.putLong(feed.sequence).putInt(feed.orderIds.length);
+            for (int orderId : feed.orderIds) {
+                buffer.putInt(orderId);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint
+     *
+     * @param file Checkpoint file
+     * @return The checkpoint
+     * @throws IOException if the file cannot be read or is not a valid checkpoint
+     */
+    public static ScheduleCheckpoint read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length < 4 + 2 + 8 + 2 + 1 + 4 + 4 + 4 || length > Integer.MAX_VALUE) {
+                throw new IOException("Not a schedule checkpoint: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            int bodyLength = (int) length - 4;
+            CRC32 crc = new CRC32();
+            ByteBuffer body = buffer.duplicate();
+            body.limit(bodyLength);
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt(bodyLength)) {
+                throw new IOException("Checkpoint is damaged (checksum mismatch): " + file);
+            }
+
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a schedule checkpoint: " + file);
+            }
+            short version = buffer.getShort();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported checkpoint format " + version + ": " + file);
+            }
+            LocalDateTime watermark = fromMillis(buffer.getLong());
+            String streamEpoch = getString(buffer);
+            boolean atShutdown = buffer.get() != 0;
+            int orderCount = buffer.getInt();
+            List<Order> orders = new ArrayList<>(orderCount);
+            for (int i = 0; i < orderCount; i++) {
+                Order order = new Order();
+                order.setOrderId(buffer.getInt());
+                order.setBranchId(buffer.getInt());
+                order.setTableId(buffer.getInt());
+                int staffId = buffer.getInt();
+                order.setStaffId(staffId != NO_STAFF ? staffId : null);
+                order.setEstimatedTime(buffer.getInt());
+                order.setVersion(buffer.getInt());
+                order.setStatus(STATUSES[buffer.get()]);
+                order.setPriority(buffer.get());
+                order.setTotalAmount(buffer.getDouble());
+                order.setCreatedAt(fromMillis(buffer.getLong()));
+                order.setUpdatedAt(fromMillis(buffer.getLong()));
+                order.setOrderNumber(getString(buffer));
+                orders.add(order);
+            }
+            int feedCount = buffer.getInt();
+            Map<String, FeedState> feeds = new LinkedHashMap<>();
+            for (int i = 0; i < feedCount; i++) {
+                String name = getString(buffer);
+                long sequence = buffer.getLong();
+                int[] orderIds = new int[buffer.getInt()];
+                for (int j = 0; j < orderIds.length; j++) {
+                    orderIds[j] = buffer.getInt();
+                }
+                feeds.put(name, new FeedState(sequence, orderIds));
+            }
+            return new ScheduleCheckpoint(watermark, streamEpoch, atShutdown, orders,
+                Collections.unmodifiableMap(feeds));
+        } catch (RuntimeException e) {
+            // Buffer underflow or an unknown status: the file does not match its own header
+            throw new IOException("Checkpoint is damaged: " + file + " (" + e + ")", e);
+        }
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length).put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[Short.toUnsignedInt(buffer.getShort())];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.toInstant(ZoneOffset.UTC).toEpochMilli() : NO_TIME;
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return millis != NO_TIME ? LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+            Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC) : null;
+    }
+}
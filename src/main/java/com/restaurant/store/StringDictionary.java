@@ -0,0 +1,67 @@
+package com.restaurant.store;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dictionary encoding of strings
+ *
+ * Every distinct string is stored once and referred to by a small integer
+ * code, so a note like "no onions" repeated on thousands of items costs one
+ * String plus four bytes per use.
+ */
+class StringDictionary {
+    static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    /**
+     * Gets the code of a string, adding it if it is new
+     *
+     * @param value String to encode (may be null)
+     * @return Code, or {@link #NULL_CODE} for null
+     */
+    int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    /**
+     * Gets the string of a code
+     *
+     * @param code Code returned by {@link #encode}
+     * @return The string, or null for {@link #NULL_CODE}
+     */
+    String decode(int code) {
+        return code == NULL_CODE ? null : values.get(code);
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    /**
+     * Estimates the heap used by the dictionary
+     *
+     * @return Approximate size in bytes (strings, map entries and list)
+     */
+    long estimateBytes() {
+        long bytes = 0;
+        for (String value : values) {
+            // String header + byte[] header + Latin-1 content, map entry, boxed code, list slot
+            bytes += 24 + 16 + value.length() + 32 + 16 + 4;
+        }
+        return bytes;
+    }
+}
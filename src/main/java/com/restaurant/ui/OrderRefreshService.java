@@ -0,0 +1,177 @@
+package com.restaurant.ui;
+
+import com.restaurant.algorithm.ScheduleCache;
+import com.restaurant.algorithm.SchedulingAlgorithm;
+import com.restaurant.dao.OrderDAO;
+import com.restaurant.model.Order;
+import javafx.concurrent.ScheduledService;
+import javafx.concurrent.Task;
+import javafx.util.Duration;
+
+import java.util.List;
+
+/**
+ * Periodically loads pending orders and schedules them in the background
+ *
+ * The database query and the scheduling algorithm run on a worker thread;
+ * the controller receives one {@link Result} per refresh on the FX thread
+ * and updates both tables from it in a single pass.
+ *
+ * A ScheduledService never runs two tasks at once, so a slow query delays
+ * the next refresh instead of starting another JDBC call. Manual refreshes
+ * requested while a refresh is in flight are coalesced into one follow-up
+ * refresh (see {@link #refreshNow()}).
+ *
+ * On database errors the period is stretched exponentially, up to
+ * {@link #MAX_BACKOFF}, and returns to normal after the next success.
+ */
+public class OrderRefreshService extends ScheduledService<OrderRefreshService.Result> {
+    /** Time between two refreshes while the database is healthy */
+    public static final Duration REFRESH_PERIOD = Duration.seconds(5);
+    /** Longest wait between two attempts while the database is failing */
+    public static final Duration MAX_BACKOFF = Duration.minutes(2);
+
+    private final OrderDAO orderDAO;
+    private final ScheduleCache scheduleCache;
+    private volatile SchedulingAlgorithm algorithm;
+    private boolean autoRefresh;
+    private boolean refreshPending;
+
+    /**
+     * Orders and schedule produced by one refresh
+     */
+    public static class Result {
+        private final List<Order> orders;
+        private final SchedulingAlgorithm algorithm;
+        private final List<Order> schedule;
+
+        Result(List<Order> orders, SchedulingAlgorithm algorithm, List<Order> schedule) {
+            this.orders = orders;
+            this.algorithm = algorithm;
+            this.schedule = schedule;
+        }
+
+        /**
+         * Gets the pending orders in creation order
+         *
+         * @return Pending orders
+         */
+        public List<Order> getOrders() {
+            return orders;
+        }
+
+        /**
+         * Gets the algorithm that produced the schedule
+         *
+         * @return Algorithm, or null if no algorithm was applied
+         */
+        public SchedulingAlgorithm getAlgorithm() {
+            return algorithm;
+        }
+
+        /**
+         * Gets the optimized schedule
+         *
+         * @return Orders in scheduled order, or null if no algorithm was applied
+         */
+        public List<Order> getSchedule() {
+            return schedule;
+        }
+    }
+
+    /**
+     * Creates a refresh service; it does nothing until started
+     *
+     * @param orderDAO DAO used to load the orders
+     * @param scheduleCache Cache that skips scheduling when the orders did not change
+     */
+    public OrderRefreshService(OrderDAO orderDAO, ScheduleCache scheduleCache) {
+        this.orderDAO = orderDAO;
+        this.scheduleCache = scheduleCache;
+        setPeriod(REFRESH_PERIOD);
+        setBackoffStrategy(EXPONENTIAL_BACKOFF_STRATEGY);
+        setMaximumCumulativePeriod(MAX_BACKOFF);
+        setRestartOnFailure(true);
+    }
+
+    /**
+     * Sets the algorithm applied to every refreshed order list
+     *
+     * @param algorithm Algorithm, or null to only load orders
+     */
+    public void setAlgorithm(SchedulingAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Enables or disables periodic refreshing (FX thread only)
+     *
+     * @param enabled Whether to refresh every {@link #REFRESH_PERIOD}
+     */
+    public void setAutoRefresh(boolean enabled) {
+        autoRefresh = enabled;
+        if (enabled) {
+            refreshNow();
+        } else if (getState() == State.SCHEDULED) {
+            cancel();
+        }
+        // A running refresh finishes and is not rescheduled (see succeeded())
+    }
+
+    public boolean isAutoRefresh() {
+        return autoRefresh;
+    }
+
+    /**
+     * Refreshes as soon as possible (FX thread only)
+     *
+     * If a refresh is already running, one more refresh is started after it;
+     * further requests in the meantime are merged into that one.
+     */
+    public void refreshNow() {
+        if (getState() == State.RUNNING) {
+            refreshPending = true;
+        } else {
+            // Skips the remaining delay, or starts the service if it was idle
+            restart();
+        }
+    }
+
+    @Override
+    protected void succeeded() {
+        super.succeeded();
+        followUp();
+    }
+
+    @Override
+    protected void failed() {
+        super.failed();
+        if (!autoRefresh) {
+            // A one-off refresh is reported to the user instead of retried
+            refreshPending = false;
+            cancel();
+        }
+    }
+
+    private void followUp() {
+        if (refreshPending) {
+            refreshPending = false;
+            restart();
+        } else if (!autoRefresh) {
+            cancel();
+        }
+    }
+
+    @Override
+    protected Task<Result> createTask() {
+        SchedulingAlgorithm taskAlgorithm = algorithm;
+        return new Task<>() {
+            @Override
+            protected Result call() throws Exception {
+                List<Order> orders = orderDAO.loadPendingOrders();
+                List<Order> schedule = taskAlgorithm != null ? scheduleCache.schedule(taskAlgorithm, orders) : null;
+                return new Result(orders, taskAlgorithm, schedule);
+            }
+        };
+    }
+}
@@ -3,14 +3,16 @@ package com.restaurant.ui;
 import com.restaurant.algorithm.*;
 import com.restaurant.dao.OrderDAO;
 import com.restaurant.model.Order;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 
 import java.net.URL;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
 
 /**
@@ -21,9 +23,13 @@ import java.util.*;
  */
 public class RestaurantController implements Initializable {
     
+    /** Row height in pixels; fixed so the tables never measure rows */
+    private static final double ROW_HEIGHT = 24;
+    
     @FXML private ComboBox<String> algorithmComboBox;
     @FXML private Button applyAlgorithmButton;
     @FXML private Button refreshButton;
+    @FXML private CheckBox autoRefreshCheckBox;
     @FXML private Label algorithmDescriptionLabel;
     @FXML private Label statisticsLabel;
     @FXML private Label statusLabel;
@@ -46,10 +52,19 @@ public class RestaurantController implements Initializable {
     @FXML private TableColumn<Order, Double> optimizedAmountCol;
     @FXML private TableColumn<Order, String> optimizedStatusCol;
     
+    // Timeline of the optimized queue
+    @FXML private ScheduleTimeline scheduleTimeline;
+    @FXML private Spinner<Integer> chefsSpinner;
+    
     private OrderDAO orderDAO;
     private List<SchedulingAlgorithm> algorithms;
-    private ObservableList<Order> originalOrders;
-    private ObservableList<Order> optimizedOrders;
+    private ScheduleCache scheduleCache;
+    private ScheduleObservableList originalOrders;
+    private ScheduleObservableList optimizedOrders;
+    private OrderRefreshService refreshService;
+    private boolean manualRefreshRequested;
+    // Algorithm of the optimized queue, to time it again when the number of chefs changes
+    private SchedulingAlgorithm optimizedAlgorithm;
     
     /**
      * Initializes the controller
@@ -58,8 +73,8 @@ public class RestaurantController implements Initializable {
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         orderDAO = new OrderDAO();
-        originalOrders = FXCollections.observableArrayList();
-        optimizedOrders = FXCollections.observableArrayList();
+        originalOrders = new ScheduleObservableList();
+        optimizedOrders = new ScheduleObservableList();
         
         // Initialize algorithms
         initializeAlgorithms();
@@ -67,6 +82,7 @@ public class RestaurantController implements Initializable {
         // Setup UI components
         setupAlgorithmComboBox();
         setupTables();
+        setupRefreshService();
         
         // Don't load orders automatically - let user click refresh after checking database
         // Set initial status with helpful instructions
@@ -88,10 +104,8 @@ public class RestaurantController implements Initializable {
      * Initializes available scheduling algorithms
      */
     private void initializeAlgorithms() {
-        algorithms = new ArrayList<>();
-        algorithms.add(new ShortestProcessingTime());
-        algorithms.add(new PriorityQueueScheduling());
-        algorithms.add(new RoundRobinScheduling());
+        algorithms = SchedulingAlgorithms.createAll();
+        scheduleCache = new ScheduleCache();
     }
     
     /**
@@ -133,17 +147,63 @@ public class RestaurantController implements Initializable {
      * Sets up the table views with columns
      */
     private void setupTables() {
-        // Setup original orders table
-        originalOrderNumberCol.setCellValueFactory(new PropertyValueFactory<>("orderNumber"));
-        originalTableCol.setCellValueFactory(new PropertyValueFactory<>("tableId"));
-        originalPriorityCol.setCellValueFactory(new PropertyValueFactory<>("priority"));
-        originalTimeCol.setCellValueFactory(new PropertyValueFactory<>("estimatedTime"));
-        originalAmountCol.setCellValueFactory(new PropertyValueFactory<>("totalAmount"));
-        originalStatusCol.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getStatus().toString()));
+        setupOrderTable(originalOrdersTable, originalOrders, originalOrderNumberCol, originalTableCol,
+                        originalPriorityCol, originalTimeCol, originalAmountCol, originalStatusCol);
+        setupOrderTable(optimizedOrdersTable, optimizedOrders, optimizedOrderNumberCol, optimizedTableCol,
+                        optimizedPriorityCol, optimizedTimeCol, optimizedAmountCol, optimizedStatusCol);
+        setupTimeline();
+    }
+    
+    /**
+     * Sets up the chefs of the timeline; the optimized queue is timed again when they change
+     */
+    private void setupTimeline() {
+        chefsSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 20, 1));
+        chefsSpinner.valueProperty().addListener((observable, oldValue, newValue) -> showSchedule(originalOrders,
+            optimizedAlgorithm, optimizedAlgorithm != null ? new ArrayList<>(optimizedOrders) : null));
+    }
+    
+    /**
+     * Times the optimized queue for the chefs of the spinner and shows it in
+     * the statistics and the timeline
+     * 
+     * @param original Original order list
+     * @param algorithm Algorithm of the optimized queue (can be null)
+     * @param sequence Optimized queue (can be null)
+     */
+    private void showSchedule(List<Order> original, SchedulingAlgorithm algorithm, List<Order> sequence) {
+        Schedule schedule = null;
+        if (algorithm != null && sequence != null) {
+            SchedulingContext context = new SchedulingContext(LocalDateTime.now(), chefsSpinner.getValue(),
+                Collections.emptyList(), null, Collections.emptyMap());
+            schedule = algorithm.toSchedule(sequence, context);
+        }
+        optimizedAlgorithm = schedule != null ? algorithm : null;
+        updateStatistics(original, schedule);
+        scheduleTimeline.setSchedule(schedule);
+    }
+    
+    /**
+     * Binds one order table to its list
+     * 
+     * Cell values are read through typed getters rather than PropertyValueFactory,
+     * which looks up the property by reflection for every cell it renders.
+     * A fixed row height lets the table compute its scroll range without
+     * measuring rows, so only the visible rows are ever laid out.
+     */
+    private void setupOrderTable(TableView<Order> table, ObservableList<Order> items,
+                                 TableColumn<Order, String> orderNumberCol, TableColumn<Order, Integer> tableCol,
+                                 TableColumn<Order, Integer> priorityCol, TableColumn<Order, Integer> timeCol,
+                                 TableColumn<Order, Double> amountCol, TableColumn<Order, String> statusCol) {
+        orderNumberCol.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getOrderNumber()));
+        tableCol.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getTableId()));
+        priorityCol.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getPriority()));
+        timeCol.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getEstimatedTime()));
+        amountCol.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getTotalAmount()));
+        statusCol.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().getStatus().toString()));
         
         // Format amount column
-        originalAmountCol.setCellFactory(column -> new TableCell<Order, Double>() {
+        amountCol.setCellFactory(column -> new TableCell<Order, Double>() {
             @Override
             protected void updateItem(Double amount, boolean empty) {
                 super.updateItem(amount, empty);
@@ -155,79 +215,147 @@ public class RestaurantController implements Initializable {
             }
         });
         
-        originalOrdersTable.setItems(originalOrders);
-        
-        // Setup optimized orders table
-        optimizedOrderNumberCol.setCellValueFactory(new PropertyValueFactory<>("orderNumber"));
-        optimizedTableCol.setCellValueFactory(new PropertyValueFactory<>("tableId"));
-        optimizedPriorityCol.setCellValueFactory(new PropertyValueFactory<>("priority"));
-        optimizedTimeCol.setCellValueFactory(new PropertyValueFactory<>("estimatedTime"));
-        optimizedAmountCol.setCellValueFactory(new PropertyValueFactory<>("totalAmount"));
-        optimizedStatusCol.setCellValueFactory(cellData -> 
-            new javafx.beans.property.SimpleStringProperty(cellData.getValue().getStatus().toString()));
-        
-        // Format amount column
-        optimizedAmountCol.setCellFactory(column -> new TableCell<Order, Double>() {
-            @Override
-            protected void updateItem(Double amount, boolean empty) {
-                super.updateItem(amount, empty);
-                if (empty || amount == null) {
-                    setText(null);
-                } else {
-                    setText(String.format("$%.2f", amount));
+        table.setFixedCellSize(ROW_HEIGHT);
+        table.setItems(items);
+    }
+    
+    /**
+     * Updates a table with a new schedule, keeping the selected order selected
+     * 
+     * Only the rows that changed are touched, so the scroll position stays put.
+     * 
+     * @param table Table to update
+     * @param items Items of the table
+     * @param schedule New content
+     */
+    private void updateTable(TableView<Order> table, ScheduleObservableList items, List<Order> schedule) {
+        Order selected = table.getSelectionModel().getSelectedItem();
+        items.update(schedule);
+        if (selected != null && table.getSelectionModel().getSelectedItem() == null) {
+            for (int i = 0; i < items.size(); i++) {
+                if (items.get(i).getOrderId() == selected.getOrderId()) {
+                    table.getSelectionModel().select(i);
+                    break;
                 }
             }
-        });
-        
-        optimizedOrdersTable.setItems(optimizedOrders);
+        }
     }
     
     /**
      * Refreshes the orders from the database
+     * 
+     * The orders are loaded in the background; the tables are updated when
+     * the refresh completes (see {@link #showRefreshResult}).
      */
     @FXML
     private void refreshOrders() {
-        try {
-            List<Order> orders = orderDAO.getAllPendingOrders();
-            originalOrders.clear();
-            originalOrders.addAll(orders);
-            
-            // Clear optimized table
+        manualRefreshRequested = true;
+        statusLabel.setText("Refreshing orders...");
+        refreshService.refreshNow();
+    }
+    
+    /**
+     * Turns periodic background refreshing on or off
+     */
+    @FXML
+    private void toggleAutoRefresh() {
+        boolean enabled = autoRefreshCheckBox.isSelected();
+        refreshService.setAutoRefresh(enabled);
+        statusLabel.setText(enabled
+            ? "Auto-refresh on: orders are reloaded every " + (int) OrderRefreshService.REFRESH_PERIOD.toSeconds() + " seconds."
+            : "Auto-refresh off.");
+    }
+    
+    /**
+     * Sets up the background refresh service and its result handlers
+     */
+    private void setupRefreshService() {
+        refreshService = new OrderRefreshService(orderDAO, scheduleCache);
+        refreshService.setOnSucceeded(event -> showRefreshResult(refreshService.getValue()));
+        refreshService.setOnFailed(event -> showRefreshError(refreshService.getException()));
+    }
+    
+    /**
+     * Shows the result of a background refresh; both tables and the
+     * statistics are updated together on the FX thread
+     * 
+     * @param result Loaded orders and their schedule
+     */
+    private void showRefreshResult(OrderRefreshService.Result result) {
+        List<Order> orders = result.getOrders();
+        updateTable(originalOrdersTable, originalOrders, orders);
+        if (result.getSchedule() != null) {
+            updateTable(optimizedOrdersTable, optimizedOrders, result.getSchedule());
+        } else {
             optimizedOrders.clear();
-            
-            statusLabel.setText("Loaded " + orders.size() + " pending order(s) from database.");
-            updateStatistics(orders, null);
-        } catch (Exception e) {
-            String errorMessage = e.getMessage();
-            String detailedMessage = "Failed to load orders: " + errorMessage;
-            
-            // Provide helpful message for database errors
-            if (errorMessage != null && errorMessage.contains("Unknown database")) {
-                detailedMessage = "❌ Database 'restaurant_db' does not exist!\n\n" +
-                                 "QUICK SETUP (Choose one):\n\n" +
-                                 "Option 1 - Command Line:\n" +
-                                 "  mysql -u root -proot < database\\schema.sql\n\n" +
-                                 "Option 2 - MySQL Workbench:\n" +
-                                 "  1. Open database/schema.sql\n" +
-                                 "  2. Click Execute (Ctrl+Shift+Enter)\n\n" +
-                                 "Option 3 - Manual:\n" +
-                                 "  Copy/paste contents of database/schema.sql into MySQL\n\n" +
-                                 "After setup, restart the app and click 'Refresh Orders' again.\n\n" +
-                                 "See SETUP_INSTRUCTIONS.txt for detailed steps.\n\n" +
-                                 "Error: " + errorMessage;
-            } else if (errorMessage != null && (errorMessage.contains("Access denied") || errorMessage.contains("password"))) {
-                detailedMessage = "Database connection failed. Please check:\n" +
-                                 "1. MySQL is running\n" +
-                                 "2. Username and password in DatabaseConnection.java are correct\n" +
-                                 "3. User has proper permissions\n\n" +
-                                 "Error: " + errorMessage;
-            }
-            
-            showAlert("Database Error", detailedMessage, Alert.AlertType.ERROR);
+        }
+        showSchedule(orders, result.getAlgorithm(), result.getSchedule());
+        
+        String message = "Loaded " + orders.size() + " pending order(s) from database";
+        if (result.getAlgorithm() != null) {
+            message += ", scheduled with " + result.getAlgorithm().getAlgorithmName();
+        }
+        statusLabel.setText(message + " at " + LocalTime.now().withNano(0) + ".");
+        manualRefreshRequested = false;
+    }
+    
+    /**
+     * Reports a failed background refresh
+     * 
+     * A refresh requested with the button shows a dialog; failed periodic
+     * refreshes only update the status line while the service backs off.
+     * 
+     * @param error Cause of the failure
+     */
+    private void showRefreshError(Throwable error) {
+        String errorMessage = error != null ? error.getMessage() : null;
+        if (error != null) {
+            error.printStackTrace();
+        }
+        
+        if (manualRefreshRequested || !refreshService.isAutoRefresh()) {
+            manualRefreshRequested = false;
+            showAlert("Database Error", describeDatabaseError(errorMessage), Alert.AlertType.ERROR);
             statusLabel.setText("ERROR: Database connection failed. Please check database setup.");
+        } else {
+            statusLabel.setText(String.format("ERROR: Database unavailable (%s). Retrying in %.0f seconds.",
+                                              errorMessage, refreshService.getCumulativePeriod().toSeconds()));
         }
     }
     
+    /**
+     * Builds a helpful message for a database error
+     * 
+     * @param errorMessage Message of the exception
+     * @return Message to show to the user
+     */
+    private String describeDatabaseError(String errorMessage) {
+        String detailedMessage = "Failed to load orders: " + errorMessage;
+        
+        // Provide helpful message for database errors
+        if (errorMessage != null && errorMessage.contains("Unknown database")) {
+            detailedMessage = "❌ Database 'restaurant_db' does not exist!\n\n" +
+                             "QUICK SETUP (Choose one):\n\n" +
+                             "Option 1 - Command Line:\n" +
+                             "  mysql -u root -proot < database\\schema.sql\n\n" +
+                             "Option 2 - MySQL Workbench:\n" +
+                             "  1. Open database/schema.sql\n" +
+                             "  2. Click Execute (Ctrl+Shift+Enter)\n\n" +
+                             "Option 3 - Manual:\n" +
+                             "  Copy/paste contents of database/schema.sql into MySQL\n\n" +
+                             "After setup, restart the app and click 'Refresh Orders' again.\n\n" +
+                             "See SETUP_INSTRUCTIONS.txt for detailed steps.\n\n" +
+                             "Error: " + errorMessage;
+        } else if (errorMessage != null && (errorMessage.contains("Access denied") || errorMessage.contains("password"))) {
+            detailedMessage = "Database connection failed. Please check:\n" +
+                             "1. MySQL is running\n" +
+                             "2. Username and password in DatabaseConnection.java are correct\n" +
+                             "3. User has proper permissions\n\n" +
+                             "Error: " + errorMessage;
+        }
+        return detailedMessage;
+    }
+    
     /**
      * Applies the selected scheduling algorithm
      */
@@ -248,13 +376,7 @@ public class RestaurantController implements Initializable {
         
         try {
             // Find the selected algorithm
-            SchedulingAlgorithm algorithm = null;
-            for (SchedulingAlgorithm alg : algorithms) {
-                if (alg.getAlgorithmName().equals(selectedAlgorithm)) {
-                    algorithm = alg;
-                    break;
-                }
-            }
+            SchedulingAlgorithm algorithm = SchedulingAlgorithms.find(algorithms, selectedAlgorithm);
             
             if (algorithm == null) {
                 throw new Exception("Algorithm not found");
@@ -263,15 +385,17 @@ public class RestaurantController implements Initializable {
             // Convert ObservableList to regular List for algorithm
             List<Order> ordersToSchedule = new ArrayList<>(originalOrders);
             
-            // Apply the scheduling algorithm
-            List<Order> scheduledOrders = algorithm.schedule(ordersToSchedule);
+            // Apply the scheduling algorithm; unchanged orders reuse the last result
+            List<Order> scheduledOrders = scheduleCache.schedule(algorithm, ordersToSchedule);
             
             // Update optimized table
-            optimizedOrders.clear();
-            optimizedOrders.addAll(scheduledOrders);
+            updateTable(optimizedOrdersTable, optimizedOrders, scheduledOrders);
             
-            // Update statistics
-            updateStatistics(originalOrders, scheduledOrders);
+            // Keep the optimized queue live on later refreshes
+            refreshService.setAlgorithm(algorithm);
+            
+            // Update statistics and the timeline from the projected times of the schedule
+            showSchedule(originalOrders, algorithm, scheduledOrders);
             
             statusLabel.setText("Applied " + algorithm.getAlgorithmName() + " algorithm successfully. " +
                               "Note: Status remains PENDING - algorithms only optimize display order.");
@@ -287,9 +411,9 @@ public class RestaurantController implements Initializable {
      * Updates the statistics label with order information
      * 
      * @param original Original order list
-     * @param optimized Optimized order list (can be null)
+     * @param optimized Optimized schedule (can be null)
      */
-    private void updateStatistics(List<Order> original, List<Order> optimized) {
+    private void updateStatistics(List<Order> original, Schedule optimized) {
         if (original == null || original.isEmpty()) {
             statisticsLabel.setText("No orders to display.");
             return;
@@ -305,21 +429,16 @@ public class RestaurantController implements Initializable {
         stats.append(String.format("Original: %d orders | Total Time: %d min | Avg Time: %.1f min | Total Amount: $%.2f", 
                                   totalOrders, totalTime, avgTime, totalAmount));
         
-        if (optimized != null && !optimized.isEmpty()) {
+        if (optimized != null && optimized.size() > 0) {
             // Calculate statistics for optimized orders
-            int optTotalTime = optimized.stream().mapToInt(Order::getEstimatedTime).sum();
+            int optTotalTime = optimized.getOrders().stream().mapToInt(Order::getEstimatedTime).sum();
             double optAvgTime = optTotalTime / (double) optimized.size();
             
-            // Calculate cumulative waiting time (for comparison)
-            int cumulativeWait = 0;
-            int currentTime = 0;
-            for (Order order : optimized) {
-                cumulativeWait += currentTime;
-                currentTime += order.getEstimatedTime();
-            }
+            // Cumulative waiting time and makespan come with the schedule (for comparison)
+            ScheduleMetrics metrics = optimized.getMetrics();
             
-            stats.append(String.format(" | Optimized Avg Time: %.1f min | Cumulative Wait: %d min", 
-                                      optAvgTime, cumulativeWait));
+            stats.append(String.format(" | Optimized Avg Time: %.1f min | Cumulative Wait: %d min | Makespan: %d min", 
+                                      optAvgTime, metrics.getTotalWait(), metrics.getMakespan()));
         }
         
         statisticsLabel.setText(stats.toString());
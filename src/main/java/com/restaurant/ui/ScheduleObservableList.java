@@ -0,0 +1,126 @@
+package com.restaurant.ui;
+
+import com.restaurant.algorithm.ScheduleDiff;
+import com.restaurant.model.Order;
+import javafx.collections.ModifiableObservableListBase;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Observable list of orders that is updated with minimal edits
+ *
+ * Replacing the content of a TableView's items with clear() and addAll()
+ * makes the table rebuild every row and drop its selection. This list
+ * instead compares the new schedule with the current one using
+ * {@link ScheduleDiff} and applies only the removals, insertions, moves and
+ * in-place replacements. All edits of one update are reported to listeners
+ * as a single change, so the table lays out its visible rows once per update
+ * no matter how many orders changed.
+ *
+ * When most of the list changes (e.g. the first schedule of a new algorithm)
+ * the content is replaced in one step instead, which is cheaper than
+ * thousands of individual moves.
+ */
+public class ScheduleObservableList extends ModifiableObservableListBase<Order> {
+    /** Above this fraction of changed rows the content is replaced wholesale */
+    private static final double REPLACE_THRESHOLD = 0.5;
+
+    private final List<Order> orders = new ArrayList<>();
+
+    /**
+     * Updates the list to match a new schedule
+     *
+     * @param schedule New content in display order
+     * @return Number of changed rows (0 if the schedule is unchanged)
+     */
+    public int update(List<Order> schedule) {
+        List<ScheduleDiff.Change> changes = ScheduleDiff.compute(orders, schedule);
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        if (changes.size() > Math.max(orders.size(), schedule.size()) * REPLACE_THRESHOLD) {
+            setAll(schedule);
+            return changes.size();
+        }
+
+        beginChange();
+        try {
+            applyChanges(changes);
+        } finally {
+            endChange();
+        }
+        return changes.size();
+    }
+
+    /**
+     * Applies an edit script in the order documented by {@link ScheduleDiff}
+     */
+    private void applyChanges(List<ScheduleDiff.Change> changes) {
+        Map<Integer, Integer> indexById = new HashMap<>(orders.size() * 2);
+        for (int i = 0; i < orders.size(); i++) {
+            indexById.put(orders.get(i).getOrderId(), i);
+        }
+
+        // Remove from the back so earlier indexes stay valid
+        List<Integer> removals = new ArrayList<>();
+        for (ScheduleDiff.Change change : changes) {
+            if (change.getType() == ScheduleDiff.ChangeType.REMOVED
+                || change.getType() == ScheduleDiff.ChangeType.MOVED) {
+                removals.add(indexById.get(change.getOrderId()));
+            }
+        }
+        removals.sort((a, b) -> Integer.compare(b, a));
+        for (int index : removals) {
+            remove(index);
+        }
+
+        for (ScheduleDiff.Change change : changes) {
+            switch (change.getType()) {
+                case INSERTED:
+                case MOVED:
+                    add(change.getToIndex(), change.getOrder());
+                    break;
+                default:
+                    break;
+            }
+        }
+        for (ScheduleDiff.Change change : changes) {
+            switch (change.getType()) {
+                case STATUS_CHANGED:
+                case UPDATED:
+                    set(change.getToIndex(), change.getOrder());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    @Override
+    public Order get(int index) {
+        return orders.get(index);
+    }
+
+    @Override
+    public int size() {
+        return orders.size();
+    }
+
+    @Override
+    protected void doAdd(int index, Order element) {
+        orders.add(index, element);
+    }
+
+    @Override
+    protected Order doSet(int index, Order element) {
+        return orders.set(index, element);
+    }
+
+    @Override
+    protected Order doRemove(int index) {
+        return orders.remove(index);
+    }
+}
@@ -0,0 +1,367 @@
+package com.restaurant.ui;
+
+import com.restaurant.algorithm.Schedule;
+import com.restaurant.model.Order;
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.Arrays;
+
+/**
+ * Gantt-style timeline of a schedule, drawn on a Canvas
+ *
+ * Draws the projected start and end of every order of a {@link Schedule},
+ * in minutes from the time of the schedule, with one lane per chef. Each
+ * lane is drawn as a row of bars, with a time axis above and the projected
+ * queue depth (orders not yet started) below. A time-sliced order is one bar
+ * from its first slice to its last.
+ *
+ * Drawing cost depends on the visible area, not on the number of orders:
+ *
+ * - Culling: starts are non-decreasing, so the first visible bar is found by
+ *   binary search and drawing stops at the first bar right of the viewport.
+ * - Level of detail: bars narrower than two pixels are merged into one
+ *   pixel column per lane, and labels are only drawn on bars wide enough
+ *   to hold them.
+ *
+ * Scroll to zoom around the mouse pointer, drag to pan, double-click to fit
+ * the whole schedule.
+ */
+public class ScheduleTimeline extends Region {
+    private static final double AXIS_HEIGHT = 24;
+    private static final double DEPTH_HEIGHT = 48;
+    private static final double LANE_GAP = 6;
+    private static final double MIN_BAR_WIDTH = 2;
+    private static final double MIN_LABEL_WIDTH = 56;
+    private static final double MIN_TICK_SPACING = 80;
+    private static final double MIN_PIXELS_PER_MINUTE = 0.01;
+    private static final double MAX_PIXELS_PER_MINUTE = 200;
+    private static final int[] TICK_STEPS = {1, 2, 5, 10, 15, 30, 60, 120, 240, 480, 960, 1440, 2880, 10080};
+
+    private static final Color BACKGROUND = Color.web("#fdfefe");
+    private static final Color GRID = Color.web("#e5e8e8");
+    private static final Color TEXT = Color.web("#2c3e50");
+    private static final Color NOW_LINE = Color.web("#e74c3c");
+    private static final Color DEPTH_FILL = Color.web("#3498db", 0.35);
+    private static final Color DENSE_BARS = Color.web("#7f8c8d");
+
+    private final Canvas canvas = new Canvas();
+    private final Font labelFont = Font.font(11);
+
+    // Projected layout, in schedule order (starts are non-decreasing)
+    private double[] starts = new double[0];
+    private double[] ends = new double[0];
+    private int[] laneOf = new int[0];
+    private int[] priorities = new int[0];
+    private String[] labels = new String[0];
+    private double longestDuration;
+    private double horizon;
+    private int lanes = 1;
+
+    // Viewport: time at the left edge and zoom level
+    private double offsetMinutes;
+    private double pixelsPerMinute = 8;
+    private boolean fitPending = true;
+
+    private double dragStartX;
+    private double dragStartOffset;
+    private boolean redrawPending;
+
+    /**
+     * Creates an empty timeline with one lane
+     */
+    public ScheduleTimeline() {
+        // Unmanaged so the canvas size never feeds back into the preferred size
+        canvas.setManaged(false);
+        getChildren().add(canvas);
+        setMinSize(200, AXIS_HEIGHT + DEPTH_HEIGHT + 40);
+
+        setOnScroll(event -> {
+            if (event.getDeltaY() == 0) {
+                return;
+            }
+            double factor = event.getDeltaY() > 0 ? 1.25 : 0.8;
+            zoomAround(event.getX(), factor);
+            event.consume();
+        });
+        setOnMousePressed(event -> {
+            dragStartX = event.getX();
+            dragStartOffset = offsetMinutes;
+        });
+        setOnMouseDragged(event -> {
+            offsetMinutes = dragStartOffset - (event.getX() - dragStartX) / pixelsPerMinute;
+            requestRedraw();
+        });
+        setOnMouseClicked(event -> {
+            if (event.getButton() == MouseButton.PRIMARY && event.getClickCount() == 2) {
+                fitToWidth();
+            }
+        });
+    }
+
+    /**
+     * Shows a schedule
+     *
+     * @param schedule Timed schedule, or null to show none
+     */
+    public void setSchedule(Schedule schedule) {
+        int n = schedule != null ? schedule.size() : 0;
+        boolean wasEmpty = starts.length == 0;
+        boolean lanesChanged = schedule != null && schedule.getChefs() != lanes;
+        starts = new double[n];
+        ends = new double[n];
+        laneOf = new int[n];
+        priorities = new int[n];
+        labels = new String[n];
+        longestDuration = 0;
+        horizon = 0;
+        for (int i = 0; i < n; i++) {
+            Order order = schedule.getOrders().get(i);
+            priorities[i] = order.getPriority();
+            labels[i] = order.getOrderNumber();
+            // Starts are non-decreasing: each order starts when a chef becomes free
+            starts[i] = schedule.getStartMinutes(i);
+            ends[i] = schedule.getEndMinutes(i);
+            laneOf[i] = schedule.getChef(i);
+            longestDuration = Math.max(longestDuration, ends[i] - starts[i]);
+            horizon = Math.max(horizon, ends[i]);
+        }
+        if (schedule != null) {
+            lanes = schedule.getChefs();
+        }
+        if (fitPending || wasEmpty || lanesChanged) {
+            fitToWidth();
+        }
+        requestRedraw();
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * Zooms out so the whole schedule fits the width
+     */
+    public void fitToWidth() {
+        double width = canvas.getWidth();
+        if (width <= 0) {
+            fitPending = true;
+            return;
+        }
+        offsetMinutes = 0;
+        pixelsPerMinute = clampZoom(width / Math.max(horizon * 1.02, 15));
+        fitPending = false;
+        requestRedraw();
+    }
+
+    private void zoomAround(double x, double factor) {
+        double anchorMinutes = offsetMinutes + x / pixelsPerMinute;
+        pixelsPerMinute = clampZoom(pixelsPerMinute * factor);
+        offsetMinutes = anchorMinutes - x / pixelsPerMinute;
+        requestRedraw();
+    }
+
+    private static double clampZoom(double value) {
+        return Math.max(MIN_PIXELS_PER_MINUTE, Math.min(MAX_PIXELS_PER_MINUTE, value));
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = snapSizeX(getWidth());
+        double height = snapSizeY(getHeight());
+        if (canvas.getWidth() != width || canvas.getHeight() != height) {
+            canvas.setWidth(width);
+            canvas.setHeight(height);
+            if (fitPending) {
+                fitToWidth();
+            }
+            requestRedraw();
+        }
+    }
+
+    /**
+     * Schedules one redraw for the next pulse; bursts of scroll and drag
+     * events are merged into a single redraw
+     */
+    private void requestRedraw() {
+        if (!redrawPending) {
+            redrawPending = true;
+            Platform.runLater(() -> {
+                redrawPending = false;
+                redraw();
+            });
+        }
+    }
+
+    private void redraw() {
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        g.setFill(BACKGROUND);
+        g.fillRect(0, 0, width, height);
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+
+        double laneAreaHeight = Math.max(lanes, height - AXIS_HEIGHT - DEPTH_HEIGHT);
+        double laneHeight = laneAreaHeight / lanes;
+        double visibleFrom = offsetMinutes;
+        double visibleTo = offsetMinutes + width / pixelsPerMinute;
+
+        drawAxis(g, width, height, visibleFrom, visibleTo);
+        drawBars(g, width, laneHeight, visibleFrom, visibleTo);
+        drawQueueDepth(g, width, height);
+
+        double nowX = -offsetMinutes * pixelsPerMinute;
+        if (nowX >= 0 && nowX <= width) {
+            g.setStroke(NOW_LINE);
+            g.strokeLine(nowX + 0.5, 0, nowX + 0.5, height);
+        }
+    }
+
+    private void drawAxis(GraphicsContext g, double width, double height, double from, double to) {
+        int step = TICK_STEPS[TICK_STEPS.length - 1];
+        for (int candidate : TICK_STEPS) {
+            if (candidate * pixelsPerMinute >= MIN_TICK_SPACING) {
+                step = candidate;
+                break;
+            }
+        }
+
+        g.setFont(labelFont);
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setTextBaseline(VPos.CENTER);
+        g.setLineWidth(1);
+        for (long tick = (long) Math.floor(from / step) * step; tick <= to; tick += step) {
+            double x = Math.floor((tick - offsetMinutes) * pixelsPerMinute) + 0.5;
+            g.setStroke(GRID);
+            g.strokeLine(x, AXIS_HEIGHT, x, height);
+            g.setFill(TEXT);
+            g.fillText(formatMinutes(tick), x + 3, AXIS_HEIGHT / 2);
+        }
+    }
+
+    private void drawBars(GraphicsContext g, double width, double laneHeight, double from, double to) {
+        int n = starts.length;
+        // Bars starting before this index end before the viewport
+        int first = lowerBound(starts, from - longestDuration);
+        int[] lastDensePixel = new int[lanes];
+        Arrays.fill(lastDensePixel, Integer.MIN_VALUE);
+        double barHeight = Math.max(1, laneHeight - LANE_GAP);
+        boolean showLabels = barHeight >= 12;
+
+        g.setTextAlign(TextAlignment.LEFT);
+        g.setTextBaseline(VPos.CENTER);
+        for (int i = first; i < n && starts[i] <= to; i++) {
+            if (ends[i] < from) {
+                continue;
+            }
+            double x = (starts[i] - offsetMinutes) * pixelsPerMinute;
+            double barWidth = (ends[i] - starts[i]) * pixelsPerMinute;
+            double y = AXIS_HEIGHT + laneOf[i] * laneHeight + LANE_GAP / 2;
+
+            if (barWidth < MIN_BAR_WIDTH) {
+                // Level of detail: at most one dense column per pixel and lane
+                int pixel = (int) x;
+                if (pixel == lastDensePixel[laneOf[i]]) {
+                    continue;
+                }
+                lastDensePixel[laneOf[i]] = pixel;
+                g.setFill(DENSE_BARS);
+                g.fillRect(pixel, y, 1, barHeight);
+                continue;
+            }
+
+            g.setFill(priorityColor(priorities[i]));
+            g.fillRect(x, y, barWidth - 1, barHeight);
+            if (showLabels && barWidth >= MIN_LABEL_WIDTH && labels[i] != null) {
+                double textX = Math.max(x, 0) + 4;
+                if (textX + MIN_LABEL_WIDTH - 8 <= x + barWidth) {
+                    g.setFill(Color.WHITE);
+                    g.fillText(labels[i], textX, y + barHeight / 2, x + barWidth - textX - 4);
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws the number of orders not yet started over time; sampled once
+     * per two pixels, each sample is a binary search over the start times
+     */
+    private void drawQueueDepth(GraphicsContext g, double width, double height) {
+        int n = starts.length;
+        double top = height - DEPTH_HEIGHT;
+        g.setStroke(GRID);
+        g.strokeLine(0, top + 0.5, width, top + 0.5);
+        if (n == 0) {
+            return;
+        }
+
+        g.setFill(DEPTH_FILL);
+        for (int x = 0; x < width; x += 2) {
+            double minutes = offsetMinutes + x / pixelsPerMinute;
+            int waiting = n - upperBound(starts, minutes);
+            if (minutes < 0) {
+                waiting = n;
+            }
+            double barHeight = (DEPTH_HEIGHT - 4) * waiting / n;
+            g.fillRect(x, height - barHeight, 2, barHeight);
+        }
+        g.setFill(TEXT);
+        g.setTextBaseline(VPos.TOP);
+        g.fillText("Queue depth (max " + n + ")", 4, top + 2);
+    }
+
+    private static Color priorityColor(int priority) {
+        // 1 (low) = green ... 10 (high) = red
+        double clamped = Math.max(1, Math.min(10, priority));
+        return Color.hsb(120 - (clamped - 1) * 13, 0.65, 0.75);
+    }
+
+    private static String formatMinutes(long minutes) {
+        String sign = minutes > 0 ? "+" : minutes < 0 ? "-" : "";
+        long hours = Math.abs(minutes) / 60;
+        long rest = Math.abs(minutes) % 60;
+        if (hours == 0) {
+            return sign + rest + "m";
+        }
+        return sign + hours + "h" + (rest != 0 ? " " + rest + "m" : "");
+    }
+
+    /** First index whose value is >= key */
+    private static int lowerBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** First index whose value is > key */
+    private static int upperBound(double[] values, double key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}